@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.bluegiga.internal;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.bluetooth.BluetoothAddress;
+import org.openhab.binding.bluetooth.bluegiga.BlueGigaBluetoothDevice;
+import org.openhab.binding.bluetooth.bluegiga.handler.BlueGigaBridgeHandler;
+import org.openhab.binding.bluetooth.bluegiga.internal.BlueGigaAdvertisementProcessor.DeviceResolver;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaScanResponseEvent;
+import org.openhab.binding.bluetooth.bluegiga.internal.enumeration.BluetoothAddressType;
+import org.openhab.binding.bluetooth.bluegiga.internal.enumeration.ScanResponseType;
+
+/**
+ * Tests {@link BlueGigaAdvertisementProcessor}.
+ *
+ * @author agent - Initial contribution
+ */
+public class BlueGigaAdvertisementProcessorTest {
+
+    private static final String DEVICE_A = "00:11:22:33:44:55";
+    private static final String DEVICE_B = "00:11:22:33:44:66";
+
+    // start well after 0, the processor has not accepted anything from a device at time 0
+    private static final long START = TimeUnit.DAYS.toMillis(1);
+
+    private final Map<String, RecordingDevice> devices = new HashMap<>();
+    private final Map<String, Integer> resolutions = new HashMap<>();
+
+    private final DeviceResolver resolver = (address, addressType) -> {
+        resolutions.merge(address.toString(), 1, Integer::sum);
+        return devices.computeIfAbsent(address.toString(), a -> new RecordingDevice(address, addressType));
+    };
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    private BlueGigaBridgeHandler bridgeHandler;
+
+    @Before
+    public void setup() {
+        bridgeHandler = mock(BlueGigaBridgeHandler.class);
+    }
+
+    @Test
+    public void testDuplicatesAreDroppedWithinDuplicateInterval() {
+        BlueGigaAdvertisementProcessor processor = new BlueGigaAdvertisementProcessor(resolver, 0, 1000,
+                Runnable::run);
+
+        processor.bluegigaEventReceived(advertisement(DEVICE_A, 1), START);
+        processor.bluegigaEventReceived(advertisement(DEVICE_A, 1), START + 10);
+        processor.bluegigaEventReceived(advertisement(DEVICE_A, 2), START + 20);
+        processor.bluegigaEventReceived(advertisement(DEVICE_A, 2), START + 999);
+        processor.bluegigaEventReceived(advertisement(DEVICE_A, 2), START + 1020);
+
+        assertEquals(5, processor.getReceivedCount());
+        assertEquals(3, processor.getProcessedCount());
+        assertEquals(2, processor.getDroppedCount());
+        assertArrayEquals(new int[] { 1, 2, 2 }, devices.get(DEVICE_A).getValues());
+    }
+
+    @Test
+    public void testMinIntervalLimitsEachPacketType() {
+        BlueGigaAdvertisementProcessor processor = new BlueGigaAdvertisementProcessor(resolver, 100, 0,
+                Runnable::run);
+
+        processor.bluegigaEventReceived(advertisement(DEVICE_A, 1), START);
+        processor.bluegigaEventReceived(advertisement(DEVICE_A, 2), START + 50);
+        processor.bluegigaEventReceived(scanResponse(DEVICE_A, 3), START + 60);
+        processor.bluegigaEventReceived(advertisement(DEVICE_A, 4), START + 100);
+        processor.bluegigaEventReceived(scanResponse(DEVICE_A, 5), START + 120);
+        processor.bluegigaEventReceived(advertisement(DEVICE_B, 6), START + 120);
+
+        assertEquals(4, processor.getProcessedCount());
+        assertEquals(2, processor.getDroppedCount());
+        assertArrayEquals(new int[] { 1, 3, 4 }, devices.get(DEVICE_A).getValues());
+        assertArrayEquals(new int[] { 6 }, devices.get(DEVICE_B).getValues());
+    }
+
+    @Test
+    public void testPendingAdvertisementsAreCoalescedPerPacketType() {
+        BlueGigaAdvertisementProcessor processor = new BlueGigaAdvertisementProcessor(resolver, 0, 0, tasks::add);
+
+        processor.bluegigaEventReceived(scanResponse(DEVICE_A, 1), START);
+        processor.bluegigaEventReceived(advertisement(DEVICE_A, 2), START + 1);
+        processor.bluegigaEventReceived(advertisement(DEVICE_A, 3), START + 2);
+        processor.bluegigaEventReceived(advertisement(DEVICE_A, 4), START + 3);
+
+        // one task per device, however many advertisements are pending
+        assertEquals(1, tasks.size());
+        runTasks();
+
+        assertEquals(2, processor.getProcessedCount());
+        assertEquals(2, processor.getCoalescedCount());
+        // the scan response is kept although newer advertisements arrived
+        assertArrayEquals(new int[] { 4, 1 }, devices.get(DEVICE_A).getValues());
+
+        processor.bluegigaEventReceived(advertisement(DEVICE_A, 5), START + 4);
+        assertEquals(1, tasks.size());
+        runTasks();
+        assertArrayEquals(new int[] { 4, 1, 5 }, devices.get(DEVICE_A).getValues());
+    }
+
+    @Test
+    public void testAdvertisementArrivingDuringProcessingIsProcessed() {
+        BlueGigaAdvertisementProcessor processor = new BlueGigaAdvertisementProcessor(resolver, 0, 0, tasks::add);
+        processor.bluegigaEventReceived(advertisement(DEVICE_A, 1), START);
+        devices.get(DEVICE_A).onScanEvent = () -> {
+            devices.get(DEVICE_A).onScanEvent = null;
+            processor.bluegigaEventReceived(advertisement(DEVICE_A, 2), START + 1);
+        };
+
+        runTasks();
+
+        assertArrayEquals(new int[] { 1, 2 }, devices.get(DEVICE_A).getValues());
+        assertEquals(0, processor.getCoalescedCount());
+    }
+
+    @Test
+    public void testAdvertisementArrivingWhileTaskFinishesIsProcessed() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        BlueGigaAdvertisementProcessor processor = new BlueGigaAdvertisementProcessor(resolver, 0, 0, executor);
+        BlueGigaScanResponseEvent[] advertisements = new BlueGigaScanResponseEvent[256];
+        for (int i = 0; i < advertisements.length; i++) {
+            advertisements[i] = advertisement(DEVICE_A, i);
+        }
+        try {
+            for (int i = 1; i <= 20000; i++) {
+                long processed = processor.getProcessedCount();
+                processor.bluegigaEventReceived(advertisements[i & 0xFF], START + i);
+
+                // offer the next advertisement as soon as this one was handed to the device, i.e. while the device
+                // task is looking for further advertisements and about to finish. If the task did not check for
+                // advertisements which arrived in the meantime, this one would never be processed.
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+                while (processor.getProcessedCount() == processed) {
+                    assertTrue("advertisement " + i + " was not processed", System.nanoTime() < deadline);
+                }
+            }
+            assertEquals(0, processor.getCoalescedCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testIdleDevicesAreEvicted() {
+        BlueGigaAdvertisementProcessor processor = new BlueGigaAdvertisementProcessor(resolver, 0, 0, tasks::add);
+
+        processor.bluegigaEventReceived(advertisement(DEVICE_A, 1), START);
+        runTasks();
+        processor.bluegigaEventReceived(advertisement(DEVICE_B, 2), START);
+        assertEquals(2, processor.getDeviceCount());
+
+        // device B still has a pending advertisement and is kept
+        long idle = START + BlueGigaAdvertisementProcessor.IDLE_TIMEOUT;
+        processor.bluegigaEventReceived(scanResponse(DEVICE_B, 3), idle);
+        assertEquals(1, processor.getDeviceCount());
+        assertEquals(1, (int) resolutions.get(DEVICE_B));
+
+        // device A is interned again when it is heard the next time
+        processor.bluegigaEventReceived(advertisement(DEVICE_A, 4), idle + 1);
+        assertEquals(2, processor.getDeviceCount());
+        assertEquals(2, (int) resolutions.get(DEVICE_A));
+
+        // once its advertisements are processed, device B is evicted as well
+        runTasks();
+        processor.bluegigaEventReceived(advertisement(DEVICE_A, 5),
+                idle + BlueGigaAdvertisementProcessor.IDLE_TIMEOUT);
+        assertEquals(1, processor.getDeviceCount());
+        assertEquals(2, (int) resolutions.get(DEVICE_A));
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static BlueGigaScanResponseEvent advertisement(String sender, int value) {
+        return scanEvent(sender, ScanResponseType.CONNECTABLE_ADVERTISEMENT, value);
+    }
+
+    private static BlueGigaScanResponseEvent scanResponse(String sender, int value) {
+        return scanEvent(sender, ScanResponseType.SCAN_RESPONSE, value);
+    }
+
+    private static BlueGigaScanResponseEvent scanEvent(String sender, ScanResponseType packetType, int value) {
+        String[] address = sender.split(":");
+        int[] packet = new int[17];
+        packet[0] = 0x80;
+        packet[1] = 13;
+        packet[2] = BlueGigaScanResponseEvent.COMMAND_CLASS;
+        packet[3] = BlueGigaScanResponseEvent.COMMAND_METHOD;
+        packet[4] = 0xC4; // -60 dBm
+        packet[5] = packetType == ScanResponseType.SCAN_RESPONSE ? 4 : 0;
+        for (int i = 0; i < 6; i++) {
+            packet[6 + i] = Integer.parseInt(address[5 - i], 16);
+        }
+        packet[12] = 0; // public address
+        packet[13] = 0xFF;
+        packet[14] = 2;
+        packet[15] = 0xFF;
+        packet[16] = value;
+        return new BlueGigaScanResponseEvent(packet);
+    }
+
+    private class RecordingDevice extends BlueGigaBluetoothDevice {
+        private final List<Integer> values = new CopyOnWriteArrayList<>();
+        private volatile Runnable onScanEvent;
+
+        RecordingDevice(BluetoothAddress address, BluetoothAddressType addressType) {
+            super(bridgeHandler, address, addressType);
+        }
+
+        @Override
+        public void handleScanEvent(BlueGigaScanResponseEvent scanEvent) {
+            values.add(scanEvent.getData()[1]);
+            Runnable callback = onScanEvent;
+            if (callback != null) {
+                callback.run();
+            }
+        }
+
+        int[] getValues() {
+            return values.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.bluegiga.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.system.BlueGigaAddressGetCommand;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.system.BlueGigaAddressGetResponse;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.system.BlueGigaGetConnectionsCommand;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.system.BlueGigaGetConnectionsResponse;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.system.BlueGigaHelloCommand;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.system.BlueGigaHelloResponse;
+
+/**
+ * Tests the transaction handling of {@link BlueGigaSerialHandler}.
+ *
+ * @author agent - Initial contribution
+ */
+public class BlueGigaSerialHandlerTest {
+
+    private static final int[] HELLO = { 0x00, 0x00, 0x00, 0x01 };
+    private static final int[] ADDRESS_GET = { 0x00, 0x00, 0x00, 0x02 };
+    private static final int[] GET_CONNECTIONS = { 0x00, 0x00, 0x00, 0x06 };
+
+    private static final int[] HELLO_RESPONSE = { 0x00, 0x00, 0x00, 0x01 };
+    private static final int[] ADDRESS_GET_RESPONSE = { 0x00, 0x06, 0x00, 0x02, 0x01, 0x02, 0x03, 0x04, 0x05, 0x06 };
+    private static final int[] GET_CONNECTIONS_RESPONSE = { 0x00, 0x01, 0x00, 0x06, 0x04 };
+
+    private final BlockingQueue<Integer> received = new LinkedBlockingQueue<>();
+    private final ByteArrayOutputStream sent = new ByteArrayOutputStream();
+
+    private BlueGigaSerialHandler handler;
+
+    @Before
+    public void setup() {
+        InputStream inputStream = new InputStream() {
+            @Override
+            public int read() {
+                try {
+                    return received.take();
+                } catch (InterruptedException e) {
+                    return -1;
+                }
+            }
+        };
+        handler = new BlueGigaSerialHandler(inputStream, sent);
+    }
+
+    @After
+    public void tearDown() {
+        handler.close(1000);
+    }
+
+    @Test
+    public void testResponseCompletesTransaction() throws Exception {
+        CompletableFuture<BlueGigaGetConnectionsResponse> future = handler
+                .sendTransactionAsync(new BlueGigaGetConnectionsCommand(), BlueGigaGetConnectionsResponse.class);
+        assertSent(GET_CONNECTIONS);
+        assertFalse(future.isDone());
+
+        receive(GET_CONNECTIONS_RESPONSE);
+
+        assertEquals(4, future.get(1, TimeUnit.SECONDS).getMaxconn());
+        assertEquals(1, handler.getTransactionStatistics().get("BlueGigaGetConnectionsCommand").getCount());
+    }
+
+    @Test
+    public void testTransactionsAreSentOneAtATime() throws Exception {
+        CompletableFuture<BlueGigaHelloResponse> hello = handler.sendTransactionAsync(new BlueGigaHelloCommand(),
+                BlueGigaHelloResponse.class);
+        CompletableFuture<BlueGigaAddressGetResponse> addressGet = handler
+                .sendTransactionAsync(new BlueGigaAddressGetCommand(), BlueGigaAddressGetResponse.class);
+        assertSent(HELLO);
+
+        // a response to a command which is not outstanding is ignored
+        receive(ADDRESS_GET_RESPONSE);
+        receive(HELLO_RESPONSE);
+        hello.get(1, TimeUnit.SECONDS);
+        assertFalse(addressGet.isDone());
+        assertSent(HELLO, ADDRESS_GET);
+
+        receive(ADDRESS_GET_RESPONSE);
+        assertEquals("06:05:04:03:02:01", addressGet.get(1, TimeUnit.SECONDS).getAddress());
+    }
+
+    @Test
+    public void testUnexpectedResponseClassFailsTransaction() throws Exception {
+        CompletableFuture<BlueGigaAddressGetResponse> future = handler
+                .sendTransactionAsync(new BlueGigaHelloCommand(), BlueGigaAddressGetResponse.class);
+        assertSent(HELLO);
+
+        receive(HELLO_RESPONSE);
+
+        try {
+            future.get(1, TimeUnit.SECONDS);
+            fail("expected the transaction to fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof BlueGigaException);
+        }
+    }
+
+    @Test
+    public void testTimeoutFailsTransactionAndSendsNext() throws Exception {
+        CompletableFuture<BlueGigaHelloResponse> hello = handler.sendTransactionAsync(new BlueGigaHelloCommand(),
+                BlueGigaHelloResponse.class);
+        CompletableFuture<BlueGigaGetConnectionsResponse> getConnections = handler
+                .sendTransactionAsync(new BlueGigaGetConnectionsCommand(), BlueGigaGetConnectionsResponse.class);
+
+        try {
+            hello.get(5, TimeUnit.SECONDS);
+            fail("expected the transaction to time out");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        assertSent(HELLO, GET_CONNECTIONS);
+
+        // the late response to the timed out command is ignored
+        receive(HELLO_RESPONSE);
+        receive(GET_CONNECTIONS_RESPONSE);
+        assertEquals(4, getConnections.get(1, TimeUnit.SECONDS).getMaxconn());
+        assertEquals(1, handler.getTransactionStatistics().get("BlueGigaHelloCommand").getFailures());
+    }
+
+    @Test
+    public void testCancelledTransactionIsRemovedFromQueue() throws Exception {
+        CompletableFuture<BlueGigaHelloResponse> hello = handler.sendTransactionAsync(new BlueGigaHelloCommand(),
+                BlueGigaHelloResponse.class);
+        CompletableFuture<BlueGigaGetConnectionsResponse> getConnections = handler
+                .sendTransactionAsync(new BlueGigaGetConnectionsCommand(), BlueGigaGetConnectionsResponse.class);
+        assertSent(HELLO);
+
+        getConnections.cancel(true);
+
+        // a transaction timing out in sendTransaction is cancelled as well
+        try {
+            handler.sendTransaction(new BlueGigaGetConnectionsCommand(), BlueGigaGetConnectionsResponse.class, 100);
+            fail("expected the transaction to time out");
+        } catch (TimeoutException e) {
+            // expected
+        }
+
+        CompletableFuture<BlueGigaAddressGetResponse> addressGet = handler
+                .sendTransactionAsync(new BlueGigaAddressGetCommand(), BlueGigaAddressGetResponse.class);
+        receive(HELLO_RESPONSE);
+        hello.get(1, TimeUnit.SECONDS);
+
+        // neither of the cancelled transactions is sent
+        assertSent(HELLO, ADDRESS_GET);
+        receive(ADDRESS_GET_RESPONSE);
+        addressGet.get(1, TimeUnit.SECONDS);
+        assertNull(handler.getTransactionStatistics().get("BlueGigaGetConnectionsCommand"));
+    }
+
+    @Test
+    public void testCloseFailsPendingTransactions() throws Exception {
+        CompletableFuture<BlueGigaHelloResponse> hello = handler.sendTransactionAsync(new BlueGigaHelloCommand(),
+                BlueGigaHelloResponse.class);
+        CompletableFuture<BlueGigaAddressGetResponse> addressGet = handler
+                .sendTransactionAsync(new BlueGigaAddressGetCommand(), BlueGigaAddressGetResponse.class);
+
+        handler.close(1000);
+
+        assertTrue(hello.isCompletedExceptionally());
+        assertTrue(addressGet.isCompletedExceptionally());
+        assertSent(HELLO);
+    }
+
+    private void receive(int[] packet) {
+        for (int value : packet) {
+            received.add(value);
+        }
+    }
+
+    /**
+     * Waits until the given frames are sent and checks that nothing else was sent
+     */
+    private void assertSent(int[]... frames) throws InterruptedException {
+        int[] expected = Arrays.stream(frames).flatMapToInt(Arrays::stream).toArray();
+        long deadline = System.currentTimeMillis() + 1000;
+        while (sent.size() < expected.length && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        // give the handler the chance to send a frame too many
+        Thread.sleep(50);
+
+        byte[] bytes = sent.toByteArray();
+        int[] actual = new int[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            actual[i] = bytes[i] & 0xFF;
+        }
+        assertArrayEquals(expected, actual);
+    }
+}
@@ -31,4 +31,9 @@ public class BlueGigaAdapterConstants {
     public static final String PROPERTY_LINKLAYER = "linklayer";
     public static final String PROPERTY_PROTOCOL = "protocol";
     public static final String PROPERTY_DISCOVERY = "discovery";
+    public static final String CONFIGURATION_MIN_ADVERTISEMENT_INTERVAL = "minAdvertisementInterval";
+    public static final String CONFIGURATION_DUPLICATE_ADVERTISEMENT_INTERVAL = "duplicateAdvertisementInterval";
+
+    public static final long DEFAULT_MIN_ADVERTISEMENT_INTERVAL = 0;
+    public static final long DEFAULT_DUPLICATE_ADVERTISEMENT_INTERVAL = 1000;
 }
@@ -13,7 +13,10 @@
 package org.openhab.binding.bluetooth.bluegiga;
 
 import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.openhab.binding.bluetooth.BluetoothAddress;
 import org.openhab.binding.bluetooth.BluetoothCharacteristic;
@@ -21,6 +24,7 @@ import org.openhab.binding.bluetooth.BluetoothCompletionStatus;
 import org.openhab.binding.bluetooth.BluetoothDevice;
 import org.openhab.binding.bluetooth.BluetoothService;
 import org.openhab.binding.bluetooth.bluegiga.handler.BlueGigaBridgeHandler;
+import org.openhab.binding.bluetooth.bluegiga.internal.BlueGigaAdvertisementProcessor;
 import org.openhab.binding.bluetooth.bluegiga.internal.BlueGigaEventListener;
 import org.openhab.binding.bluetooth.bluegiga.internal.BlueGigaResponse;
 import org.openhab.binding.bluetooth.bluegiga.internal.command.attributeclient.BlueGigaAttributeValueEvent;
@@ -76,6 +80,26 @@ public class BlueGigaBluetoothDevice extends BluetoothDevice implements BlueGiga
     // The connection handle if the device is connected
     private int connection = -1;
 
+    // The maximum number of reads and writes waiting for the current procedure to complete
+    private static final int MAX_PENDING_OPERATIONS = 32;
+
+    // Reads and writes waiting for the current procedure on this connection to complete.
+    // This also guards the procedure state.
+    private final Queue<GattOperation> pendingOperations = new LinkedList<>();
+
+    /**
+     * A characteristic read or write waiting to be started
+     */
+    private static class GattOperation {
+        private final BlueGigaProcedure procedure;
+        private final BluetoothCharacteristic characteristic;
+
+        GattOperation(BlueGigaProcedure procedure, BluetoothCharacteristic characteristic) {
+            this.procedure = procedure;
+            this.characteristic = characteristic;
+        }
+    }
+
     /**
      * Creates a new {@link BlueGigaBluetoothDevice} which extends {@link BluetoothDevice} for the BlueGiga
      * implementation
@@ -124,161 +148,225 @@ public class BlueGigaBluetoothDevice extends BluetoothDevice implements BlueGiga
 
     @Override
     public boolean discoverServices() {
-        // Start by requesting all the services
-        procedureProgress = BlueGigaProcedure.GET_SERVICES;
+        synchronized (pendingOperations) {
+            // Start by requesting all the services
+            procedureProgress = BlueGigaProcedure.GET_SERVICES;
+        }
         return bgHandler.bgFindPrimaryServices(connection);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If another read or write is in progress on this connection, the read is queued and started once the current
+     * operation completes. Operations on different connections are processed concurrently by the dongle.
+     */
     @Override
     public boolean readCharacteristic(BluetoothCharacteristic characteristic) {
         if (characteristic == null || characteristic.getHandle() == 0) {
             return false;
         }
 
-        if (!bgHandler.bgReadCharacteristic(connection, characteristic.getHandle())) {
-            return false;
-        }
-
-        if (procedureProgress != BlueGigaProcedure.NONE) {
-            return false;
-        }
-
-        procedureProgress = BlueGigaProcedure.CHARACTERISTIC_READ;
-        procedureCharacteristic = characteristic;
-
-        return true;
+        return queueOperation(new GattOperation(BlueGigaProcedure.CHARACTERISTIC_READ, characteristic));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If another read or write is in progress on this connection, the write is queued and started once the current
+     * operation completes. Operations on different connections are processed concurrently by the dongle.
+     */
     @Override
     public boolean writeCharacteristic(BluetoothCharacteristic characteristic) {
         if (characteristic == null || characteristic.getHandle() == 0) {
             return false;
         }
 
-        if (procedureProgress != BlueGigaProcedure.NONE) {
-            return false;
-        }
+        return queueOperation(new GattOperation(BlueGigaProcedure.CHARACTERISTIC_WRITE, characteristic));
+    }
 
-        if (!bgHandler.bgWriteCharacteristic(connection, characteristic.getHandle(), characteristic.getValue())) {
-            return false;
-        }
+    private boolean queueOperation(GattOperation operation) {
+        synchronized (pendingOperations) {
+            if (connection == -1) {
+                return false;
+            }
 
-        procedureProgress = BlueGigaProcedure.CHARACTERISTIC_WRITE;
-        procedureCharacteristic = characteristic;
+            if (procedureProgress != BlueGigaProcedure.NONE) {
+                if (pendingOperations.size() >= MAX_PENDING_OPERATIONS) {
+                    logger.debug("BlueGiga operation queue of {} is full", address);
+                    return false;
+                }
+                pendingOperations.add(operation);
+                return true;
+            }
 
-        return true;
+            startOperation(operation);
+            return true;
+        }
     }
 
-    @Override
-    public void bluegigaEventReceived(BlueGigaResponse event) {
-        if (event instanceof BlueGigaScanResponseEvent) {
-            BlueGigaScanResponseEvent scanEvent = (BlueGigaScanResponseEvent) event;
+    /**
+     * Starts a read or write procedure without waiting for the dongle. Must be called with the pendingOperations lock
+     * held and no procedure in progress.
+     */
+    private void startOperation(GattOperation operation) {
+        procedureProgress = operation.procedure;
+        procedureCharacteristic = operation.characteristic;
+
+        int handle = operation.characteristic.getHandle();
+        try {
+            CompletableFuture<Boolean> started = operation.procedure == BlueGigaProcedure.CHARACTERISTIC_READ
+                    ? bgHandler.bgReadCharacteristicAsync(connection, handle)
+                    : bgHandler.bgWriteCharacteristicAsync(connection, handle, operation.characteristic.getValue());
+            started.thenAccept(success -> {
+                if (!success) {
+                    operationFailed(operation);
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.debug("BlueGiga failed to start {} of {}: {}", operation.procedure, address, e.getMessage());
+            operationFailed(operation);
+        }
+    }
 
-            // Check if this is addressed to this device
-            if (!address.equals(new BluetoothAddress(scanEvent.getSender()))) {
+    private void operationFailed(GattOperation operation) {
+        synchronized (pendingOperations) {
+            if (procedureProgress != operation.procedure || procedureCharacteristic != operation.characteristic) {
                 return;
             }
+            procedureProgress = BlueGigaProcedure.NONE;
+            procedureCharacteristic = null;
+            notifyOperationFailed(operation);
+            startNextOperation();
+        }
+    }
 
-            // Set device properties
-            rssi = scanEvent.getRssi();
-            addressType = scanEvent.getAddressType();
-
-            byte[] manufacturerData = null;
-
-            // If the packet contains data, then process it and add anything relevant to the device...
-            if (scanEvent.getData() != null) {
-                EirPacket eir = new EirPacket(scanEvent.getData());
-                for (EirDataType record : eir.getRecords().keySet()) {
-                    switch (record) {
-                        case EIR_FLAGS:
-                            break;
-                        case EIR_MANUFACTURER_SPECIFIC:
-                            manufacturerData = (byte[]) eir.getRecord(EirDataType.EIR_MANUFACTURER_SPECIFIC);
-                            if (manufacturerData.length > 2) {
-                                int id = manufacturerData[0] + (manufacturerData[1] << 8);
-                                manufacturer = id;
-                            }
-                            break;
-                        case EIR_NAME_LONG:
-                        case EIR_NAME_SHORT:
-                            name = (String) eir.getRecord(record);
-                            break;
-                        case EIR_SLAVEINTERVALRANGE:
-                            break;
-                        case EIR_SVC_DATA_UUID128:
-                            break;
-                        case EIR_SVC_DATA_UUID16:
-                            break;
-                        case EIR_SVC_DATA_UUID32:
-                            break;
-                        case EIR_SVC_UUID128_INCOMPLETE:
-                        case EIR_SVC_UUID16_COMPLETE:
-                        case EIR_SVC_UUID16_INCOMPLETE:
-                        case EIR_SVC_UUID32_COMPLETE:
-                        case EIR_SVC_UUID32_INCOMPLETE:
-                        case EIR_SVC_UUID128_COMPLETE:
-                            // addServices((List<UUID>) eir.getRecord(record));
-                            break;
-                        case EIR_TXPOWER:
-                            txPower = (int) eir.getRecord(EirDataType.EIR_TXPOWER);
-                            break;
-                        default:
-                            break;
-                    }
-                }
-            }
+    private void notifyOperationFailed(GattOperation operation) {
+        BluetoothEventType eventType = operation.procedure == BlueGigaProcedure.CHARACTERISTIC_READ
+                ? BluetoothEventType.CHARACTERISTIC_READ_COMPLETE
+                : BluetoothEventType.CHARACTERISTIC_WRITE_COMPLETE;
+        notifyListeners(eventType, operation.characteristic, BluetoothCompletionStatus.ERROR);
+    }
 
-            if (connectionState == ConnectionState.DISCOVERING) {
-                // We want to wait for an advertisement and a scan response before we call this discovered.
-                // The intention is to gather a reasonable amount of data about the device given devices send
-                // different data in different packets...
-                // Note that this is possible a bit arbitrary and may be refined later.
-                scanResponses.add(scanEvent.getPacketType());
-
-                if ((scanResponses.contains(ScanResponseType.CONNECTABLE_ADVERTISEMENT)
-                        || scanResponses.contains(ScanResponseType.DISCOVERABLE_ADVERTISEMENT)
-                        || scanResponses.contains(ScanResponseType.NON_CONNECTABLE_ADVERTISEMENT))
-                        && scanResponses.contains(ScanResponseType.SCAN_RESPONSE)) {
-                    // Set our state to disconnected
-                    connectionState = ConnectionState.DISCONNECTED;
-                    connection = -1;
-
-                    // But notify listeners that the state is now DISCOVERED
-                    notifyListeners(BluetoothEventType.CONNECTION_STATE,
-                            new BluetoothConnectionStatusNotification(ConnectionState.DISCOVERED));
-
-                    // Notify the bridge - for inbox notifications
-                    bgHandler.deviceDiscovered(this);
-                }
-            }
+    /**
+     * Starts the next queued operation, if any. Must be called with the pendingOperations lock held.
+     */
+    private void startNextOperation() {
+        GattOperation next = pendingOperations.poll();
+        if (next != null) {
+            startOperation(next);
+        }
+    }
 
-            // Notify listeners of all scan records - for RSSI, beacon processing (etc)
-            BluetoothScanNotification scanNotification = new BluetoothScanNotification();
-            scanNotification.setRssi(scanEvent.getRssi());
-
-            switch (scanEvent.getPacketType()) {
-                case CONNECTABLE_ADVERTISEMENT:
-                case DISCOVERABLE_ADVERTISEMENT:
-                case NON_CONNECTABLE_ADVERTISEMENT:
-                    scanNotification.setBeaconType(BluetoothBeaconType.BEACON_ADVERTISEMENT);
-                    break;
-                case SCAN_RESPONSE:
-                    scanNotification.setBeaconType(BluetoothBeaconType.BEACON_SCANRESPONSE);
-                    break;
-                default:
-                    break;
+    /**
+     * Processes an advertisement or scan response received from this device.
+     * <p>
+     * This is called by the {@link BlueGigaAdvertisementProcessor} of the bridge, which ensures that advertisements of
+     * one device are never processed concurrently.
+     *
+     * @param scanEvent the {@link BlueGigaScanResponseEvent} sent by this device
+     */
+    public void handleScanEvent(BlueGigaScanResponseEvent scanEvent) {
+        // Set device properties
+        rssi = scanEvent.getRssi();
+        addressType = scanEvent.getAddressType();
+
+        byte[] manufacturerData = null;
+
+        // If the packet contains data, then process it and add anything relevant to the device...
+        if (scanEvent.getData() != null) {
+            EirPacket eir = new EirPacket(scanEvent.getData());
+            for (EirDataType record : eir.getRecords().keySet()) {
+                switch (record) {
+                    case EIR_FLAGS:
+                        break;
+                    case EIR_MANUFACTURER_SPECIFIC:
+                        manufacturerData = (byte[]) eir.getRecord(EirDataType.EIR_MANUFACTURER_SPECIFIC);
+                        if (manufacturerData.length > 2) {
+                            int id = manufacturerData[0] + (manufacturerData[1] << 8);
+                            manufacturer = id;
+                        }
+                        break;
+                    case EIR_NAME_LONG:
+                    case EIR_NAME_SHORT:
+                        name = (String) eir.getRecord(record);
+                        break;
+                    case EIR_SLAVEINTERVALRANGE:
+                        break;
+                    case EIR_SVC_DATA_UUID128:
+                        break;
+                    case EIR_SVC_DATA_UUID16:
+                        break;
+                    case EIR_SVC_DATA_UUID32:
+                        break;
+                    case EIR_SVC_UUID128_INCOMPLETE:
+                    case EIR_SVC_UUID16_COMPLETE:
+                    case EIR_SVC_UUID16_INCOMPLETE:
+                    case EIR_SVC_UUID32_COMPLETE:
+                    case EIR_SVC_UUID32_INCOMPLETE:
+                    case EIR_SVC_UUID128_COMPLETE:
+                        // addServices((List<UUID>) eir.getRecord(record));
+                        break;
+                    case EIR_TXPOWER:
+                        txPower = (int) eir.getRecord(EirDataType.EIR_TXPOWER);
+                        break;
+                    default:
+                        break;
+                }
             }
+        }
 
-            if (manufacturerData != null) {
+        if (connectionState == ConnectionState.DISCOVERING) {
+            // We want to wait for an advertisement and a scan response before we call this discovered.
+            // The intention is to gather a reasonable amount of data about the device given devices send
+            // different data in different packets...
+            // Note that this is possible a bit arbitrary and may be refined later.
+            scanResponses.add(scanEvent.getPacketType());
+
+            if ((scanResponses.contains(ScanResponseType.CONNECTABLE_ADVERTISEMENT)
+                    || scanResponses.contains(ScanResponseType.DISCOVERABLE_ADVERTISEMENT)
+                    || scanResponses.contains(ScanResponseType.NON_CONNECTABLE_ADVERTISEMENT))
+                    && scanResponses.contains(ScanResponseType.SCAN_RESPONSE)) {
+                // Set our state to disconnected
+                connectionState = ConnectionState.DISCONNECTED;
+                connection = -1;
+
+                // But notify listeners that the state is now DISCOVERED
+                notifyListeners(BluetoothEventType.CONNECTION_STATE,
+                        new BluetoothConnectionStatusNotification(ConnectionState.DISCOVERED));
 
-                scanNotification.setManufacturerData(manufacturerData);
+                // Notify the bridge - for inbox notifications
+                bgHandler.deviceDiscovered(this);
             }
+        }
 
-            notifyListeners(BluetoothEventType.SCAN_RECORD, scanNotification);
+        // Notify listeners of all scan records - for RSSI, beacon processing (etc)
+        BluetoothScanNotification scanNotification = new BluetoothScanNotification();
+        scanNotification.setRssi(scanEvent.getRssi());
+
+        switch (scanEvent.getPacketType()) {
+            case CONNECTABLE_ADVERTISEMENT:
+            case DISCOVERABLE_ADVERTISEMENT:
+            case NON_CONNECTABLE_ADVERTISEMENT:
+                scanNotification.setBeaconType(BluetoothBeaconType.BEACON_ADVERTISEMENT);
+                break;
+            case SCAN_RESPONSE:
+                scanNotification.setBeaconType(BluetoothBeaconType.BEACON_SCANRESPONSE);
+                break;
+            default:
+                break;
+        }
 
-            return;
+        if (manufacturerData != null) {
+
+            scanNotification.setManufacturerData(manufacturerData);
         }
 
+        notifyListeners(BluetoothEventType.SCAN_RECORD, scanNotification);
+    }
+
+    @Override
+    public void bluegigaEventReceived(BlueGigaResponse event) {
         if (event instanceof BlueGigaGroupFoundEvent) {
             // A Service has been discovered
             BlueGigaGroupFoundEvent serviceEvent = (BlueGigaGroupFoundEvent) event;
@@ -330,42 +418,59 @@ public class BlueGigaBluetoothDevice extends BluetoothDevice implements BlueGiga
                 return;
             }
 
-            if (procedureProgress == null) {
-                logger.debug("BlueGiga procedure completed but procedure is null with connection {}, address {}",
-                        connection, address);
-                return;
+            boolean findCharacteristics = false;
+            synchronized (pendingOperations) {
+                if (procedureProgress == null) {
+                    logger.debug("BlueGiga procedure completed but procedure is null with connection {}, address {}",
+                            connection, address);
+                    return;
+                }
+
+                // The current procedure is now complete - move on...
+                switch (procedureProgress) {
+                    case GET_SERVICES:
+                        // We've downloaded all services, now get the characteristics once the lock is released
+                        procedureProgress = BlueGigaProcedure.GET_CHARACTERISTICS;
+                        findCharacteristics = true;
+                        break;
+                    case GET_CHARACTERISTICS:
+                        // We've downloaded all characteristics
+                        procedureProgress = BlueGigaProcedure.NONE;
+                        notifyListeners(BluetoothEventType.SERVICES_DISCOVERED);
+                        startNextOperation();
+                        break;
+                    case CHARACTERISTIC_READ:
+                        // The read failed
+                        notifyListeners(BluetoothEventType.CHARACTERISTIC_READ_COMPLETE, procedureCharacteristic,
+                                BluetoothCompletionStatus.ERROR);
+                        procedureProgress = BlueGigaProcedure.NONE;
+                        procedureCharacteristic = null;
+                        startNextOperation();
+                        break;
+                    case CHARACTERISTIC_WRITE:
+                        // The write completed - failure or success
+                        BluetoothCompletionStatus result = completedEvent.getResult() == BgApiResponse.SUCCESS
+                                ? BluetoothCompletionStatus.SUCCESS
+                                : BluetoothCompletionStatus.ERROR;
+                        notifyListeners(BluetoothEventType.CHARACTERISTIC_WRITE_COMPLETE, procedureCharacteristic, result);
+                        procedureProgress = BlueGigaProcedure.NONE;
+                        procedureCharacteristic = null;
+                        startNextOperation();
+                        break;
+                    default:
+                        break;
+                }
             }
 
-            // The current procedure is now complete - move on...
-            switch (procedureProgress) {
-                case GET_SERVICES:
-                    // We've downloaded all services, now get the characteristics
-                    procedureProgress = BlueGigaProcedure.GET_CHARACTERISTICS;
-                    bgHandler.bgFindCharacteristics(connection);
-                    break;
-                case GET_CHARACTERISTICS:
-                    // We've downloaded all characteristics
-                    procedureProgress = BlueGigaProcedure.NONE;
-                    notifyListeners(BluetoothEventType.SERVICES_DISCOVERED);
-                    break;
-                case CHARACTERISTIC_READ:
-                    // The read failed
-                    notifyListeners(BluetoothEventType.CHARACTERISTIC_READ_COMPLETE, procedureCharacteristic,
-                            BluetoothCompletionStatus.ERROR);
-                    procedureProgress = BlueGigaProcedure.NONE;
-                    procedureCharacteristic = null;
-                    break;
-                case CHARACTERISTIC_WRITE:
-                    // The write completed - failure or success
-                    BluetoothCompletionStatus result = completedEvent.getResult() == BgApiResponse.SUCCESS
-                            ? BluetoothCompletionStatus.SUCCESS
-                            : BluetoothCompletionStatus.ERROR;
-                    notifyListeners(BluetoothEventType.CHARACTERISTIC_WRITE_COMPLETE, procedureCharacteristic, result);
-                    procedureProgress = BlueGigaProcedure.NONE;
-                    procedureCharacteristic = null;
-                    break;
-                default:
-                    break;
+            // The BGAPI call waits for the dongle, so it must not be made while holding the lock
+            if (findCharacteristics && !bgHandler.bgFindCharacteristics(completedEvent.getConnection())) {
+                synchronized (pendingOperations) {
+                    if (procedureProgress == BlueGigaProcedure.GET_CHARACTERISTICS) {
+                        logger.debug("BlueGiga failed to start the characteristics discovery of {}", address);
+                        procedureProgress = BlueGigaProcedure.NONE;
+                        startNextOperation();
+                    }
+                }
             }
 
             return;
@@ -401,8 +506,22 @@ public class BlueGigaBluetoothDevice extends BluetoothDevice implements BlueGiga
                 return;
             }
 
-            connectionState = ConnectionState.DISCONNECTED;
-            connection = -1;
+            synchronized (pendingOperations) {
+                connectionState = ConnectionState.DISCONNECTED;
+                connection = -1;
+
+                // Fail the operation in progress and all queued operations
+                if (procedureCharacteristic != null && (procedureProgress == BlueGigaProcedure.CHARACTERISTIC_READ
+                        || procedureProgress == BlueGigaProcedure.CHARACTERISTIC_WRITE)) {
+                    notifyOperationFailed(new GattOperation(procedureProgress, procedureCharacteristic));
+                }
+                procedureProgress = BlueGigaProcedure.NONE;
+                procedureCharacteristic = null;
+                GattOperation operation;
+                while ((operation = pendingOperations.poll()) != null) {
+                    notifyOperationFailed(operation);
+                }
+            }
             notifyListeners(BluetoothEventType.CONNECTION_STATE,
                     new BluetoothConnectionStatusNotification(connectionState));
 
@@ -418,12 +537,15 @@ public class BlueGigaBluetoothDevice extends BluetoothDevice implements BlueGiga
                 logger.debug("BlueGiga didn't find characteristic for event {}", event);
             } else {
                 // If this is the characteristic we were reading, then send a read completion
-                if (procedureProgress == BlueGigaProcedure.CHARACTERISTIC_READ && procedureCharacteristic != null
-                        && procedureCharacteristic.getHandle() == valueEvent.getAttHandle()) {
-                    procedureProgress = BlueGigaProcedure.NONE;
-                    procedureCharacteristic = null;
-                    notifyListeners(BluetoothEventType.CHARACTERISTIC_READ_COMPLETE, characteristic,
-                            BluetoothCompletionStatus.SUCCESS);
+                synchronized (pendingOperations) {
+                    if (procedureProgress == BlueGigaProcedure.CHARACTERISTIC_READ && procedureCharacteristic != null
+                            && procedureCharacteristic.getHandle() == valueEvent.getAttHandle()) {
+                        procedureProgress = BlueGigaProcedure.NONE;
+                        procedureCharacteristic = null;
+                        notifyListeners(BluetoothEventType.CHARACTERISTIC_READ_COMPLETE, characteristic,
+                                BluetoothCompletionStatus.SUCCESS);
+                        startNextOperation();
+                    }
                 }
 
                 // Notify the user of the updated value
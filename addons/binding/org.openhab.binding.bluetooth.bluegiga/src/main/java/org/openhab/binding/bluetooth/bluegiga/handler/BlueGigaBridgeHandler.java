@@ -16,11 +16,15 @@ import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.math.BigDecimal;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -45,6 +49,7 @@ import org.openhab.binding.bluetooth.BluetoothDeviceListener;
 import org.openhab.binding.bluetooth.BluetoothDiscoveryListener;
 import org.openhab.binding.bluetooth.bluegiga.BlueGigaAdapterConstants;
 import org.openhab.binding.bluetooth.bluegiga.BlueGigaBluetoothDevice;
+import org.openhab.binding.bluetooth.bluegiga.internal.BlueGigaAdvertisementProcessor;
 import org.openhab.binding.bluetooth.bluegiga.internal.BlueGigaCommand;
 import org.openhab.binding.bluetooth.bluegiga.internal.BlueGigaEventListener;
 import org.openhab.binding.bluetooth.bluegiga.internal.BlueGigaHandlerListener;
@@ -67,7 +72,6 @@ import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaConne
 import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaDiscoverCommand;
 import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaEndProcedureCommand;
 import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaEndProcedureResponse;
-import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaScanResponseEvent;
 import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaSetModeCommand;
 import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaSetModeResponse;
 import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaSetScanParametersCommand;
@@ -106,6 +110,8 @@ public class BlueGigaBridgeHandler extends BaseBridgeHandler
 
     private final Logger logger = LoggerFactory.getLogger(BlueGigaBridgeHandler.class);
 
+    private static final int STATISTICS_PERIOD = 60;
+
     private final SerialPortManager serialPortManager;
 
     // The serial port.
@@ -124,6 +130,13 @@ public class BlueGigaBridgeHandler extends BaseBridgeHandler
     @Nullable
     private BlueGigaSerialHandler bgHandler;
 
+    // The pipeline processing the advertisements received by the dongle
+    @Nullable
+    private BlueGigaAdvertisementProcessor advertisementProcessor;
+
+    @Nullable
+    private ScheduledFuture<?> statisticsJob;
+
     // The maximum number of connections this interface supports
     private int maxConnections = 0;
 
@@ -190,6 +203,18 @@ public class BlueGigaBridgeHandler extends BaseBridgeHandler
             bgh.addHandlerListener(this);
             this.setBgHandler(bgh);
 
+            BlueGigaAdvertisementProcessor processor = new BlueGigaAdvertisementProcessor(this::resolveDevice,
+                    getConfigLong(BlueGigaAdapterConstants.CONFIGURATION_MIN_ADVERTISEMENT_INTERVAL,
+                            BlueGigaAdapterConstants.DEFAULT_MIN_ADVERTISEMENT_INTERVAL),
+                    getConfigLong(BlueGigaAdapterConstants.CONFIGURATION_DUPLICATE_ADVERTISEMENT_INTERVAL,
+                            BlueGigaAdapterConstants.DEFAULT_DUPLICATE_ADVERTISEMENT_INTERVAL));
+            bgh.setAdvertisementListener(processor);
+            advertisementProcessor = processor;
+            statisticsJob = scheduler.scheduleWithFixedDelay(() -> {
+                logger.debug("BlueGiga advertisements on adaptor {}: {}", address, processor);
+                logger.debug("BlueGiga transactions on adaptor {}: {}", address, bgh.getTransactionStatistics());
+            }, STATISTICS_PERIOD, STATISTICS_PERIOD, TimeUnit.SECONDS);
+
             updateStatus(ThingStatus.UNKNOWN);
 
             scheduler.submit(() -> {
@@ -248,8 +273,19 @@ public class BlueGigaBridgeHandler extends BaseBridgeHandler
 
     @Override
     public void dispose() {
+        ScheduledFuture<?> job = statisticsJob;
+        if (job != null) {
+            job.cancel(true);
+            statisticsJob = null;
+        }
+        BlueGigaAdvertisementProcessor processor = advertisementProcessor;
+        if (processor != null) {
+            processor.dispose();
+            advertisementProcessor = null;
+        }
         try {
             BlueGigaSerialHandler bgh = getBgHandler();
+            bgh.setAdvertisementListener(null);
             bgh.removeEventListener(this);
             bgh.removeHandlerListener(this);
             bgh.close();
@@ -326,27 +362,42 @@ public class BlueGigaBridgeHandler extends BaseBridgeHandler
         }
     }
 
-    @SuppressWarnings({ "unused", "null" })
-    @Override
-    public void bluegigaEventReceived(@Nullable BlueGigaResponse event) {
-        if (event instanceof BlueGigaScanResponseEvent) {
-            BlueGigaScanResponseEvent scanEvent = (BlueGigaScanResponseEvent) event;
-
-            // We use the scan event to add any devices we hear to the devices list
-            // The device gets created, and then manages itself for discovery etc.
-            BluetoothAddress sender = new BluetoothAddress(scanEvent.getSender());
-            BlueGigaBluetoothDevice device;
-            if (devices.get(sender) == null) {
-                logger.debug("BlueGiga adding new device to adaptor {}: {}", address, sender);
-                device = new BlueGigaBluetoothDevice(this, new BluetoothAddress(scanEvent.getSender()),
-                        scanEvent.getAddressType());
-                devices.put(sender, device);
-                deviceDiscovered(device);
-            }
+    /**
+     * Resolves the device for an address heard by the {@link BlueGigaAdvertisementProcessor}.
+     * We use the scan events to add any devices we hear to the devices list.
+     * The device gets created, and then manages itself for discovery etc.
+     */
+    private BlueGigaBluetoothDevice resolveDevice(BluetoothAddress sender, BluetoothAddressType addressType) {
+        BluetoothDevice device = devices.get(sender);
+        if (device == null) {
+            logger.debug("BlueGiga adding new device to adaptor {}: {}", address, sender);
+            BlueGigaBluetoothDevice newDevice = new BlueGigaBluetoothDevice(this, sender, addressType);
+            devices.put(sender, newDevice);
+            deviceDiscovered(newDevice);
+            return newDevice;
+        }
+        return (BlueGigaBluetoothDevice) device;
+    }
 
-            return;
+    private long getConfigLong(String key, long defaultValue) {
+        Object value = getConfig().get(key);
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).longValue();
         }
+        if (value != null) {
+            try {
+                return Long.parseLong(value.toString());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid value '{}' for configuration parameter '{}', using {}", value, key,
+                        defaultValue);
+            }
+        }
+        return defaultValue;
+    }
 
+    @SuppressWarnings({ "unused", "null" })
+    @Override
+    public void bluegigaEventReceived(@Nullable BlueGigaResponse event) {
         if (event instanceof BlueGigaConnectionStatusEvent) {
             BlueGigaConnectionStatusEvent connectionEvent = (BlueGigaConnectionStatusEvent) event;
             connections.put(connectionEvent.getConnection(), new BluetoothAddress(connectionEvent.getAddress()));
@@ -538,13 +589,24 @@ public class BlueGigaBridgeHandler extends BaseBridgeHandler
      * @return true if successful
      */
     public boolean bgReadCharacteristic(int connectionHandle, int handle) {
+        return bgReadCharacteristicAsync(connectionHandle, handle).join();
+    }
+
+    /**
+     * Starts the read of a characteristic using {@link BlueGigaReadByHandleCommand} without waiting for the response
+     * of the dongle
+     *
+     * @param connectionHandle
+     * @param handle
+     * @return future completed with true if the read was started successfully
+     */
+    public CompletableFuture<Boolean> bgReadCharacteristicAsync(int connectionHandle, int handle) {
         logger.debug("BlueGiga Read: connection {}, handle {}", connectionHandle, handle);
         BlueGigaReadByHandleCommand command = new BlueGigaReadByHandleCommand();
         command.setConnection(connectionHandle);
         command.setChrHandle(handle);
-        BlueGigaReadByHandleResponse response = (BlueGigaReadByHandleResponse) getBgHandler().sendTransaction(command);
-
-        return response.getResult() == BgApiResponse.SUCCESS;
+        return getBgHandler().sendTransactionAsync(command, BlueGigaReadByHandleResponse.class)
+                .handle((response, error) -> error == null && response.getResult() == BgApiResponse.SUCCESS);
     }
 
     /**
@@ -556,15 +618,26 @@ public class BlueGigaBridgeHandler extends BaseBridgeHandler
      * @return true if successful
      */
     public boolean bgWriteCharacteristic(int connectionHandle, int handle, int[] value) {
+        return bgWriteCharacteristicAsync(connectionHandle, handle, value).join();
+    }
+
+    /**
+     * Starts the write of a characteristic using {@link BlueGigaAttributeWriteCommand} without waiting for the response
+     * of the dongle
+     *
+     * @param connectionHandle
+     * @param handle
+     * @param value
+     * @return future completed with true if the write was started successfully
+     */
+    public CompletableFuture<Boolean> bgWriteCharacteristicAsync(int connectionHandle, int handle, int[] value) {
         logger.debug("BlueGiga Write: connection {}, handle {}", connectionHandle, handle);
         BlueGigaAttributeWriteCommand command = new BlueGigaAttributeWriteCommand();
         command.setConnection(connectionHandle);
         command.setAttHandle(handle);
         command.setData(value);
-        BlueGigaAttributeWriteResponse response = (BlueGigaAttributeWriteResponse) getBgHandler()
-                .sendTransaction(command);
-
-        return response.getResult() == BgApiResponse.SUCCESS;
+        return getBgHandler().sendTransactionAsync(command, BlueGigaAttributeWriteResponse.class)
+                .handle((response, error) -> error == null && response.getResult() == BgApiResponse.SUCCESS);
     }
 
     /*
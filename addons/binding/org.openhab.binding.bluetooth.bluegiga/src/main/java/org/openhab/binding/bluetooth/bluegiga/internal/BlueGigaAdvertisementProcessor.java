@@ -0,0 +1,328 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.bluegiga.internal;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.openhab.binding.bluetooth.BluetoothAddress;
+import org.openhab.binding.bluetooth.bluegiga.BlueGigaBluetoothDevice;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaScanResponseEvent;
+import org.openhab.binding.bluetooth.bluegiga.internal.enumeration.BluetoothAddressType;
+import org.openhab.binding.bluetooth.bluegiga.internal.enumeration.ScanResponseType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link BlueGigaAdvertisementProcessor} is the ingestion pipeline for {@link BlueGigaScanResponseEvent}s.
+ * <p>
+ * It is called on the serial parser thread for every advertisement and does as little work as possible there:
+ * <ul>
+ * <li>sender addresses are interned, so the {@link BluetoothAddress} and the device are resolved only once per
+ * device,
+ * <li>advertisements carrying the same data as the last accepted one of the same packet type are dropped until the
+ * duplicate interval has passed,
+ * <li>advertisements of the same packet type arriving within the minimum interval are dropped,
+ * <li>the remaining advertisements are handed to the device on a separate thread pool. Each device has one
+ * pending slot per packet type, so if a device advertises faster than it can be decoded, the newer advertisement
+ * replaces (coalesces) the older one of the same type. A scan response is never replaced by an advertisement.
+ * </ul>
+ * Advertisements of one device are never decoded concurrently. Devices which have not advertised for
+ * {@link #IDLE_TIMEOUT} are forgotten and interned again when they are heard the next time.
+ *
+ * @author agent - Initial contribution
+ */
+public class BlueGigaAdvertisementProcessor implements BlueGigaEventListener {
+
+    private static final String THREADPOOL_NAME = "bluegiga-advertisements";
+
+    private static final int PACKET_TYPES = ScanResponseType.values().length;
+
+    /**
+     * Time in milliseconds after which a device which has not advertised is evicted
+     */
+    static final long IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+    static final long EVICTION_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    private final Logger logger = LoggerFactory.getLogger(BlueGigaAdvertisementProcessor.class);
+
+    private final Executor executor;
+
+    private final DeviceResolver resolver;
+
+    private final long minInterval;
+    private final long duplicateInterval;
+
+    // Interned devices, keyed by the sender address as received from the dongle
+    private final Map<String, AdvertisingDevice> advertisers = new ConcurrentHashMap<>();
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    // Only used on the serial parser thread
+    private long lastEviction;
+
+    /**
+     * Resolves the device for an advertising address. Called once per address on the serial parser thread.
+     */
+    public interface DeviceResolver {
+        /**
+         * Returns the device for the given address, creating it if it is not yet known
+         *
+         * @param address the {@link BluetoothAddress} of the advertiser
+         * @param addressType the {@link BluetoothAddressType} of the advertiser
+         * @return the {@link BlueGigaBluetoothDevice} handling the advertisements
+         */
+        BlueGigaBluetoothDevice resolveDevice(BluetoothAddress address, BluetoothAddressType addressType);
+    }
+
+    /**
+     * Creates a new advertisement processor
+     *
+     * @param resolver the {@link DeviceResolver} used to look up devices for new addresses
+     * @param minInterval minimum time in milliseconds between two accepted advertisements of the same packet type from
+     *            one device. 0 accepts every advertisement.
+     * @param duplicateInterval time in milliseconds during which advertisements with unchanged data are dropped. 0
+     *            disables the de-duplication.
+     */
+    public BlueGigaAdvertisementProcessor(DeviceResolver resolver, long minInterval, long duplicateInterval) {
+        this(resolver, minInterval, duplicateInterval, ThreadPoolManager.getPool(THREADPOOL_NAME));
+    }
+
+    BlueGigaAdvertisementProcessor(DeviceResolver resolver, long minInterval, long duplicateInterval,
+            Executor executor) {
+        this.resolver = resolver;
+        this.minInterval = minInterval;
+        this.duplicateInterval = duplicateInterval;
+        this.executor = executor;
+    }
+
+    @Override
+    public void bluegigaEventReceived(BlueGigaResponse event) {
+        bluegigaEventReceived(event, System.currentTimeMillis());
+    }
+
+    /**
+     * Processes an event received at the given time
+     *
+     * @param event the {@link BlueGigaResponse} received from the dongle
+     * @param now the time of reception in milliseconds
+     */
+    void bluegigaEventReceived(BlueGigaResponse event, long now) {
+        if (!running || !(event instanceof BlueGigaScanResponseEvent)) {
+            return;
+        }
+        BlueGigaScanResponseEvent scanEvent = (BlueGigaScanResponseEvent) event;
+        received.incrementAndGet();
+
+        if (now - lastEviction >= EVICTION_INTERVAL) {
+            evictIdleDevices(now);
+            lastEviction = now;
+        }
+
+        AdvertisingDevice advertiser = advertisers.get(scanEvent.getSender());
+        if (advertiser == null) {
+            BluetoothAddress address;
+            try {
+                address = new BluetoothAddress(scanEvent.getSender());
+            } catch (IllegalArgumentException e) {
+                logger.debug("BlueGiga ignoring advertisement with invalid sender {}", scanEvent.getSender());
+                dropped.incrementAndGet();
+                return;
+            }
+            advertiser = new AdvertisingDevice(resolver.resolveDevice(address, scanEvent.getAddressType()));
+            advertisers.put(scanEvent.getSender(), advertiser);
+        }
+
+        advertiser.lastReceived = now;
+        if (!advertiser.accept(scanEvent, now)) {
+            dropped.incrementAndGet();
+            return;
+        }
+
+        advertiser.offer(scanEvent);
+    }
+
+    /**
+     * Removes the devices which have not advertised for {@link #IDLE_TIMEOUT} and have no pending advertisements.
+     *
+     * @param now the current time in milliseconds
+     */
+    private void evictIdleDevices(long now) {
+        Iterator<AdvertisingDevice> iterator = advertisers.values().iterator();
+        while (iterator.hasNext()) {
+            AdvertisingDevice advertiser = iterator.next();
+            if (now - advertiser.lastReceived >= IDLE_TIMEOUT && !advertiser.scheduled.get()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Stops processing. Pending advertisements are discarded.
+     */
+    public void dispose() {
+        running = false;
+        advertisers.clear();
+    }
+
+    /**
+     * @return the number of advertisements received from the dongle
+     */
+    public long getReceivedCount() {
+        return received.get();
+    }
+
+    /**
+     * @return the number of advertisements handed to the devices
+     */
+    public long getProcessedCount() {
+        return processed.get();
+    }
+
+    /**
+     * @return the number of advertisements dropped as duplicates or due to rate limiting
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * @return the number of advertisements replaced by a newer one before they were processed
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * @return the number of distinct advertising devices
+     */
+    public int getDeviceCount() {
+        return advertisers.size();
+    }
+
+    @Override
+    public String toString() {
+        return "BlueGigaAdvertisementProcessor [devices=" + advertisers.size() + ", received=" + received
+                + ", processed=" + processed + ", dropped=" + dropped + ", coalesced=" + coalesced + "]";
+    }
+
+    /**
+     * Per device state of the pipeline. The filter state is only touched from the serial parser thread, the pending
+     * slots are shared with the decoding threads.
+     */
+    private class AdvertisingDevice implements Runnable {
+        private final BlueGigaBluetoothDevice device;
+
+        private final long[] lastAccepted = new long[PACKET_TYPES];
+        private final int[][] lastData = new int[PACKET_TYPES][];
+
+        private long lastReceived;
+
+        private final AtomicReferenceArray<BlueGigaScanResponseEvent> pending = new AtomicReferenceArray<>(
+                PACKET_TYPES);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        AdvertisingDevice(BlueGigaBluetoothDevice device) {
+            this.device = device;
+        }
+
+        boolean accept(BlueGigaScanResponseEvent scanEvent, long now) {
+            int type = scanEvent.getPacketType().ordinal();
+            long elapsed = now - lastAccepted[type];
+
+            if (elapsed < minInterval) {
+                return false;
+            }
+            if (elapsed < duplicateInterval && Arrays.equals(lastData[type], scanEvent.getData())) {
+                return false;
+            }
+
+            lastAccepted[type] = now;
+            lastData[type] = scanEvent.getData();
+            return true;
+        }
+
+        void offer(BlueGigaScanResponseEvent scanEvent) {
+            if (pending.getAndSet(scanEvent.getPacketType().ordinal(), scanEvent) != null) {
+                coalesced.incrementAndGet();
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    for (int type = 0; type < PACKET_TYPES; type++) {
+                        if (pending.getAndSet(type, null) != null) {
+                            dropped.incrementAndGet();
+                        }
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            boolean found;
+            do {
+                found = false;
+                for (int type = 0; type < PACKET_TYPES && running; type++) {
+                    BlueGigaScanResponseEvent scanEvent = pending.getAndSet(type, null);
+                    if (scanEvent == null) {
+                        continue;
+                    }
+                    found = true;
+                    try {
+                        device.handleScanEvent(scanEvent);
+                        processed.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        logger.warn("BlueGiga error processing advertisement of {}", device.getAddress(), e);
+                    }
+                }
+            } while (found && running);
+            scheduled.set(false);
+
+            // An advertisement may have arrived after the slots were found empty but before the flag was reset
+            if (running && hasPending()) {
+                schedule();
+            }
+        }
+
+        private boolean hasPending() {
+            for (int type = 0; type < PACKET_TYPES; type++) {
+                if (pending.get(type) != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
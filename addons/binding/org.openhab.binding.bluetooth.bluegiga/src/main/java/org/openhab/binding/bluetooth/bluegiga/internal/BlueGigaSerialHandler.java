@@ -15,28 +15,37 @@ package org.openhab.binding.bluetooth.bluegiga.internal;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.concurrent.Callable;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaScanResponseEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * The main handler class for interacting with the BlueGiga serial API. This class provides transaction management and
  * queuing of of data, and conversion of packets from the serial stream into command and response classes.
+ * <p>
+ * Transactions are queued and sent one at a time, as required by the BGAPI. Responses are correlated with the
+ * outstanding command by class and command id, and complete the {@link CompletableFuture} returned by
+ * {@link #sendTransactionAsync(BlueGigaCommand, Class)} without blocking any thread while waiting.
  *
  * @author Chris Jackson - Initial contribution and API
  *
@@ -44,7 +53,7 @@ import org.slf4j.LoggerFactory;
 public class BlueGigaSerialHandler {
 
     private static final int BLE_MAX_LENGTH = 64;
-    private static final int TRANSACTION_TIMEOUT_PERIOD = 50;
+    private static final int TRANSACTION_TIMEOUT_PERIOD = 2000;
 
     private final Logger logger = LoggerFactory.getLogger(BlueGigaSerialHandler.class);
 
@@ -52,22 +61,32 @@ public class BlueGigaSerialHandler {
      * The portName portName output stream.
      */
     private final OutputStream outputStream;
-    private final Queue<BlueGigaCommand> sendQueue = new LinkedList<BlueGigaCommand>();
-    private final Timer timer = new Timer();
-    private TimerTask timerTask = null;
+    private final Queue<BlueGigaTransaction> sendQueue = new LinkedList<>();
     private Thread parserThread = null;
     private final ExecutorService executor = ThreadPoolManager.getPool("bluegiga");
+    private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool("bluegiga-timeouts");
 
     /**
-     * Transaction listeners are used internally to correlate the commands and responses
+     * The transaction sent to the dongle for which we are waiting for the response. Guarded by the sendQueue.
      */
-    private final List<BluetoothListener<? extends BlueGigaResponse>> transactionListeners = new CopyOnWriteArrayList<>();
+    private BlueGigaTransaction outstandingTransaction = null;
+
+    /**
+     * Latency statistics per command class
+     */
+    private final Map<String, BlueGigaTransactionStatistics> statistics = new ConcurrentHashMap<>();
 
     /**
      * The event listeners will be notified of any asynchronous events
      */
     private final Set<BlueGigaEventListener> eventListeners = new CopyOnWriteArraySet<>();
 
+    /**
+     * If set, the advertisement listener is notified of all {@link BlueGigaScanResponseEvent}s on the parser thread
+     * instead of the event listeners
+     */
+    private volatile BlueGigaEventListener advertisementListener = null;
+
     /**
      * The event listeners will be notified of any life-cycle events of the handler.
      */
@@ -132,7 +151,7 @@ public class BlueGigaSerialHandler {
                                 if (responsePacket.isEvent()) {
                                     notifyEventListeners(responsePacket);
                                 } else {
-                                    notifyTransactionComplete(responsePacket);
+                                    notifyTransactionComplete(responsePacket, inputBuffer[2], inputBuffer[3]);
                                 }
                             }
 
@@ -184,11 +203,7 @@ public class BlueGigaSerialHandler {
     public void close(long timeout) {
         close = true;
         executor.shutdownNow();
-        if (timerTask != null) {
-            timerTask.cancel();
-            timerTask = null;
-        }
-        timer.cancel();
+        failPendingTransactions();
         try {
             parserThread.interrupt();
             parserThread.join(timeout);
@@ -197,6 +212,25 @@ public class BlueGigaSerialHandler {
         }
     }
 
+    private void failPendingTransactions() {
+        List<BlueGigaTransaction> pending = new ArrayList<>();
+        synchronized (sendQueue) {
+            if (outstandingTransaction != null) {
+                pending.add(outstandingTransaction);
+                outstandingTransaction = null;
+            }
+            pending.addAll(sendQueue);
+            sendQueue.clear();
+        }
+        for (BlueGigaTransaction transaction : pending) {
+            ScheduledFuture<?> timeoutFuture = transaction.timeoutFuture;
+            if (timeoutFuture != null) {
+                timeoutFuture.cancel(false);
+            }
+            transaction.future.completeExceptionally(new BlueGigaException("BlueGiga handler closed"));
+        }
+    }
+
     /**
      * Checks if parser thread is alive.
      *
@@ -207,10 +241,9 @@ public class BlueGigaSerialHandler {
     }
 
     // Synchronize this method to ensure a packet gets sent as a block
-    private synchronized void sendFrame(BlueGigaCommand bleFrame) {
+    private synchronized void sendFrame(int[] payload) {
         // Send the data
         try {
-            int[] payload = bleFrame.serialize();
             logger.trace("TX BLE frame: {}", printHex(payload, payload.length));
             for (int b : payload) {
                 outputStream.write(b);
@@ -218,21 +251,47 @@ public class BlueGigaSerialHandler {
         } catch (IOException e) {
             throw new BlueGigaException("Error sending BLE frame", e);
         }
-
-        logger.trace("--> TX BLE frame: {}", bleFrame);
     }
 
-    // Synchronize this method so we can do the window check without interruption.
-    // Otherwise this method could be called twice from different threads that could end up with
-    // more than the TX_WINDOW number of frames sent.
-    private synchronized void sendNextFrame() {
-        BlueGigaCommand nextFrame = sendQueue.poll();
-        if (nextFrame == null) {
-            // Nothing to send
-            return;
-        }
+    /**
+     * Sends the next queued transaction if no other transaction is outstanding. The BGAPI requires the host to wait
+     * for the response of a command before the next command is sent, so there is never more than one transaction
+     * on the wire.
+     */
+    private void sendNextFrame() {
+        while (true) {
+            BlueGigaTransaction transaction;
+            synchronized (sendQueue) {
+                if (outstandingTransaction != null) {
+                    return;
+                }
+                transaction = sendQueue.poll();
+                if (transaction == null) {
+                    // Nothing to send
+                    return;
+                }
+                if (transaction.future.isDone()) {
+                    // Cancelled while it was queued
+                    continue;
+                }
+                outstandingTransaction = transaction;
+            }
 
-        sendFrame(nextFrame);
+            try {
+                transaction.startTime = System.nanoTime();
+                sendFrame(transaction.payload);
+                logger.trace("--> TX BLE frame: {}", transaction.command);
+                transaction.timeoutFuture = scheduler.schedule(() -> transactionTimeout(transaction),
+                        TRANSACTION_TIMEOUT_PERIOD, TimeUnit.MILLISECONDS);
+                return;
+            } catch (BlueGigaException | RejectedExecutionException e) {
+                synchronized (sendQueue) {
+                    outstandingTransaction = null;
+                }
+                getStatistics(transaction.command).recordFailure();
+                transaction.future.completeExceptionally(e);
+            }
+        }
     }
 
     /**
@@ -244,115 +303,122 @@ public class BlueGigaSerialHandler {
      *            {@link BlueGigaCommand}
      */
     public void queueFrame(BlueGigaCommand request) {
-        logger.trace("TX BLE frame: {}", request);
-        checkIfAlive();
-        sendQueue.add(request);
-        logger.trace("TX BLE queue: {}", sendQueue.size());
-        sendNextFrame();
+        sendTransactionAsync(request, BlueGigaResponse.class);
     }
 
     /**
-     * Notify any transaction listeners when we receive a response.
+     * Completes the outstanding transaction when we receive a response.
      *
-     * @param response
-     *            the response data received
+     * @param response the response data received
+     * @param classId the class id of the response
+     * @param commandId the command id of the response
      * @return true if the response was processed
      */
-    private boolean notifyTransactionComplete(final BlueGigaResponse response) {
-        boolean processed = false;
-
-        synchronized (transactionListeners) {
-            for (BluetoothListener<? extends BlueGigaResponse> listener : transactionListeners) {
-                if (listener.transactionEvent(response)) {
-                    processed = true;
-                }
+    private boolean notifyTransactionComplete(final BlueGigaResponse response, int classId, int commandId) {
+        BlueGigaTransaction transaction;
+        synchronized (sendQueue) {
+            transaction = outstandingTransaction;
+            if (transaction == null || !transaction.matches(classId, commandId)) {
+                logger.debug("Ignoring {} response which has not been requested.",
+                        response.getClass().getSimpleName());
+                return false;
             }
+            outstandingTransaction = null;
+        }
+
+        ScheduledFuture<?> timeoutFuture = transaction.timeoutFuture;
+        if (timeoutFuture != null) {
+            timeoutFuture.cancel(false);
         }
+        getStatistics(transaction.command).recordResponse(System.nanoTime() - transaction.startTime);
+
+        // Release the serial line before the response is handed out
+        sendNextFrame();
+        transaction.complete(response);
 
-        return processed;
+        return true;
     }
 
-    private void addTransactionListener(BluetoothListener<? extends BlueGigaResponse> listener) {
-        synchronized (transactionListeners) {
-            if (transactionListeners.contains(listener)) {
+    private void transactionTimeout(BlueGigaTransaction transaction) {
+        synchronized (sendQueue) {
+            if (outstandingTransaction != transaction) {
                 return;
             }
-
-            transactionListeners.add(listener);
+            outstandingTransaction = null;
         }
+
+        logger.debug("BlueGiga transaction timed out: {}", transaction.command);
+        getStatistics(transaction.command).recordFailure();
+        sendNextFrame();
+        transaction.future.completeExceptionally(
+                new TimeoutException("No response to " + transaction.command.getClass().getSimpleName()));
     }
 
-    private void removeTransactionListener(BluetoothListener<?> listener) {
-        synchronized (transactionListeners) {
-            transactionListeners.remove(listener);
-        }
+    private BlueGigaTransactionStatistics getStatistics(BlueGigaCommand command) {
+        return statistics.computeIfAbsent(command.getClass().getSimpleName(),
+                key -> new BlueGigaTransactionStatistics());
     }
 
     /**
-     * Sends an BlueGiga request without waiting for the response.
+     * Returns the latency statistics of all transactions sent so far, keyed by the simple name of the command class
+     *
+     * @return map of {@link BlueGigaTransactionStatistics} by command
+     */
+    public Map<String, BlueGigaTransactionStatistics> getTransactionStatistics() {
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    /**
+     * Sends a BlueGiga request without waiting for the response. The returned future is completed on the parser thread
+     * once the response is received, so any dependent actions must not block.
      *
      * @param bleCommand {@link BlueGigaCommand}
-     * @return response {@link Future} {@link BlueGigaResponse}
+     * @param expected the expected response class
+     * @return response {@link CompletableFuture} {@link BlueGigaResponse}
      */
-    public <T extends BlueGigaResponse> Future<T> sendBleRequestAsync(final BlueGigaCommand bleCommand,
+    public <T extends BlueGigaResponse> CompletableFuture<T> sendTransactionAsync(final BlueGigaCommand bleCommand,
             final Class<T> expected) {
         checkIfAlive();
-        class TransactionWaiter implements Callable<T>, BluetoothListener<T> {
-            private boolean complete;
-            private BlueGigaResponse response;
-
-            @SuppressWarnings("unchecked")
-            @Override
-            public T call() {
-                // Register a listener
-                addTransactionListener(this);
-
-                // Send the transaction
-                queueFrame(bleCommand);
-
-                // Wait for the transaction to complete
-                synchronized (this) {
-                    while (!complete) {
-                        try {
-                            wait();
-                        } catch (InterruptedException e) {
-                            complete = true;
-                        }
-                    }
-                }
-
-                // Remove the listener
-                removeTransactionListener(this);
-
-                return (T) response;
+        BlueGigaTransaction transaction = new BlueGigaTransaction(bleCommand, expected);
+        synchronized (sendQueue) {
+            sendQueue.add(transaction);
+            logger.trace("TX BLE queue: {}", sendQueue.size());
+        }
+        transaction.future.whenComplete((response, exception) -> {
+            if (transaction.future.isCancelled()) {
+                removeTransaction(transaction);
             }
+        });
+        sendNextFrame();
 
-            @Override
-            public boolean transactionEvent(BlueGigaResponse bleResponse) {
-                // Check if this response completes our transaction
-                if (bleCommand.hashCode() == bleResponse.hashCode()) {
-                    return false;
-                }
-
-                if (!expected.isInstance(bleResponse)) {
-                    // ignoring response if it was not requested
-                    logger.warn("Ignoring {} response which has not been requested.",
-                            bleResponse.getClass().getSimpleName());
-                    return false;
-                }
-
-                response = bleResponse;
-                complete = true;
-                synchronized (this) {
-                    notify();
-                }
+        @SuppressWarnings("unchecked")
+        CompletableFuture<T> future = (CompletableFuture<T>) transaction.future;
+        return future;
+    }
 
-                return true;
+    /**
+     * Removes a cancelled transaction from the send queue. A transaction which was already sent stays outstanding
+     * until its response or timeout, as the BGAPI does not accept another command before.
+     *
+     * @param transaction the cancelled transaction
+     */
+    private void removeTransaction(BlueGigaTransaction transaction) {
+        synchronized (sendQueue) {
+            if (sendQueue.remove(transaction)) {
+                logger.debug("BlueGiga transaction cancelled before it was sent: {}", transaction.command);
             }
         }
+    }
 
-        Callable<T> worker = new TransactionWaiter();
-        return executor.submit(worker);
+    /**
+     * Sends an BlueGiga request without waiting for the response.
+     *
+     * @param bleCommand {@link BlueGigaCommand}
+     * @return response {@link Future} {@link BlueGigaResponse}
+     */
+    public <T extends BlueGigaResponse> Future<T> sendBleRequestAsync(final BlueGigaCommand bleCommand,
+            final Class<T> expected) {
+        return sendTransactionAsync(bleCommand, expected);
     }
 
     /**
@@ -364,7 +430,7 @@ public class BlueGigaSerialHandler {
      */
     public BlueGigaResponse sendTransaction(BlueGigaCommand bleCommand) {
         checkIfAlive();
-        Future<BlueGigaResponse> futureResponse = sendBleRequestAsync(bleCommand, BlueGigaResponse.class);
+        Future<BlueGigaResponse> futureResponse = sendTransactionAsync(bleCommand, BlueGigaResponse.class);
 
         try {
             return futureResponse.get();
@@ -385,36 +451,46 @@ public class BlueGigaSerialHandler {
      */
     public <T extends BlueGigaResponse> T sendTransaction(BlueGigaCommand bleCommand, Class<T> expected, long timeout)
             throws TimeoutException {
-        Future<T> futureResponse = sendBleRequestAsync(bleCommand, expected);
+        Future<T> futureResponse = sendTransactionAsync(bleCommand, expected);
         try {
             return futureResponse.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futureResponse.cancel(true);
+            throw e;
         } catch (InterruptedException | ExecutionException e) {
             futureResponse.cancel(true);
             throw new BlueGigaException("Error sending BLE transaction to listeners: ", e);
         }
     }
 
-    @SuppressWarnings("unused")
-    private synchronized void startTransactionTimer() {
-        // Stop any existing timer
-        resetTransactionTimer();
-
-        // Create the timer task
-        timerTask = new TransactionTimer();
-        timer.schedule(timerTask, TRANSACTION_TIMEOUT_PERIOD);
-    }
+    /**
+     * A command waiting for its response. Commands and responses are correlated by their class and command ids.
+     */
+    private static class BlueGigaTransaction {
+        private final BlueGigaCommand command;
+        private final Class<? extends BlueGigaResponse> expected;
+        private final CompletableFuture<BlueGigaResponse> future = new CompletableFuture<>();
+        private final int[] payload;
+        private long startTime;
+        private ScheduledFuture<?> timeoutFuture;
+
+        BlueGigaTransaction(BlueGigaCommand command, Class<? extends BlueGigaResponse> expected) {
+            this.command = command;
+            this.expected = expected;
+            this.payload = command.serialize();
+        }
 
-    private synchronized void resetTransactionTimer() {
-        // Stop any existing timer
-        if (timerTask != null) {
-            timerTask.cancel();
-            timerTask = null;
+        boolean matches(int classId, int commandId) {
+            return payload[2] == classId && payload[3] == commandId;
         }
-    }
 
-    private class TransactionTimer extends TimerTask {
-        @Override
-        public void run() {
+        void complete(BlueGigaResponse response) {
+            if (expected.isInstance(response)) {
+                future.complete(response);
+            } else {
+                future.completeExceptionally(new BlueGigaException("Unexpected response "
+                        + response.getClass().getSimpleName() + " to " + command.getClass().getSimpleName()));
+            }
         }
     }
 
@@ -426,6 +502,17 @@ public class BlueGigaSerialHandler {
      * @return true if the response was processed
      */
     private void notifyEventListeners(final BlueGigaResponse response) {
+        BlueGigaEventListener advertisementListener = this.advertisementListener;
+        if (advertisementListener != null && response instanceof BlueGigaScanResponseEvent) {
+            // Advertisements are by far the most frequent events, so they are not fanned out to all listeners
+            try {
+                advertisementListener.bluegigaEventReceived(response);
+            } catch (RuntimeException e) {
+                logger.warn("Execution error of the BlueGiga advertisement listener.", e);
+            }
+            return;
+        }
+
         synchronized (this) {
             // Notify the listeners
             for (final BlueGigaEventListener listener : eventListeners) {
@@ -440,6 +527,16 @@ public class BlueGigaSerialHandler {
         }
     }
 
+    /**
+     * Sets the listener that receives all {@link BlueGigaScanResponseEvent}s. The listener is called directly on the
+     * parser thread and must return quickly. While it is set, the event listeners don't receive scan responses.
+     *
+     * @param listener the advertisement listener or null to deliver scan responses to the event listeners again
+     */
+    public void setAdvertisementListener(BlueGigaEventListener listener) {
+        advertisementListener = listener;
+    }
+
     /**
      * Adds a handler listener.
      *
@@ -492,8 +589,4 @@ public class BlueGigaSerialHandler {
         }
     }
 
-    interface BluetoothListener<T extends BlueGigaResponse> {
-        boolean transactionEvent(BlueGigaResponse response);
-    }
-
 }
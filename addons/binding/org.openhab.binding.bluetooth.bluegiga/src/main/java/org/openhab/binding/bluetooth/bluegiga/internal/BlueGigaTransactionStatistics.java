@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.bluegiga.internal;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency statistics of the transactions of one {@link BlueGigaCommand} class. The latency is measured from the time
+ * the command was written to the dongle until the response was received.
+ *
+ * @author agent - Initial contribution
+ */
+public class BlueGigaTransactionStatistics {
+    private long count;
+    private long failures;
+    private long totalNanos;
+    private long maxNanos;
+
+    synchronized void recordResponse(long latencyNanos) {
+        count++;
+        totalNanos += latencyNanos;
+        if (latencyNanos > maxNanos) {
+            maxNanos = latencyNanos;
+        }
+    }
+
+    synchronized void recordFailure() {
+        failures++;
+    }
+
+    /**
+     * @return the number of completed transactions
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the number of transactions that timed out or failed to be sent
+     */
+    public synchronized long getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return the average latency in microseconds
+     */
+    public synchronized long getAverageLatency() {
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalNanos / count);
+    }
+
+    /**
+     * @return the maximum latency in microseconds
+     */
+    public synchronized long getMaxLatency() {
+        return TimeUnit.NANOSECONDS.toMicros(maxNanos);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "[count=" + count + ", failures=" + failures + ", avg=" + getAverageLatency() + "us, max="
+                + getMaxLatency() + "us]";
+    }
+}
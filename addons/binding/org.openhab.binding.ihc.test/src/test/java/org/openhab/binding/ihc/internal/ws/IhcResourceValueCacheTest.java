@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ihc.internal.ws;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.ihc.internal.ws.resourcevalues.WSBooleanValue;
+import org.openhab.binding.ihc.internal.ws.resourcevalues.WSResourceValue;
+
+/**
+ * Test for IHC / ELKO binding
+ *
+ * @author agent - Initial contribution
+ */
+public class IhcResourceValueCacheTest {
+
+    private IhcResourceValueCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new IhcResourceValueCache();
+    }
+
+    @Test
+    public void testNotificationUpdatesValue() {
+        cache.put(new WSBooleanValue(11111, true));
+        cache.put(new WSBooleanValue(11111, false));
+
+        assertEquals(false, ((WSBooleanValue) cache.get(11111)).value);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testQueryResultIsStored() {
+        long version = cache.getVersion();
+        WSResourceValue value = cache.putQueryResult(new WSBooleanValue(11111, true), version);
+
+        assertEquals(true, ((WSBooleanValue) value).value);
+        assertEquals(true, ((WSBooleanValue) cache.get(11111)).value);
+    }
+
+    @Test
+    public void testQueryResultDoesNotOverrideNewerNotification() {
+        long version = cache.getVersion();
+        cache.put(new WSBooleanValue(11111, false));
+        WSResourceValue value = cache.putQueryResult(new WSBooleanValue(11111, true), version);
+
+        assertEquals(false, ((WSBooleanValue) value).value);
+        assertEquals(false, ((WSBooleanValue) cache.get(11111)).value);
+    }
+
+    @Test
+    public void testQueryResultOverridesOlderNotification() {
+        cache.put(new WSBooleanValue(11111, false));
+        long version = cache.getVersion();
+        WSResourceValue value = cache.putQueryResult(new WSBooleanValue(11111, true), version);
+
+        assertEquals(true, ((WSBooleanValue) value).value);
+        assertEquals(true, ((WSBooleanValue) cache.get(11111)).value);
+    }
+
+    @Test
+    public void testClear() {
+        cache.put(new WSBooleanValue(11111, true));
+        cache.clear();
+
+        assertNull(cache.get(11111));
+        assertEquals(0, cache.size());
+    }
+}
@@ -18,6 +18,7 @@ import static org.mockito.Mockito.*;
 
 import java.net.SocketTimeoutException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Before;
@@ -136,6 +137,22 @@ public class IhcResourceInteractionServiceTest {
 
         doReturn(resourceValueNotificationsResponse).when(ihcResourceInteractionService).sendQuery(eq(url), any(),
                 eq(resourceValueNotificationsQuery), anyInt());
+
+        final String resourceValuesQuery = ResourceFileUtils
+                .getFileContent("src/test/resources/ResourceValuesQuery.xml");
+        final String resourceValuesQueryResponse = ResourceFileUtils
+                .getFileContent("src/test/resources/ResourceValuesQueryResponse.xml");
+
+        doReturn(resourceValuesQueryResponse).when(ihcResourceInteractionService).sendQuery(eq(url), any(),
+                eq(resourceValuesQuery), anyInt());
+
+        final String resourceValuesUpdate = ResourceFileUtils
+                .getFileContent("src/test/resources/ResourceValuesUpdate.xml");
+        final String resourceValuesUpdateOkResult = ResourceFileUtils
+                .getFileContent("src/test/resources/ResourceValuesUpdateOkResult.xml");
+
+        doReturn(resourceValuesUpdateOkResult).when(ihcResourceInteractionService).sendQuery(eq(url), any(),
+                eq(resourceValuesUpdate), anyInt());
     }
 
     @Test
@@ -315,4 +332,25 @@ public class IhcResourceInteractionServiceTest {
         }
         assertEquals(8, found.size());
     }
+
+    @Test
+    public void testMultipleResourceValuesQuery() throws IhcExecption {
+        final List<WSResourceValue> list = ihcResourceInteractionService.resourceQuery(Arrays.asList(11111, 22222));
+        assertEquals(2, list.size());
+
+        assertEquals(11111, list.get(0).resourceID);
+        assertEquals(true, ((WSBooleanValue) list.get(0)).value);
+
+        assertEquals(22222, list.get(1).resourceID);
+        assertEquals(24.40, ((WSFloatingPointValue) list.get(1)).value, 0.001);
+        assertEquals(-1000.00, ((WSFloatingPointValue) list.get(1)).minimumValue, 0.001);
+        assertEquals(1000.00, ((WSFloatingPointValue) list.get(1)).maximumValue, 0.001);
+    }
+
+    @Test
+    public void testMultipleResourceValuesUpdate() throws IhcExecption {
+        boolean result = ihcResourceInteractionService.resourceUpdate(
+                Arrays.asList(new WSBooleanValue(100001, true), new WSIntegerValue(400004, 201, -1000, 1000)));
+        assertTrue(result);
+    }
 }
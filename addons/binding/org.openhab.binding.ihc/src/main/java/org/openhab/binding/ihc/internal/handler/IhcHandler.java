@@ -24,9 +24,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -94,6 +97,9 @@ public class IhcHandler extends BaseThingHandler implements IhcEventListener {
     /** Holds runtime notification reorder timeout in milliseconds */
     private static final int NOTIFICATIONS_REORDER_WAIT_TIME = 1000;
 
+    /** Time in milliseconds to collect channel refresh requests to a single query */
+    private static final int REFRESH_COLLECT_TIME = 100;
+
     /** IHC / ELKO LS Controller client */
     private IhcClient ihc;
 
@@ -114,7 +120,7 @@ public class IhcHandler extends BaseThingHandler implements IhcEventListener {
 
     private IhcConfiguration conf;
     private final Set<Integer> linkedResourceIds = Collections.synchronizedSet(new HashSet<>());
-    private Map<Integer, LocalDateTime> lastUpdate = new HashMap<>();
+    private Map<Integer, LocalDateTime> lastUpdate = new ConcurrentHashMap<>();
     private EnumDictionary enumDictionary;
 
     private boolean connecting = false;
@@ -124,7 +130,18 @@ public class IhcHandler extends BaseThingHandler implements IhcEventListener {
     private ScheduledFuture<?> controlJob;
     private ScheduledFuture<?> pollingJobRf;
 
-    private Map<String, ScheduledFuture<?>> longPressFutures = new HashMap<>();
+    private Map<String, ScheduledFuture<?>> longPressFutures = new ConcurrentHashMap<>();
+
+    /** Channels indexed by resource id */
+    private volatile Map<Integer, List<Channel>> resourceChannels = Collections.emptyMap();
+
+    /** Resources waiting to be refreshed from the controller */
+    private final Set<Integer> pendingRefreshResourceIds = ConcurrentHashMap.newKeySet();
+    private ScheduledFuture<?> refreshJob;
+
+    /** Resource values waiting to be updated to the controller, by resource id */
+    private final Map<Integer, WSResourceValue> pendingUpdates = new LinkedHashMap<>();
+    private Future<?> updateJob;
 
     public IhcHandler(Thing thing) {
         super(thing);
@@ -182,6 +199,7 @@ public class IhcHandler extends BaseThingHandler implements IhcEventListener {
         linkedResourceIds.clear();
         linkedResourceIds.addAll(getAllLinkedChannelsResourceIds());
         logger.debug("Linked resources {}: {}", linkedResourceIds.size(), linkedResourceIds);
+        updateResourceChannels();
 
         if (controlJob == null || controlJob.isCancelled()) {
             logger.debug("Start control task, interval={}sec", 1);
@@ -196,6 +214,20 @@ public class IhcHandler extends BaseThingHandler implements IhcEventListener {
             controlJob.cancel(true);
             controlJob = null;
         }
+        synchronized (pendingRefreshResourceIds) {
+            if (refreshJob != null) {
+                refreshJob.cancel(false);
+                refreshJob = null;
+            }
+            pendingRefreshResourceIds.clear();
+        }
+        synchronized (pendingUpdates) {
+            if (updateJob != null) {
+                updateJob.cancel(false);
+                updateJob = null;
+            }
+            pendingUpdates.clear();
+        }
         disconnect();
     }
 
@@ -254,16 +286,51 @@ public class IhcHandler extends BaseThingHandler implements IhcEventListener {
                     logger.warn("Write only channel, skip refresh command to {}", channelUID);
                     return;
                 }
-                WSResourceValue value = ihc.resourceQuery(params.getResourceId());
-                resourceValueUpdateReceived(value);
-            } catch (IhcExecption e) {
-                logger.warn("Can't update channel '{}' value, reason: {}", channelUID, e.getMessage(), e);
+                if (params.getResourceId() != null) {
+                    scheduleResourceRefresh(params.getResourceId());
+                }
             } catch (ConversionException e) {
                 logger.warn("Channel param error, reason: {}.", e.getMessage(), e);
             }
         }
     }
 
+    /**
+     * Refresh requests are typically received for all channels at once, e.g.
+     * when the thing is initialized. Collect requests for a short while and
+     * query all the resources with a single request.
+     */
+    private void scheduleResourceRefresh(int resourceId) {
+        synchronized (pendingRefreshResourceIds) {
+            pendingRefreshResourceIds.add(resourceId);
+            if (refreshJob == null || refreshJob.isDone()) {
+                refreshJob = scheduler.schedule(this::refreshPendingResources, REFRESH_COLLECT_TIME,
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void refreshPendingResources() {
+        Set<Integer> resourceIds;
+        synchronized (pendingRefreshResourceIds) {
+            resourceIds = new HashSet<>(pendingRefreshResourceIds);
+            pendingRefreshResourceIds.clear();
+            refreshJob = null;
+        }
+
+        IhcClient client = ihc;
+        if (resourceIds.isEmpty() || client == null) {
+            return;
+        }
+        logger.debug("Refresh {} resources: {}", resourceIds.size(), resourceIds);
+        try {
+            List<WSResourceValue> values = client.getResourceValues(resourceIds);
+            values.forEach(this::resourceValueUpdateReceived);
+        } catch (IhcExecption e) {
+            logger.warn("Can't refresh resource values, reason: {}", e.getMessage(), e);
+        }
+    }
+
     private void updateControllerStateChannel() {
         try {
             String state = ihc.getControllerState().getState();
@@ -396,9 +463,7 @@ public class IhcHandler extends BaseThingHandler implements IhcEventListener {
         if (converter != null) {
             WSResourceValue val = converter.convertFromOHType(command, value, converterAdditionalInfo);
             logger.debug("Update resource value (inverted output={}): {}", params.isInverted(), val);
-            if (!updateResource(val)) {
-                logger.warn("Channel {} update to resource '{}' failed.", channelUID, val);
-            }
+            scheduleResourceUpdate(val);
         } else {
             logger.debug("No converter implemented for {} <-> {}", value.getClass(), command.getClass());
         }
@@ -455,6 +520,62 @@ public class IhcHandler extends BaseThingHandler implements IhcEventListener {
         }
     }
 
+    /**
+     * Commands are often received for several channels at once, e.g. by
+     * rules or groups. Updates received while the previous updates are sent
+     * are collected and sent to the controller with a single request. Only
+     * the latest value of a resource is sent.
+     */
+    private void scheduleResourceUpdate(WSResourceValue value) {
+        synchronized (pendingUpdates) {
+            // the resource moves to the end, so the values are sent in the order of their latest update
+            pendingUpdates.remove(value.resourceID);
+            pendingUpdates.put(value.resourceID, value);
+            if (updateJob == null) {
+                updateJob = scheduler.submit(this::updatePendingResources);
+            }
+        }
+    }
+
+    private void updatePendingResources() {
+        while (true) {
+            List<WSResourceValue> values;
+            synchronized (pendingUpdates) {
+                if (pendingUpdates.isEmpty()) {
+                    updateJob = null;
+                    return;
+                }
+                values = new ArrayList<>(pendingUpdates.values());
+                pendingUpdates.clear();
+            }
+
+            logger.debug("Update {} resource values", values.size());
+            try {
+                if (!updateResources(values)) {
+                    logger.warn("Update of resource values {} failed.", values);
+                }
+            } catch (IhcExecption | RuntimeException e) {
+                logger.error("Can't update resource values {}, cause {}", values, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Update multiple resource values to IHC controller.
+     */
+    private boolean updateResources(List<WSResourceValue> values) throws IhcExecption {
+        IhcClient client = ihc;
+        if (client == null) {
+            return false;
+        }
+        try {
+            return client.resourceUpdates(values);
+        } catch (IhcExecption e) {
+            logger.warn("Values could not be updated - retrying one time: {}.", e.getMessage(), e);
+            return client.resourceUpdates(values);
+        }
+    }
+
     /**
      * Update resource value to IHC controller.
      */
@@ -547,11 +668,13 @@ public class IhcHandler extends BaseThingHandler implements IhcEventListener {
                     "Initializing communication to the IHC / ELKO controller");
             loadProject();
             createChannels();
+            updateResourceChannels();
             updateControllerProperties();
             updateControllerStateChannel();
             updateControllerInformationChannels();
             updateControllerTimeChannels();
             ihc.addEventListener(this);
+            ihc.setNotificationExecutor(scheduler);
             ihc.startControllerEventListeners();
             updateNotificationsRequestReminder();
             startRFPolling();
@@ -615,6 +738,30 @@ public class IhcHandler extends BaseThingHandler implements IhcEventListener {
         }
     }
 
+    /**
+     * Index channels by resource id, so that resource value notifications can
+     * be mapped to the channels without going through all the channels.
+     */
+    private void updateResourceChannels() {
+        Map<Integer, List<Channel>> index = new HashMap<>();
+        getThing().getChannels().forEach(channel -> {
+            try {
+                Integer resourceId = new ChannelParams(channel).getResourceId();
+                if (resourceId != null) {
+                    index.computeIfAbsent(resourceId, id -> new ArrayList<>()).add(channel);
+                }
+            } catch (ConversionException e) {
+                logger.warn("Channel param error, reason: {}.", e.getMessage(), e);
+            }
+        });
+        logger.debug("{} resources mapped to channels", index.size());
+        resourceChannels = index;
+    }
+
+    private List<Channel> getResourceChannels(int resourceId) {
+        return resourceChannels.getOrDefault(resourceId, Collections.emptyList());
+    }
+
     private void printChannels(List<Channel> thingChannels) {
         if (logger.isDebugEnabled()) {
             thingChannels.forEach(channel -> {
@@ -710,12 +857,10 @@ public class IhcHandler extends BaseThingHandler implements IhcEventListener {
     public void resourceValueUpdateReceived(WSResourceValue value) {
         logger.debug("resourceValueUpdateReceived: {}", value);
 
-        thing.getChannels().forEach(channel -> {
+        getResourceChannels(value.resourceID).forEach(channel -> {
             try {
                 ChannelParams params = new ChannelParams(channel);
-                if (params.getResourceId() != null && params.getResourceId().intValue() == value.resourceID) {
-                    updateChannelState(channel, params, value);
-                }
+                updateChannelState(channel, params, value);
             } catch (ConversionException e) {
                 logger.warn("Channel param error, reason: {}.", e.getMessage(), e);
             } catch (RuntimeException e) {
@@ -777,31 +922,29 @@ public class IhcHandler extends BaseThingHandler implements IhcEventListener {
     }
 
     private void updateTriggers(int resourceId, Duration duration) {
-        thing.getChannels().forEach(channel -> {
+        getResourceChannels(resourceId).forEach(channel -> {
             try {
                 ChannelParams params = new ChannelParams(channel);
-                if (params.getResourceId() != null && params.getResourceId().intValue() == resourceId) {
-                    if (params.getChannelTypeId() != null) {
-                        switch (params.getChannelTypeId()) {
-                            case CHANNEL_TYPE_PUSH_BUTTON_TRIGGER:
-                                logger.debug("Update trigger channel '{}', channel params: {}",
-                                        channel.getUID().getId(), params);
-                                if (duration.toMillis() == 0) {
-                                    triggerChannel(channel.getUID().getId(), EVENT_PRESSED);
-                                    createLongPressTask(channel.getUID().getId(), params.getLongPressTime());
-                                } else {
-                                    cancelLongPressTask(channel.getUID().getId());
-                                    triggerChannel(channel.getUID().getId(), EVENT_RELEASED);
-                                    triggerChannel(channel.getUID().getId(), String.valueOf(duration.toMillis()));
-                                    ButtonPressDurationDetector button = new ButtonPressDurationDetector(duration,
-                                            params.getLongPressTime(), MAX_LONG_PRESS_IN_MS);
-                                    logger.debug("resourceId={}, ButtonPressDurationDetector={}", resourceId, button);
-                                    if (button.isShortPress()) {
-                                        triggerChannel(channel.getUID().getId(), EVENT_SHORT_PRESS);
-                                    }
-                                    break;
+                if (params.getChannelTypeId() != null) {
+                    switch (params.getChannelTypeId()) {
+                        case CHANNEL_TYPE_PUSH_BUTTON_TRIGGER:
+                            logger.debug("Update trigger channel '{}', channel params: {}",
+                                    channel.getUID().getId(), params);
+                            if (duration.toMillis() == 0) {
+                                triggerChannel(channel.getUID().getId(), EVENT_PRESSED);
+                                createLongPressTask(channel.getUID().getId(), params.getLongPressTime());
+                            } else {
+                                cancelLongPressTask(channel.getUID().getId());
+                                triggerChannel(channel.getUID().getId(), EVENT_RELEASED);
+                                triggerChannel(channel.getUID().getId(), String.valueOf(duration.toMillis()));
+                                ButtonPressDurationDetector button = new ButtonPressDurationDetector(duration,
+                                        params.getLongPressTime(), MAX_LONG_PRESS_IN_MS);
+                                logger.debug("resourceId={}, ButtonPressDurationDetector={}", resourceId, button);
+                                if (button.isShortPress()) {
+                                    triggerChannel(channel.getUID().getId(), EVENT_SHORT_PRESS);
                                 }
-                        }
+                                break;
+                            }
                     }
                 }
             } catch (ConversionException e) {
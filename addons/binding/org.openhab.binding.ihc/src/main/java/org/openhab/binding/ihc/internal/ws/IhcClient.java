@@ -19,11 +19,14 @@ import java.io.InputStreamReader;
 import java.net.SocketTimeoutException;
 import java.util.ArrayList;
 import java.util.Base64;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.zip.GZIPInputStream;
 
 import org.apache.commons.io.IOUtils;
@@ -65,6 +68,12 @@ public class IhcClient {
 
     private static final int NOTIFICATION_WAIT_TIMEOUT_IN_SEC = 5;
 
+    /** Maximum number of resources queried or updated in a single request */
+    private static final int MAX_RESOURCES_PER_REQUEST = 100;
+
+    /** Number of parallel lanes used to dispatch resource value notifications */
+    private static final int NOTIFICATION_DISPATCH_LANES = 4;
+
     private final Logger logger = LoggerFactory.getLogger(IhcClient.class);
 
     private ConnectionState connState = ConnectionState.DISCONNECTED;
@@ -92,8 +101,11 @@ public class IhcClient {
     /** Timeout in milliseconds */
     private int timeout;
 
-    private Map<Integer, WSResourceValue> resourceValues = new HashMap<Integer, WSResourceValue>();
-    private List<IhcEventListener> eventListeners = new ArrayList<IhcEventListener>();
+    private final IhcResourceValueCache resourceValues = new IhcResourceValueCache();
+    private final List<IhcEventListener> eventListeners = new CopyOnWriteArrayList<IhcEventListener>();
+
+    /** Executor used to dispatch resource value notifications, null to dispatch in the listener thread */
+    private volatile Executor notificationExecutor;
 
     public IhcClient(String host, String username, String password) {
         this(host, username, password, 5000);
@@ -122,6 +134,21 @@ public class IhcClient {
         eventListeners.remove(listener);
     }
 
+    /**
+     * Set executor used to dispatch resource value notifications to the event
+     * listeners.
+     *
+     * Notifications are divided to lanes by resource id and lanes are
+     * dispatched in parallel, so notifications of the same resource are always
+     * delivered in order. If executor is not set, notifications are dispatched
+     * sequentially in the notification listener thread.
+     *
+     * @param executor Executor or null.
+     */
+    public void setNotificationExecutor(Executor executor) {
+        this.notificationExecutor = executor;
+    }
+
     /**
      * Open connection and authenticate session to IHC / ELKO LS controller.
      *
@@ -158,6 +185,7 @@ public class IhcClient {
                 // do nothing
             }
         }
+        resourceValues.clear();
         logger.debug("Connection closed");
         setConnectionState(ConnectionState.DISCONNECTED);
     }
@@ -373,7 +401,7 @@ public class IhcClient {
         List<WSResourceValue> list = resourceInteractionService.waitResourceValueNotifications(timeoutInSeconds);
 
         for (WSResourceValue val : list) {
-            resourceValues.put(val.resourceID, val);
+            resourceValues.put(val);
         }
         return list;
     }
@@ -381,12 +409,37 @@ public class IhcClient {
     /**
      * Query resource value from controller.
      *
+     * If a notification for the resource is received while the query is in
+     * progress, the newer notified value is returned.
      *
      * @param resoureId Resource Identifier.
      * @return Resource value.
      */
     public WSResourceValue resourceQuery(int resoureId) throws IhcExecption {
-        return resourceInteractionService.resourceQuery(resoureId);
+        long version = resourceValues.getVersion();
+        WSResourceValue value = resourceInteractionService.resourceQuery(resoureId);
+        return resourceValues.putQueryResult(value, version);
+    }
+
+    /**
+     * Query multiple resource values from controller.
+     *
+     * Resources are queried with as few requests as possible. If a
+     * notification for a resource is received while the query is in progress,
+     * the newer notified value is returned.
+     *
+     * @param resourceIds Resource Identifiers.
+     * @return List of resource values.
+     */
+    public List<WSResourceValue> getResourceValues(Collection<Integer> resourceIds) throws IhcExecption {
+        List<WSResourceValue> result = new ArrayList<WSResourceValue>(resourceIds.size());
+        for (List<Integer> ids : partition(new ArrayList<Integer>(resourceIds))) {
+            long version = resourceValues.getVersion();
+            for (WSResourceValue value : resourceInteractionService.resourceQuery(ids)) {
+                result.add(resourceValues.putQueryResult(value, version));
+            }
+        }
+        return result;
     }
 
     /**
@@ -406,7 +459,7 @@ public class IhcClient {
             WSResourceValue data = resourceValues.get(resourceId);
             if (data == null) {
                 // data is not available, read it from the controller
-                data = resourceInteractionService.resourceQuery(resourceId);
+                data = resourceQuery(resourceId);
             }
             return data;
         } else {
@@ -425,6 +478,30 @@ public class IhcClient {
         return resourceInteractionService.resourceUpdate(value);
     }
 
+    /**
+     * Update multiple resource values to controller.
+     *
+     * Values are updated with as few requests as possible.
+     *
+     * @param values Resource values.
+     * @return True if all values are successfully updated.
+     */
+    public boolean resourceUpdates(List<? extends WSResourceValue> values) throws IhcExecption {
+        boolean result = true;
+        for (List<? extends WSResourceValue> list : partition(values)) {
+            result &= resourceInteractionService.resourceUpdate(list);
+        }
+        return result;
+    }
+
+    private static <T> List<List<T>> partition(List<T> list) {
+        List<List<T>> partitions = new ArrayList<List<T>>();
+        for (int i = 0; i < list.size(); i += MAX_RESOURCES_PER_REQUEST) {
+            partitions.add(list.subList(i, Math.min(i + MAX_RESOURCES_PER_REQUEST, list.size())));
+        }
+        return partitions;
+    }
+
     /**
      * The IhcReader runs as a separate thread.
      *
@@ -433,6 +510,9 @@ public class IhcClient {
     private class IhcResourceValueNotificationListener extends Thread {
         private volatile boolean interrupted = false;
 
+        @SuppressWarnings("unchecked")
+        private final CompletableFuture<Void>[] lanes = new CompletableFuture[NOTIFICATION_DISPATCH_LANES];
+
         public void setInterrupted(boolean interrupted) {
             this.interrupted = interrupted;
             this.interrupt();
@@ -455,9 +535,7 @@ public class IhcClient {
                 List<WSResourceValue> resourceValueList = waitResourceValueNotifications(
                         NOTIFICATION_WAIT_TIMEOUT_IN_SEC);
                 logger.debug("{} new notifications received from controller", resourceValueList.size());
-                for (WSResourceValue value : resourceValueList) {
-                    sendResourceValueUpdateEvent(value);
-                }
+                dispatchResourceValueUpdateEvents(resourceValueList);
             } catch (IhcExecption e) {
                 if (!interrupted) {
                     logger.warn("New notifications wait failed...", e);
@@ -467,6 +545,43 @@ public class IhcClient {
             }
         }
 
+        private void dispatchResourceValueUpdateEvents(List<WSResourceValue> resourceValueList) {
+            Executor executor = notificationExecutor;
+            if (executor == null) {
+                for (WSResourceValue value : resourceValueList) {
+                    sendResourceValueUpdateEvent(value);
+                }
+                return;
+            }
+
+            List<List<WSResourceValue>> laneValues = new ArrayList<List<WSResourceValue>>();
+            for (int i = 0; i < NOTIFICATION_DISPATCH_LANES; i++) {
+                laneValues.add(new ArrayList<WSResourceValue>());
+            }
+            for (WSResourceValue value : resourceValueList) {
+                laneValues.get(Math.floorMod(value.resourceID, NOTIFICATION_DISPATCH_LANES)).add(value);
+            }
+
+            for (int i = 0; i < NOTIFICATION_DISPATCH_LANES; i++) {
+                List<WSResourceValue> values = laneValues.get(i);
+                if (!values.isEmpty()) {
+                    // chain to the previous dispatch of the lane to keep notifications in order. The task runs
+                    // whether the previous one completed normally or not.
+                    Runnable task = () -> values.forEach(IhcClient.this::sendResourceValueUpdateEvent);
+                    try {
+                        lanes[i] = lanes[i] == null || lanes[i].isDone() ? CompletableFuture.runAsync(task, executor)
+                                : lanes[i].handleAsync((result, e) -> {
+                                    task.run();
+                                    return null;
+                                }, executor);
+                    } catch (RejectedExecutionException e) {
+                        logger.debug("Notification dispatch rejected, dispatch in listener thread");
+                        task.run();
+                    }
+                }
+            }
+        }
+
         private void mysleep(long milli) {
             try {
                 sleep(milli);
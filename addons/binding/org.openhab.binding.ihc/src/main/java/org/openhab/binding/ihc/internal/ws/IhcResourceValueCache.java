@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ihc.internal.ws;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openhab.binding.ihc.internal.ws.resourcevalues.WSResourceValue;
+
+/**
+ * Thread safe cache for resource values.
+ *
+ * Every stored value is stamped with a version number. Values received from
+ * runtime notifications are always the newest information and replace the
+ * cached value. Values read from the controller are only stored if no
+ * notification for the same resource has been received after the query was
+ * started, so that a slow query can't overwrite a newer value with a stale
+ * one.
+ *
+ * @author agent - Initial contribution
+ */
+public class IhcResourceValueCache {
+
+    private final AtomicLong versionCounter = new AtomicLong();
+    private final Map<Integer, VersionedValue> values = new ConcurrentHashMap<>();
+
+    /**
+     * Get current version of the cache.
+     *
+     * Version should be taken before a query is sent to the controller and
+     * passed to {@link #putQueryResult(WSResourceValue, long)} with the query
+     * result.
+     *
+     * @return current version.
+     */
+    public long getVersion() {
+        return versionCounter.get();
+    }
+
+    /**
+     * Store value received from runtime value notification.
+     *
+     * @param value Resource value.
+     */
+    public void put(WSResourceValue value) {
+        values.put(value.resourceID, new VersionedValue(value, versionCounter.incrementAndGet()));
+    }
+
+    /**
+     * Store value read from the controller.
+     *
+     * @param value Resource value.
+     * @param queryVersion Cache version when the query was started.
+     * @return value which is cached after the update. This is the given value
+     *         or a newer value received during the query.
+     */
+    public WSResourceValue putQueryResult(WSResourceValue value, long queryVersion) {
+        return values.compute(value.resourceID, (id, cached) -> {
+            if (cached != null && cached.version > queryVersion) {
+                return cached;
+            }
+            return new VersionedValue(value, versionCounter.incrementAndGet());
+        }).value;
+    }
+
+    /**
+     * Get cached resource value.
+     *
+     * @param resourceId Resource Identifier.
+     * @return Resource value or null if value is not cached.
+     */
+    public WSResourceValue get(int resourceId) {
+        VersionedValue cached = values.get(resourceId);
+        return cached != null ? cached.value : null;
+    }
+
+    /**
+     * Remove all values from the cache.
+     */
+    public void clear() {
+        values.clear();
+    }
+
+    /**
+     * @return number of cached resource values.
+     */
+    public int size() {
+        return values.size();
+    }
+
+    private static class VersionedValue {
+        final WSResourceValue value;
+        final long version;
+
+        VersionedValue(WSResourceValue value, long version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+}
@@ -15,6 +15,7 @@ package org.openhab.binding.ihc.internal.ws.services;
 import java.io.IOException;
 import java.net.SocketTimeoutException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -88,6 +89,55 @@ public class IhcResourceInteractionService extends IhcBaseService {
         }
     }
 
+    /**
+     * Query multiple resource values from controller with a single request.
+     *
+     * @param resourceIds Resource Identifiers.
+     * @return List of resource values. Values of unknown resources are not
+     *         included to the list.
+     */
+    public List<WSResourceValue> resourceQuery(Collection<Integer> resourceIds) throws IhcExecption {
+        // @formatter:off
+        final String soapQueryPrefix =
+                  "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<soap:Envelope xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\" xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\">\n"
+                + " <soap:Body>\n"
+                + "  <getRuntimeValues1 xmlns=\"utcs\">\n";
+
+        final String soapQuerySuffix =
+                  "  </getRuntimeValues1>\n"
+                + " </soap:Body>\n"
+                + "</soap:Envelope>";
+        // @formatter:on
+
+        StringBuilder query = new StringBuilder(soapQueryPrefix);
+        for (int i : resourceIds) {
+            query.append("   <xsd:arrayItem>").append(i).append("</xsd:arrayItem>\n");
+        }
+        query.append(soapQuerySuffix);
+        String response = sendSoapQuery(null, query.toString());
+        List<WSResourceValue> resourceValueList = new ArrayList<WSResourceValue>();
+
+        try {
+            NodeList nodeList = XPathUtils.parseList(response,
+                    "/SOAP-ENV:Envelope/SOAP-ENV:Body/ns1:getRuntimeValues2/ns1:arrayItem");
+
+            if (nodeList != null) {
+                for (int i = 0; i < nodeList.getLength(); i++) {
+                    WSResourceValue val = parseResourceValue(nodeList.item(i));
+                    if (val != null) {
+                        resourceValueList.add(val);
+                    }
+                }
+            } else {
+                throw new IhcExecption("No resource values found");
+            }
+            return resourceValueList;
+        } catch (XPathExpressionException | NumberFormatException | IOException e) {
+            throw new IhcExecption("Error occured during XML data parsing", e);
+        }
+    }
+
     private WSResourceValue parseResourceValue(Node n) throws XPathExpressionException, NumberFormatException {
         // parse resource id
         String resourceId = XPathUtils.getSpeficValueFromNode(n, "ns1:resourceID");
@@ -386,6 +436,93 @@ public class IhcResourceInteractionService extends IhcBaseService {
         }
     }
 
+    /**
+     * Update multiple resource values to controller with a single request.
+     *
+     * @param values Resource values.
+     * @return True if all values are successfully updated.
+     */
+    public boolean resourceUpdate(List<? extends WSResourceValue> values) throws IhcExecption {
+        // @formatter:off
+        final String soapQueryPrefix =
+                  "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<soap:Envelope xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\" xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\">\n"
+                + " <soap:Body>\n"
+                + "  <setResourceValues1 xmlns=\"utcs\">\n";
+
+        final String soapQueryItem =
+                  "   <arrayItem>\n"
+                + "%s"
+                + "    <resourceID>%s</resourceID>\n"
+                + "    <isValueRuntime>true</isValueRuntime>\n"
+                + "   </arrayItem>\n";
+
+        final String soapQuerySuffix =
+                  "  </setResourceValues1>\n"
+                + " </soap:Body>\n"
+                + "</soap:Envelope>";
+        // @formatter:on
+
+        StringBuilder query = new StringBuilder(soapQueryPrefix);
+        for (WSResourceValue value : values) {
+            query.append(String.format(soapQueryItem, createValueElement(value), value.resourceID));
+        }
+        query.append(soapQuerySuffix);
+
+        String response = sendSoapQuery(null, query.toString());
+        try {
+            return Boolean.parseBoolean(
+                    XPathUtils.parseXMLValue(response, "/SOAP-ENV:Envelope/SOAP-ENV:Body/ns1:setResourceValues2"));
+        } catch (IOException | XPathExpressionException e) {
+            throw new IhcExecption(e);
+        }
+    }
+
+    private String createValueElement(WSResourceValue value) throws IhcExecption {
+        final String valueTemplate = "    <value xmlns:q1=\"utcs.values\" xsi:type=\"q1:%s\">\n%s    </value>\n";
+        final String fieldTemplate = "     <q1:%s>%s</q1:%s>\n";
+
+        StringBuilder fields = new StringBuilder();
+        if (value instanceof WSFloatingPointValue) {
+            WSFloatingPointValue v = (WSFloatingPointValue) value;
+            fields.append(String.format(fieldTemplate, "maximumValue", v.maximumValue, "maximumValue"));
+            fields.append(String.format(fieldTemplate, "minimumValue", v.minimumValue, "minimumValue"));
+            fields.append(String.format(fieldTemplate, "floatingPointValue", v.value, "floatingPointValue"));
+        } else if (value instanceof WSBooleanValue) {
+            WSBooleanValue v = (WSBooleanValue) value;
+            fields.append(String.format(fieldTemplate, "value", v.value ? "true" : "false", "value"));
+        } else if (value instanceof WSIntegerValue) {
+            WSIntegerValue v = (WSIntegerValue) value;
+            fields.append(String.format(fieldTemplate, "maximumValue", v.maximumValue, "maximumValue"));
+            fields.append(String.format(fieldTemplate, "minimumValue", v.minimumValue, "minimumValue"));
+            fields.append(String.format(fieldTemplate, "integer", v.value, "integer"));
+        } else if (value instanceof WSTimerValue) {
+            WSTimerValue v = (WSTimerValue) value;
+            fields.append(String.format(fieldTemplate, "milliseconds", v.milliseconds, "milliseconds"));
+        } else if (value instanceof WSWeekdayValue) {
+            WSWeekdayValue v = (WSWeekdayValue) value;
+            fields.append(String.format(fieldTemplate, "weekdayNumber", v.weekdayNumber, "weekdayNumber"));
+        } else if (value instanceof WSEnumValue) {
+            WSEnumValue v = (WSEnumValue) value;
+            fields.append(String.format(fieldTemplate, "definitionTypeID", v.definitionTypeID, "definitionTypeID"));
+            fields.append(String.format(fieldTemplate, "enumValueID", v.enumValueID, "enumValueID"));
+            fields.append(String.format(fieldTemplate, "enumName", v.enumName, "enumName"));
+        } else if (value instanceof WSTimeValue) {
+            WSTimeValue v = (WSTimeValue) value;
+            fields.append(String.format(fieldTemplate, "hours", v.hours, "hours"));
+            fields.append(String.format(fieldTemplate, "minutes", v.minutes, "minutes"));
+            fields.append(String.format(fieldTemplate, "seconds", v.seconds, "seconds"));
+        } else if (value instanceof WSDateValue) {
+            WSDateValue v = (WSDateValue) value;
+            fields.append(String.format(fieldTemplate, "month", v.month, "month"));
+            fields.append(String.format(fieldTemplate, "year", v.year, "year"));
+            fields.append(String.format(fieldTemplate, "day", v.day, "day"));
+        } else {
+            throw new IhcExecption("Unsupported value type " + value.getClass().toString());
+        }
+        return String.format(valueTemplate, value.getClass().getSimpleName(), fields);
+    }
+
     /**
      * Enable resources runtime value notifications.
      *
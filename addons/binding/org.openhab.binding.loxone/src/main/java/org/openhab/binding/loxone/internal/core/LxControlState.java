@@ -83,6 +83,24 @@ class LxControlState {
         }
     }
 
+    /**
+     * Sets current value of the control's state, received in a batch of value updates
+     * The value is boxed only when it differs from the current value.
+     *
+     * @param value
+     *            current state's value to set
+     */
+    void setValue(double value) {
+        uuid.setUpdate(true);
+
+        if (this.value == null || Double.compare(this.value, value) != 0) {
+            this.value = value;
+            for (LxControlStateListener listener : listeners) {
+                listener.onStateChange(this);
+            }
+        }
+    }
+
     /**
      * Sets current text value of the control's state
      *
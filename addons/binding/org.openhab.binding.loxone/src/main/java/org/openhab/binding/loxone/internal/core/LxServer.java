@@ -100,6 +100,8 @@ public class LxServer {
     // the state. It must be ensured that updates received for this state UUID are passed to all controls that have this
     // state UUID configured.
     private final Map<LxUuid, Map<LxUuid, LxControlState>> states = new HashMap<>();
+    // Index of the above states by binary UUID, used to resolve batches of state updates
+    private LxStateIndex stateIndex = new LxStateIndex(states);
     private final List<LxServerListener> listeners = new ArrayList<>();
 
     // Services
@@ -468,6 +470,9 @@ public class LxServer {
                         });
                     }
                     break;
+                case STATE_UPDATE_BATCH:
+                    processStateUpdates((LxWsStateUpdateBatch) wsMsg.getObject());
+                    break;
                 case SERVER_ONLINE:
                     for (LxServerListener listener : listeners) {
                         listener.onServerGoesOnline();
@@ -510,6 +515,45 @@ public class LxServer {
             return true;
         }
 
+        private void processStateUpdates(LxWsStateUpdateBatch batch) {
+            int unknown = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                LxControlState[] perStateUuid = stateIndex.get(batch.getUuidHigh(i), batch.getUuidLow(i));
+                if (perStateUuid != null) {
+                    for (LxControlState state : perStateUuid) {
+                        updateState(state, batch.getValue(i));
+                    }
+                } else {
+                    // state UUID could not be indexed or is unknown
+                    Map<LxUuid, LxControlState> perUuid = findState(batch.getUuid(i));
+                    if (perUuid != null) {
+                        for (LxControlState state : perUuid.values()) {
+                            updateState(state, batch.getValue(i));
+                        }
+                    } else {
+                        unknown++;
+                    }
+                }
+            }
+            logger.debug("[{}] Processed {} state updates, {} of unknown states", debugId, batch.size(), unknown);
+        }
+
+        private void updateState(LxControlState state, double value) {
+            state.setValue(value);
+            LxControl control = state.getControl();
+            if (control != null) {
+                if (logger.isTraceEnabled()) {
+                    logger.trace("[{}] State update {} ({}:{}) to value {}", debugId, state.getUuid(),
+                            control.getName(), state.getName(), value);
+                }
+                for (LxServerListener listener : listeners) {
+                    listener.onControlStateUpdate(control, state.getName().toLowerCase());
+                }
+            } else {
+                logger.trace("[{}] State update {} ({}) of unknown control", debugId, state.getUuid(),
+                        state.getName());
+            }
+        }
     }
 
     /**
@@ -569,6 +613,8 @@ public class LxServer {
         removeUnusedFromMap(categories);
         removeUnusedFromMap(controls);
         removeUnusedFromMap(states);
+        stateIndex = new LxStateIndex(states);
+        logger.trace("[{}] indexed {} states", debugId, stateIndex.size());
     }
 
     /**
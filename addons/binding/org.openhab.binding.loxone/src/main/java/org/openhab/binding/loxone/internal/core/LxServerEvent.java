@@ -50,6 +50,11 @@ class LxServerEvent {
          * associated.
          */
         STATE_UPDATE,
+        /**
+         * Received a table of control's state value updates from Miniserver. There is a {@link LxWsStateUpdateBatch}
+         * object associated.
+         */
+        STATE_UPDATE_BATCH,
         /**
          * Received request to shutdown thread from {@link LxServer} object.
          */
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.loxone.internal.core;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Map;
+
+/**
+ * Index of control states by the binary form of their UUID
+ * <p>
+ * It is built from the state map of {@link LxServer} every time a new configuration is received and allows resolving
+ * states of a {@link LxWsStateUpdateBatch} without creating {@link LxUuid} objects. The index is an open addressing
+ * hash table and is not modified after creation.
+ *
+ * @author agent - initial contribution
+ *
+ */
+class LxStateIndex {
+    private static final LxControlState[] NO_STATES = new LxControlState[0];
+
+    private final long[] keys;
+    private final LxControlState[][] entries;
+    private final int mask;
+    private int size;
+
+    /**
+     * Create index of states
+     *
+     * @param states
+     *            map of state UUID to a map of control UUID and state objects
+     */
+    LxStateIndex(Map<LxUuid, Map<LxUuid, LxControlState>> states) {
+        int capacity = 16;
+        while (capacity < states.size() * 2) {
+            capacity <<= 1;
+        }
+        mask = capacity - 1;
+        keys = new long[capacity * 2];
+        entries = new LxControlState[capacity][];
+
+        long[] key = new long[2];
+        states.forEach((uuid, perControl) -> {
+            if (toBinary(uuid, key)) {
+                put(key[0], key[1], perControl.values().toArray(NO_STATES));
+            }
+        });
+    }
+
+    /**
+     * Get all states with given UUID
+     *
+     * @param high
+     *            bytes 0-7 of the UUID, little endian
+     * @param low
+     *            bytes 8-15 of the UUID, little endian
+     * @return
+     *         states with the UUID or null if there are no such states in the index
+     */
+    LxControlState[] get(long high, long low) {
+        for (int slot = slot(high, low);; slot = (slot + 1) & mask) {
+            LxControlState[] states = entries[slot];
+            if (states == null) {
+                return null;
+            }
+            if (keys[slot * 2] == high && keys[slot * 2 + 1] == low) {
+                return states;
+            }
+        }
+    }
+
+    /**
+     * Get number of state UUIDs in the index
+     *
+     * @return
+     *         number of indexed state UUIDs
+     */
+    int size() {
+        return size;
+    }
+
+    private void put(long high, long low, LxControlState[] states) {
+        int slot = slot(high, low);
+        while (entries[slot] != null) {
+            if (keys[slot * 2] == high && keys[slot * 2 + 1] == low) {
+                entries[slot] = states;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot * 2] = high;
+        keys[slot * 2 + 1] = low;
+        entries[slot] = states;
+        size++;
+    }
+
+    private int slot(long high, long low) {
+        long hash = (high ^ low) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Convert UUID to the binary form used in binary messages from the Miniserver
+     * This is a reverse operation to {@link LxUuid#LxUuid(byte[], int)}
+     *
+     * @param uuid
+     *            UUID to convert
+     * @param key
+     *            two element array to store the binary form
+     * @return
+     *         true if conversion succeeded, false if UUID has unexpected format
+     */
+    private static boolean toBinary(LxUuid uuid, long[] key) {
+        String[] parts = uuid.toString().split("-");
+        if (parts.length != 4 || parts[0].length() != 8 || parts[1].length() != 4 || parts[2].length() != 4
+                || parts[3].length() != 16) {
+            return false;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt((int) Long.parseLong(parts[0], 16));
+            buffer.putShort((short) Integer.parseInt(parts[1], 16));
+            buffer.putShort((short) Integer.parseInt(parts[2], 16));
+            buffer.order(ByteOrder.BIG_ENDIAN).putLong(Long.parseUnsignedLong(parts[3], 16));
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            key[0] = buffer.getLong(0);
+            key[1] = buffer.getLong(8);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -628,6 +628,7 @@ class LxWsClient {
                 String s = Hex.encodeHexString(data);
                 logger.trace("[{}] Binary message: length {}: {}", debugId, length, s);
             }
+            LxWsStateUpdateBatch batch = null;
             stateMachineLock.lock();
             try {
                 if (state != ClientState.RUNNING) {
@@ -655,12 +656,8 @@ class LxWsClient {
                     switch (header.type) {
                         case EVENT_TABLE_OF_VALUE_STATES:
                             stopResponseTimeout();
-                            while (length > 0) {
-                                LxWsStateUpdateEvent event = new LxWsStateUpdateEvent(true, data, offset);
-                                offset += event.getSize();
-                                length -= event.getSize();
-                                notifyMaster(EventType.STATE_UPDATE, null, event);
-                            }
+                            // decode the whole table at once, it will be passed to the server outside of the lock
+                            batch = new LxWsStateUpdateBatch(data, offset, length);
                             break;
                         case EVENT_TABLE_OF_TEXT_STATES:
                             while (length > 0) {
@@ -683,6 +680,10 @@ class LxWsClient {
             } finally {
                 stateMachineLock.unlock();
             }
+            if (batch != null) {
+                logger.trace("[{}] Received {} value state updates", debugId, batch.size());
+                notifyMaster(EventType.STATE_UPDATE_BATCH, null, batch);
+            }
         }
 
         @OnWebSocketMessage
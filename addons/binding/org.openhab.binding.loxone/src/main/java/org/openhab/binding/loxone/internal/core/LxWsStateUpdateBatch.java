@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.loxone.internal.core;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A table of value state updates received from Loxone Miniserver in a single binary message
+ * <p>
+ * Contrary to {@link LxWsStateUpdateEvent}, the whole table is decoded at once into flat arrays and no objects are
+ * created per state update. State UUIDs are kept in their binary form as two long values, as used by
+ * {@link LxStateIndex} to resolve the states.
+ *
+ * @author agent - initial contribution
+ *
+ */
+class LxWsStateUpdateBatch {
+    private static final int VALUE_EVENT_SIZE = 24;
+
+    private final long[] uuids;
+    private final double[] values;
+    private final int size;
+
+    /**
+     * Create new batch of value state updates from binary message
+     *
+     * @param data
+     *            buffer with binary message received from Miniserver
+     * @param offset
+     *            offset in buffer where the table of value states starts
+     * @param length
+     *            length of the table of value states in bytes
+     * @throws IndexOutOfBoundsException
+     *             when the table is malformed
+     */
+    LxWsStateUpdateBatch(byte data[], int offset, int length) throws IndexOutOfBoundsException {
+        if (length < 0 || length % VALUE_EVENT_SIZE != 0) {
+            throw new IndexOutOfBoundsException("Table of value states has wrong length " + length);
+        }
+        size = length / VALUE_EVENT_SIZE;
+        uuids = new long[size * 2];
+        values = new double[size];
+
+        ByteBuffer buffer = ByteBuffer.wrap(data, offset, length).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0, pos = offset; i < size; i++, pos += VALUE_EVENT_SIZE) {
+            uuids[i * 2] = buffer.getLong(pos);
+            uuids[i * 2 + 1] = buffer.getLong(pos + 8);
+            values[i] = buffer.getDouble(pos + 16);
+        }
+    }
+
+    /**
+     * Get number of state updates in the batch
+     *
+     * @return
+     *         number of state updates
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get first half of binary UUID of a state
+     *
+     * @param index
+     *            index of the state update in the batch
+     * @return
+     *         bytes 0-7 of the UUID, little endian
+     */
+    long getUuidHigh(int index) {
+        return uuids[index * 2];
+    }
+
+    /**
+     * Get second half of binary UUID of a state
+     *
+     * @param index
+     *            index of the state update in the batch
+     * @return
+     *         bytes 8-15 of the UUID, little endian
+     */
+    long getUuidLow(int index) {
+        return uuids[index * 2 + 1];
+    }
+
+    /**
+     * Get UUID of a state as an object. This creates a new object and should be used only when a state can't be
+     * resolved through the {@link LxStateIndex}.
+     *
+     * @param index
+     *            index of the state update in the batch
+     * @return
+     *         UUID of the state
+     */
+    LxUuid getUuid(int index) {
+        byte[] data = new byte[16];
+        ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).putLong(uuids[index * 2]).putLong(uuids[index * 2 + 1]);
+        return new LxUuid(data, 0);
+    }
+
+    /**
+     * Get value of a state
+     *
+     * @param index
+     *            index of the state update in the batch
+     * @return
+     *         new value of the state
+     */
+    double getValue(int index) {
+        return values[index];
+    }
+}
@@ -405,6 +405,19 @@ public class SysteminfoOSGiTest extends JavaOSGiTest {
         assertItemState(acceptedItemType, DEFAULT_TEST_ITEM_NAME, DEFAULT_CHANNEL_TEST_PRIORITY, mockedCpuThreadsValue);
     }
 
+    @Test
+    public void assertChannelCpuSnapshotDurationIsUpdated() {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_CPU_SNAPSHOT_DURATION;
+        String acceptedItemType = "Number";
+
+        DecimalType mockedSnapshotDurationValue = new DecimalType(2.5);
+        when(mockedSystemInfo.getSnapshotDuration()).thenReturn(mockedSnapshotDurationValue);
+
+        initializeThingWithChannel(channnelID, acceptedItemType);
+        assertItemState(acceptedItemType, DEFAULT_TEST_ITEM_NAME, DEFAULT_CHANNEL_TEST_PRIORITY,
+                mockedSnapshotDurationValue);
+    }
+
     @Test
     public void assertChannelCpuUptimeIsUpdated() {
         String channnelID = SysteminfoBindingConstants.CHANNEL_CPU_UPTIME;
@@ -670,6 +683,30 @@ public class SysteminfoOSGiTest extends JavaOSGiTest {
                 mockedDriveSerialNumber);
     }
 
+    @Test
+    public void assertChannelDriveReadRateIsUpdated() throws DeviceNotFoundException {
+        String channelID = SysteminfoBindingConstants.CHANNEL_DRIVE_READ_RATE;
+        String acceptedItemType = "Number";
+
+        DecimalType mockedDriveReadRate = new DecimalType(512.5);
+        when(mockedSystemInfo.getDriveReadRate(DEFAULT_DEVICE_INDEX)).thenReturn(mockedDriveReadRate);
+
+        initializeThingWithChannel(channelID, acceptedItemType);
+        assertItemState(acceptedItemType, DEFAULT_TEST_ITEM_NAME, DEFAULT_CHANNEL_TEST_PRIORITY, mockedDriveReadRate);
+    }
+
+    @Test
+    public void assertChannelDriveWriteRateIsUpdated() throws DeviceNotFoundException {
+        String channelID = SysteminfoBindingConstants.CHANNEL_DRIVE_WRITE_RATE;
+        String acceptedItemType = "Number";
+
+        DecimalType mockedDriveWriteRate = new DecimalType(128.0);
+        when(mockedSystemInfo.getDriveWriteRate(DEFAULT_DEVICE_INDEX)).thenReturn(mockedDriveWriteRate);
+
+        initializeThingWithChannel(channelID, acceptedItemType);
+        assertItemState(acceptedItemType, DEFAULT_TEST_ITEM_NAME, DEFAULT_CHANNEL_TEST_PRIORITY, mockedDriveWriteRate);
+    }
+
     @Ignore
     // There is a bug opened for this issue - https://github.com/dblock/oshi/issues/185
     @Test
@@ -811,6 +848,33 @@ public class SysteminfoOSGiTest extends JavaOSGiTest {
                 mockedNetworkDataReceiveed);
     }
 
+    @Test
+    public void assertChannelNetworkDataSentRateIsUpdated() throws DeviceNotFoundException {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_NETWORK_DATA_SENT_RATE;
+        String acceptedItemType = "Number";
+
+        DecimalType mockedNetworkDataSentRate = new DecimalType(12.5);
+        when(mockedSystemInfo.getNetworkDataSentRate(DEFAULT_DEVICE_INDEX)).thenReturn(mockedNetworkDataSentRate);
+
+        initializeThingWithChannel(channnelID, acceptedItemType);
+        assertItemState(acceptedItemType, DEFAULT_TEST_ITEM_NAME, DEFAULT_CHANNEL_TEST_PRIORITY,
+                mockedNetworkDataSentRate);
+    }
+
+    @Test
+    public void assertChannelNetworkDataReceivedRateIsUpdated() throws DeviceNotFoundException {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_NETWORK_DATA_RECEIVED_RATE;
+        String acceptedItemType = "Number";
+
+        DecimalType mockedNetworkDataReceivedRate = new DecimalType(80.2);
+        when(mockedSystemInfo.getNetworkDataReceivedRate(DEFAULT_DEVICE_INDEX))
+                .thenReturn(mockedNetworkDataReceivedRate);
+
+        initializeThingWithChannel(channnelID, acceptedItemType);
+        assertItemState(acceptedItemType, DEFAULT_TEST_ITEM_NAME, DEFAULT_CHANNEL_TEST_PRIORITY,
+                mockedNetworkDataReceivedRate);
+    }
+
     @Test
     public void assertChannelNetworkPacketsSentIsUpdated() throws DeviceNotFoundException {
         String channnelID = SysteminfoBindingConstants.CHANNEL_NETWORK_PACKETS_SENT;
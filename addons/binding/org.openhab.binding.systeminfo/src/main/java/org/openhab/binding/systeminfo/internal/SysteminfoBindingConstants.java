@@ -121,6 +121,16 @@ public class SysteminfoBindingConstants {
      */
     public static final String CHANNEL_DRIVE_SERIAL = "drive#serial";
 
+    /**
+     * Physical storage drive read rate in kB/s
+     */
+    public static final String CHANNEL_DRIVE_READ_RATE = "drive#readRate";
+
+    /**
+     * Physical storage drive write rate in kB/s
+     */
+    public static final String CHANNEL_DRIVE_WRITE_RATE = "drive#writeRate";
+
     /**
      * Name of the logical volume storage
      */
@@ -231,6 +241,11 @@ public class SysteminfoBindingConstants {
      */
     public static final String CHANNEL_CPU_THREADS = "cpu#threads";
 
+    /**
+     * Time in milliseconds, which the binding took to take the snapshot of the system information
+     */
+    public static final String CHANNEL_CPU_SNAPSHOT_DURATION = "cpu#snapshotDuration";
+
     /**
      * Information about the display device
      */
@@ -256,6 +271,16 @@ public class SysteminfoBindingConstants {
      */
     public static final String CHANNEL_NETWORK_DATA_RECEIVED = "network#dataReceived";
 
+    /**
+     * Network data sent rate in kB/s
+     */
+    public static final String CHANNEL_NETWORK_DATA_SENT_RATE = "network#dataSentRate";
+
+    /**
+     * Network data received rate in kB/s
+     */
+    public static final String CHANNEL_NETWORK_DATA_RECEIVED_RATE = "network#dataReceivedRate";
+
     /**
      * Network packets sent
      */
@@ -276,6 +301,51 @@ public class SysteminfoBindingConstants {
      */
     public static final String CHANNEL_NETWORK_MAC = "network#mac";
 
+    /**
+     * Name of the channel group for CPU information
+     */
+    public static final String CHANNEL_GROUP_CPU = "cpu";
+
+    /**
+     * Name of the channel group for physical memory information
+     */
+    public static final String CHANNEL_GROUP_MEMORY = "memory";
+
+    /**
+     * Name of the channel group for swap memory information
+     */
+    public static final String CHANNEL_GROUP_SWAP = "swap";
+
+    /**
+     * Name of the channel group for logical storage information
+     */
+    public static final String CHANNEL_GROUP_STORAGE = "storage";
+
+    /**
+     * Name of the channel group for physical storage drive information
+     */
+    public static final String CHANNEL_GROUP_DRIVE = "drive";
+
+    /**
+     * Name of the channel group for network information
+     */
+    public static final String CHANNEL_GROUP_NETWORK = "network";
+
+    /**
+     * Name of the channel group for display information
+     */
+    public static final String CHANNEL_GROUP_DISPLAY = "display";
+
+    /**
+     * Name of the channel group for sensor information
+     */
+    public static final String CHANNEL_GROUP_SENSORS = "sensors";
+
+    /**
+     * Name of the channel group for battery information
+     */
+    public static final String CHANNEL_GROUP_BATTERY = "battery";
+
     /**
      * Name of the channel group for process information
      */
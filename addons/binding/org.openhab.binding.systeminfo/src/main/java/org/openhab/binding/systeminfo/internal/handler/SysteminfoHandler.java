@@ -15,13 +15,14 @@ package org.openhab.binding.systeminfo.internal.handler;
 import static org.openhab.binding.systeminfo.internal.SysteminfoBindingConstants.*;
 
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.smarthome.config.core.Configuration;
@@ -222,33 +223,65 @@ public class SysteminfoHandler extends BaseThingHandler {
     private void scheduleUpdates() {
         logger.debug("Schedule high priority tasks at fixed rate {} s.", refreshIntervalHighPriority);
         highPriorityTasks = scheduler.scheduleWithFixedDelay(() -> {
-            publishData(highPriorityChannels);
+            publishData("High", highPriorityChannels);
         }, WAIT_TIME_CHANNEL_ITEM_LINK_INIT, refreshIntervalHighPriority.intValue(), TimeUnit.SECONDS);
 
         logger.debug("Schedule medium priority tasks at fixed rate {} s.", refreshIntervalMediumPriority);
         mediumPriorityTasks = scheduler.scheduleWithFixedDelay(() -> {
-            publishData(mediumPriorityChannels);
+            publishData("Medium", mediumPriorityChannels);
         }, WAIT_TIME_CHANNEL_ITEM_LINK_INIT, refreshIntervalMediumPriority.intValue(), TimeUnit.SECONDS);
 
         logger.debug("Schedule one time update for low priority tasks.");
         scheduler.schedule(() -> {
-            publishData(lowPriorityChannels);
+            publishData("Low", lowPriorityChannels);
         }, WAIT_TIME_CHANNEL_ITEM_LINK_INIT, TimeUnit.SECONDS);
 
     }
 
-    private void publishData(Set<ChannelUID> channels) {
+    /**
+     * Takes one snapshot of the channel groups of the linked channels and updates the channels from it. The updates of
+     * the different priorities and of all things are serialized, so that the channels of one priority are derived from
+     * the same snapshot.
+     * The rates are computed since the previous update with the same key, which is the priority for the periodic
+     * updates and the channel for a REFRESH command.
+     *
+     * @param key the priority or the channel, whose channels are updated
+     * @param channels the channels to update
+     */
+    private synchronized void publishData(String key, Set<ChannelUID> channels) {
         if (channels != null) {
-            Iterator<ChannelUID> iter = channels.iterator();
-            while (iter.hasNext()) {
-                ChannelUID channeUID = iter.next();
-                if (isLinked(channeUID.getId())) {
-                    publishDataForChannel(channeUID);
+            Set<ChannelUID> linkedChannels = channels.stream().filter(channelUID -> isLinked(channelUID.getId()))
+                    .collect(Collectors.toSet());
+            // The systeminfo service is shared by all things, so the channels have to be read from its snapshot before
+            // another thing takes the next one
+            synchronized (systeminfo) {
+                if (takeSnapshot(getThing().getUID().getAsString() + "#" + key, linkedChannels)) {
+                    linkedChannels.forEach(this::publishDataForChannel);
                 }
             }
         }
     }
 
+    private boolean takeSnapshot(String sampleKey, Set<ChannelUID> channels) {
+        // All digits are deleted from the group ID, as in getInfoForChannel(ChannelUID)
+        Set<String> channelGroups = channels.stream()
+                .map(channelUID -> channelUID.getGroupId().replaceAll("\\d+", "")).collect(Collectors.toSet());
+        if (channelGroups.isEmpty()) {
+            return true;
+        }
+        try {
+            systeminfo.takeSnapshot(sampleKey, channelGroups);
+        } catch (Exception e) {
+            logger.debug("Unexpected error occurred while getting system information!", e);
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
+                    "Cannot get system info as result of unexpected error. Please try to restart the binding (remove and re-add the thing)!");
+            return false;
+        }
+        logger.trace("Snapshot of channel groups {} for {} channels took {} ms", channelGroups, channels.size(),
+                systeminfo.getSnapshotDuration());
+        return true;
+    }
+
     private void publishDataForChannel(ChannelUID channelUID) {
         State state = getInfoForChannel(channelUID);
         String channelID = channelUID.getId();
@@ -334,6 +367,9 @@ public class SysteminfoHandler extends BaseThingHandler {
                 case CHANNEL_CPU_THREADS:
                     state = systeminfo.getCpuThreads();
                     break;
+                case CHANNEL_CPU_SNAPSHOT_DURATION:
+                    state = systeminfo.getSnapshotDuration();
+                    break;
                 case CHANNEL_CPU_DESCRIPTION:
                     state = systeminfo.getCpuDescription();
                     break;
@@ -379,6 +415,12 @@ public class SysteminfoHandler extends BaseThingHandler {
                 case CHANNEL_DRIVE_NAME:
                     state = systeminfo.getDriveName(deviceIndex);
                     break;
+                case CHANNEL_DRIVE_READ_RATE:
+                    state = systeminfo.getDriveReadRate(deviceIndex);
+                    break;
+                case CHANNEL_DRIVE_WRITE_RATE:
+                    state = systeminfo.getDriveWriteRate(deviceIndex);
+                    break;
                 case CHANNEL_STORAGE_NAME:
                     state = systeminfo.getStorageName(deviceIndex);
                     break;
@@ -421,6 +463,12 @@ public class SysteminfoHandler extends BaseThingHandler {
                 case CHANNEL_NETWORK_DATA_RECEIVED:
                     state = systeminfo.getNetworkDataReceived(deviceIndex);
                     break;
+                case CHANNEL_NETWORK_DATA_SENT_RATE:
+                    state = systeminfo.getNetworkDataSentRate(deviceIndex);
+                    break;
+                case CHANNEL_NETWORK_DATA_RECEIVED_RATE:
+                    state = systeminfo.getNetworkDataReceivedRate(deviceIndex);
+                    break;
                 case CHANNEL_NETWORK_PACKETS_RECEIVED:
                     state = systeminfo.getNetworkPacketsReceived(deviceIndex);
                     break;
@@ -513,7 +561,7 @@ public class SysteminfoHandler extends BaseThingHandler {
         if (thing.getStatus().equals(ThingStatus.ONLINE)) {
             if (command instanceof RefreshType) {
                 logger.debug("Refresh command received for channel {}!", channelUID);
-                publishDataForChannel(channelUID);
+                publishData(channelUID.getId(), Collections.singleton(channelUID));
             } else {
                 logger.debug("Unsupported command {}! Supported commands: REFRESH", command);
             }
@@ -583,7 +631,9 @@ public class SysteminfoHandler extends BaseThingHandler {
         Object newValue = newConfig.get(parameter);
         logger.debug("Channel with UID {} has changed its {} from {} to {}", channel.getUID(), parameter, oldValue,
                 newValue);
-        publishDataForChannel(channel.getUID());
+        synchronized (systeminfo) {
+            publishDataForChannel(channel.getUID());
+        }
     }
 
     private void stopScheduledUpdates() {
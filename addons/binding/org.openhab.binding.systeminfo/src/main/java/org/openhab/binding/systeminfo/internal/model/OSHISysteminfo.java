@@ -12,7 +12,16 @@
  */
 package org.openhab.binding.systeminfo.internal.model;
 
+import static org.openhab.binding.systeminfo.internal.SysteminfoBindingConstants.*;
+
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.ArrayUtils;
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -23,6 +32,7 @@ import org.slf4j.LoggerFactory;
 
 import oshi.SystemInfo;
 import oshi.hardware.CentralProcessor;
+import oshi.hardware.CentralProcessor.TickType;
 import oshi.hardware.ComputerSystem;
 import oshi.hardware.Display;
 import oshi.hardware.GlobalMemory;
@@ -60,17 +70,69 @@ public class OSHISysteminfo implements SysteminfoInterface {
     private CentralProcessor cpu;
     private Sensors sensors;
 
-    // Static objects, should be recreated on each request
+    // Static objects, queried once at initialization
     private ComputerSystem computerSystem;
     private OperatingSystem operatingSystem;
-    private NetworkIF[] networks;
     private Display[] displays;
+    private HWDiskStore[] drives;
+
+    // Snapshot of the dynamic information, see takeSnapshot(String, Set)
+    private NetworkIF[] networks;
     private OSFileStore[] fileStores;
     private PowerSource[] powerSources;
-    private HWDiskStore[] drives;
+    private long memoryTotal;
+    private long memoryAvailable;
+    private long swapTotal;
+    private long swapUsed;
+    private double cpuLoad;
+    private double[] cpuLoadAverages;
+    private long cpuUptime;
+    // The thread count is expensive to query and is queried on first use after each snapshot
+    private int threadCount = -1;
+    private double cpuTemperature;
+    private double cpuVoltage;
+    private int[] fanSpeeds;
+    // The processes are queried on first use after each snapshot as well
+    private Map<Integer, OSProcess> processes = new HashMap<>();
+    private long snapshotDurationInNanos;
+
+    // Samples of the previous snapshot with the same sample key as the latest snapshot to compute rates
+    private Map<String, long[]> previousNetworkStats = new HashMap<>();
+    private Map<String, long[]> previousDriveStats = new HashMap<>();
+    private Map<Integer, OSProcess> previousProcesses = new HashMap<>();
+
+    // The samples of the latest snapshot by sample key and of the latest snapshot of any key
+    private final Map<String, Sample> samples = new HashMap<>();
+    private Sample latestSample = new Sample();
+
+    private static final String INITIAL_SAMPLE_KEY = "initial";
+
+    private static final Set<String> ALL_CHANNEL_GROUPS = Collections
+            .unmodifiableSet(new HashSet<>(Arrays.asList(CHANNEL_GROUP_CPU, CHANNEL_GROUP_MEMORY, CHANNEL_GROUP_SWAP,
+                    CHANNEL_GROUP_STORAGE, CHANNEL_GROUP_DRIVE, CHANNEL_GROUP_NETWORK, CHANNEL_GROUP_DISPLAY,
+                    CHANNEL_GROUP_SENSORS, CHANNEL_GROUP_BATTERY, CHANNEL_GROUP_PROCESS)));
 
     public static final int PRECISION_AFTER_DECIMAL_SIGN = 1;
 
+    /**
+     * The counters of a snapshot, from which the rates of the next snapshot with the same sample key are computed.
+     */
+    private static class Sample {
+        private long[] cpuLoadTicks;
+        private Map<String, long[]> networkStats = new HashMap<>();
+        private Map<String, long[]> driveStats = new HashMap<>();
+        private Map<Integer, OSProcess> processes = new HashMap<>();
+
+        private Sample copy() {
+            Sample copy = new Sample();
+            copy.cpuLoadTicks = cpuLoadTicks;
+            copy.networkStats = networkStats;
+            copy.driveStats = driveStats;
+            copy.processes = processes;
+            return copy;
+        }
+    }
+
     /**
      * Some of the methods used in this constructor execute native code and require execute permissions
      *
@@ -91,16 +153,97 @@ public class OSHISysteminfo implements SysteminfoInterface {
         cpu = hal.getProcessor();
         sensors = hal.getSensors();
 
-        // Static objects, should be recreated on each request. In OSHI 4.0.0. it is planned to change this mechanism -
-        // see https://github.com/oshi/oshi/issues/310
-        // TODO: Once the issue is resolved in OSHI , remove unnecessary object recreations from the public get methods
         computerSystem = hal.getComputerSystem();
         operatingSystem = systemInfo.getOperatingSystem();
-        networks = hal.getNetworkIFs();
         displays = hal.getDisplays();
-        fileStores = operatingSystem.getFileSystem().getFileStores();
-        powerSources = hal.getPowerSources();
         drives = hal.getDiskStores();
+
+        takeSnapshot(INITIAL_SAMPLE_KEY, ALL_CHANNEL_GROUPS);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Most OSHI objects are not updated, when they are queried repeatedly. In the current OSHI version the network
+     * interfaces, file stores and power sources have to be recreated to get updated values. In OSHI 4.0.0. it is
+     * planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
+     */
+    @Override
+    public synchronized void takeSnapshot(String sampleKey, Set<String> channelGroups) {
+        long start = System.nanoTime();
+        // The first snapshot of a key computes the rates since the latest snapshot of any key
+        Sample sample = samples.computeIfAbsent(sampleKey, key -> latestSample.copy());
+
+        if (channelGroups.contains(CHANNEL_GROUP_CPU)) {
+            long[] ticks = cpu.getSystemCpuLoadTicks();
+            cpuLoad = sample.cpuLoadTicks == null ? cpu.getSystemCpuLoad()
+                    : getCpuLoadBetweenTicks(sample.cpuLoadTicks, ticks);
+            sample.cpuLoadTicks = ticks;
+            latestSample.cpuLoadTicks = ticks;
+            cpuLoadAverages = cpu.getSystemLoadAverage(3);
+            cpuUptime = cpu.getSystemUptime();
+            threadCount = -1;
+        }
+        if (channelGroups.contains(CHANNEL_GROUP_MEMORY)) {
+            memoryTotal = memory.getTotal();
+            memoryAvailable = memory.getAvailable();
+        }
+        if (channelGroups.contains(CHANNEL_GROUP_SWAP)) {
+            swapTotal = memory.getSwapTotal();
+            swapUsed = memory.getSwapUsed();
+        }
+        if (channelGroups.contains(CHANNEL_GROUP_STORAGE)) {
+            fileStores = operatingSystem.getFileSystem().getFileStores();
+        }
+        if (channelGroups.contains(CHANNEL_GROUP_DRIVE)) {
+            Map<String, long[]> driveStats = new HashMap<>();
+            for (HWDiskStore drive : drives) {
+                drive.updateDiskStats();
+                driveStats.put(drive.getName(),
+                        new long[] { drive.getReadBytes(), drive.getWriteBytes(), drive.getTimeStamp() });
+            }
+            previousDriveStats = sample.driveStats;
+            sample.driveStats = driveStats;
+            latestSample.driveStats = driveStats;
+        }
+        if (channelGroups.contains(CHANNEL_GROUP_NETWORK)) {
+            // The statistics are updated, when the network interfaces are created
+            networks = hal.getNetworkIFs();
+            Map<String, long[]> networkStats = new HashMap<>();
+            for (NetworkIF network : networks) {
+                networkStats.put(network.getName(),
+                        new long[] { network.getBytesSent(), network.getBytesRecv(), network.getTimeStamp() });
+            }
+            previousNetworkStats = sample.networkStats;
+            sample.networkStats = networkStats;
+            latestSample.networkStats = networkStats;
+        }
+        if (channelGroups.contains(CHANNEL_GROUP_SENSORS)) {
+            cpuTemperature = sensors.getCpuTemperature();
+            cpuVoltage = sensors.getCpuVoltage();
+            fanSpeeds = sensors.getFanSpeeds();
+        }
+        if (channelGroups.contains(CHANNEL_GROUP_BATTERY)) {
+            powerSources = hal.getPowerSources();
+        }
+        if (channelGroups.contains(CHANNEL_GROUP_PROCESS)) {
+            // The processes are added to the sample, when they are queried
+            previousProcesses = sample.processes;
+            processes = new HashMap<>();
+            sample.processes = processes;
+            latestSample.processes = processes;
+        }
+        snapshotDurationInNanos = System.nanoTime() - start;
+    }
+
+    private double getCpuLoadBetweenTicks(long[] previousTicks, long[] ticks) {
+        long total = 0;
+        for (int i = 0; i < ticks.length; i++) {
+            total += ticks[i] - previousTicks[i];
+        }
+        long idle = ticks[TickType.IDLE.getIndex()] - previousTicks[TickType.IDLE.getIndex()]
+                + ticks[TickType.IOWAIT.getIndex()] - previousTicks[TickType.IOWAIT.getIndex()];
+        return total > 0 ? (double) (total - idle) / total : 0;
     }
 
     @SuppressWarnings("null")
@@ -111,8 +254,14 @@ public class OSHISysteminfo implements SysteminfoInterface {
         return devices[index];
     }
 
-    private OSProcess getProcess(int pid) throws DeviceNotFoundException {
-        OSProcess process = operatingSystem.getProcess(pid);
+    private synchronized OSProcess getProcess(int pid) throws DeviceNotFoundException {
+        OSProcess process = processes.get(pid);
+        if (process == null) {
+            process = operatingSystem.getProcess(pid);
+            if (process != null) {
+                processes.put(pid, process);
+            }
+        }
         if (process == null) {
             throw new DeviceNotFoundException("Error while getting information for process with PID " + pid);
         }
@@ -172,29 +321,35 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getCpuLoad() {
-        double processorLoad = cpu.getSystemCpuLoad();
-        BigDecimal processorLoadPercent = getPercentsValue(processorLoad);
+        BigDecimal processorLoadPercent = getPercentsValue(cpuLoad);
         return new DecimalType(processorLoadPercent);
     }
 
+    @Override
+    public DecimalType getSnapshotDuration() {
+        BigDecimal duration = new BigDecimal(snapshotDurationInNanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+        duration = duration.setScale(PRECISION_AFTER_DECIMAL_SIGN, BigDecimal.ROUND_HALF_UP);
+        return new DecimalType(duration);
+    }
+
     @Override
     public DecimalType getMemoryTotal() {
-        long totalMemory = memory.getTotal();
+        long totalMemory = memoryTotal;
         totalMemory = getSizeInMB(totalMemory);
         return new DecimalType(totalMemory);
     }
 
     @Override
     public DecimalType getMemoryAvailable() {
-        long availableMemory = memory.getAvailable();
+        long availableMemory = memoryAvailable;
         availableMemory = getSizeInMB(availableMemory);
         return new DecimalType(availableMemory);
     }
 
     @Override
     public DecimalType getMemoryUsed() {
-        long totalMemory = memory.getTotal();
-        long availableMemory = memory.getAvailable();
+        long totalMemory = memoryTotal;
+        long availableMemory = memoryAvailable;
         long usedMemory = totalMemory - availableMemory;
         usedMemory = getSizeInMB(usedMemory);
         return new DecimalType(usedMemory);
@@ -202,9 +357,6 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getStorageTotal(int index) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the storage data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        fileStores = operatingSystem.getFileSystem().getFileStores();
         OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
         long totalSpace = fileStore.getTotalSpace();
         totalSpace = getSizeInMB(totalSpace);
@@ -213,9 +365,6 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getStorageAvailable(int index) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the storage data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        fileStores = operatingSystem.getFileSystem().getFileStores();
         OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
         long freeSpace = fileStore.getUsableSpace();
         freeSpace = getSizeInMB(freeSpace);
@@ -224,9 +373,6 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getStorageUsed(int index) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the storage data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        fileStores = operatingSystem.getFileSystem().getFileStores();
         OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
         long totalSpace = fileStore.getTotalSpace();
         long freeSpace = fileStore.getUsableSpace();
@@ -237,9 +383,6 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getStorageAvailablePercent(int deviceIndex) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the storage data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        fileStores = operatingSystem.getFileSystem().getFileStores();
         OSFileStore fileStore = (OSFileStore) getDevice(fileStores, deviceIndex);
         long totalSpace = fileStore.getTotalSpace();
         long freeSpace = fileStore.getUsableSpace();
@@ -254,9 +397,6 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getStorageUsedPercent(int deviceIndex) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the storage data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        fileStores = operatingSystem.getFileSystem().getFileStores();
         OSFileStore fileStore = (OSFileStore) getDevice(fileStores, deviceIndex);
         long totalSpace = fileStore.getTotalSpace();
         long freeSpace = fileStore.getUsableSpace();
@@ -293,9 +433,6 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public StringType getNetworkIp(int index) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the network data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        networks = hal.getNetworkIFs();
         NetworkIF netInterface = (NetworkIF) getDevice(networks, index);
         String[] ipAddresses = netInterface.getIPv4addr();
         String ipv4 = (String) getDevice(ipAddresses, 0);
@@ -334,30 +471,26 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getSensorsCpuTemperature() {
-        BigDecimal cpuTemp = new BigDecimal(sensors.getCpuTemperature());
+        BigDecimal cpuTemp = new BigDecimal(cpuTemperature);
         cpuTemp = cpuTemp.setScale(PRECISION_AFTER_DECIMAL_SIGN, BigDecimal.ROUND_HALF_UP);
         return cpuTemp.signum() == 1 ? new DecimalType(cpuTemp) : null;
     }
 
     @Override
     public DecimalType getSensorsCpuVoltage() {
-        BigDecimal cpuVoltage = new BigDecimal(sensors.getCpuVoltage());
+        BigDecimal cpuVoltage = new BigDecimal(this.cpuVoltage);
         cpuVoltage = cpuVoltage.setScale(PRECISION_AFTER_DECIMAL_SIGN, BigDecimal.ROUND_HALF_UP);
         return cpuVoltage.signum() == 1 ? new DecimalType(cpuVoltage) : null;
     }
 
     @Override
     public DecimalType getSensorsFanSpeed(int index) throws DeviceNotFoundException {
-        int[] fanSpeeds = sensors.getFanSpeeds();
         int speed = (int) getDevice(ArrayUtils.toObject(fanSpeeds), index);
         return speed > 0 ? new DecimalType(speed) : null;
     }
 
     @Override
     public DecimalType getBatteryRemainingTime(int index) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the battery data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        powerSources = hal.getPowerSources();
         PowerSource powerSource = (PowerSource) getDevice(powerSources, index);
         double remainingTimeInSeconds = powerSource.getTimeRemaining();
         // The getTimeRemaining() method returns (-1.0) if is calculating or (-2.0) if the time is unlimited.
@@ -367,9 +500,6 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getBatteryRemainingCapacity(int index) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the battery data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        powerSources = hal.getPowerSources();
         PowerSource powerSource = (PowerSource) getDevice(powerSources, index);
         double remainingCapacity = powerSource.getRemainingCapacity();
         BigDecimal remainingCapacityPercents = getPercentsValue(remainingCapacity);
@@ -385,8 +515,8 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getMemoryAvailablePercent() {
-        long availableMemory = memory.getAvailable();
-        long totalMemory = memory.getTotal();
+        long availableMemory = memoryAvailable;
+        long totalMemory = memoryTotal;
         if (totalMemory > 0) {
             double freePercentDecimal = (double) availableMemory / (double) totalMemory;
             BigDecimal freePercent = getPercentsValue(freePercentDecimal);
@@ -398,8 +528,8 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getMemoryUsedPercent() {
-        long availableMemory = memory.getAvailable();
-        long totalMemory = memory.getTotal();
+        long availableMemory = memoryAvailable;
+        long totalMemory = memoryTotal;
         long usedMemory = totalMemory - availableMemory;
         if (totalMemory > 0) {
             double usedPercentDecimal = (double) usedMemory / (double) totalMemory;
@@ -431,17 +561,38 @@ public class OSHISysteminfo implements SysteminfoInterface {
         return new StringType(serialNumber);
     }
 
+    @Override
+    public DecimalType getDriveReadRate(int deviceIndex) throws DeviceNotFoundException {
+        HWDiskStore drive = (HWDiskStore) getDevice(drives, deviceIndex);
+        long[] previousStats = previousDriveStats.get(drive.getName());
+        if (previousStats == null) {
+            return null;
+        }
+        BigDecimal readRate = getRateInKBPerSecond(previousStats[0], previousStats[2], drive.getReadBytes(),
+                drive.getTimeStamp());
+        return readRate == null ? null : new DecimalType(readRate);
+    }
+
+    @Override
+    public DecimalType getDriveWriteRate(int deviceIndex) throws DeviceNotFoundException {
+        HWDiskStore drive = (HWDiskStore) getDevice(drives, deviceIndex);
+        long[] previousStats = previousDriveStats.get(drive.getName());
+        if (previousStats == null) {
+            return null;
+        }
+        BigDecimal writeRate = getRateInKBPerSecond(previousStats[1], previousStats[2], drive.getWriteBytes(),
+                drive.getTimeStamp());
+        return writeRate == null ? null : new DecimalType(writeRate);
+    }
+
     @Override
     public DecimalType getSwapTotal() {
-        long swapTotal = memory.getSwapTotal();
-        swapTotal = getSizeInMB(swapTotal);
-        return swapTotal > 0 ? new DecimalType(swapTotal) : null;
+        long swapTotalInMB = getSizeInMB(swapTotal);
+        return swapTotalInMB > 0 ? new DecimalType(swapTotalInMB) : null;
     }
 
     @Override
     public DecimalType getSwapAvailable() {
-        long swapTotal = memory.getSwapTotal();
-        long swapUsed = memory.getSwapUsed();
         long swapAvaialble = swapTotal - swapUsed;
         swapAvaialble = getSizeInMB(swapAvaialble);
         return swapAvaialble > 0 ? new DecimalType(swapAvaialble) : null;
@@ -449,15 +600,14 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getSwapUsed() {
-        long swapTotal = memory.getSwapUsed();
-        swapTotal = getSizeInMB(swapTotal);
-        return swapTotal > 0 ? new DecimalType(swapTotal) : null;
+        long swapUsedInMB = getSizeInMB(swapUsed);
+        return swapUsedInMB > 0 ? new DecimalType(swapUsedInMB) : null;
     }
 
     @Override
     public DecimalType getSwapAvailablePercent() {
-        long usedSwap = memory.getSwapUsed();
-        long totalSwap = memory.getSwapTotal();
+        long usedSwap = swapUsed;
+        long totalSwap = swapTotal;
         long freeSwap = totalSwap - usedSwap;
         if (totalSwap > 0) {
             double freePercentDecimal = (double) freeSwap / (double) totalSwap;
@@ -470,8 +620,8 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getSwapUsedPercent() {
-        long usedSwap = memory.getSwapUsed();
-        long totalSwap = memory.getSwapTotal();
+        long usedSwap = swapUsed;
+        long totalSwap = swapTotal;
         if (totalSwap > 0) {
             double usedPercentDecimal = (double) usedSwap / (double) totalSwap;
             BigDecimal usedPercent = getPercentsValue(usedPercentDecimal);
@@ -491,6 +641,36 @@ public class OSHISysteminfo implements SysteminfoInterface {
         return result;
     }
 
+    /**
+     * Computes the rate between two samples of a byte counter.
+     *
+     * @return the rate in kB/s or null, if the samples can not be compared (e.g. the counter was reset)
+     */
+    private BigDecimal getRateInKBPerSecond(long previousBytes, long previousTimeStamp, long bytes, long timeStamp) {
+        if (timeStamp <= previousTimeStamp || bytes < previousBytes) {
+            return null;
+        }
+        double rate = (bytes - previousBytes) / 1024D / ((timeStamp - previousTimeStamp) / 1000D);
+        BigDecimal result = new BigDecimal(rate);
+        result = result.setScale(PRECISION_AFTER_DECIMAL_SIGN, BigDecimal.ROUND_HALF_UP);
+        return result;
+    }
+
+    /**
+     * Computes the CPU usage of the process between the previous and the latest snapshot. If there is no previous
+     * snapshot of the process, the average CPU usage since the start of the process is returned.
+     */
+    private synchronized double getProcessCpuUsageBetweenSnapshots(OSProcess process) {
+        OSProcess previousProcess = previousProcesses.get(process.getProcessID());
+        long cpuTime = process.getKernelTime() + process.getUserTime();
+        if (previousProcess != null && previousProcess.getStartTime() == process.getStartTime()
+                && process.getUpTime() > previousProcess.getUpTime()) {
+            long previousCpuTime = previousProcess.getKernelTime() + previousProcess.getUserTime();
+            return (double) (cpuTime - previousCpuTime) / (process.getUpTime() - previousProcess.getUpTime());
+        }
+        return process.getUpTime() > 0 ? (double) cpuTime / process.getUpTime() : 0;
+    }
+
     private BigDecimal getTimeInMinutes(double timeInSeconds) {
         BigDecimal timeInMinutes = new BigDecimal(timeInSeconds / 60);
         timeInMinutes = timeInMinutes.setScale(PRECISION_AFTER_DECIMAL_SIGN, BigDecimal.ROUND_UP);
@@ -546,21 +726,21 @@ public class OSHISysteminfo implements SysteminfoInterface {
             default:
                 index = 2;
         }
-        double processorLoads[] = cpu.getSystemLoadAverage(index + 1);
-        BigDecimal result = new BigDecimal(processorLoads[index]);
+        BigDecimal result = new BigDecimal(cpuLoadAverages[index]);
         result = result.setScale(PRECISION_AFTER_DECIMAL_SIGN, BigDecimal.ROUND_HALF_UP);
         return result;
     }
 
     @Override
     public DecimalType getCpuUptime() {
-        long seconds = cpu.getSystemUptime();
-        return new DecimalType(getTimeInMinutes(seconds));
+        return new DecimalType(getTimeInMinutes(cpuUptime));
     }
 
     @Override
-    public DecimalType getCpuThreads() {
-        int threadCount = operatingSystem.getThreadCount();
+    public synchronized DecimalType getCpuThreads() {
+        if (threadCount < 0) {
+            threadCount = operatingSystem.getThreadCount();
+        }
         return new DecimalType(threadCount);
     }
 
@@ -573,48 +753,56 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getNetworkPacketsReceived(int networkIndex) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the network data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        networks = hal.getNetworkIFs();
         NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateNetworkStats();
         long packRecv = network.getPacketsRecv();
         return new DecimalType(packRecv);
     }
 
     @Override
     public DecimalType getNetworkPacketsSent(int networkIndex) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the network data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        networks = hal.getNetworkIFs();
         NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateNetworkStats();
         long packSent = network.getPacketsSent();
         return new DecimalType(packSent);
     }
 
     @Override
     public DecimalType getNetworkDataSent(int networkIndex) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the network data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        networks = hal.getNetworkIFs();
         NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateNetworkStats();
         long bytesSent = network.getBytesSent();
         return new DecimalType(getSizeInMB(bytesSent));
     }
 
     @Override
     public DecimalType getNetworkDataReceived(int networkIndex) throws DeviceNotFoundException {
-        // In the current OSHI version a new query is required for the network data values to be updated
-        // In OSHI 4.0.0. it is planned to change this mechanism - see https://github.com/oshi/oshi/issues/310
-        networks = hal.getNetworkIFs();
         NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateNetworkStats();
         long bytesRecv = network.getBytesRecv();
         return new DecimalType(getSizeInMB(bytesRecv));
     }
 
+    @Override
+    public DecimalType getNetworkDataSentRate(int networkIndex) throws DeviceNotFoundException {
+        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
+        long[] previousStats = previousNetworkStats.get(network.getName());
+        if (previousStats == null) {
+            return null;
+        }
+        BigDecimal sentRate = getRateInKBPerSecond(previousStats[0], previousStats[2], network.getBytesSent(),
+                network.getTimeStamp());
+        return sentRate == null ? null : new DecimalType(sentRate);
+    }
+
+    @Override
+    public DecimalType getNetworkDataReceivedRate(int networkIndex) throws DeviceNotFoundException {
+        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
+        long[] previousStats = previousNetworkStats.get(network.getName());
+        if (previousStats == null) {
+            return null;
+        }
+        BigDecimal receivedRate = getRateInKBPerSecond(previousStats[1], previousStats[2], network.getBytesRecv(),
+                network.getTimeStamp());
+        return receivedRate == null ? null : new DecimalType(receivedRate);
+    }
+
     @Override
     public StringType getProcessName(int pid) throws DeviceNotFoundException {
         if (pid > 0) {
@@ -630,7 +818,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
     public DecimalType getProcessCpuUsage(int pid) throws DeviceNotFoundException {
         if (pid > 0) {
             OSProcess process = getProcess(pid);
-            double cpuUsageRaw = (process.getKernelTime() + process.getUserTime()) / process.getUpTime();
+            double cpuUsageRaw = getProcessCpuUsageBetweenSnapshots(process);
             BigDecimal cpuUsage = getPercentsValue(cpuUsageRaw);
             return new DecimalType(cpuUsage);
         } else {
@@ -12,6 +12,8 @@
  */
 package org.openhab.binding.systeminfo.internal.model;
 
+import java.util.Set;
+
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.StringType;
 
@@ -27,6 +29,26 @@ public interface SysteminfoInterface {
      */
     public void initializeSysteminfo();
 
+    /**
+     * Takes a new snapshot of the system information of the given channel groups. The information of a channel group
+     * is read from its latest snapshot, so that all channels of a group are consistent and the system is not queried
+     * again for each channel. Rates are computed since the previous snapshot with the same sample key, so that
+     * channels which are updated at different intervals get rates over their own interval. The caller has to hold the
+     * lock of this object while taking the snapshot and reading the information from it.
+     *
+     * @param sampleKey - the key of the samples to compute rates from, e.g. the refresh interval of the channels
+     * @param channelGroups - the IDs of the channel groups without device index, e.g. "cpu" or "network"
+     */
+    public void takeSnapshot(String sampleKey, Set<String> channelGroups);
+
+    /**
+     * Get the time it took to take the latest snapshot. The values queried on first use after the snapshot, e.g.
+     * the processes, are not included.
+     *
+     * @return time in milliseconds
+     */
+    public DecimalType getSnapshotDuration();
+
     // Operating system info
     /**
      * Get the Family of the operating system /e.g. Windows,Unix,.../
@@ -273,6 +295,24 @@ public interface SysteminfoInterface {
      */
     public StringType getDriveSerialNumber(int deviceIndex) throws DeviceNotFoundException;
 
+    /**
+     * Gets the rate of data read from the physical storage drive between the two latest snapshots
+     *
+     * @param deviceIndex - index of the storage drive
+     * @return the rate in kB/s or null, if less than two snapshots are available
+     * @throws DeviceNotFoundException
+     */
+    public DecimalType getDriveReadRate(int deviceIndex) throws DeviceNotFoundException;
+
+    /**
+     * Gets the rate of data written to the physical storage drive between the two latest snapshots
+     *
+     * @param deviceIndex - index of the storage drive
+     * @return the rate in kB/s or null, if less than two snapshots are available
+     * @throws DeviceNotFoundException
+     */
+    public DecimalType getDriveWriteRate(int deviceIndex) throws DeviceNotFoundException;
+
     // Network info
     /**
      * Get the Host IP address of the network.
@@ -339,6 +379,24 @@ public interface SysteminfoInterface {
      */
     public DecimalType getNetworkDataReceived(int networkIndex) throws DeviceNotFoundException;
 
+    /**
+     * Get the rate of data sent for this network between the two latest snapshots
+     *
+     * @param networkIndex - the index of the network
+     * @return the rate in kB/s or null, if less than two snapshots are available
+     * @throws DeviceNotFoundException
+     */
+    public DecimalType getNetworkDataSentRate(int networkIndex) throws DeviceNotFoundException;
+
+    /**
+     * Get the rate of data received for this network between the two latest snapshots
+     *
+     * @param networkIndex - the index of the network
+     * @return the rate in kB/s or null, if less than two snapshots are available
+     * @throws DeviceNotFoundException
+     */
+    public DecimalType getNetworkDataReceivedRate(int networkIndex) throws DeviceNotFoundException;
+
     // Display info
     /**
      * Get information about the display device as product number, manufacturer, serial number, width and height in cm";
@@ -408,7 +466,8 @@ public interface SysteminfoInterface {
     public StringType getProcessName(int pid) throws DeviceNotFoundException;
 
     /**
-     * Returns the CPU usage of the process
+     * Returns the CPU usage of the process between the two latest snapshots, or since the start of the process, if
+     * there is no previous snapshot of the process
      *
      * @param pid - the PID of the process
      * @return - percentage value /0-100/
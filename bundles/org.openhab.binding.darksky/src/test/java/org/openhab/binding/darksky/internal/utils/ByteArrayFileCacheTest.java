@@ -13,11 +13,13 @@
 package org.openhab.binding.darksky.internal.utils;
 
 import static org.hamcrest.CoreMatchers.*;
-import static org.junit.Assert.assertThat;
+import static org.junit.Assert.*;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
 
 import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.junit.After;
@@ -43,6 +45,11 @@ public class ByteArrayFileCacheTest {
 
     private static final byte[] EMPTY_BUFFER = new byte[0];
 
+    private static final String FIRST_KEY = "first.png";
+    private static final String SECOND_KEY = "second.png";
+    private static final String THIRD_KEY = "third.png";
+    private static final String FOURTH_KEY = "fourth.png";
+
     private ByteArrayFileCache subject;
 
     @Before
@@ -156,6 +163,7 @@ public class ByteArrayFileCacheTest {
         subject = new ByteArrayFileCache(SERVICE_PID, 1);
 
         subject.put(MP3_FILE_NAME, readFile());
+        subject.flush();
 
         // manipulate time of last use
         File fileInCache = subject.getUniqueFile(MP3_FILE_NAME);
@@ -166,6 +174,131 @@ public class ByteArrayFileCacheTest {
         assertThat(subject.get(MP3_FILE_NAME), is(equalTo(EMPTY_BUFFER)));
     }
 
+    @Test
+    public void leastRecentlyUsedFileIsEvictedFromDisk() {
+        // no memory tier, so every lookup reads the file
+        subject = new ByteArrayFileCache(SERVICE_PID, 0, 0, 250);
+
+        subject.put(FIRST_KEY, content(100, 1));
+        subject.flush();
+        subject.put(SECOND_KEY, content(100, 2));
+        subject.flush();
+        assertThat(subject.get(FIRST_KEY), is(equalTo(content(100, 1))));
+
+        subject.put(THIRD_KEY, content(100, 3));
+        subject.flush();
+
+        assertThat(subject.containsKey(FIRST_KEY), is(true));
+        assertThat(subject.containsKey(SECOND_KEY), is(false));
+        assertThat(subject.containsKey(THIRD_KEY), is(true));
+        assertThat(subject.getUniqueFile(SECOND_KEY).exists(), is(false));
+        assertThat(subject.getEvictionCount(), is(1L));
+        assertThat(subject.getDiskSize(), is(200L));
+    }
+
+    @Test
+    public void filesInCacheFolderAreEvictedOnStartup() {
+        subject = new ByteArrayFileCache(SERVICE_PID, 0, 0, 1000);
+        subject.put(FIRST_KEY, content(100, 1));
+        subject.flush();
+        subject.put(SECOND_KEY, content(100, 2));
+        subject.flush();
+        subject.getUniqueFile(FIRST_KEY).setLastModified(System.currentTimeMillis() - 60000);
+
+        subject = new ByteArrayFileCache(SERVICE_PID, 0, 0, 150);
+
+        assertThat(subject.containsKey(FIRST_KEY), is(false));
+        assertThat(subject.get(SECOND_KEY), is(equalTo(content(100, 2))));
+        assertThat(subject.getDiskSize(), is(100L));
+    }
+
+    @Test
+    public void memoryTierIsLimited() {
+        subject = new ByteArrayFileCache(SERVICE_PID, 0, 250, ByteArrayFileCache.DEFAULT_MAX_DISK_SIZE);
+
+        subject.put(FIRST_KEY, content(100, 1));
+        subject.put(SECOND_KEY, content(100, 2));
+        subject.put(THIRD_KEY, content(100, 3));
+        assertThat(subject.getMemorySize(), is(200));
+
+        subject.get(SECOND_KEY);
+        subject.put(FOURTH_KEY, content(100, 4));
+        assertThat(subject.getMemorySize(), is(200));
+
+        // a content which exceeds the memory tier is only kept on disk
+        subject.put(FIRST_KEY, content(300, 1));
+        assertThat(subject.getMemorySize(), is(200));
+
+        // the contents evicted from memory are read from disk
+        subject.flush();
+        assertThat(subject.get(FIRST_KEY), is(equalTo(content(300, 1))));
+        assertThat(subject.get(THIRD_KEY), is(equalTo(content(100, 3))));
+        assertThat(subject.getMemorySize(), is(200));
+        assertThat(subject.getEvictionCount(), is(0L));
+    }
+
+    @Test
+    public void contentIsWrittenBehind() throws IOException {
+        subject = new ByteArrayFileCache(SERVICE_PID, 0, 0, ByteArrayFileCache.DEFAULT_MAX_DISK_SIZE);
+
+        subject.put(FIRST_KEY, content(100, 1));
+        subject.put(FIRST_KEY, content(120, 2));
+
+        // the pending content is found, no matter whether it is already written
+        assertThat(subject.containsKey(FIRST_KEY), is(true));
+        assertThat(subject.get(FIRST_KEY), is(equalTo(content(120, 2))));
+        assertThat(subject.getDiskSize(), is(120L));
+
+        subject.flush();
+
+        File fileInCache = subject.getUniqueFile(FIRST_KEY);
+        assertThat(Files.readAllBytes(fileInCache.toPath()), is(equalTo(content(120, 2))));
+        assertThat(subject.getDiskSize(), is(120L));
+        assertThat(fileInCache.getParentFile().list().length, is(1));
+    }
+
+    @Test
+    public void deletedFileIsAMiss() {
+        subject = new ByteArrayFileCache(SERVICE_PID, 0, 0, ByteArrayFileCache.DEFAULT_MAX_DISK_SIZE);
+        subject.put(FIRST_KEY, content(100, 1));
+        subject.flush();
+
+        assertTrue(subject.getUniqueFile(FIRST_KEY).delete());
+
+        assertThat(subject.get(FIRST_KEY), is(equalTo(EMPTY_BUFFER)));
+        assertThat(subject.containsKey(FIRST_KEY), is(false));
+        assertThat(subject.getDiskSize(), is(0L));
+    }
+
+    @Test
+    public void hitsAndMissesAreCounted() {
+        subject = new ByteArrayFileCache(SERVICE_PID, 0, 100, ByteArrayFileCache.DEFAULT_MAX_DISK_SIZE);
+
+        subject.get(FIRST_KEY);
+        subject.put(FIRST_KEY, content(100, 1));
+        subject.get(FIRST_KEY);
+        subject.put(SECOND_KEY, content(100, 2));
+        subject.flush();
+        // read from disk
+        subject.get(FIRST_KEY);
+        subject.remove(SECOND_KEY);
+        subject.get(SECOND_KEY);
+
+        assertThat(subject.getHitCount(), is(2L));
+        assertThat(subject.getMissCount(), is(2L));
+        assertThat(subject.getEvictionCount(), is(0L));
+        assertThat(subject.getMemorySize(), is(100));
+        assertThat(subject.getDiskSize(), is(100L));
+        assertThat(subject.toString(),
+                is(equalTo(SERVICE_PID + ": 2 hits, 2 misses, 0 evictions, 100 bytes in memory, 100 bytes on disk")));
+    }
+
+    private static byte[] content(int length, int value) {
+        byte[] content = new byte[length];
+        Arrays.fill(content, (byte) value);
+        return content;
+    }
+
     private byte[] readFile() throws IOException {
         byte[] buffer;
         try (InputStream is = ByteArrayFileCacheTest.class.getResourceAsStream("/sounds/doorbell.mp3")) {
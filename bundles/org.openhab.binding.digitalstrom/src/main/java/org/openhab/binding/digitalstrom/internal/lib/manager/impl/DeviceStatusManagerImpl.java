@@ -666,7 +666,8 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
     public synchronized void sendSceneComandsToDSS(InternalScene scene, boolean call_undo) {
         if (scene != null) {
             if (lastSceneCall + 1000 > System.currentTimeMillis()) {
-                sleepTime = System.currentTimeMillis() - lastSceneCall;
+                // wait for the rest of the second since the last scene call
+                sleepTime = lastSceneCall + 1000 - System.currentTimeMillis();
                 try {
                     Thread.sleep(sleepTime);
                 } catch (InterruptedException e) {
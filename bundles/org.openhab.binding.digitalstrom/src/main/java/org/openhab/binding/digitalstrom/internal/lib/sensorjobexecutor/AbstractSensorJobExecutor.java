@@ -61,20 +61,34 @@ public abstract class AbstractSensorJobExecutor {
 
     private class ExecutorRunnable implements Runnable {
         private final CircuitScheduler circuit;
+        private final Map<DSID, ScheduledFuture<?>> circuitPollingSchedulers;
 
         public ExecutorRunnable(CircuitScheduler circuit) {
             this.circuit = circuit;
+            this.circuitPollingSchedulers = pollingSchedulers;
         }
 
         @Override
         public void run() {
             SensorJob sensorJob = circuit.getNextSensorJob();
             if (sensorJob != null) {
+                long start = System.currentTimeMillis();
                 sensorJob.execute(dSAPI, connectionManager.getSessionToken());
+                circuit.sensorJobExecuted(System.currentTimeMillis() - start);
             }
-            if (circuit.noMoreJobs()) {
-                logger.debug("no more jobs... stop circuit schedduler with id = {}", circuit.getMeterDSID());
-                pollingSchedulers.get(circuit.getMeterDSID()).cancel(true);
+            synchronized (circuitSchedulerList) {
+                if (pollingSchedulers == null || pollingSchedulers != circuitPollingSchedulers) {
+                    // executor was stopped or restarted in the meantime
+                    return;
+                }
+                if (circuit.noMoreJobs()) {
+                    logger.debug("no more jobs... stop circuit schedduler: {}", circuit);
+                    pollingSchedulers.remove(circuit.getMeterDSID());
+                } else {
+                    // the circuit decides about the next execution time, depending on its bandwidth
+                    pollingSchedulers.put(circuit.getMeterDSID(),
+                            scheduler.schedule(this, circuit.getNextExecutionDelay(), TimeUnit.MILLISECONDS));
+                }
             }
         }
     };
@@ -93,25 +107,30 @@ public abstract class AbstractSensorJobExecutor {
     /**
      * Stops all circuit schedulers.
      */
-    public synchronized void shutdown() {
-        if (pollingSchedulers != null) {
-            for (ScheduledFuture<?> scheduledExecutor : pollingSchedulers.values()) {
-                scheduledExecutor.cancel(true);
+    public void shutdown() {
+        synchronized (circuitSchedulerList) {
+            if (pollingSchedulers != null) {
+                for (ScheduledFuture<?> scheduledExecutor : pollingSchedulers.values()) {
+                    scheduledExecutor.cancel(true);
+                }
+                pollingSchedulers = null;
+                for (CircuitScheduler circuit : circuitSchedulerList) {
+                    logger.debug("stop circuit scheduler: {}", circuit);
+                }
+                logger.debug("stop all circuit schedulers.");
             }
-            pollingSchedulers = null;
-            logger.debug("stop all circuit schedulers.");
         }
     }
 
     /**
      * Starts all circuit schedulers.
      */
-    public synchronized void startExecutor() {
+    public void startExecutor() {
         logger.debug("start all circuit schedulers.");
-        if (pollingSchedulers == null) {
-            pollingSchedulers = new HashMap<DSID, ScheduledFuture<?>>();
-        }
-        if (circuitSchedulerList != null && !circuitSchedulerList.isEmpty()) {
+        synchronized (circuitSchedulerList) {
+            if (pollingSchedulers == null) {
+                pollingSchedulers = new HashMap<DSID, ScheduledFuture<?>>();
+            }
             for (CircuitScheduler circuit : circuitSchedulerList) {
                 startSchedduler(circuit);
             }
@@ -119,16 +138,27 @@ public abstract class AbstractSensorJobExecutor {
     }
 
     private void startSchedduler(CircuitScheduler circuit) {
-        if (pollingSchedulers != null) {
-            if (pollingSchedulers.get(circuit.getMeterDSID()) == null
-                    || pollingSchedulers.get(circuit.getMeterDSID()).isCancelled()) {
-                pollingSchedulers.put(circuit.getMeterDSID(),
-                        scheduler.scheduleWithFixedDelay(new ExecutorRunnable(circuit), circuit.getNextExecutionDelay(),
-                                config.getSensorReadingWaitTime(), TimeUnit.MILLISECONDS));
+        if (pollingSchedulers != null && !circuit.noMoreJobs()) {
+            ScheduledFuture<?> pollingScheduler = pollingSchedulers.get(circuit.getMeterDSID());
+            if (pollingScheduler == null || pollingScheduler.isDone()) {
+                pollingSchedulers.put(circuit.getMeterDSID(), scheduler.schedule(new ExecutorRunnable(circuit),
+                        circuit.getNextExecutionDelay(), TimeUnit.MILLISECONDS));
             }
         }
     }
 
+    /**
+     * Returns the {@link CircuitScheduler}s of all circuits, which have been used by this executor, e.g. to get the
+     * queue latencies of the circuits.
+     *
+     * @return the circuit schedulers
+     */
+    public List<CircuitScheduler> getCircuitSchedulers() {
+        synchronized (circuitSchedulerList) {
+            return new LinkedList<CircuitScheduler>(circuitSchedulerList);
+        }
+    }
+
     /**
      * Adds a high priority {@link SensorJob}.
      *
@@ -194,9 +224,11 @@ public abstract class AbstractSensorJobExecutor {
     }
 
     private CircuitScheduler getCircuitScheduler(DSID dsid) {
-        for (CircuitScheduler circuit : this.circuitSchedulerList) {
-            if (circuit.getMeterDSID().equals(dsid)) {
-                return circuit;
+        synchronized (this.circuitSchedulerList) {
+            for (CircuitScheduler circuit : this.circuitSchedulerList) {
+                if (circuit.getMeterDSID().equals(dsid)) {
+                    return circuit;
+                }
             }
         }
         return null;
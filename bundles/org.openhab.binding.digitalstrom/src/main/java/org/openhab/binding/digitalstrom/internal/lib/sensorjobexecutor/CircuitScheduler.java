@@ -13,7 +13,9 @@
 package org.openhab.binding.digitalstrom.internal.lib.sensorjobexecutor;
 
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.PriorityQueue;
 
 import org.openhab.binding.digitalstrom.internal.lib.config.Config;
@@ -25,6 +27,13 @@ import org.slf4j.LoggerFactory;
 /**
  * This {@link CircuitScheduler} represents a circuit in the digitalSTROM-System and manages the priorities and
  * execution times for the {@link SensorJob}s on this circuit.
+ * <p>
+ * Only one {@link SensorJob} per device and sensor is queued. The {@link SensorJob}s are executed in the order of their
+ * initialization time, which is shifted by the {@link AbstractSensorJobExecutor} according to the priority, so stale
+ * jobs of a lower priority are executed after a while, too. The time between two executions is adapted to the
+ * measured response time of the dSM, to not saturate a slow circuit. The time between queuing and execution of the
+ * jobs is recorded as queue latency.
+ * </p>
  *
  * @author Michael Ochel - Initial contribution
  * @author Matthias Siegele - Initial contribution
@@ -33,18 +42,48 @@ public class CircuitScheduler {
 
     private final Logger logger = LoggerFactory.getLogger(CircuitScheduler.class);
 
-    private class SensorJobComparator implements Comparator<SensorJob> {
+    /**
+     * Factor of the average execution time a circuit gets to recover before the next {@link SensorJob} is executed.
+     */
+    private static final int BANDWIDTH_FACTOR = 2;
+
+    private static class QueuedSensorJob {
+        private final SensorJob sensorJob;
+        private final long priority;
+        private final long sequence;
+        private final long queuedSince;
+        private boolean removed = false;
+
+        private QueuedSensorJob(SensorJob sensorJob, long sequence, long queuedSince) {
+            this.sensorJob = sensorJob;
+            this.priority = sensorJob.getInitalisationTime();
+            this.sequence = sequence;
+            this.queuedSince = queuedSince;
+        }
+    }
+
+    private class SensorJobComparator implements Comparator<QueuedSensorJob> {
 
         @Override
-        public int compare(SensorJob job1, SensorJob job2) {
-            return ((Long) job1.getInitalisationTime()).compareTo(job2.getInitalisationTime());
+        public int compare(QueuedSensorJob job1, QueuedSensorJob job2) {
+            int result = Long.compare(job1.priority, job2.priority);
+            return result != 0 ? result : Long.compare(job1.sequence, job2.sequence);
         }
     }
 
     private final DSID meterDSID;
     private long nextExecutionTime = System.currentTimeMillis();
-    private final PriorityQueue<SensorJob> sensorJobQueue = new PriorityQueue<SensorJob>(10, new SensorJobComparator());
+    private final PriorityQueue<QueuedSensorJob> sensorJobQueue = new PriorityQueue<QueuedSensorJob>(10,
+            new SensorJobComparator());
+    private final Map<SensorJob, QueuedSensorJob> pendingSensorJobs = new HashMap<SensorJob, QueuedSensorJob>();
     private final Config config;
+    private long sequence = 0;
+
+    // statistics
+    private long averageExecutionTime = 0;
+    private long executedJobs = 0;
+    private long totalQueueLatency = 0;
+    private long maxQueueLatency = 0;
 
     /**
      * Creates a new {@link CircuitScheduler}.
@@ -69,8 +108,8 @@ public class CircuitScheduler {
      */
     public CircuitScheduler(SensorJob sensorJob, Config config) {
         this.meterDSID = sensorJob.getMeterDSID();
-        this.sensorJobQueue.add(sensorJob);
         this.config = config;
+        queueSensorJob(sensorJob, System.currentTimeMillis());
         logger.debug("create circuitScheduler: {} and add sensorJob: {}", this.getMeterDSID(),
                 sensorJob.getDSID().toString());
     }
@@ -91,10 +130,14 @@ public class CircuitScheduler {
      */
     public void addSensorJob(SensorJob sensorJob) {
         synchronized (sensorJobQueue) {
-            if (!this.sensorJobQueue.contains(sensorJob)) {
-                sensorJobQueue.add(sensorJob);
+            QueuedSensorJob existSensorJob = pendingSensorJobs.get(sensorJob);
+            if (existSensorJob == null) {
+                queueSensorJob(sensorJob, System.currentTimeMillis());
                 logger.debug("Add sensorJob: {} to circuitScheduler: {}", sensorJob.toString(), this.getMeterDSID());
-            } else if (checkSensorJobPrio(sensorJob)) {
+            } else if (sensorJob.getInitalisationTime() < existSensorJob.priority) {
+                // keep the queue time of the replaced job, it is still the same outdated value
+                existSensorJob.removed = true;
+                queueSensorJob(sensorJob, existSensorJob.queuedSince);
                 logger.debug("add sensorJob: {} with higher priority to circuitScheduler: {}", sensorJob.toString(),
                         this.getMeterDSID());
             } else {
@@ -103,20 +146,10 @@ public class CircuitScheduler {
         }
     }
 
-    private boolean checkSensorJobPrio(SensorJob sensorJob) {
-        synchronized (sensorJobQueue) {
-            for (Iterator<SensorJob> iter = sensorJobQueue.iterator(); iter.hasNext();) {
-                SensorJob existSensorJob = iter.next();
-                if (existSensorJob.equals(sensorJob)) {
-                    if (sensorJob.getInitalisationTime() < existSensorJob.getInitalisationTime()) {
-                        iter.remove();
-                        sensorJobQueue.add(sensorJob);
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+    private void queueSensorJob(SensorJob sensorJob, long queuedSince) {
+        QueuedSensorJob queuedSensorJob = new QueuedSensorJob(sensorJob, sequence++, queuedSince);
+        pendingSensorJobs.put(sensorJob, queuedSensorJob);
+        sensorJobQueue.add(queuedSensorJob);
     }
 
     /**
@@ -127,22 +160,61 @@ public class CircuitScheduler {
      */
     public SensorJob getNextSensorJob() {
         synchronized (sensorJobQueue) {
-            if (sensorJobQueue.peek() != null && this.nextExecutionTime <= System.currentTimeMillis()) {
-                nextExecutionTime = System.currentTimeMillis() + config.getSensorReadingWaitTime();
-                return sensorJobQueue.poll();
-            } else {
+            long now = System.currentTimeMillis();
+            if (this.nextExecutionTime > now) {
                 return null;
             }
+            QueuedSensorJob queuedSensorJob = sensorJobQueue.poll();
+            while (queuedSensorJob != null && queuedSensorJob.removed) {
+                queuedSensorJob = sensorJobQueue.poll();
+            }
+            if (queuedSensorJob == null) {
+                return null;
+            }
+            pendingSensorJobs.remove(queuedSensorJob.sensorJob);
+            nextExecutionTime = now + getExecutionInterval();
+
+            long queueLatency = now - queuedSensorJob.queuedSince;
+            executedJobs++;
+            totalQueueLatency += queueLatency;
+            maxQueueLatency = Math.max(maxQueueLatency, queueLatency);
+            return queuedSensorJob.sensorJob;
         }
     }
 
+    /**
+     * Informs this {@link CircuitScheduler} about the time it took to execute a {@link SensorJob}, which is used to
+     * adapt the time between the executions to the bandwidth of the circuit.
+     *
+     * @param executionTime in milliseconds
+     */
+    public void sensorJobExecuted(long executionTime) {
+        synchronized (sensorJobQueue) {
+            if (averageExecutionTime == 0) {
+                averageExecutionTime = executionTime;
+            } else {
+                averageExecutionTime = (averageExecutionTime * 3 + executionTime) / 4;
+            }
+            long earliestExecutionTime = System.currentTimeMillis() + averageExecutionTime * BANDWIDTH_FACTOR;
+            if (nextExecutionTime < earliestExecutionTime) {
+                nextExecutionTime = earliestExecutionTime;
+            }
+        }
+    }
+
+    private long getExecutionInterval() {
+        return Math.max(config.getSensorReadingWaitTime(), averageExecutionTime * BANDWIDTH_FACTOR);
+    }
+
     /**
      * Returns the time when the next {@link SensorJob} can be executed.
      *
      * @return next SesnorJob execution time
      */
     public Long getNextExecutionTime() {
-        return this.nextExecutionTime;
+        synchronized (sensorJobQueue) {
+            return this.nextExecutionTime;
+        }
     }
 
     /**
@@ -151,7 +223,7 @@ public class CircuitScheduler {
      * @return next SesnorJob execution delay
      */
     public Long getNextExecutionDelay() {
-        long delay = this.nextExecutionTime - System.currentTimeMillis();
+        long delay = getNextExecutionTime() - System.currentTimeMillis();
         return delay > 0 ? delay : 0;
     }
 
@@ -162,13 +234,15 @@ public class CircuitScheduler {
      */
     public void removeSensorJob(DSID dSID) {
         synchronized (sensorJobQueue) {
-            for (Iterator<SensorJob> iter = sensorJobQueue.iterator(); iter.hasNext();) {
-                SensorJob job = iter.next();
-                if (job.getDSID().equals(dSID)) {
+            for (Iterator<QueuedSensorJob> iter = pendingSensorJobs.values().iterator(); iter.hasNext();) {
+                QueuedSensorJob queuedSensorJob = iter.next();
+                if (queuedSensorJob.sensorJob.getDSID().equals(dSID)) {
+                    queuedSensorJob.removed = true;
                     iter.remove();
-                    logger.debug("Remove SensorJob with ID {}.", job.getID());
+                    logger.debug("Remove SensorJob with ID {}.", queuedSensorJob.sensorJob.getID());
                 }
             }
+            purgeSensorJobQueue();
         }
     }
 
@@ -179,11 +253,13 @@ public class CircuitScheduler {
      */
     public void removeSensorJob(String id) {
         synchronized (sensorJobQueue) {
-            for (Iterator<SensorJob> iter = sensorJobQueue.iterator(); iter.hasNext();) {
-                SensorJob job = iter.next();
-                if (job.getID().equals(id)) {
+            for (Iterator<QueuedSensorJob> iter = pendingSensorJobs.values().iterator(); iter.hasNext();) {
+                QueuedSensorJob queuedSensorJob = iter.next();
+                if (queuedSensorJob.sensorJob.getID().equals(id)) {
+                    queuedSensorJob.removed = true;
                     iter.remove();
                     logger.debug("Remove SensorJob with ID {}.", id);
+                    purgeSensorJobQueue();
                     return;
                 }
             }
@@ -191,6 +267,13 @@ public class CircuitScheduler {
         }
     }
 
+    private void purgeSensorJobQueue() {
+        // removed jobs stay in the queue until they are polled, drop them if nothing else is left
+        if (pendingSensorJobs.isEmpty()) {
+            sensorJobQueue.clear();
+        }
+    }
+
     /**
      * Returns true, if there are no more {@link SensorJob}s to execute, otherwise false.
      *
@@ -198,7 +281,71 @@ public class CircuitScheduler {
      */
     public boolean noMoreJobs() {
         synchronized (sensorJobQueue) {
-            return this.sensorJobQueue.isEmpty();
+            return this.pendingSensorJobs.isEmpty();
+        }
+    }
+
+    /**
+     * Returns the number of queued {@link SensorJob}s.
+     *
+     * @return number of queued SensorJobs
+     */
+    public int getQueueSize() {
+        synchronized (sensorJobQueue) {
+            return this.pendingSensorJobs.size();
+        }
+    }
+
+    /**
+     * Returns the number of executed {@link SensorJob}s.
+     *
+     * @return number of executed SensorJobs
+     */
+    public long getExecutedJobs() {
+        synchronized (sensorJobQueue) {
+            return this.executedJobs;
+        }
+    }
+
+    /**
+     * Returns the average time in milliseconds the executed {@link SensorJob}s were waiting in the queue.
+     *
+     * @return average queue latency in milliseconds
+     */
+    public long getAverageQueueLatency() {
+        synchronized (sensorJobQueue) {
+            return executedJobs > 0 ? totalQueueLatency / executedJobs : 0;
+        }
+    }
+
+    /**
+     * Returns the maximum time in milliseconds an executed {@link SensorJob} was waiting in the queue.
+     *
+     * @return maximum queue latency in milliseconds
+     */
+    public long getMaxQueueLatency() {
+        synchronized (sensorJobQueue) {
+            return this.maxQueueLatency;
+        }
+    }
+
+    /**
+     * Returns the average time in milliseconds the dSM needed to execute a {@link SensorJob}.
+     *
+     * @return average execution time in milliseconds
+     */
+    public long getAverageExecutionTime() {
+        synchronized (sensorJobQueue) {
+            return this.averageExecutionTime;
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (sensorJobQueue) {
+            return "CircuitScheduler [meterDSID=" + meterDSID + ", queueSize=" + pendingSensorJobs.size()
+                    + ", executedJobs=" + executedJobs + ", averageQueueLatency=" + getAverageQueueLatency()
+                    + ", maxQueueLatency=" + maxQueueLatency + ", averageExecutionTime=" + averageExecutionTime + "]";
         }
     }
 }
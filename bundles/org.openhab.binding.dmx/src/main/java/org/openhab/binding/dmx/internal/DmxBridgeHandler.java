@@ -18,8 +18,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.thing.Bridge;
@@ -32,6 +31,7 @@ import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.thing.binding.ThingHandlerService;
 import org.eclipse.smarthome.core.types.Command;
 import org.openhab.binding.dmx.action.DmxActions;
+import org.openhab.binding.dmx.internal.DmxRenderEngine.RenderTarget;
 import org.openhab.binding.dmx.internal.action.FadeAction;
 import org.openhab.binding.dmx.internal.action.ResumeAction;
 import org.openhab.binding.dmx.internal.config.DmxBridgeHandlerConfiguration;
@@ -51,12 +51,15 @@ import org.slf4j.LoggerFactory;
 public abstract class DmxBridgeHandler extends BaseBridgeHandler {
     public static final int DEFAULT_REFRESH_RATE = 20;
 
+    private static final DmxRenderEngine RENDER_ENGINE = new DmxRenderEngine();
+
     private final Logger logger = LoggerFactory.getLogger(DmxBridgeHandler.class);
 
     protected Universe universe;
 
-    private ScheduledFuture<?> senderJob;
-    private boolean isMuted = false;
+    private RenderTarget senderJob;
+    private final AtomicBoolean reconnecting = new AtomicBoolean(false);
+    private volatile boolean isMuted = false;
     private int refreshTime = 1000 / DEFAULT_REFRESH_RATE;
 
     public DmxBridgeHandler(Bridge dmxBridge) {
@@ -148,6 +151,29 @@ public abstract class DmxBridgeHandler extends BaseBridgeHandler {
      */
     protected abstract void sendDmxData();
 
+    /**
+     * render a single frame, called from the render engine
+     *
+     * opening the connection may block, so it is done on the scheduler while the bridge is not online
+     */
+    private void renderFrame() {
+        logger.trace("runnable packet sender for universe {} called, state {}/{}", universe.getUniverseId(),
+                getThing().getStatus(), isMuted);
+        if (isMuted) {
+            logger.trace("bridge {} is muted", getThing().getUID());
+        } else if (getThing().getStatus() == ThingStatus.ONLINE) {
+            sendDmxData();
+        } else if (reconnecting.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                try {
+                    sendDmxData();
+                } finally {
+                    reconnecting.set(false);
+                }
+            });
+        }
+    }
+
     /**
      * install the sending and updating scheduler
      */
@@ -156,15 +182,7 @@ public abstract class DmxBridgeHandler extends BaseBridgeHandler {
             uninstallScheduler();
         }
         if (refreshTime > 0) {
-            senderJob = scheduler.scheduleAtFixedRate(() -> {
-                logger.trace("runnable packet sender for universe {} called, state {}/{}", universe.getUniverseId(),
-                        getThing().getStatus(), isMuted);
-                if (!isMuted) {
-                    sendDmxData();
-                } else {
-                    logger.trace("bridge {} is muted", getThing().getUID());
-                }
-            }, 1, refreshTime, TimeUnit.MILLISECONDS);
+            senderJob = RENDER_ENGINE.register(getThing().getUID().toString(), this::renderFrame, refreshTime);
             logger.trace("started scheduler for thing {}", this.thing.getUID());
         } else {
             logger.info("refresh disabled for thing {}", this.thing.getUID());
@@ -176,12 +194,10 @@ public abstract class DmxBridgeHandler extends BaseBridgeHandler {
      */
     protected void uninstallScheduler() {
         if (senderJob != null) {
-            if (!senderJob.isCancelled()) {
-                senderJob.cancel(true);
-            }
+            RENDER_ENGINE.unregister(senderJob);
+            logger.trace("stopping scheduler for thing {}: {}", this.thing.getUID(), senderJob);
             senderJob = null;
             closeConnection();
-            logger.trace("stopping scheduler for thing {}", this.thing.getUID());
         }
     }
 
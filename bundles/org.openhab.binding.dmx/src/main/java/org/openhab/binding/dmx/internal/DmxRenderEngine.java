@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dmx.internal;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link DmxRenderEngine} renders the frames of all DMX bridges on a single thread
+ *
+ * Frame deadlines are aligned to a common time base, so bridges with the same refresh rate are rendered in the same
+ * wake-up. If a frame is late (e.g. due to a slow bridge) the missed frames are dropped instead of being rendered in
+ * a burst.
+ *
+ * @author agent - Initial contribution
+ */
+public class DmxRenderEngine {
+    private static final String THREAD_NAME = "OH-binding-dmx-render";
+
+    private final Logger logger = LoggerFactory.getLogger(DmxRenderEngine.class);
+
+    private final List<RenderTarget> targets = new CopyOnWriteArrayList<RenderTarget>();
+    private final long epoch = System.nanoTime();
+
+    private volatile Thread renderThread;
+
+    /**
+     * a registered frame renderer
+     */
+    public class RenderTarget {
+        private final String name;
+        private final Runnable renderer;
+        private final long period;
+        private long deadline;
+        private final AtomicLong renderedFrames = new AtomicLong();
+        private final AtomicLong droppedFrames = new AtomicLong();
+
+        private RenderTarget(String name, Runnable renderer, long period, long now) {
+            this.name = name;
+            this.renderer = renderer;
+            this.period = period;
+            long elapsed = now - epoch;
+            this.deadline = epoch + (elapsed / period + 1) * period;
+        }
+
+        private void render() {
+            renderedFrames.incrementAndGet();
+            try {
+                renderer.run();
+            } catch (RuntimeException e) {
+                logger.warn("rendering frame for {} failed", name, e);
+            }
+            deadline += period;
+            long late = System.nanoTime() - deadline;
+            if (late >= 0) {
+                long skipped = late / period + 1;
+                droppedFrames.addAndGet(skipped);
+                deadline += skipped * period;
+                logger.trace("dropped {} frames for {}", skipped, name);
+            }
+        }
+
+        /**
+         * @return the number of rendered frames
+         */
+        public long getRenderedFrames() {
+            return renderedFrames.get();
+        }
+
+        /**
+         * @return the number of frames that were skipped because rendering was late
+         */
+        public long getDroppedFrames() {
+            return droppedFrames.get();
+        }
+
+        @Override
+        public String toString() {
+            return name + " [period=" + TimeUnit.NANOSECONDS.toMillis(period) + "ms, rendered=" + renderedFrames
+                    + ", dropped=" + droppedFrames + "]";
+        }
+    }
+
+    /**
+     * register a frame renderer
+     *
+     * @param name name used in log messages
+     * @param renderer called once per frame on the render thread
+     * @param refreshTime time between two frames in ms
+     * @return the {@link RenderTarget}, needed for unregistering
+     */
+    public synchronized RenderTarget register(String name, Runnable renderer, int refreshTime) {
+        if (refreshTime <= 0) {
+            throw new IllegalArgumentException("refreshTime must be positive");
+        }
+        RenderTarget target = new RenderTarget(name, renderer, TimeUnit.MILLISECONDS.toNanos(refreshTime),
+                System.nanoTime());
+        targets.add(target);
+        logger.trace("registered {} in render engine", target);
+        if (renderThread == null) {
+            renderThread = new Thread(this::renderLoop, THREAD_NAME);
+            renderThread.setDaemon(true);
+            renderThread.start();
+            logger.debug("started DMX render thread");
+        } else {
+            LockSupport.unpark(renderThread);
+        }
+        return target;
+    }
+
+    /**
+     * unregister a frame renderer
+     *
+     * a frame that is currently rendered is completed
+     *
+     * @param target the {@link RenderTarget} returned on registration
+     */
+    public synchronized void unregister(RenderTarget target) {
+        targets.remove(target);
+        logger.trace("unregistered {} from render engine", target);
+        if (targets.isEmpty() && renderThread != null) {
+            Thread thread = renderThread;
+            renderThread = null;
+            LockSupport.unpark(thread);
+            logger.debug("stopped DMX render thread");
+        }
+    }
+
+    /**
+     * @return true if the render thread is running
+     */
+    public boolean isRunning() {
+        return renderThread != null;
+    }
+
+    private void renderLoop() {
+        Thread currentThread = Thread.currentThread();
+        while (renderThread == currentThread) {
+            long now = System.nanoTime();
+            for (RenderTarget target : targets) {
+                if (now - target.deadline >= 0) {
+                    target.render();
+                }
+            }
+            now = System.nanoTime();
+            long wait = Long.MAX_VALUE;
+            for (RenderTarget target : targets) {
+                wait = Math.min(wait, target.deadline - now);
+            }
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+            }
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.openhab.binding.dmx.internal.DmxBridgeHandler;
+import org.openhab.binding.dmx.internal.multiverse.Universe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,6 +44,8 @@ public abstract class DmxOverEthernetHandler extends DmxBridgeHandler {
     protected boolean refreshAlways = false;
 
     DatagramSocket socket = null;
+    private final byte[] frameBuffer = new byte[Universe.MAX_UNIVERSE_SIZE];
+    private final DatagramPacket sendPacket = new DatagramPacket(new byte[0], 0);
     private long lastSend = 0;
     private int repeatCounter = 0;
     private int sequenceNo = 0;
@@ -101,10 +104,9 @@ public abstract class DmxOverEthernetHandler extends DmxBridgeHandler {
                 repeatCounter++;
             }
             if (needsSending) {
-                packetTemplate.setPayload(universe.getBuffer(), universe.getBufferSize());
+                packetTemplate.setPayload(frameBuffer, universe.copyBuffer(frameBuffer));
                 packetTemplate.setSequence(sequenceNo);
-                DatagramPacket sendPacket = new DatagramPacket(packetTemplate.getRawPacket(),
-                        packetTemplate.getPacketLength());
+                sendPacket.setData(packetTemplate.getRawPacket(), 0, packetTemplate.getPacketLength());
                 for (IpNode receiverNode : receiverNodes) {
                     sendPacket.setAddress(receiverNode.getAddress());
                     sendPacket.setPort(receiverNode.getPort());
@@ -116,6 +118,7 @@ public abstract class DmxOverEthernetHandler extends DmxBridgeHandler {
                         logger.debug("Could not send to {} in {}: {}", receiverNode, this.thing.getUID(),
                                 e.getMessage());
                         closeConnection(ThingStatusDetail.COMMUNICATION_ERROR, "could not send DMX data");
+                        break;
                     }
                 }
                 lastSend = now;
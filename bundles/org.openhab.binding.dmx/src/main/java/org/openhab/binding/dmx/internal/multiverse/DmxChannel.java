@@ -48,6 +48,7 @@ public class DmxChannel extends BaseDmxChannel {
     private int lastStateValue = -1;
 
     private boolean isSuspended = false;
+    private boolean valueChanged = true;
     private int refreshTime = 0;
     private long lastStateTimestamp = 0;
 
@@ -107,8 +108,9 @@ public class DmxChannel extends BaseDmxChannel {
      *
      * @param value Integer value (0-255)
      */
-    public void setValue(int value) {
+    public synchronized void setValue(int value) {
         this.value = Util.toDmxValue(value) << 8;
+        valueChanged = true;
         logger.trace("set dmx channel {} to value {}", this, this.value >> 8);
     }
 
@@ -117,8 +119,9 @@ public class DmxChannel extends BaseDmxChannel {
      *
      * @param value PercentType (0-100)
      */
-    public void setValue(PercentType value) {
+    public synchronized void setValue(PercentType value) {
         this.value = Util.toDmxValue(value) << 8;
+        valueChanged = true;
         logger.trace("set dmx channel {} to value {}", this, this.value >> 8);
     }
 
@@ -171,6 +174,7 @@ public class DmxChannel extends BaseDmxChannel {
                 logger.trace("resuming suspended actions for DMX channel {}", this);
             } else {
                 value = suspendedValue;
+                valueChanged = true;
                 logger.trace("resuming suspended value for DMX channel {}", this);
             }
             isSuspended = false;
@@ -222,6 +226,25 @@ public class DmxChannel extends BaseDmxChannel {
         logger.trace("added action {} to channel {} (total {} actions)", channelAction, this, actions.size());
     }
 
+    /**
+     * mark the channel value as changed, so it is calculated in the next frame
+     */
+    public synchronized void markChanged() {
+        valueChanged = true;
+    }
+
+    /**
+     * check if the channel needs to be calculated in the next frame
+     *
+     * a channel is active if its value was changed, it has running actions or a state update to the listeners is still
+     * pending. Inactive channels keep their last calculated value and can be skipped when calculating a universe.
+     *
+     * @return true if the channel is active
+     */
+    public synchronized boolean isActive() {
+        return valueChanged || hasRunningActions() || lastStateValue != value;
+    }
+
     /**
      * @return true if there are running actions
      */
@@ -263,6 +286,7 @@ public class DmxChannel extends BaseDmxChannel {
      * @return value 0-65535
      */
     public synchronized Integer getNewHiResValue(long calculationTime) {
+        valueChanged = false;
         if (hasRunningActions()) {
             logger.trace("checking actions, list is {}", actions);
             BaseAction action = actions.get(0);
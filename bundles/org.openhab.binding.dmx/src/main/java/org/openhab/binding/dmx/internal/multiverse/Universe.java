@@ -38,14 +38,14 @@ public class Universe {
     private int universeId;
     private int bufferSize = MIN_UNIVERSE_SIZE;
 
-    private final short[] buffer = new short[MAX_UNIVERSE_SIZE];
+    private final byte[] buffer = new byte[MAX_UNIVERSE_SIZE];
     private final short[] cie1931Curve = new short[DmxChannel.MAX_VALUE << 8 + 1];
 
     private long bufferChanged;
     private int refreshTime = DEFAULT_REFRESH_TIME;
 
     private final List<DmxChannel> channels = new ArrayList<DmxChannel>();
-    private final List<Integer> applyCurve = new ArrayList<Integer>();
+    private boolean[] applyCurve = new boolean[MAX_UNIVERSE_SIZE + 1];
 
     /**
      * universe constructor
@@ -174,23 +174,23 @@ public class Universe {
     /**
      * calculate this universe buffer (run all channel actions) for a given time
      *
+     * only active channels (see {@link DmxChannel#isActive()}) are calculated, all other channels keep their value
+     *
      * @param time the timestamp used for calculation
      */
     public void calculateBuffer(long time) {
         universeLock.lock();
         try {
+            boolean[] curve = applyCurve;
             for (DmxChannel channel : channels) {
-                logger.trace("calculating new value for {}", channel);
+                if (!channel.isActive()) {
+                    continue;
+                }
                 int channelId = channel.getChannelId();
                 int vx = channel.getNewHiResValue(time);
-                int value;
-                if (applyCurve.contains(channelId)) {
-                    value = cie1931Curve[vx];
-                } else {
-                    value = vx >> 8;
-                }
+                byte value = (byte) (curve[channelId] ? cie1931Curve[vx] : vx >> 8);
                 if (buffer[channelId - 1] != value) {
-                    buffer[channelId - 1] = (short) value;
+                    buffer[channelId - 1] = value;
                     bufferChanged = time;
                 }
             }
@@ -206,15 +206,24 @@ public class Universe {
      */
     public byte[] getBuffer() {
         byte[] b = new byte[bufferSize];
+        copyBuffer(b);
+        return b;
+    }
+
+    /**
+     * copy the universe buffer to a preallocated array
+     *
+     * @param target byte array with at least {@link #getBufferSize()} elements
+     * @return number of copied channel values
+     */
+    public int copyBuffer(byte[] target) {
         universeLock.lock();
         try {
-            for (int i = 0; i < bufferSize; i++) {
-                b[i] = (byte) buffer[i];
-            }
+            System.arraycopy(buffer, 0, target, 0, bufferSize);
+            return bufferSize;
         } finally {
             universeLock.unlock();
         }
-        return b;
     }
 
     /**
@@ -223,11 +232,23 @@ public class Universe {
      * @param listString
      */
     public void setDimCurveChannels(String listString) {
-        applyCurve.clear();
+        boolean[] curve = new boolean[MAX_UNIVERSE_SIZE + 1];
+        List<Integer> curveChannels = new ArrayList<Integer>();
         for (BaseDmxChannel channel : BaseDmxChannel.fromString(listString, universeId)) {
-            applyCurve.add(channel.getChannelId());
+            curve[channel.getChannelId()] = true;
+            curveChannels.add(channel.getChannelId());
+        }
+        applyCurve = curve;
+        // force recalculation of all channels with the new curve
+        universeLock.lock();
+        try {
+            for (DmxChannel channel : channels) {
+                channel.markChanged();
+            }
+        } finally {
+            universeLock.unlock();
         }
-        logger.debug("applying dim curve in universe {} to channels {}", universeId, applyCurve);
+        logger.debug("applying dim curve in universe {} to channels {}", universeId, curveChannels);
     }
 
     /**
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dmx.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.dmx.internal.DmxRenderEngine.RenderTarget;
+
+/**
+ * Tests cases for the render engine
+ *
+ * @author agent - Initial contribution
+ */
+public class DmxRenderEngineTest {
+
+    private DmxRenderEngine renderEngine;
+
+    @Before
+    public void setUp() {
+        renderEngine = new DmxRenderEngine();
+    }
+
+    @Test
+    public void threadLifecycle() {
+        assertThat(renderEngine.isRunning(), is(false));
+
+        RenderTarget target1 = renderEngine.register("target1", () -> {
+        }, 10);
+        RenderTarget target2 = renderEngine.register("target2", () -> {
+        }, 20);
+        assertThat(renderEngine.isRunning(), is(true));
+
+        renderEngine.unregister(target1);
+        assertThat(renderEngine.isRunning(), is(true));
+
+        renderEngine.unregister(target2);
+        assertThat(renderEngine.isRunning(), is(false));
+    }
+
+    @Test
+    public void framesAreRendered() throws InterruptedException {
+        CountDownLatch frames = new CountDownLatch(5);
+        RenderTarget target = renderEngine.register("target", frames::countDown, 10);
+
+        assertTrue(frames.await(1, TimeUnit.SECONDS));
+        renderEngine.unregister(target);
+        assertTrue(target.getRenderedFrames() >= 5);
+    }
+
+    @Test
+    public void failingRendererDoesNotStopEngine() throws InterruptedException {
+        CountDownLatch frames = new CountDownLatch(3);
+        RenderTarget failingTarget = renderEngine.register("failing", () -> {
+            throw new IllegalStateException("test");
+        }, 10);
+        RenderTarget target = renderEngine.register("target", frames::countDown, 10);
+
+        assertTrue(frames.await(1, TimeUnit.SECONDS));
+        renderEngine.unregister(failingTarget);
+        renderEngine.unregister(target);
+    }
+
+    @Test
+    public void lateFramesAreDropped() throws InterruptedException {
+        CountDownLatch frames = new CountDownLatch(2);
+        RenderTarget target = renderEngine.register("slow", () -> {
+            try {
+                Thread.sleep(55);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            frames.countDown();
+        }, 10);
+
+        assertTrue(frames.await(1, TimeUnit.SECONDS));
+        renderEngine.unregister(target);
+        assertTrue(target.getDroppedFrames() >= 4);
+    }
+}
@@ -14,6 +14,7 @@ package org.openhab.binding.homematic.internal.communicator;
 
 import static org.openhab.binding.homematic.internal.misc.HomematicConstants.*;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -23,17 +24,25 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.openhab.binding.homematic.internal.HomematicBindingConstants;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.client.BinRpcClient;
+import org.openhab.binding.homematic.internal.communicator.client.ParamsetDescriptionCache;
 import org.openhab.binding.homematic.internal.communicator.client.RpcClient;
 import org.openhab.binding.homematic.internal.communicator.client.TransferMode;
 import org.openhab.binding.homematic.internal.communicator.client.UnknownParameterSetException;
@@ -90,9 +99,14 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     public static final double DEFAULT_DISABLE_DELAY = 2.0;
     private static final long CONNECTION_TRACKER_INTERVAL_SECONDS = 15;
     private static final String GATEWAY_POOL_NAME = "homematicGateway";
+    private static final int METADATA_LOADER_THREADS = 4;
+    private static final String CACHE_FOLDER_NAME = "cache";
 
     private final Map<TransferMode, RpcClient<?>> rpcClients = new HashMap<TransferMode, RpcClient<?>>();
     private final Map<TransferMode, RpcServer> rpcServers = new HashMap<TransferMode, RpcServer>();
+    private final ThreadLocal<Map<TransferMode, RpcClient<?>>> metadataRpcClients = new ThreadLocal<>();
+    private ParamsetDescriptionCache paramsetDescriptionCache;
+    private final Object deviceLoadedLock = new Object();
 
     protected HomematicConfig config;
     protected HttpClient httpClient;
@@ -188,6 +202,11 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
             sb.setLength(sb.length() - 2);
         }
         logger.debug("Used Homematic transfer modes: {}", sb.toString());
+        File cacheFile = new File(new File(new File(ConfigConstants.getUserDataFolder(), CACHE_FOLDER_NAME),
+                HomematicBindingConstants.BINDING_ID), id + "-paramsets.ser");
+        paramsetDescriptionCache = new ParamsetDescriptionCache(cacheFile,
+                gatewayInfo.getType() + ":" + gatewayInfo.getFirmware());
+        paramsetDescriptionCache.load();
         startClients();
         startServers();
 
@@ -226,12 +245,21 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     protected synchronized void startClients() throws IOException {
         for (TransferMode mode : availableInterfaces.values()) {
             if (!rpcClients.containsKey(mode)) {
-                rpcClients.put(mode,
-                        mode == TransferMode.XML_RPC ? new XmlRpcClient(config, httpClient) : new BinRpcClient(config));
+                rpcClients.put(mode, createRpcClient(mode));
             }
         }
     }
 
+    /**
+     * Creates a new RPC client with its own connection to the gateway.
+     */
+    private RpcClient<?> createRpcClient(TransferMode mode) throws IOException {
+        RpcClient<?> rpcClient = mode == TransferMode.XML_RPC ? new XmlRpcClient(config, httpClient)
+                : new BinRpcClient(config);
+        rpcClient.setParamsetDescriptionCache(paramsetDescriptionCache);
+        return rpcClient;
+    }
+
     /**
      * Stops the Homematic gateway client.
      */
@@ -303,7 +331,9 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
 
     @Override
     public RpcClient<?> getRpcClient(HmInterface hmInterface) throws IOException {
-        RpcClient<?> rpcClient = rpcClients.get(availableInterfaces.get(hmInterface));
+        // metadata loader threads use their own clients and connections
+        Map<TransferMode, RpcClient<?>> clients = metadataRpcClients.get();
+        RpcClient<?> rpcClient = (clients != null ? clients : rpcClients).get(availableInterfaces.get(hmInterface));
         if (rpcClient == null) {
             throw new IOException("RPC client for interface " + hmInterface + " not available");
         }
@@ -371,61 +401,119 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         // load all device descriptions
         List<HmDevice> deviceDescriptions = getDeviceDescriptions();
 
-        // loading datapoints for all channels
-        Set<String> loadedDevices = new HashSet<String>();
-        Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new HashMap<String, Collection<HmDatapoint>>();
-        for (HmDevice device : deviceDescriptions) {
-            if (!cancelLoadAllMetadata) {
+        // loading datapoints for all channels, the devices are distributed to multiple loaders
+        Set<String> loadedDevices = ConcurrentHashMap.newKeySet();
+        Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new ConcurrentHashMap<>();
+        Queue<HmDevice> pendingDevices = new ConcurrentLinkedQueue<HmDevice>(deviceDescriptions);
+        Runnable loader = () -> {
+            HmDevice device;
+            while (!cancelLoadAllMetadata && (device = pendingDevices.poll()) != null) {
+                loadDeviceMetadata(device, datapointsByChannelIdCache, loadedDevices);
+            }
+        };
+
+        int loaderCount = Math.min(config.getGatewayInfo().isCCU1() ? 1 : METADATA_LOADER_THREADS,
+                deviceDescriptions.size());
+        List<Future<?>> loaderFutures = new ArrayList<Future<?>>();
+        for (int i = 1; i < loaderCount; i++) {
+            loaderFutures.add(scheduler.submit(() -> runWithMetadataRpcClients(loader)));
+        }
+        loader.run();
+        for (Future<?> loaderFuture : loaderFutures) {
+            // loaders which have not been started are not needed anymore, wait for the running ones
+            if (!loaderFuture.cancel(false)) {
                 try {
-                    logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(),
-                            device.getType());
-                    if (device.isGatewayExtras()) {
-                        loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
-                        loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
-                    } else {
-                        for (HmChannel channel : device.getChannels()) {
-                            logger.trace("  Loading channel {}", channel);
-                            // speed up metadata generation a little bit for equal channels in the gateway devices
-                            if ((DEVICE_TYPE_VIRTUAL.equals(device.getType())
-                                    || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType())) && channel.getNumber() > 1) {
-                                HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
-                                cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
-                            } else {
-                                String channelId = String.format("%s:%s:%s", channel.getDevice().getType(),
-                                        channel.getDevice().getFirmware(), channel.getNumber());
-                                Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache.get(channelId);
-                                if (cachedDatapoints != null) {
-                                    // clone all datapoints
-                                    cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
-                                } else {
-                                    logger.trace("    Loading datapoints into channel {}", channel);
-                                    addChannelDatapoints(channel, HmParamsetType.MASTER);
-                                    addChannelDatapoints(channel, HmParamsetType.VALUES);
-
-                                    // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
-                                    // the data point set might change depending on the selected mode.
-                                    if (!channel.isReconfigurable()) {
-                                        datapointsByChannelIdCache.put(channelId, channel.getDatapoints());
-                                    }
-                                }
-                            }
-                        }
-                    }
-                    prepareDevice(device);
-                    loadedDevices.add(device.getAddress());
-                    gatewayAdapter.onDeviceLoaded(device);
-                } catch (IOException ex) {
-                    logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(), id,
-                            ex.getMessage());
+                    loaderFuture.get();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    cancelLoadAllMetadata = true;
+                    break;
+                } catch (ExecutionException ex) {
+                    logger.warn("Error loading metadata from gateway '{}': {}", id, ex.getMessage(), ex);
                 }
             }
         }
+        paramsetDescriptionCache.save();
+
         if (!cancelLoadAllMetadata) {
             devices.keySet().retainAll(loadedDevices);
         }
         initialized = true;
     }
 
+    /**
+     * Runs the metadata loader with separate RPC clients, so it does not block the other loaders.
+     */
+    private void runWithMetadataRpcClients(Runnable loader) {
+        Map<TransferMode, RpcClient<?>> clients = new HashMap<TransferMode, RpcClient<?>>();
+        try {
+            for (TransferMode mode : availableInterfaces.values()) {
+                if (!clients.containsKey(mode)) {
+                    clients.put(mode, createRpcClient(mode));
+                }
+            }
+            metadataRpcClients.set(clients);
+            loader.run();
+        } catch (IOException ex) {
+            logger.debug("Can't create metadata loader for gateway '{}': {}", id, ex.getMessage());
+        } finally {
+            metadataRpcClients.remove();
+            for (RpcClient<?> rpcClient : clients.values()) {
+                rpcClient.dispose();
+            }
+        }
+    }
+
+    /**
+     * Loads the metadata of all channels of the device.
+     */
+    private void loadDeviceMetadata(HmDevice device, Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache,
+            Set<String> loadedDevices) {
+        try {
+            logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(), device.getType());
+            if (device.isGatewayExtras()) {
+                loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
+                loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
+            } else {
+                for (HmChannel channel : device.getChannels()) {
+                    logger.trace("  Loading channel {}", channel);
+                    // speed up metadata generation a little bit for equal channels in the gateway devices
+                    if ((DEVICE_TYPE_VIRTUAL.equals(device.getType())
+                            || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType())) && channel.getNumber() > 1) {
+                        HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
+                        cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
+                    } else {
+                        String channelId = String.format("%s:%s:%s", channel.getDevice().getType(),
+                                channel.getDevice().getFirmware(), channel.getNumber());
+                        Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache.get(channelId);
+                        if (cachedDatapoints != null) {
+                            // clone all datapoints
+                            cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
+                        } else {
+                            logger.trace("    Loading datapoints into channel {}", channel);
+                            addChannelDatapoints(channel, HmParamsetType.MASTER);
+                            addChannelDatapoints(channel, HmParamsetType.VALUES);
+
+                            // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
+                            // the data point set might change depending on the selected mode.
+                            if (!channel.isReconfigurable()) {
+                                datapointsByChannelIdCache.put(channelId, channel.getDatapoints());
+                            }
+                        }
+                    }
+                }
+            }
+            prepareDevice(device);
+            loadedDevices.add(device.getAddress());
+            synchronized (deviceLoadedLock) {
+                gatewayAdapter.onDeviceLoaded(device);
+            }
+        } catch (IOException ex) {
+            logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(), id,
+                    ex.getMessage());
+        }
+    }
+
     /**
      * Loads all datapoints from the gateway.
      */
@@ -482,12 +570,79 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                     logger.debug("Loaded {} gateway script(s)", datapoints.size());
                 }
             }
-        } else {
+        } else if (channel.getDevice().getHmInterface() == HmInterface.CUXD) {
             logger.debug("Loading values for channel {} of device '{}'", channel, channel.getDevice().getAddress());
             setChannelDatapointValues(channel, HmParamsetType.MASTER);
             setChannelDatapointValues(channel, HmParamsetType.VALUES);
+        } else {
+            loadDeviceChannelValues(channel);
         }
 
+        finishChannelValues(channel);
+    }
+
+    /**
+     * Loads the values of the channel together with the values of all other uninitialized channels of the device in
+     * one request per paramset. Errors are only thrown for the requested channel, other channels which failed stay
+     * uninitialized.
+     */
+    private void loadDeviceChannelValues(HmChannel channel) throws IOException {
+        List<HmChannel> channels = new ArrayList<HmChannel>();
+        channels.add(channel);
+        for (HmChannel deviceChannel : channel.getDevice().getChannels()) {
+            if (deviceChannel != channel && !deviceChannel.isInitialized()) {
+                channels.add(deviceChannel);
+            }
+        }
+        logger.debug("Loading values for channel {} of device '{}' ({} channels)", channel,
+                channel.getDevice().getAddress(), channels.size());
+
+        Set<HmChannel> failedChannels = new HashSet<HmChannel>();
+        for (HmParamsetType paramsetType : new HmParamsetType[] { HmParamsetType.MASTER, HmParamsetType.VALUES }) {
+            for (HmChannel unloadedChannel : setChannelDatapointValues(channels, paramsetType)) {
+                if (unloadedChannel == channel) {
+                    setChannelDatapointValues(unloadedChannel, paramsetType);
+                } else if (!failedChannels.contains(unloadedChannel)) {
+                    try {
+                        setChannelDatapointValues(unloadedChannel, paramsetType);
+                    } catch (IOException ex) {
+                        logger.debug("Can't load values for channel {} of device '{}': {}", unloadedChannel,
+                                unloadedChannel.getDevice().getAddress(), ex.getMessage());
+                        failedChannels.add(unloadedChannel);
+                    }
+                }
+            }
+        }
+
+        for (HmChannel loadedChannel : channels) {
+            if (loadedChannel != channel && !failedChannels.contains(loadedChannel)) {
+                finishChannelValues(loadedChannel);
+            }
+        }
+    }
+
+    /**
+     * Loads the datapoint values of the paramset for multiple channels of a device with a single request.
+     *
+     * @return the channels whose values have not been loaded
+     */
+    private List<HmChannel> setChannelDatapointValues(List<HmChannel> channels, HmParamsetType paramsetType) {
+        if (channels.size() > 1) {
+            try {
+                return getRpcClient(channels.get(0).getDevice().getHmInterface()).setChannelDatapointValues(channels,
+                        paramsetType);
+            } catch (IOException ex) {
+                logger.debug("Can't load values for device '{}' in one request: {}",
+                        channels.get(0).getDevice().getAddress(), ex.getMessage());
+            }
+        }
+        return channels;
+    }
+
+    /**
+     * Publishes the loaded values to the virtual datapoints and marks the channel as initialized.
+     */
+    private void finishChannelValues(HmChannel channel) {
         for (HmDatapoint dp : channel.getDatapoints()) {
             handleVirtualDatapointEvent(dp, false);
         }
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent cache for paramset descriptions.
+ *
+ * The raw RPC responses of getParamsetDescription are cached by device type, firmware and channel number, so the
+ * metadata of known device types does not need to be loaded from the gateway after a restart. The cache is discarded
+ * if the gateway type or firmware changes.
+ *
+ * @author agent - Initial contribution
+ */
+public class ParamsetDescriptionCache {
+    private final Logger logger = LoggerFactory.getLogger(ParamsetDescriptionCache.class);
+
+    private final File cacheFile;
+    private final String gatewayVersion;
+    private final Map<String, Object[]> descriptions = new ConcurrentHashMap<String, Object[]>();
+    private volatile boolean modified;
+
+    public ParamsetDescriptionCache(File cacheFile, String gatewayVersion) {
+        this.cacheFile = cacheFile;
+        this.gatewayVersion = gatewayVersion;
+    }
+
+    /**
+     * Returns the cache key for the paramset description of the channel or null, if the description can't be cached.
+     */
+    public static String getKey(HmChannel channel, HmParamsetType paramsetType) {
+        if (paramsetType == HmParamsetType.VALUES && channel.isReconfigurable()) {
+            // the value datapoints of reconfigurable channels depend on the selected channel function
+            return null;
+        }
+        HmDevice device = channel.getDevice();
+        return String.format("%s:%s:%s:%s:%s", device.getHmInterface(), device.getType(), device.getFirmware(),
+                channel.getNumber(), paramsetType);
+    }
+
+    /**
+     * Returns the cached paramset description or null, if not cached.
+     */
+    public Object[] get(String key) {
+        return descriptions.get(key);
+    }
+
+    /**
+     * Adds a paramset description to the cache.
+     */
+    public void put(String key, Object[] description) {
+        descriptions.put(key, description);
+        modified = true;
+    }
+
+    /**
+     * Returns the number of cached paramset descriptions.
+     */
+    public int size() {
+        return descriptions.size();
+    }
+
+    /**
+     * Removes all paramset descriptions from the cache and deletes the cache file.
+     */
+    public synchronized void clear() {
+        descriptions.clear();
+        modified = false;
+        if (cacheFile.exists() && !cacheFile.delete()) {
+            logger.debug("Can't delete paramset description cache file '{}'", cacheFile);
+        }
+    }
+
+    /**
+     * Loads the paramset descriptions from the cache file.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized void load() {
+        if (!cacheFile.exists()) {
+            return;
+        }
+        try (ObjectInputStream in = new ObjectInputStream(
+                new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            Object version = in.readObject();
+            if (!gatewayVersion.equals(version)) {
+                logger.debug("Gateway changed from '{}' to '{}', discarding paramset description cache", version,
+                        gatewayVersion);
+                return;
+            }
+            descriptions.putAll((Map<String, Object[]>) in.readObject());
+            modified = false;
+            logger.debug("Loaded {} paramset descriptions from '{}'", descriptions.size(), cacheFile);
+        } catch (IOException | ClassNotFoundException | ClassCastException ex) {
+            logger.debug("Can't load paramset description cache from '{}': {}", cacheFile, ex.getMessage());
+            descriptions.clear();
+        }
+    }
+
+    /**
+     * Saves the paramset descriptions to the cache file, if the cache has been modified.
+     */
+    public synchronized void save() {
+        if (!modified) {
+            return;
+        }
+        File folder = cacheFile.getParentFile();
+        if (folder != null && !folder.exists()) {
+            folder.mkdirs();
+        }
+        modified = false;
+        Map<String, Object[]> snapshot = new HashMap<String, Object[]>(descriptions);
+        try (ObjectOutputStream out = new ObjectOutputStream(
+                new BufferedOutputStream(new FileOutputStream(cacheFile)))) {
+            out.writeObject(gatewayVersion);
+            out.writeObject(snapshot);
+            logger.debug("Saved {} paramset descriptions to '{}'", snapshot.size(), cacheFile);
+        } catch (IOException ex) {
+            modified = true;
+            logger.warn("Can't save paramset description cache to '{}': {}", cacheFile, ex.getMessage());
+        }
+    }
+}
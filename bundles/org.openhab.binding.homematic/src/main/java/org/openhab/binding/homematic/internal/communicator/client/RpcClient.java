@@ -15,10 +15,14 @@ package org.openhab.binding.homematic.internal.communicator.client;
 import static org.openhab.binding.homematic.internal.HomematicBindingConstants.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.homematic.internal.HomematicBindingConstants;
@@ -52,13 +56,24 @@ import org.slf4j.LoggerFactory;
 public abstract class RpcClient<T> {
     private final Logger logger = LoggerFactory.getLogger(RpcClient.class);
     protected static final int MAX_RPC_RETRY = 1;
+    private static final long MULTICALL_RETRY_INTERVAL = TimeUnit.HOURS.toMillis(1);
 
     protected HomematicConfig config;
+    private ParamsetDescriptionCache paramsetDescriptionCache;
+    // ports which rejected system.multicall, with the time until which it is not used
+    private final Map<Integer, Long> multicallUnsupportedPorts = new ConcurrentHashMap<Integer, Long>();
 
     public RpcClient(HomematicConfig config) {
         this.config = config;
     }
 
+    /**
+     * Sets the cache used for paramset descriptions, null disables caching.
+     */
+    public void setParamsetDescriptionCache(ParamsetDescriptionCache paramsetDescriptionCache) {
+        this.paramsetDescriptionCache = paramsetDescriptionCache;
+    }
+
     /**
      * Disposes the client.
      */
@@ -177,10 +192,21 @@ public abstract class RpcClient<T> {
             return;
         }
 
-        RpcRequest<T> request = createRpcRequest("getParamsetDescription");
-        request.addArg(getRpcAddress(channel.getDevice().getAddress()) + getChannelSuffix(channel));
-        request.addArg(paramsetType.toString());
-        new GetParamsetDescriptionParser(channel, paramsetType).parse(sendMessage(config.getRpcPort(channel), request));
+        ParamsetDescriptionCache cache = paramsetDescriptionCache;
+        String cacheKey = cache == null ? null : ParamsetDescriptionCache.getKey(channel, paramsetType);
+        Object[] description = cacheKey == null ? null : cache.get(cacheKey);
+        if (description == null) {
+            RpcRequest<T> request = createRpcRequest("getParamsetDescription");
+            request.addArg(getRpcAddress(channel.getDevice().getAddress()) + getChannelSuffix(channel));
+            request.addArg(paramsetType.toString());
+            description = sendMessage(config.getRpcPort(channel), request);
+            if (cacheKey != null) {
+                cache.put(cacheKey, description);
+            }
+        } else {
+            logger.trace("Using cached paramset description {}", cacheKey);
+        }
+        new GetParamsetDescriptionParser(channel, paramsetType).parse(description);
     }
 
     /**
@@ -213,6 +239,76 @@ public abstract class RpcClient<T> {
         }
     }
 
+    /**
+     * Sets all datapoint values of the paramset for the given channels with a single system.multicall request. All
+     * channels must belong to the same interface.
+     *
+     * @return the channels whose values could not be loaded with the multicall request and must be loaded individually
+     */
+    public List<HmChannel> setChannelDatapointValues(List<HmChannel> channels, HmParamsetType paramsetType)
+            throws IOException {
+        List<HmChannel> requestedChannels = new ArrayList<HmChannel>();
+        List<Map<String, Object>> calls = new ArrayList<Map<String, Object>>();
+        for (HmChannel channel : channels) {
+            if (isConfigurationChannel(channel) && paramsetType != HmParamsetType.MASTER) {
+                // The configuration channel only has a MASTER Paramset, so there is nothing to load
+                continue;
+            }
+            Map<String, Object> call = new HashMap<String, Object>();
+            call.put("methodName", "getParamset");
+            call.put("params", Arrays.asList(
+                    getRpcAddress(channel.getDevice().getAddress()) + getChannelSuffix(channel),
+                    paramsetType.toString()));
+            calls.add(call);
+            requestedChannels.add(channel);
+        }
+        if (requestedChannels.size() < 2) {
+            return requestedChannels;
+        }
+
+        int port = config.getRpcPort(requestedChannels.get(0));
+        Long unsupportedUntil = multicallUnsupportedPorts.get(port);
+        if (unsupportedUntil != null) {
+            if (System.currentTimeMillis() < unsupportedUntil) {
+                return requestedChannels;
+            }
+            multicallUnsupportedPorts.remove(port, unsupportedUntil);
+        }
+        RpcRequest<T> request = createRpcRequest("system.multicall");
+        request.addArg(calls);
+        Object[] message;
+        try {
+            message = sendMessage(port, request);
+        } catch (RpcFaultException ex) {
+            logger.debug("system.multicall not available on port {}, loading values individually: {}", port,
+                    ex.getMessage());
+            multicallUnsupportedPorts.put(port, System.currentTimeMillis() + MULTICALL_RETRY_INTERVAL);
+            return requestedChannels;
+        } catch (IOException ex) {
+            logger.debug("system.multicall failed on port {}, loading values individually: {}", port,
+                    ex.getMessage());
+            return requestedChannels;
+        }
+
+        Object[] results = message.length > 0 && message[0] instanceof Object[] ? (Object[]) message[0] : null;
+        if (results == null || results.length != requestedChannels.size()) {
+            logger.debug("Unexpected system.multicall response on port {}, loading values individually", port);
+            return requestedChannels;
+        }
+
+        List<HmChannel> failedChannels = new ArrayList<HmChannel>();
+        for (int i = 0; i < results.length; i++) {
+            HmChannel channel = requestedChannels.get(i);
+            if (results[i] instanceof Object[] && ((Object[]) results[i]).length > 0) {
+                new GetParamsetParser(channel, paramsetType).parse((Object[]) results[i]);
+            } else {
+                logger.trace("system.multicall getParamset failed for channel {}: {}", channel, results[i]);
+                failedChannels.add(channel);
+            }
+        }
+        return failedChannels;
+    }
+
     /**
      * Reads all VALUES datapoints individually, fallback method if setChannelDatapointValues throws a -1 Failure
      * exception.
@@ -0,0 +1,30 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.client;
+
+import java.io.IOException;
+
+/**
+ * Exception if the RPC call returns a fault response, e.g. if the method is not supported by the gateway.
+ *
+ * @author agent - Initial contribution
+ */
+
+public class RpcFaultException extends IOException {
+    private static final long serialVersionUID = 4412709652375036113L;
+
+    public RpcFaultException(String message) {
+        super(message);
+    }
+
+}
@@ -19,28 +19,37 @@ import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 
-import org.apache.commons.lang.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Handles BIN-RPC request and response messages to communicate with a Homematic gateway.
  *
+ * Messages read from a stream are received into a buffer which is reused by all messages decoded on the same thread,
+ * the values are decoded directly from the buffer without intermediate copies.
+ *
  * @author Gerhard Riegler - Initial contribution
  */
 public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     private final Logger logger = LoggerFactory.getLogger(BinRpcMessage.class);
 
+    private static final int HEADER_LENGTH = 8;
+    private static final int INITIAL_BUFFER_SIZE = 256;
+    private static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<ByteBuffer> READ_BUFFERS = ThreadLocal
+            .withInitial(() -> ByteBuffer.allocate(INITIAL_BUFFER_SIZE * 4));
+
     public enum TYPE {
         REQUEST,
         RESPONSE;
@@ -49,11 +58,13 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     private Object[] messageData;
     private byte binRpcData[];
     private int offset;
+    private int argCountPosition;
 
     private String methodName;
     private TYPE type;
     private int args;
     private String encoding;
+    private Charset charset;
 
     public BinRpcMessage(String methodName, String encoding) {
         this(methodName, TYPE.REQUEST, encoding);
@@ -65,7 +76,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     public BinRpcMessage(String methodName, TYPE type, String encoding) {
         this.methodName = methodName;
         this.type = type;
-        this.encoding = encoding;
+        setEncoding(encoding);
         createHeader();
     }
 
@@ -73,89 +84,112 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
      * Decodes a BIN-RPC message from the given InputStream.
      */
     public BinRpcMessage(InputStream is, boolean methodHeader, String encoding) throws IOException {
-        this.encoding = encoding;
-        byte sig[] = new byte[8];
-        int length = is.read(sig, 0, 4);
+        setEncoding(encoding);
+        ByteBuffer buffer = READ_BUFFERS.get();
+        byte[] data = buffer.array();
+        int length = readFully(is, data, 0, 4);
         if (length != 4) {
             throw new EOFException("Only " + length + " bytes received reading signature");
         }
-        validateBinXSignature(sig);
-        length = is.read(sig, 4, 4);
+        validateBinXSignature(data);
+        length = readFully(is, data, 4, 4);
         if (length != 4) {
             throw new EOFException("Only " + length + " bytes received reading message length");
         }
-        int datasize = (new BigInteger(ArrayUtils.subarray(sig, 4, 8))).intValue();
-        byte payload[] = new byte[datasize];
-        int offset = 0;
-        int currentLength;
+        int datasize = getInt(data, 4);
+        if (datasize < 0) {
+            throw new IOException("Invalid message length " + datasize);
+        }
 
-        while (offset < datasize && (currentLength = is.read(payload, offset, datasize - offset)) != -1) {
-            offset += currentLength;
+        int messageLength = HEADER_LENGTH + datasize;
+        if (messageLength > buffer.capacity()) {
+            // big messages (e.g. listDevices) get their own buffer, only moderate sizes are kept for reuse
+            buffer = ByteBuffer.allocate(messageLength);
+            System.arraycopy(data, 0, buffer.array(), 0, HEADER_LENGTH);
+            if (messageLength <= MAX_POOLED_BUFFER_SIZE) {
+                READ_BUFFERS.set(buffer);
+            }
+            data = buffer.array();
         }
-        if (offset != datasize) {
+
+        length = readFully(is, data, HEADER_LENGTH, datasize);
+        if (length != datasize) {
             throw new EOFException(
-                    "Only " + offset + " bytes received while reading message payload, expected " + datasize
+                    "Only " + length + " bytes received while reading message payload, expected " + datasize
                             + " bytes");
         }
-        byte[] message = ArrayUtils.addAll(sig, payload);
-        decodeMessage(message, methodHeader);
-    }
-
-    private void validateBinXSignature(byte[] sig) throws UnsupportedEncodingException {
-        if (sig[0] != 'B' || sig[1] != 'i' || sig[2] != 'n') {
-            throw new UnsupportedEncodingException("No BinX signature");
-        }
+        buffer.clear();
+        buffer.limit(messageLength);
+        decodeMessage(buffer, methodHeader);
     }
 
     /**
      * Decodes a BIN-RPC message from the given byte array.
      */
     public BinRpcMessage(byte[] message, boolean methodHeader, String encoding) throws IOException, ParseException {
-        this.encoding = encoding;
-        if (message.length < 8) {
+        setEncoding(encoding);
+        if (message.length < HEADER_LENGTH) {
             throw new EOFException("Only " + message.length + " bytes received");
         }
         validateBinXSignature(message);
-        decodeMessage(message, methodHeader);
+        decodeMessage(ByteBuffer.wrap(message), methodHeader);
     }
 
-    private void decodeMessage(byte[] message, boolean methodHeader) throws IOException {
-        binRpcData = message;
-
-        offset = 8;
+    private void setEncoding(String encoding) {
+        this.encoding = encoding;
+        try {
+            this.charset = Charset.forName(encoding);
+        } catch (IllegalArgumentException ex) {
+            this.charset = Charset.defaultCharset();
+        }
+    }
 
-        if (methodHeader) {
-            methodName = readString();
-            readInt();
+    /**
+     * Reads up to length bytes, returns the number of bytes read.
+     */
+    private int readFully(InputStream is, byte[] data, int offset, int length) throws IOException {
+        int read = 0;
+        int currentLength;
+        while (read < length && (currentLength = is.read(data, offset + read, length - read)) != -1) {
+            read += currentLength;
         }
-        generateResponseData();
+        return read;
     }
 
-    public void setType(TYPE type) {
-        binRpcData[3] = type == TYPE.RESPONSE ? (byte) 1 : (byte) 0;
+    private void validateBinXSignature(byte[] sig) throws UnsupportedEncodingException {
+        if (sig[0] != 'B' || sig[1] != 'i' || sig[2] != 'n') {
+            throw new UnsupportedEncodingException("No BinX signature");
+        }
     }
 
-    private void generateResponseData() throws IOException {
-        offset = 8 + (methodName != null ? methodName.length() + 8 : 0);
+    private void decodeMessage(ByteBuffer buffer, boolean methodHeader) throws IOException {
+        buffer.position(HEADER_LENGTH);
+        if (methodHeader) {
+            methodName = readString(buffer);
+            buffer.getInt();
+        }
         List<Object> values = new ArrayList<Object>();
-        while (offset < binRpcData.length) {
-            values.add(readRpcValue());
+        while (buffer.hasRemaining()) {
+            values.add(readRpcValue(buffer));
         }
         messageData = values.toArray();
-        values.clear();
+    }
+
+    public void setType(TYPE type) {
+        binRpcData[3] = type == TYPE.RESPONSE ? (byte) 1 : (byte) 0;
     }
 
     private void createHeader() {
-        binRpcData = new byte[256];
-        addString("Bin ");
+        binRpcData = new byte[INITIAL_BUFFER_SIZE];
+        addBytes(new byte[] { 'B', 'i', 'n', 0 });
         setType(type);
         addInt(0); // placeholder content length
         if (methodName != null) {
-            addInt(methodName.length());
             addString(methodName);
+            argCountPosition = offset;
             addInt(0); // placeholder arguments
         }
-        setInt(4, offset - 8);
+        setInt(4, offset - HEADER_LENGTH);
     }
 
     /**
@@ -164,10 +198,10 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     @Override
     public void addArg(Object argument) {
         addObject(argument);
-        setInt(4, offset - 8);
+        setInt(4, offset - HEADER_LENGTH);
 
         if (methodName != null) {
-            setInt(12 + methodName.length(), ++args);
+            setInt(argCountPosition, ++args);
         }
     }
 
@@ -187,9 +221,9 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     }
 
     private void trimBinRpcData() {
-        byte[] trimmed = new byte[offset];
-        System.arraycopy(binRpcData, 0, trimmed, 0, offset);
-        binRpcData = trimmed;
+        if (binRpcData.length != offset) {
+            binRpcData = Arrays.copyOf(binRpcData, offset);
+        }
     }
 
     @Override
@@ -198,82 +232,114 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     }
 
     // read rpc values
-    private int readInt() {
-        byte bi[] = new byte[4];
-        System.arraycopy(binRpcData, offset, bi, 0, 4);
-        offset += 4;
-        return (new BigInteger(bi)).intValue();
+    private static int getInt(byte[] data, int position) {
+        return (data[position] << 24) | ((data[position + 1] & 0xff) << 16) | ((data[position + 2] & 0xff) << 8)
+                | (data[position + 3] & 0xff);
     }
 
-    private String readString() throws UnsupportedEncodingException {
-        int len = readInt();
-        offset += len;
-        return new String(binRpcData, offset - len, len, encoding);
+    private String readString(ByteBuffer buffer) throws IOException {
+        int len = readLength(buffer, 1);
+        String string = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), len, charset);
+        buffer.position(buffer.position() + len);
+        return string;
     }
 
-    private Object readRpcValue() throws IOException {
-        int type = readInt();
+    /**
+     * Reads a length or element count and checks it against the remaining bytes.
+     */
+    private int readLength(ByteBuffer buffer, int minElementSize) throws IOException {
+        int len = buffer.getInt();
+        if (len < 0 || (long) len * minElementSize > buffer.remaining()) {
+            throw new IOException("Invalid length " + len + " with " + buffer.remaining() + " bytes remaining");
+        }
+        return len;
+    }
+
+    private Object readRpcValue(ByteBuffer buffer) throws IOException {
+        int type = buffer.getInt();
         switch (type) {
             case 1:
-                return new Integer(readInt());
+                return Integer.valueOf(buffer.getInt());
             case 2:
-                return binRpcData[offset++] != 0 ? Boolean.TRUE : Boolean.FALSE;
+                return buffer.get() != 0 ? Boolean.TRUE : Boolean.FALSE;
             case 3:
-                return readString();
+                return readString(buffer);
             case 4:
-                int mantissa = readInt();
-                int exponent = readInt();
-                BigDecimal bd = new BigDecimal((double) mantissa / (double) (1 << 30) * Math.pow(2, exponent));
-                return bd.setScale(6, RoundingMode.HALF_DOWN).doubleValue();
+                int mantissa = buffer.getInt();
+                int exponent = buffer.getInt();
+                return toDouble(mantissa, exponent);
             case 5:
-                return new Date(readInt() * 1000);
+                return new Date(buffer.getInt() * 1000L);
             case 0x100:
                 // Array
-                int numElements = readInt();
-                Collection<Object> array = new ArrayList<Object>();
-                while (numElements-- > 0) {
-                    array.add(readRpcValue());
+                int numElements = readLength(buffer, 4);
+                Object[] array = new Object[numElements];
+                for (int i = 0; i < numElements; i++) {
+                    array[i] = readRpcValue(buffer);
                 }
-                return array.toArray();
+                return array;
             case 0x101:
                 // Struct
-                numElements = readInt();
-                Map<String, Object> struct = new TreeMap<String, Object>();
-                while (numElements-- > 0) {
-                    String name = readString();
-                    struct.put(name, readRpcValue());
+                numElements = readLength(buffer, 8);
+                Map<String, Object> struct = new HashMap<String, Object>(numElements * 4 / 3 + 1);
+                for (int i = 0; i < numElements; i++) {
+                    String name = readString(buffer);
+                    struct.put(name, readRpcValue(buffer));
                 }
                 return struct;
 
             default:
-                for (int i = 0; i < binRpcData.length; i++) {
-                    logger.info("{} {}", Integer.toHexString(binRpcData[i]), (char) binRpcData[i]);
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Unknown data type {} at position {} in message {}", type, buffer.position() - 4,
+                            Arrays.toString(Arrays.copyOf(buffer.array(), buffer.limit())));
                 }
                 throw new IOException("Unknown data type " + type);
         }
     }
 
+    /**
+     * Converts the BIN-RPC double representation and rounds it to six decimal places (half down).
+     */
+    private static double toDouble(int mantissa, int exponent) {
+        double value = (double) mantissa / (double) (1 << 30) * Math.pow(2, exponent);
+        double scaled = value * 1000000;
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor;
+        if (Math.abs(scaled) >= 1e15 || Math.abs(fraction - 0.5) < 1e-6) {
+            // too big for the fast path or (nearly) a tie, let BigDecimal decide exactly
+            return new BigDecimal(value).setScale(6, RoundingMode.HALF_DOWN).doubleValue();
+        }
+        return (fraction > 0.5 ? floor + 1 : floor) / 1000000;
+    }
+
     private void setInt(int position, int value) {
-        int temp = offset;
-        offset = position;
-        addInt(value);
-        offset = temp;
+        binRpcData[position] = (byte) (value >> 24);
+        binRpcData[position + 1] = (byte) (value >> 16);
+        binRpcData[position + 2] = (byte) (value >> 8);
+        binRpcData[position + 3] = (byte) value;
     }
 
-    private void addByte(byte b) {
-        if (offset == binRpcData.length) {
-            byte newdata[] = new byte[binRpcData.length * 2];
-            System.arraycopy(binRpcData, 0, newdata, 0, binRpcData.length);
-            binRpcData = newdata;
+    private void ensureCapacity(int length) {
+        if (offset + length > binRpcData.length) {
+            binRpcData = Arrays.copyOf(binRpcData, Math.max(binRpcData.length * 2, offset + length));
         }
+    }
+
+    private void addByte(byte b) {
+        ensureCapacity(1);
         binRpcData[offset++] = b;
     }
 
+    private void addBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, binRpcData, offset, bytes.length);
+        offset += bytes.length;
+    }
+
     private void addInt(int value) {
-        addByte((byte) (value >> 24));
-        addByte((byte) (value >> 16));
-        addByte((byte) (value >> 8));
-        addByte((byte) (value));
+        ensureCapacity(4);
+        setInt(offset, value);
+        offset += 4;
     }
 
     private void addDouble(double value) {
@@ -298,16 +364,13 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         addInt(exp);
     }
 
+    /**
+     * Adds the length and bytes of a string.
+     */
     private void addString(String string) {
-        byte sd[];
-        try {
-            sd = string.getBytes(encoding);
-        } catch (UnsupportedEncodingException use) {
-            sd = string.getBytes();
-        }
-        for (byte ch : sd) {
-            addByte(ch);
-        }
+        byte sd[] = string.getBytes(charset);
+        addInt(sd.length);
+        addBytes(sd);
     }
 
     private void addList(Collection<?> collection) {
@@ -319,9 +382,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     private void addObject(Object object) {
         if (object.getClass() == String.class) {
             addInt(3);
-            String string = (String) object;
-            addInt(string.length());
-            addString(string);
+            addString((String) object);
         } else if (object.getClass() == Boolean.class) {
             addInt(2);
             addByte(((Boolean) object).booleanValue() ? (byte) 1 : (byte) 0);
@@ -343,7 +404,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
             addDouble(((BigInteger) object).doubleValue());
         } else if (object.getClass() == Date.class) {
             addInt(5);
-            addInt((int) ((Date) object).getTime() / 1000);
+            addInt((int) (((Date) object).getTime() / 1000));
         } else if (object instanceof List<?>) {
             Collection<?> list = (Collection<?>) object;
             addInt(0x100);
@@ -351,16 +412,19 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
             addList(list);
         } else if (object instanceof Map<?, ?>) {
             Map<?, ?> map = (Map<?, ?>) object;
+            int sizePosition = offset + 4;
+            int size = 0;
             addInt(0x101);
             addInt(map.size());
             for (Map.Entry<?, ?> entry : map.entrySet()) {
                 String key = (String) entry.getKey();
                 if (key != null) {
-                    addInt(key.length());
                     addString(key);
-                    addList(Collections.singleton(entry.getValue()));
+                    addObject(entry.getValue());
+                    size++;
                 }
             }
+            setInt(sizePosition, size);
         }
     }
 
@@ -371,8 +435,10 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     @Override
     public String toString() {
         try {
-            trimBinRpcData();
-            generateResponseData();
+            if (binRpcData != null) {
+                trimBinRpcData();
+                decodeMessage(ByteBuffer.wrap(binRpcData), methodName != null);
+            }
             return RpcUtils.dumpRpcMessage(methodName, messageData);
         } catch (Exception e) {
             throw new RuntimeException(e.getMessage(), e);
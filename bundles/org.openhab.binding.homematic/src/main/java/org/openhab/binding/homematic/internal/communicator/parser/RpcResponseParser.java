@@ -16,6 +16,7 @@ import java.io.IOException;
 import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
+import org.openhab.binding.homematic.internal.communicator.client.RpcFaultException;
 import org.openhab.binding.homematic.internal.communicator.client.UnknownParameterSetException;
 import org.openhab.binding.homematic.internal.communicator.client.UnknownRpcFailureException;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
@@ -48,7 +49,7 @@ public class RpcResponseParser extends CommonRpcParser<Object[], Object[]> {
                     } else if (faultCode.intValue() == -3 && StringUtils.equals("Unknown paramset", faultString)) {
                         throw new UnknownParameterSetException(faultMessage);
                     }
-                    throw new IOException(faultMessage);
+                    throw new RpcFaultException(faultMessage);
                 }
             }
             return message;
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.client;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.openhab.binding.homematic.test.util.DimmerHelper.createDimmerHmChannel;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+
+/**
+ * Tests for {@link ParamsetDescriptionCache}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ParamsetDescriptionCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File cacheFile;
+
+    @Before
+    public void setup() throws IOException {
+        cacheFile = new File(folder.newFolder("homematic"), "gateway-paramsets.ser");
+    }
+
+    @Test
+    public void descriptionsAreRestoredFromCacheFile() {
+        ParamsetDescriptionCache cache = new ParamsetDescriptionCache(cacheFile, "CCU2:2.41.5");
+        cache.put("key", createDescription());
+        cache.save();
+
+        ParamsetDescriptionCache restoredCache = new ParamsetDescriptionCache(cacheFile, "CCU2:2.41.5");
+        restoredCache.load();
+
+        assertThat(restoredCache.size(), is(1));
+        assertThat(restoredCache.get("key")[0], is(createDescription()[0]));
+    }
+
+    @Test
+    public void descriptionsAreDiscardedIfGatewayChanged() {
+        ParamsetDescriptionCache cache = new ParamsetDescriptionCache(cacheFile, "CCU2:2.41.5");
+        cache.put("key", createDescription());
+        cache.save();
+
+        ParamsetDescriptionCache restoredCache = new ParamsetDescriptionCache(cacheFile, "CCU3:3.47.10");
+        restoredCache.load();
+
+        assertThat(restoredCache.size(), is(0));
+    }
+
+    @Test
+    public void cacheFileIsDeletedOnClear() {
+        ParamsetDescriptionCache cache = new ParamsetDescriptionCache(cacheFile, "CCU2:2.41.5");
+        cache.put("key", createDescription());
+        cache.save();
+
+        cache.clear();
+
+        assertThat(cache.size(), is(0));
+        assertThat(cacheFile.exists(), is(false));
+    }
+
+    @Test
+    public void keyContainsTypeFirmwareAndChannel() {
+        String key = ParamsetDescriptionCache.getKey(createDimmerHmChannel(), HmParamsetType.MASTER);
+
+        assertThat(key, is(notNullValue()));
+        assertThat(key, containsString("HM-LC-Dim1-Pl3"));
+        assertThat(key, containsString(":1:MASTER"));
+    }
+
+    private Object[] createDescription() {
+        Map<String, Object> dpMeta = new HashMap<String, Object>();
+        dpMeta.put("TYPE", "FLOAT");
+        dpMeta.put("MIN", 0.0);
+        dpMeta.put("MAX", 1.0);
+        dpMeta.put("OPERATIONS", 7);
+        Map<String, Object> description = new HashMap<String, Object>();
+        description.put("LEVEL", dpMeta);
+        return new Object[] { description };
+    }
+}
@@ -20,7 +20,11 @@ import static org.openhab.binding.homematic.internal.HomematicBindingConstants.*
 import static org.openhab.binding.homematic.test.util.DimmerHelper.*;
 import static org.openhab.binding.homematic.test.util.RpcClientMockImpl.*;
 
+import java.io.File;
 import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.List;
 
 import org.eclipse.smarthome.test.java.JavaTest;
 import org.junit.Before;
@@ -94,6 +98,72 @@ public class RpcClientTest extends JavaTest {
         assertThat(rpcClient.numberOfCalls.get(GET_PARAMSET_NAME), is(0));
     }
 
+    @Test
+    public void paramsetDescriptionIsLoadedOnceWithCache() throws IOException {
+        rpcClient.setParamsetDescriptionCache(new ParamsetDescriptionCache(new File("paramsets.ser"), "CCU2"));
+
+        rpcClient.addChannelDatapoints(createDimmerHmChannel(), HmParamsetType.MASTER);
+        rpcClient.addChannelDatapoints(createDimmerHmChannel(), HmParamsetType.MASTER);
+
+        assertThat(rpcClient.numberOfCalls.get(GET_PARAMSET_DESCRIPTION_NAME), is(1));
+    }
+
+    @Test
+    public void paramsetDescriptionIsLoadedEveryTimeWithoutCache() throws IOException {
+        rpcClient.addChannelDatapoints(createDimmerHmChannel(), HmParamsetType.MASTER);
+        rpcClient.addChannelDatapoints(createDimmerHmChannel(), HmParamsetType.MASTER);
+
+        assertThat(rpcClient.numberOfCalls.get(GET_PARAMSET_DESCRIPTION_NAME), is(2));
+    }
+
+    @Test
+    public void valuesParamsetsAreLoadedWithMulticall() throws IOException {
+        List<HmChannel> channels = Arrays.asList(createDimmerHmChannel(), createDimmerHmChannel());
+
+        List<HmChannel> failedChannels = rpcClient.setChannelDatapointValues(channels, HmParamsetType.VALUES);
+
+        assertThat(rpcClient.numberOfCalls.get(SYSTEM_MULTICALL_NAME), is(1));
+        assertThat(rpcClient.numberOfCalls.get(GET_PARAMSET_NAME), is(0));
+        assertThat(failedChannels.isEmpty(), is(true));
+    }
+
+    @Test
+    public void valuesParamsetOfSingleChannelIsNotLoadedWithMulticall() throws IOException {
+        HmChannel channel = createDimmerHmChannel();
+        List<HmChannel> channels = Arrays.asList(channel, createDimmerDummyChannel());
+
+        List<HmChannel> failedChannels = rpcClient.setChannelDatapointValues(channels, HmParamsetType.VALUES);
+
+        assertThat(rpcClient.numberOfCalls.get(SYSTEM_MULTICALL_NAME), is(0));
+        assertThat(failedChannels, is(Arrays.asList(channel)));
+    }
+
+    @Test
+    public void multicallIsNotUsedAgainAfterFault() throws IOException {
+        List<HmChannel> channels = Arrays.asList(createDimmerHmChannel(), createDimmerHmChannel());
+        rpcClient.multicallException = new RpcFaultException("-1 Unknown method name");
+
+        List<HmChannel> failedChannels = rpcClient.setChannelDatapointValues(channels, HmParamsetType.VALUES);
+        rpcClient.setChannelDatapointValues(channels, HmParamsetType.VALUES);
+
+        assertThat(rpcClient.numberOfCalls.get(SYSTEM_MULTICALL_NAME), is(1));
+        assertThat(failedChannels, is(channels));
+    }
+
+    @Test
+    public void multicallIsUsedAgainAfterCommunicationError() throws IOException {
+        List<HmChannel> channels = Arrays.asList(createDimmerHmChannel(), createDimmerHmChannel());
+        rpcClient.multicallException = new SocketTimeoutException("Read timed out");
+
+        List<HmChannel> failedChannels = rpcClient.setChannelDatapointValues(channels, HmParamsetType.VALUES);
+        rpcClient.multicallException = null;
+        List<HmChannel> retriedChannels = rpcClient.setChannelDatapointValues(channels, HmParamsetType.VALUES);
+
+        assertThat(rpcClient.numberOfCalls.get(SYSTEM_MULTICALL_NAME), is(2));
+        assertThat(failedChannels, is(channels));
+        assertThat(retriedChannels.isEmpty(), is(true));
+    }
+
     @Test
     public void burstRxModeIsConfiguredAsParameterOnRequest() throws IOException {
         RpcRequest<String> request = new XmlRpcRequest("setValue");
@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.message;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link BinRpcMessage}.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcMessageTest {
+    private static final String ENCODING = "ISO-8859-1";
+
+    @Test
+    public void requestIsDecodedWithMethodAndArguments() throws Exception {
+        BinRpcMessage request = new BinRpcMessage("setValue", ENCODING);
+        request.addArg("MEQ0123456:1");
+        request.addArg("LEVEL");
+        request.addArg(Integer.valueOf(42));
+        request.addArg(Boolean.TRUE);
+
+        BinRpcMessage message = decode(request.createMessage(), true);
+
+        assertThat(message.getMethodName(), is("setValue"));
+        assertThat(request.getArgCount(), is(4));
+        assertThat(Arrays.asList(message.getResponseData()),
+                is(Arrays.<Object> asList("MEQ0123456:1", "LEVEL", 42, true)));
+    }
+
+    @Test
+    public void nonAsciiStringsAreEncodedWithByteLength() throws Exception {
+        BinRpcMessage request = new BinRpcMessage("setValue", ENCODING);
+        request.addArg("Küche");
+        request.addArg("Bad");
+
+        BinRpcMessage message = decode(request.createMessage(), true);
+
+        assertThat(Arrays.asList(message.getResponseData()), is(Arrays.<Object> asList("Küche", "Bad")));
+
+        BinRpcMessage utf8Request = new BinRpcMessage("Größe", "UTF-8");
+        utf8Request.addArg("Wohnzimmer Süd");
+
+        BinRpcMessage utf8Message = new BinRpcMessage(new ByteArrayInputStream(utf8Request.createMessage()), true,
+                "UTF-8");
+
+        assertThat(utf8Message.getMethodName(), is("Größe"));
+        assertThat(utf8Message.getResponseData()[0], is("Wohnzimmer Süd"));
+    }
+
+    @Test
+    public void doublesAreRoundedToSixDecimals() throws Exception {
+        BinRpcMessage request = new BinRpcMessage("setValue", ENCODING);
+        double[] values = new double[] { 0.0, 1.0, -1.0, 0.5, 0.25, 21.5, -12.75, 0.123456, 1013.25, 100000.0 };
+        for (double value : values) {
+            request.addArg(Double.valueOf(value));
+        }
+
+        Object[] data = decode(request.createMessage(), true).getResponseData();
+
+        for (int i = 0; i < values.length; i++) {
+            assertThat(data[i], is((Object) Double.valueOf(values[i])));
+        }
+    }
+
+    @Test
+    public void datesAfter2038AreNotTruncated() throws Exception {
+        Date date = new Date(1577836800000L);
+        BinRpcMessage request = new BinRpcMessage("setValue", ENCODING);
+        request.addArg(date);
+
+        Object[] data = decode(request.createMessage(), true).getResponseData();
+
+        assertThat(data[0], is((Object) date));
+    }
+
+    @Test
+    public void eventBurstIsDecodedFromStream() throws Exception {
+        BinRpcMessage request = new BinRpcMessage("system.multicall", ENCODING);
+        List<Object> calls = new ArrayList<Object>();
+        for (int i = 0; i < 500; i++) {
+            calls.add(createEvent(i));
+        }
+        request.addArg(calls);
+        byte[] data = request.createMessage();
+
+        for (int i = 0; i < 3; i++) {
+            BinRpcMessage message = new BinRpcMessage(new ByteArrayInputStream(data), true, ENCODING);
+
+            assertThat(message.getMethodName(), is("system.multicall"));
+            Object[] events = (Object[]) message.getResponseData()[0];
+            assertThat(events.length, is(500));
+            for (int j = 0; j < events.length; j++) {
+                assertEvent(events[j], j);
+            }
+        }
+    }
+
+    @Test
+    public void messagesAreDecodedFromFragmentedStream() throws Exception {
+        BinRpcMessage response = new BinRpcMessage(null, BinRpcMessage.TYPE.RESPONSE, ENCODING);
+        response.addArg(createEvent(1));
+
+        BinRpcMessage message = new BinRpcMessage(new FragmentedInputStream(response.createMessage()), false,
+                ENCODING);
+
+        assertThat(message.getMethodName(), is(nullValue()));
+        assertEvent(message.getResponseData()[0], 1);
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncatedMessageIsRejected() throws Exception {
+        BinRpcMessage request = new BinRpcMessage("setValue", ENCODING);
+        request.addArg("LEVEL");
+        byte[] data = request.createMessage();
+
+        new BinRpcMessage(new ByteArrayInputStream(Arrays.copyOf(data, data.length - 2)), true, ENCODING);
+    }
+
+    @Test(expected = IOException.class)
+    public void invalidArrayLengthIsRejected() throws Exception {
+        byte[] data = new byte[] { 'B', 'i', 'n', 1, 0, 0, 0, 8, 0, 0, 1, 0, 0x7f, 0, 0, 0 };
+
+        new BinRpcMessage(data, false, ENCODING);
+    }
+
+    @Test
+    public void requestToStringContainsArguments() {
+        BinRpcMessage request = new BinRpcMessage("setValue", ENCODING);
+        request.addArg("LEVEL");
+
+        assertThat(request.toString(), containsString("LEVEL"));
+    }
+
+    private BinRpcMessage decode(byte[] data, boolean methodHeader) throws Exception {
+        BinRpcMessage fromBytes = new BinRpcMessage(data, methodHeader, ENCODING);
+        BinRpcMessage fromStream = new BinRpcMessage(new ByteArrayInputStream(data), methodHeader, ENCODING);
+        assertThat(Arrays.deepEquals(fromBytes.getResponseData(), fromStream.getResponseData()), is(true));
+        return fromStream;
+    }
+
+    private Map<String, Object> createEvent(int index) {
+        Map<String, Object> event = new HashMap<String, Object>();
+        event.put("methodName", "event");
+        event.put("params", Arrays.<Object> asList("CCU-RF", "MEQ" + index + ":1", "LEVEL", Double.valueOf(0.5)));
+        return event;
+    }
+
+    private void assertEvent(Object decoded, int index) {
+        Map<?, ?> event = (Map<?, ?>) decoded;
+        assertThat(event.get("methodName"), is((Object) "event"));
+        assertThat(Arrays.asList((Object[]) event.get("params")),
+                is(Arrays.<Object> asList("CCU-RF", "MEQ" + index + ":1", "LEVEL", Double.valueOf(0.5))));
+    }
+
+    /**
+     * Returns at most three bytes per read.
+     */
+    private static class FragmentedInputStream extends InputStream {
+        private final ByteArrayInputStream in;
+
+        public FragmentedInputStream(byte[] data) {
+            in = new ByteArrayInputStream(data);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return in.read(b, off, Math.min(len, 3));
+        }
+    }
+}
@@ -20,54 +20,192 @@ import java.io.Writer;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
 /**
+ * Asynchronous commands are sent by up to {@link #MAX_LANES} concurrent senders, but only one command per address is
+ * sent at the same time. Pending commands to the same address are coalesced, the attributes of the later command win.
+ * If all lights of a group have the same pending state update, a single group action is sent instead. The rate of the
+ * commands is limited by token buckets according to the performance recommendations of Philips.
  *
  * @author Q42 - Initial contribution
  * @author Denis Dudnik - moved Jue library source code inside the smarthome Hue binding
  */
 @NonNullByDefault
 public class HttpClient {
+    /**
+     * Maximum number of asynchronous commands sent at the same time.
+     */
+    static final int MAX_LANES = 3;
+
+    /**
+     * Burst of light commands in milliseconds of message delay the bridge accepts without throttling.
+     */
+    static final long LIGHT_COMMANDS_BURST = 1000;
+
+    /**
+     * Minimum time between two group actions as recommended by Philips.
+     */
+    static final long GROUP_ACTION_DELAY = 1000;
+
     private int timeout = 1000;
     private final Logger logger = LoggerFactory.getLogger(HttpClient.class);
-    private final LinkedList<AsyncPutParameters> commandsQueue = new LinkedList<>();
-    private @Nullable Future<?> job;
+    private final JsonParser jsonParser = new JsonParser();
+
+    private final Map<String, AsyncPutParameters> commandsQueue = new LinkedHashMap<>();
+    private final Set<String> activeAddresses = new HashSet<>();
+    private final TokenBucket commandTokens = new TokenBucket(LIGHT_COMMANDS_BURST);
+    private final TokenBucket groupActionTokens = new TokenBucket(GROUP_ACTION_DELAY);
+    private Map<String, List<GroupAction>> groupActionsByLight = Collections.emptyMap();
+    private long commandSequence;
+    private int lanes;
 
-    @SuppressWarnings({ "null", "unused" })
-    private void executeCommands() {
+    /**
+     * Sets the groups, which can be used to send the same state update to several lights at once.
+     *
+     * @param groupActions the lights state addresses by group action address
+     */
+    public void setGroupActions(Map<String, Set<String>> groupActions) {
+        Map<String, List<GroupAction>> groupActionsByLight = new HashMap<>();
+        for (Entry<String, Set<String>> entry : groupActions.entrySet()) {
+            GroupAction groupAction = new GroupAction(entry.getKey(), new HashSet<>(entry.getValue()));
+            for (String lightAddress : groupAction.lightAddresses) {
+                groupActionsByLight.computeIfAbsent(lightAddress, address -> new ArrayList<>()).add(groupAction);
+            }
+        }
+        // prefer the biggest group
+        groupActionsByLight.values().forEach(actions -> actions
+                .sort(Comparator.comparingInt((GroupAction action) -> action.lightAddresses.size()).reversed()));
+        synchronized (commandsQueue) {
+            this.groupActionsByLight = groupActionsByLight;
+        }
+    }
+
+    private void executeCommands(ScheduledExecutorService scheduler, @Nullable AsyncPutParameters reservedCommand) {
+        AsyncPutParameters command = reservedCommand;
         while (true) {
-            try {
-                long delayTime = 0;
+            if (command == null) {
                 synchronized (commandsQueue) {
-                    AsyncPutParameters payloadCallbackPair = commandsQueue.poll();
-                    if (payloadCallbackPair != null) {
-                        logger.debug("Async sending put to address: {} delay: {} body: {}", payloadCallbackPair.address,
-                                payloadCallbackPair.delay, payloadCallbackPair.body);
-                        try {
-                            Result result = put(payloadCallbackPair.address, payloadCallbackPair.body);
-                            payloadCallbackPair.future.complete(result);
-                        } catch (IOException e) {
-                            payloadCallbackPair.future.completeExceptionally(e);
-                        }
-                        delayTime = payloadCallbackPair.delay;
-                    } else {
+                    command = pollCommand();
+                    if (command == null) {
+                        lanes--;
+                        return;
+                    }
+                    long waitTime = command.groupAction ? groupActionTokens.reserve(GROUP_ACTION_DELAY, now())
+                            : commandTokens.reserve(command.delay, now());
+                    if (waitTime > 0) {
+                        final AsyncPutParameters delayedCommand = command;
+                        scheduler.schedule(() -> executeCommands(scheduler, delayedCommand), waitTime,
+                                TimeUnit.MILLISECONDS);
                         return;
                     }
                 }
-                Thread.sleep(delayTime);
-            } catch (InterruptedException e) {
-                logger.debug("commandExecutorThread was interrupted", e);
+            }
+            sendCommand(command);
+            command = null;
+        }
+    }
+
+    private void sendCommand(AsyncPutParameters command) {
+        logger.debug("Async sending put to address: {} delay: {} body: {}", command.address, command.delay,
+                command.body);
+        try {
+            Result result = put(command.address, command.body);
+            command.futures.forEach(future -> future.complete(result));
+        } catch (IOException | RuntimeException e) {
+            command.futures.forEach(future -> future.completeExceptionally(e));
+        } finally {
+            synchronized (commandsQueue) {
+                activeAddresses.remove(command.address);
+            }
+        }
+    }
+
+    /**
+     * Removes the next command from the queue, whose address is not busy. Must be called with the lock on the
+     * commands queue.
+     */
+    private @Nullable AsyncPutParameters pollCommand() {
+        for (Iterator<AsyncPutParameters> iterator = commandsQueue.values().iterator(); iterator.hasNext();) {
+            AsyncPutParameters command = iterator.next();
+            if (!activeAddresses.contains(command.address)) {
+                AsyncPutParameters groupCommand = pollGroupCommand(command);
+                if (groupCommand != null) {
+                    return groupCommand;
+                }
+                iterator.remove();
+                activeAddresses.add(command.address);
+                return command;
             }
         }
+        return null;
+    }
+
+    /**
+     * Combines the pending commands of all lights of a group to a group action, if all lights have the same pending
+     * state update and a group action can be sent right now.
+     */
+    private @Nullable AsyncPutParameters pollGroupCommand(AsyncPutParameters command) {
+        List<GroupAction> groupActions = groupActionsByLight.get(command.address);
+        if (groupActions == null || command.json == null || groupActionTokens.available(now()) < GROUP_ACTION_DELAY) {
+            return null;
+        }
+        for (GroupAction groupAction : groupActions) {
+            if (isGroupUpdate(groupAction, command.json)) {
+                AsyncPutParameters groupCommand = new AsyncPutParameters(groupAction.address, command.body,
+                        command.delay, true);
+                for (String lightAddress : groupAction.lightAddresses) {
+                    groupCommand.futures.addAll(commandsQueue.remove(lightAddress).futures);
+                }
+                activeAddresses.add(groupAction.address);
+                logger.debug("Combined state updates of {} lights to group action: {}",
+                        groupAction.lightAddresses.size(), groupAction.address);
+                return groupCommand;
+            }
+        }
+        return null;
+    }
+
+    private boolean isGroupUpdate(GroupAction groupAction, JsonObject json) {
+        if (activeAddresses.contains(groupAction.address)) {
+            return false;
+        }
+        for (String lightAddress : groupAction.lightAddresses) {
+            AsyncPutParameters lightCommand = commandsQueue.get(lightAddress);
+            if (lightCommand == null || activeAddresses.contains(lightAddress) || !json.equals(lightCommand.json)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
     }
 
     public void setTimeout(int timeout) {
@@ -88,20 +226,39 @@ public class HttpClient {
 
     public CompletableFuture<Result> putAsync(String address, String body, long delay,
             ScheduledExecutorService scheduler) {
-        AsyncPutParameters asyncPutParameters = new AsyncPutParameters(address, body, delay);
+        CompletableFuture<Result> future = new CompletableFuture<>();
+        JsonObject json = parseJsonObject(body);
 
         synchronized (commandsQueue) {
-            if (commandsQueue.isEmpty()) {
-                commandsQueue.offer(asyncPutParameters);
-                if (job == null || job.isDone()) {
-                    job = scheduler.submit(this::executeCommands);
-                }
+            AsyncPutParameters pendingCommand = commandsQueue.get(address);
+            if (pendingCommand != null && json != null && AsyncPutParameters.isMergeable(pendingCommand.json)
+                    && AsyncPutParameters.isMergeable(json)) {
+                pendingCommand.merge(json, delay);
+                logger.trace("Coalesced put to address: {} body: {}", address, pendingCommand.body);
             } else {
-                commandsQueue.offer(asyncPutParameters);
+                // commands which can't be coalesced are queued under an unique key
+                String key = pendingCommand == null && json != null ? address : address + "#" + commandSequence++;
+                pendingCommand = new AsyncPutParameters(address, body, delay, false);
+                pendingCommand.json = json;
+                commandsQueue.put(key, pendingCommand);
+                if (lanes < MAX_LANES) {
+                    lanes++;
+                    scheduler.submit(() -> executeCommands(scheduler, null));
+                }
             }
+            pendingCommand.futures.add(future);
         }
 
-        return asyncPutParameters.future;
+        return future;
+    }
+
+    private @Nullable JsonObject parseJsonObject(String body) {
+        try {
+            JsonElement json = jsonParser.parse(body);
+            return json.isJsonObject() ? json.getAsJsonObject() : null;
+        } catch (JsonParseException e) {
+            return null;
+        }
     }
 
     public Result delete(String address) throws IOException {
@@ -158,17 +315,127 @@ public class HttpClient {
         }
     }
 
-    public final class AsyncPutParameters {
+    public static final class AsyncPutParameters {
+        private static final String INCREMENT_SUFFIX = "_inc";
+        private static final Set<String> ONE_SHOT_KEYS = new HashSet<>(Arrays.asList("alert", "effect"));
+        private static final List<Set<String>> COLOR_MODES = Collections.unmodifiableList(Arrays.asList(
+                new HashSet<>(Arrays.asList("xy", "xy_inc")), new HashSet<>(Arrays.asList("ct", "ct_inc")),
+                new HashSet<>(Arrays.asList("hue", "hue_inc", "sat", "sat_inc"))));
+        private static final Set<String> INCREMENT_KEYS = new HashSet<>(
+                Arrays.asList("bri_inc", "ct_inc", "hue_inc", "sat_inc"));
+
         public final String address;
-        public final String body;
-        public final CompletableFuture<Result> future;
-        public final long delay;
+        public String body;
+        public final List<CompletableFuture<Result>> futures = new ArrayList<>(1);
+        public long delay;
+        private final boolean groupAction;
+        private @Nullable JsonObject json;
 
-        public AsyncPutParameters(String address, String body, long delay) {
+        public AsyncPutParameters(String address, String body, long delay, boolean groupAction) {
             this.address = address;
             this.body = body;
-            this.future = new CompletableFuture<>();
             this.delay = delay;
+            this.groupAction = groupAction;
+        }
+
+        /**
+         * Merges a later command into this pending command. The attributes of the later command win. As the bridge
+         * prefers <code>xy</code> over <code>ct</code> over <code>hue</code>/<code>sat</code>, and an absolute value
+         * over its increment, the pending attributes which conflict with a later attribute are removed first. Pending
+         * increments are added to later increments.
+         */
+        private void merge(JsonObject update, long updateDelay) {
+            JsonObject merged = json;
+            if (merged != null) {
+                for (Entry<String, JsonElement> entry : update.entrySet()) {
+                    String key = entry.getKey();
+                    JsonElement value = entry.getValue();
+                    for (String conflictingKey : getConflictingKeys(key)) {
+                        merged.remove(conflictingKey);
+                    }
+                    JsonElement pendingValue = merged.get(key);
+                    if (INCREMENT_KEYS.contains(key) && isNumber(pendingValue) && isNumber(value)) {
+                        value = new JsonPrimitive(pendingValue.getAsInt() + value.getAsInt());
+                    }
+                    merged.add(key, value);
+                }
+                body = merged.toString();
+                delay = Math.max(delay, updateDelay);
+            }
+        }
+
+        private static Set<String> getConflictingKeys(String key) {
+            Set<String> conflictingKeys = new HashSet<>();
+            for (Set<String> colorMode : COLOR_MODES) {
+                if (colorMode.contains(key)) {
+                    COLOR_MODES.stream().filter(mode -> mode != colorMode).forEach(conflictingKeys::addAll);
+                }
+            }
+            if (key.endsWith(INCREMENT_SUFFIX)) {
+                conflictingKeys.add(key.substring(0, key.length() - INCREMENT_SUFFIX.length()));
+            } else {
+                conflictingKeys.add(key + INCREMENT_SUFFIX);
+            }
+            return conflictingKeys;
+        }
+
+        /**
+         * Checks if a command can be merged with other commands. Alerts and effects are applied once in the order
+         * they were sent, so they are never merged.
+         */
+        private static boolean isMergeable(@Nullable JsonObject json) {
+            return json != null && ONE_SHOT_KEYS.stream().noneMatch(json::has);
+        }
+
+        private static boolean isNumber(@Nullable JsonElement element) {
+            return element != null && element.isJsonPrimitive() && element.getAsJsonPrimitive().isNumber();
+        }
+    }
+
+    private static final class GroupAction {
+        private final String address;
+        private final Set<String> lightAddresses;
+
+        private GroupAction(String address, Set<String> lightAddresses) {
+            this.address = address;
+            this.lightAddresses = lightAddresses;
+        }
+    }
+
+    /**
+     * Token bucket measured in milliseconds of message delay, which is refilled in real time.
+     */
+    static final class TokenBucket {
+        private final long capacity;
+        private long tokens;
+        private long lastRefill = Long.MIN_VALUE;
+
+        TokenBucket(long capacity) {
+            this.capacity = capacity;
+            this.tokens = capacity;
+        }
+
+        /**
+         * Takes the given number of tokens.
+         *
+         * @return the time in milliseconds until the taken tokens are available, 0 if they are available now
+         */
+        long reserve(long cost, long now) {
+            refill(now);
+            tokens -= cost;
+            return tokens >= 0 ? 0 : -tokens;
+        }
+
+        long available(long now) {
+            refill(now);
+            return tokens;
+        }
+
+        private void refill(long now) {
+            if (lastRefill != Long.MIN_VALUE && now > lastRefill) {
+                tokens = Math.min(capacity, tokens + now - lastRefill);
+            }
+            lastRefill = Math.max(lastRefill, now);
         }
     }
 }
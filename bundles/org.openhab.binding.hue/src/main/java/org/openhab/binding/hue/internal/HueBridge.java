@@ -23,9 +23,12 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 
@@ -240,6 +243,62 @@ public class HueBridge {
         return sensorList;
     }
 
+    /**
+     * Returns the raw JSON of the sensors known to the bridge.
+     *
+     * @return JSON object with the sensors by id
+     * @throws UnauthorizedException thrown if the user no longer exists
+     */
+    public String getSensorsJson() throws IOException, ApiException {
+        requireAuthentication();
+
+        Result result = http.get(getRelativeURL("sensors"));
+
+        handleErrors(result);
+
+        return result.getBody();
+    }
+
+    /**
+     * Returns the raw JSON of the lights known to the bridge.
+     *
+     * @return JSON object with the lights by id
+     * @throws UnauthorizedException thrown if the user no longer exists
+     */
+    public String getLightsJson() throws IOException, ApiException {
+        requireAuthentication();
+
+        if (!ApiVersionUtils.supportsFullLights(getVersion())) {
+            // older bridges only return the full state of the lights as part of the full configuration
+            Result result = http.get(getRelativeURL(""));
+            handleErrors(result);
+            String lightsJson = HueObjectDeltaParser.splitObject(result.getBody()).get("lights");
+            return lightsJson != null ? lightsJson : "{}";
+        }
+
+        Result result = http.get(getRelativeURL("lights"));
+
+        handleErrors(result);
+
+        return result.getBody();
+    }
+
+    /**
+     * Returns the raw JSON of the groups known to the bridge.
+     *
+     * @return JSON object with the groups by id
+     * @throws UnauthorizedException thrown if the user no longer exists
+     */
+    public String getGroupsJson() throws IOException, ApiException {
+        requireAuthentication();
+
+        Result result = http.get(getRelativeURL("groups"));
+
+        handleErrors(result);
+
+        return result.getBody();
+    }
+
     /**
      * Returns the last time a search for new lights was started.
      * If a search is currently running, the current time will be
@@ -418,6 +477,31 @@ public class HueBridge {
         return groupList;
     }
 
+    /**
+     * Updates the groups which are used to send the same state update to all lights of a group with a single group
+     * action.
+     *
+     * @param groupsJson JSON object with the groups by id, as returned by the bridge
+     * @throws ApiException if the JSON can't be parsed
+     */
+    public void updateGroupActions(String groupsJson) throws ApiException {
+        Map<String, FullGroup> groupMap = safeFromJson(groupsJson, FullGroup.GSON_TYPE);
+        Map<String, Set<String>> groupActions = new HashMap<>();
+
+        for (Map.Entry<String, FullGroup> entry : groupMap.entrySet()) {
+            Set<String> lightAddresses = new HashSet<>();
+            for (HueObject light : entry.getValue().getLights()) {
+                lightAddresses.add(getRelativeURL("lights/" + enc(light.getId()) + "/state"));
+            }
+            // a group action for a single light has no advantage
+            if (lightAddresses.size() > 1) {
+                groupActions.put(getRelativeURL("groups/" + enc(entry.getKey()) + "/action"), lightAddresses);
+            }
+        }
+
+        http.setGroupActions(groupActions);
+    }
+
     /**
      * Creates a new group and returns it.
      * Due to API limitations, the name of the returned object
@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.hue.internal.exceptions.ApiException;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * Parses a JSON object with lights or sensors by id, but only deserializes the objects whose JSON has changed since the
+ * last call. Unchanged objects are skipped before deserialization by comparing the raw JSON of each object.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class HueObjectDeltaParser<T extends HueObject> {
+
+    private final Gson gson = new Gson();
+    private final Class<T> type;
+    private Map<String, String> lastObjects = new HashMap<>();
+
+    public HueObjectDeltaParser(Class<T> type) {
+        this.type = type;
+    }
+
+    /**
+     * Parses the objects and returns the changes since the last call.
+     *
+     * @param json JSON object with the objects by id
+     * @return new and changed objects and the ids of the removed objects
+     * @throws ApiException if the JSON is not an object
+     */
+    public Delta<T> parse(String json) throws ApiException {
+        Map<String, String> objects = splitObject(json);
+        Delta<T> delta = new Delta<>();
+
+        for (Map.Entry<String, String> entry : objects.entrySet()) {
+            String objectJson = entry.getValue();
+            if (!objectJson.equals(lastObjects.get(entry.getKey()))) {
+                try {
+                    T object = gson.fromJson(objectJson, type);
+                    if (object == null) {
+                        throw new ApiException("API returned unexpected result for id " + entry.getKey());
+                    }
+                    object.setId(entry.getKey());
+                    delta.changed.add(object);
+                } catch (JsonParseException e) {
+                    throw new ApiException("API returned unexpected result: " + e.getMessage());
+                }
+            }
+        }
+        for (String id : lastObjects.keySet()) {
+            if (!objects.containsKey(id)) {
+                delta.removed.add(id);
+            }
+        }
+        lastObjects = objects;
+
+        return delta;
+    }
+
+    /**
+     * Forgets the objects, so all objects are returned as changed on the next call.
+     */
+    public void reset() {
+        lastObjects = new HashMap<>();
+    }
+
+    /**
+     * Splits a JSON object into the raw JSON of its members without parsing the member values.
+     *
+     * @param json JSON object
+     * @return the raw JSON of the members by name
+     * @throws ApiException if the JSON is not an object
+     */
+    public static Map<String, String> splitObject(String json) throws ApiException {
+        Map<String, String> members = new LinkedHashMap<>();
+        int pos = skipWhitespace(json, 0);
+        pos = expect(json, pos, '{');
+        pos = skipWhitespace(json, pos);
+        if (pos < json.length() && json.charAt(pos) == '}') {
+            return members;
+        }
+        while (true) {
+            pos = skipWhitespace(json, pos);
+            int keyEnd = skipString(json, pos);
+            String key = json.substring(pos + 1, keyEnd - 1);
+            if (key.indexOf('\\') >= 0) {
+                key = new Gson().fromJson(json.substring(pos, keyEnd), String.class);
+            }
+            pos = expect(json, skipWhitespace(json, keyEnd), ':');
+            int valueStart = skipWhitespace(json, pos);
+            int valueEnd = skipValue(json, valueStart);
+            members.put(key, json.substring(valueStart, valueEnd));
+            pos = skipWhitespace(json, valueEnd);
+            if (pos < json.length() && json.charAt(pos) == ',') {
+                pos++;
+            } else {
+                expect(json, pos, '}');
+                return members;
+            }
+        }
+    }
+
+    private static int skipWhitespace(String json, int pos) {
+        while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int expect(String json, int pos, char expected) throws ApiException {
+        if (pos >= json.length() || json.charAt(pos) != expected) {
+            throw new ApiException("API returned unexpected result: expected '" + expected + "' at position " + pos);
+        }
+        return pos + 1;
+    }
+
+    private static int skipString(String json, int pos) throws ApiException {
+        expect(json, pos, '"');
+        for (int i = pos + 1; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '"') {
+                return i + 1;
+            }
+        }
+        throw new ApiException("API returned unexpected result: unterminated string");
+    }
+
+    private static int skipValue(String json, int pos) throws ApiException {
+        if (pos >= json.length()) {
+            throw new ApiException("API returned unexpected result: missing value");
+        }
+        char first = json.charAt(pos);
+        if (first == '"') {
+            return skipString(json, pos);
+        }
+        if (first != '{' && first != '[') {
+            // number, boolean or null
+            int end = pos;
+            while (end < json.length() && ",}] \t\r\n".indexOf(json.charAt(end)) < 0) {
+                end++;
+            }
+            return end;
+        }
+        int depth = 0;
+        for (int i = pos; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (c == '"') {
+                i = skipString(json, i) - 1;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+        }
+        throw new ApiException("API returned unexpected result: unterminated " + (first == '{' ? "object" : "array"));
+    }
+
+    /**
+     * Changes of the objects since the last call of {@link HueObjectDeltaParser#parse(String)}.
+     */
+    public static class Delta<T> {
+        private final List<T> changed = new ArrayList<>();
+        private final Set<String> removed = new HashSet<>();
+
+        /**
+         * Returns the new and changed objects.
+         *
+         * @return new and changed objects
+         */
+        public List<T> getChanged() {
+            return changed;
+        }
+
+        /**
+         * Returns the ids of the removed objects.
+         *
+         * @return ids of the removed objects
+         */
+        public Set<String> getRemoved() {
+            return removed;
+        }
+    }
+}
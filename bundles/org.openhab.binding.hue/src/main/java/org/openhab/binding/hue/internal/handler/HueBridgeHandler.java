@@ -18,10 +18,8 @@ import static org.openhab.binding.hue.internal.HueBindingConstants.*;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -43,7 +41,6 @@ import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.ThingTypeUID;
 import org.eclipse.smarthome.core.thing.binding.ConfigStatusBridgeHandler;
 import org.eclipse.smarthome.core.types.Command;
-import org.openhab.binding.hue.internal.ApiVersionUtils;
 import org.openhab.binding.hue.internal.Config;
 import org.openhab.binding.hue.internal.ConfigUpdate;
 import org.openhab.binding.hue.internal.FullConfig;
@@ -51,6 +48,8 @@ import org.openhab.binding.hue.internal.FullLight;
 import org.openhab.binding.hue.internal.FullSensor;
 import org.openhab.binding.hue.internal.HueBridge;
 import org.openhab.binding.hue.internal.HueConfigStatusMessage;
+import org.openhab.binding.hue.internal.HueObjectDeltaParser;
+import org.openhab.binding.hue.internal.HueObjectDeltaParser.Delta;
 import org.openhab.binding.hue.internal.State;
 import org.openhab.binding.hue.internal.StateUpdate;
 import org.openhab.binding.hue.internal.config.HueBridgeConfig;
@@ -83,6 +82,12 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
     private long lightPollingInterval = TimeUnit.SECONDS.toSeconds(10);
     private long sensorPollingInterval = TimeUnit.MILLISECONDS.toMillis(500);
 
+    /**
+     * Number of sensor polls without changes, after which the sensor polling backs off.
+     */
+    private static final int SENSOR_POLLING_IDLE_POLLS = 10;
+    private static final int SENSOR_POLLING_MAX_BACKOFF = 4;
+
     final ReentrantLock pollingLock = new ReentrantLock();
 
     abstract class PollingRunnable implements Runnable {
@@ -175,87 +180,142 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
     private @NonNullByDefault({}) HueBridge hueBridge = null;
     private @NonNullByDefault({}) HueBridgeConfig hueBridgeConfig = null;
 
-    private final Runnable sensorPollingRunnable = new PollingRunnable() {
+    private final HueObjectDeltaParser<FullLight> lightDeltaParser = new HueObjectDeltaParser<>(FullLight.class);
+    private final HueObjectDeltaParser<FullSensor> sensorDeltaParser = new HueObjectDeltaParser<>(FullSensor.class);
+    private @Nullable String lastGroupsJson;
+    private volatile int idleSensorPolls = 0;
+
+    private final Object sensorPollingLock = new Object();
+    private @Nullable SensorPollingRunnable sensorPollingRunnable;
+
+    private class SensorPollingRunnable extends PollingRunnable {
+        @Override
+        public void run() {
+            try {
+                super.run();
+            } finally {
+                scheduleSensorPolling(this);
+            }
+        }
+
         @Override
         protected void doConnectedRun() throws IOException, ApiException {
-            Map<String, FullSensor> lastSensorStateCopy = new HashMap<>(lastSensorStates);
-
-            for (final FullSensor sensor : hueBridge.getSensors()) {
-                String sensorId = sensor.getId();
-                if (lastSensorStateCopy.containsKey(sensorId)) {
-                    final FullSensor lastFullSensor = lastSensorStateCopy.remove(sensorId);
-                    final Map<String, Object> lastFullSensorState = lastFullSensor.getState();
-                    lastSensorStates.put(sensorId, sensor);
-                    if (!lastFullSensorState.equals(sensor.getState())) {
-                        logger.debug("Status update for Hue sensor '{}' detected: {}", sensorId, sensor.getState());
-                        notifySensorStatusListeners(sensor, STATE_CHANGED);
-                    }
-                } else {
-                    lastSensorStates.put(sensorId, sensor);
-                    logger.debug("Hue sensor '{}' added.", sensorId);
-                    notifySensorStatusListeners(sensor, STATE_ADDED);
+            updateSensors(hueBridge.getSensorsJson());
+        }
+    }
 
+    private final Runnable lightPollingRunnable = new PollingRunnable() {
+        @Override
+        protected void doConnectedRun() throws IOException, ApiException {
+            updateLights(hueBridge.getLightsJson());
+
+            String groupsJson = hueBridge.getGroupsJson();
+            if (!groupsJson.equals(lastGroupsJson)) {
+                hueBridge.updateGroupActions(groupsJson);
+                lastGroupsJson = groupsJson;
+            }
+        }
+    };
+
+    private void updateLights(String lightsJson) throws ApiException {
+        Delta<FullLight> delta = lightDeltaParser.parse(lightsJson);
+
+        for (final FullLight fullLight : delta.getChanged()) {
+            final String lightId = fullLight.getId();
+            final FullLight lastFullLight = lastLightStates.put(lightId, fullLight);
+            if (lastFullLight != null) {
+                if (!isEqual(lastFullLight.getState(), fullLight.getState())) {
+                    logger.debug("Status update for Hue light '{}' detected.", lightId);
+                    notifyLightStatusListeners(fullLight, STATE_CHANGED);
                 }
+            } else {
+                logger.debug("Hue light '{}' added.", lightId);
+                notifyLightStatusListeners(fullLight, STATE_ADDED);
             }
+        }
 
-            // Check for removed sensors
-            for (Entry<String, FullSensor> fullSensorEntry : lastSensorStateCopy.entrySet()) {
-                lastSensorStates.remove(fullSensorEntry.getKey());
-                logger.debug("Hue sensor '{}' removed.", fullSensorEntry.getKey());
-                for (SensorStatusListener sensorStatusListener : sensorStatusListeners) {
-                    try {
-                        sensorStatusListener.onSensorRemoved(hueBridge, fullSensorEntry.getValue());
-                    } catch (Exception e) {
-                        logger.error("An exception occurred while calling the Sensor Listeners", e);
-                    }
+        // Check for removed lights
+        for (String lightId : delta.getRemoved()) {
+            FullLight fullLight = lastLightStates.remove(lightId);
+            if (fullLight == null) {
+                continue;
+            }
+            logger.debug("Hue light '{}' removed.", lightId);
+            for (LightStatusListener lightStatusListener : lightStatusListeners) {
+                try {
+                    lightStatusListener.onLightRemoved(hueBridge, fullLight);
+                } catch (Exception e) {
+                    logger.error("An exception occurred while calling the BridgeHeartbeatListener", e);
                 }
             }
         }
-    };
+    }
 
-    private final Runnable lightPollingRunnable = new PollingRunnable() {
-        @Override
-        protected void doConnectedRun() throws IOException, ApiException {
-            Map<String, FullLight> lastLightStateCopy = new HashMap<>(lastLightStates);
+    private void updateSensors(String sensorsJson) throws ApiException {
+        Delta<FullSensor> delta = sensorDeltaParser.parse(sensorsJson);
+        boolean active = false;
 
-            List<FullLight> lights;
-            if (ApiVersionUtils.supportsFullLights(hueBridge.getVersion())) {
-                lights = hueBridge.getFullLights();
+        for (final FullSensor sensor : delta.getChanged()) {
+            String sensorId = sensor.getId();
+            final FullSensor lastFullSensor = lastSensorStates.put(sensorId, sensor);
+            if (lastFullSensor != null) {
+                if (!lastFullSensor.getState().equals(sensor.getState())) {
+                    logger.debug("Status update for Hue sensor '{}' detected: {}", sensorId, sensor.getState());
+                    notifySensorStatusListeners(sensor, STATE_CHANGED);
+                    active = true;
+                }
             } else {
-                lights = hueBridge.getFullConfig().getLights();
+                logger.debug("Hue sensor '{}' added.", sensorId);
+                notifySensorStatusListeners(sensor, STATE_ADDED);
             }
+        }
 
-            for (final FullLight fullLight : lights) {
-                final String lightId = fullLight.getId();
-                if (lastLightStateCopy.containsKey(lightId)) {
-                    final FullLight lastFullLight = lastLightStateCopy.remove(lightId);
-                    final State lastFullLightState = lastFullLight.getState();
-                    lastLightStates.put(lightId, fullLight);
-                    if (!isEqual(lastFullLightState, fullLight.getState())) {
-                        logger.debug("Status update for Hue light '{}' detected.", lightId);
-                        notifyLightStatusListeners(fullLight, STATE_CHANGED);
-                    }
-                } else {
-                    lastLightStates.put(lightId, fullLight);
-                    logger.debug("Hue light '{}' added.", lightId);
-                    notifyLightStatusListeners(fullLight, STATE_ADDED);
+        // Check for removed sensors
+        for (String sensorId : delta.getRemoved()) {
+            FullSensor sensor = lastSensorStates.remove(sensorId);
+            if (sensor == null) {
+                continue;
+            }
+            logger.debug("Hue sensor '{}' removed.", sensorId);
+            for (SensorStatusListener sensorStatusListener : sensorStatusListeners) {
+                try {
+                    sensorStatusListener.onSensorRemoved(hueBridge, sensor);
+                } catch (Exception e) {
+                    logger.error("An exception occurred while calling the Sensor Listeners", e);
                 }
             }
+        }
 
-            // Check for removed lights
-            for (Entry<String, FullLight> fullLightEntry : lastLightStateCopy.entrySet()) {
-                lastLightStates.remove(fullLightEntry.getKey());
-                logger.debug("Hue light '{}' removed.", fullLightEntry.getKey());
-                for (LightStatusListener lightStatusListener : lightStatusListeners) {
-                    try {
-                        lightStatusListener.onLightRemoved(hueBridge, fullLightEntry.getValue());
-                    } catch (Exception e) {
-                        logger.error("An exception occurred while calling the BridgeHeartbeatListener", e);
-                    }
-                }
+        if (active || isPresenceDetected()) {
+            idleSensorPolls = 0;
+        } else if (idleSensorPolls < SENSOR_POLLING_IDLE_POLLS * SENSOR_POLLING_MAX_BACKOFF) {
+            idleSensorPolls++;
+        }
+    }
+
+    private boolean isPresenceDetected() {
+        for (FullSensor sensor : lastSensorStates.values()) {
+            Map<String, Object> state = sensor.getState();
+            if (state != null && Boolean.TRUE.equals(state.get(FullSensor.STATE_PRESENCE))) {
+                return true;
             }
         }
-    };
+        return false;
+    }
+
+    /**
+     * Returns the delay until the next sensor polling. The configured interval is used while sensors are changing or
+     * presence is detected, otherwise the polling backs off up to {@link #SENSOR_POLLING_MAX_BACKOFF} times the
+     * configured interval.
+     */
+    private long getSensorPollingDelay() {
+        int backoff = 1;
+        for (int idlePolls = idleSensorPolls; idlePolls >= SENSOR_POLLING_IDLE_POLLS
+                && backoff < SENSOR_POLLING_MAX_BACKOFF; idlePolls -= SENSOR_POLLING_IDLE_POLLS) {
+            backoff *= 2;
+        }
+        return sensorPollingInterval * backoff;
+    }
 
     public HueBridgeHandler(Bridge bridge) {
         super(bridge);
@@ -360,22 +420,38 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
     }
 
     private void startSensorPolling() {
-        if (sensorPollingJob == null || sensorPollingJob.isCancelled()) {
-            if (hueBridgeConfig.getSensorPollingInterval() < 50) {
-                logger.info("Wrong configuration value for sensor polling interval. Using default value: {}ms",
-                        sensorPollingInterval);
-            } else {
-                sensorPollingInterval = hueBridgeConfig.getSensorPollingInterval();
+        synchronized (sensorPollingLock) {
+            if (sensorPollingJob == null || sensorPollingJob.isCancelled()) {
+                if (hueBridgeConfig.getSensorPollingInterval() < 50) {
+                    logger.info("Wrong configuration value for sensor polling interval. Using default value: {}ms",
+                            sensorPollingInterval);
+                } else {
+                    sensorPollingInterval = hueBridgeConfig.getSensorPollingInterval();
+                }
+                SensorPollingRunnable runnable = new SensorPollingRunnable();
+                sensorPollingRunnable = runnable;
+                idleSensorPolls = 0;
+                sensorPollingJob = scheduler.schedule(runnable, 1, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void scheduleSensorPolling(SensorPollingRunnable runnable) {
+        synchronized (sensorPollingLock) {
+            // the polling may have been stopped or restarted in the meantime
+            if (sensorPollingRunnable == runnable && sensorPollingJob != null) {
+                sensorPollingJob = scheduler.schedule(runnable, getSensorPollingDelay(), TimeUnit.MILLISECONDS);
             }
-            sensorPollingJob = scheduler.scheduleWithFixedDelay(sensorPollingRunnable, 1, sensorPollingInterval,
-                    TimeUnit.MILLISECONDS);
         }
     }
 
     private void stopSensorPolling() {
-        if (sensorPollingJob != null && !sensorPollingJob.isCancelled()) {
-            sensorPollingJob.cancel(true);
-            sensorPollingJob = null;
+        synchronized (sensorPollingLock) {
+            if (sensorPollingJob != null && !sensorPollingJob.isCancelled()) {
+                sensorPollingJob.cancel(true);
+                sensorPollingJob = null;
+            }
+            sensorPollingRunnable = null;
         }
     }
 
@@ -384,6 +460,12 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
         logger.debug("Handler disposed.");
         stopLightPolling();
         stopSensorPolling();
+        pollingLock.lock();
+        try {
+            resetPollingStates();
+        } finally {
+            pollingLock.unlock();
+        }
         if (hueBridge != null) {
             hueBridge = null;
         }
@@ -441,6 +523,9 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
     private void onConnectionResumed() throws IOException, ApiException {
         logger.debug("Bridge connection resumed. Updating thing status to ONLINE.");
 
+        // the bridge may have been restarted or changed while the connection was lost
+        resetPollingStates();
+
         if (!propertiesInitializedSuccessfully) {
             FullConfig fullConfig = hueBridge.getFullConfig();
             Config config = fullConfig.getConfig();
@@ -456,6 +541,18 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
         updateStatus(ThingStatus.ONLINE);
     }
 
+    /**
+     * Forgets the lights, groups and sensors JSON seen by the last polls, so that the next polls fully parse the
+     * states again and register the group actions with the current {@link HueBridge}. The lights and sensors are
+     * still compared with their last known states, so listeners are only notified about actual changes.
+     * Must be called while holding the {@link #pollingLock}.
+     */
+    private void resetPollingStates() {
+        lightDeltaParser.reset();
+        sensorDeltaParser.reset();
+        lastGroupsJson = null;
+    }
+
     /**
      * Check USER_NAME config for null. Call onConnectionResumed() otherwise.
      *
@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.hue.internal.HttpClient.Result;
+import org.openhab.binding.hue.internal.HttpClient.TokenBucket;
+
+/**
+ * Tests for the asynchronous command sending of the {@link HttpClient}.
+ *
+ * @author agent - Initial contribution
+ */
+public class HttpClientTest {
+
+    private ScheduledExecutorService scheduler;
+    private RecordingHttpClient client;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newScheduledThreadPool(HttpClient.MAX_LANES + 1);
+        client = new RecordingHttpClient();
+    }
+
+    @After
+    public void tearDown() {
+        client.release.countDown();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testPendingCommandsToTheSameLightAreCoalesced() throws Exception {
+        CompletableFuture<Result> first = client.putAsync("lights/1/state", "{\"on\":true}", 40, scheduler);
+        assertTrue(client.started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Result> second = client.putAsync("lights/1/state", "{\"bri\":1}", 40, scheduler);
+        CompletableFuture<Result> third = client.putAsync("lights/1/state", "{\"bri\":2,\"ct\":300}", 80, scheduler);
+        client.release.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        assertSame(second.get(5, TimeUnit.SECONDS), third.get(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("lights/1/state {\"on\":true}", "lights/1/state {\"bri\":2,\"ct\":300}"),
+                client.getRequests());
+    }
+
+    @Test
+    public void testLaterColorModeReplacesPendingColorMode() throws Exception {
+        client.putAsync("lights/1/state", "{\"on\":true}", 40, scheduler);
+        assertTrue(client.started.await(5, TimeUnit.SECONDS));
+
+        client.putAsync("lights/1/state", "{\"xy\":[0.3,0.3],\"bri\":100}", 40, scheduler);
+        client.putAsync("lights/1/state", "{\"hue\":100,\"sat\":200}", 40, scheduler);
+        CompletableFuture<Result> last = client.putAsync("lights/1/state", "{\"ct\":300}", 40, scheduler);
+        client.release.countDown();
+
+        last.get(5, TimeUnit.SECONDS);
+        assertEquals("lights/1/state {\"bri\":100,\"ct\":300}", client.getRequests().get(1));
+    }
+
+    @Test
+    public void testBrightnessAndIncrementReplaceEachOther() throws Exception {
+        client.putAsync("lights/1/state", "{\"on\":true}", 40, scheduler);
+        assertTrue(client.started.await(5, TimeUnit.SECONDS));
+
+        client.putAsync("lights/1/state", "{\"bri\":100}", 40, scheduler);
+        client.putAsync("lights/1/state", "{\"bri_inc\":10}", 40, scheduler);
+        CompletableFuture<Result> last = client.putAsync("lights/1/state", "{\"bri_inc\":-30}", 40, scheduler);
+        client.putAsync("lights/2/state", "{\"bri_inc\":10}", 40, scheduler);
+        CompletableFuture<Result> absolute = client.putAsync("lights/2/state", "{\"bri\":50}", 40, scheduler);
+        client.release.countDown();
+
+        last.get(5, TimeUnit.SECONDS);
+        absolute.get(5, TimeUnit.SECONDS);
+        List<String> requests = client.getRequests();
+        assertTrue(requests.contains("lights/1/state {\"bri_inc\":-20}"));
+        assertTrue(requests.contains("lights/2/state {\"bri\":50}"));
+    }
+
+    @Test
+    public void testAlertsAreNotCoalesced() throws Exception {
+        client.putAsync("lights/1/state", "{\"on\":true}", 40, scheduler);
+        assertTrue(client.started.await(5, TimeUnit.SECONDS));
+
+        client.putAsync("lights/1/state", "{\"alert\":\"select\"}", 40, scheduler);
+        CompletableFuture<Result> last = client.putAsync("lights/1/state", "{\"alert\":\"select\"}", 40,
+                scheduler);
+        client.release.countDown();
+
+        last.get(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("lights/1/state {\"on\":true}", "lights/1/state {\"alert\":\"select\"}",
+                "lights/1/state {\"alert\":\"select\"}"), client.getRequests());
+    }
+
+    @Test
+    public void testCommandsToDifferentLightsAreSentConcurrently() throws Exception {
+        client.started = new CountDownLatch(HttpClient.MAX_LANES);
+        for (int i = 1; i <= HttpClient.MAX_LANES; i++) {
+            client.putAsync("lights/" + i + "/state", "{\"on\":true}", 40, scheduler);
+        }
+
+        assertTrue(client.started.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSameUpdateOfAllGroupLightsIsSentAsGroupAction() throws Exception {
+        client.setGroupActions(Collections.singletonMap("groups/1/action",
+                new HashSet<>(Arrays.asList("lights/1/state", "lights/2/state", "lights/3/state"))));
+
+        // occupy all senders, so the state updates are queued
+        client.started = new CountDownLatch(HttpClient.MAX_LANES);
+        for (int i = 0; i < HttpClient.MAX_LANES; i++) {
+            client.putAsync("sensors/" + i + "/config", "{\"on\":true}", 40, scheduler);
+        }
+        assertTrue(client.started.await(5, TimeUnit.SECONDS));
+
+        List<CompletableFuture<Result>> futures = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            futures.add(client.putAsync("lights/" + i + "/state", "{\"on\":false}", 40, scheduler));
+        }
+        client.release.countDown();
+
+        for (CompletableFuture<Result> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        List<String> requests = client.getRequests();
+        assertTrue(requests.contains("groups/1/action {\"on\":false}"));
+        assertFalse(requests.contains("lights/1/state {\"on\":false}"));
+        assertEquals(HttpClient.MAX_LANES + 1, requests.size());
+    }
+
+    @Test
+    public void testDifferentUpdatesOfGroupLightsAreSentSeparately() throws Exception {
+        client.setGroupActions(Collections.singletonMap("groups/1/action",
+                new HashSet<>(Arrays.asList("lights/1/state", "lights/2/state"))));
+
+        client.started = new CountDownLatch(HttpClient.MAX_LANES);
+        for (int i = 0; i < HttpClient.MAX_LANES; i++) {
+            client.putAsync("sensors/" + i + "/config", "{\"on\":true}", 40, scheduler);
+        }
+        assertTrue(client.started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Result> light1 = client.putAsync("lights/1/state", "{\"on\":false}", 40, scheduler);
+        CompletableFuture<Result> light2 = client.putAsync("lights/2/state", "{\"on\":true}", 40, scheduler);
+        client.release.countDown();
+
+        light1.get(5, TimeUnit.SECONDS);
+        light2.get(5, TimeUnit.SECONDS);
+        List<String> requests = client.getRequests();
+        assertTrue(requests.contains("lights/1/state {\"on\":false}"));
+        assertTrue(requests.contains("lights/2/state {\"on\":true}"));
+    }
+
+    @Test
+    public void testFailedCommandCompletesExceptionally() throws Exception {
+        client.failure = new IOException("bridge not reachable");
+        client.release.countDown();
+
+        CompletableFuture<Result> future = client.putAsync("lights/1/state", "{\"on\":true}", 40, scheduler);
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("IOException expected");
+        } catch (Exception e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void testTokenBucket() {
+        TokenBucket bucket = new TokenBucket(1000);
+
+        assertEquals(0, bucket.reserve(600, 0));
+        assertEquals(200, bucket.reserve(600, 0));
+        assertEquals(-100, bucket.available(100));
+        assertEquals(0, bucket.reserve(100, 300));
+        assertEquals(1000, bucket.available(5000));
+    }
+
+    private static class RecordingHttpClient extends HttpClient {
+        private final List<String> requests = new ArrayList<>();
+        private CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private @Nullable IOException failure;
+
+        @Override
+        protected Result doNetwork(String address, String requestMethod, @Nullable String body) throws IOException {
+            synchronized (requests) {
+                requests.add(address + " " + body);
+            }
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            IOException exception = failure;
+            if (exception != null) {
+                throw exception;
+            }
+            return new Result("[]", 200);
+        }
+
+        private List<String> getRequests() {
+            synchronized (requests) {
+                return new ArrayList<>(requests);
+            }
+        }
+    }
+}
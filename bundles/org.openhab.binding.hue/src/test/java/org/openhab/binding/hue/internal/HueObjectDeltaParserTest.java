@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+import org.openhab.binding.hue.internal.HueObjectDeltaParser.Delta;
+import org.openhab.binding.hue.internal.exceptions.ApiException;
+
+/**
+ * Tests for {@link HueObjectDeltaParser}.
+ *
+ * @author agent - Initial contribution
+ */
+public class HueObjectDeltaParserTest {
+
+    private static final String LIGHT_1 = "{\"state\":{\"on\":true,\"bri\":254,\"reachable\":true},\"name\":\"Hue {1}\"}";
+    private static final String LIGHT_1_OFF = "{\"state\":{\"on\":false,\"bri\":254,\"reachable\":true},\"name\":\"Hue {1}\"}";
+    private static final String LIGHT_2 = "{\"state\":{\"on\":false,\"bri\":1,\"reachable\":true},\"name\":\"Hue \\\"2\\\"\"}";
+
+    @Test
+    public void testSplitObject() throws ApiException {
+        Map<String, String> members = HueObjectDeltaParser
+                .splitObject(" { \"lights\" : {\"1\":" + LIGHT_1 + "}, \"schedules\":{}, \"list\":[1,{\"a\":\"]\"}],"
+                        + "\"number\":-1.5e3 ,\"flag\":true,\"text\":\"a,b}\"} ");
+
+        assertEquals(Arrays.asList("lights", "schedules", "list", "number", "flag", "text"),
+                Arrays.asList(members.keySet().toArray()));
+        assertEquals("{\"1\":" + LIGHT_1 + "}", members.get("lights"));
+        assertEquals("{}", members.get("schedules"));
+        assertEquals("[1,{\"a\":\"]\"}]", members.get("list"));
+        assertEquals("-1.5e3", members.get("number"));
+        assertEquals("true", members.get("flag"));
+        assertEquals("\"a,b}\"", members.get("text"));
+        assertTrue(HueObjectDeltaParser.splitObject("{}").isEmpty());
+    }
+
+    @Test(expected = ApiException.class)
+    public void testSplitErrorResponse() throws ApiException {
+        HueObjectDeltaParser.splitObject("[{\"error\":{\"type\":1}}]");
+    }
+
+    @Test(expected = ApiException.class)
+    public void testSplitTruncatedObject() throws ApiException {
+        HueObjectDeltaParser.splitObject("{\"1\":" + LIGHT_1.substring(0, 20));
+    }
+
+    @Test
+    public void testOnlyChangedObjectsAreReturned() throws ApiException {
+        HueObjectDeltaParser<FullLight> parser = new HueObjectDeltaParser<>(FullLight.class);
+
+        Delta<FullLight> delta = parser.parse("{\"1\":" + LIGHT_1 + ",\"2\":" + LIGHT_2 + "}");
+        assertEquals(2, delta.getChanged().size());
+        assertEquals("1", delta.getChanged().get(0).getId());
+        assertEquals("Hue \"2\"", delta.getChanged().get(1).getName());
+        assertTrue(delta.getRemoved().isEmpty());
+
+        delta = parser.parse("{\"1\":" + LIGHT_1 + ",\"2\":" + LIGHT_2 + "}");
+        assertTrue(delta.getChanged().isEmpty());
+        assertTrue(delta.getRemoved().isEmpty());
+
+        delta = parser.parse("{\"1\":" + LIGHT_1_OFF + ",\"2\":" + LIGHT_2 + "}");
+        assertEquals(1, delta.getChanged().size());
+        assertEquals("1", delta.getChanged().get(0).getId());
+        assertFalse(delta.getChanged().get(0).getState().isOn());
+    }
+
+    @Test
+    public void testRemovedObjects() throws ApiException {
+        HueObjectDeltaParser<FullLight> parser = new HueObjectDeltaParser<>(FullLight.class);
+        parser.parse("{\"1\":" + LIGHT_1 + ",\"2\":" + LIGHT_2 + "}");
+
+        Delta<FullLight> delta = parser.parse("{\"2\":" + LIGHT_2 + "}");
+
+        assertTrue(delta.getChanged().isEmpty());
+        assertEquals(Collections.singleton("1"), delta.getRemoved());
+    }
+
+    @Test
+    public void testFailedParseKeepsLastObjects() throws ApiException {
+        HueObjectDeltaParser<FullLight> parser = new HueObjectDeltaParser<>(FullLight.class);
+        parser.parse("{\"1\":" + LIGHT_1 + "}");
+
+        try {
+            parser.parse("{\"1\":" + LIGHT_1_OFF + ",\"2\":{\"state\":5}}");
+            fail("ApiException expected");
+        } catch (ApiException e) {
+            // expected
+        }
+
+        Delta<FullLight> delta = parser.parse("{\"1\":" + LIGHT_1 + "}");
+        assertTrue(delta.getChanged().isEmpty());
+    }
+
+    @Test
+    public void testReset() throws ApiException {
+        HueObjectDeltaParser<FullSensor> parser = new HueObjectDeltaParser<>(FullSensor.class);
+        String sensors = "{\"4\":{\"state\":{\"presence\":true},\"config\":{\"on\":true},\"type\":\"ZLLPresence\"}}";
+        parser.parse(sensors);
+
+        parser.reset();
+        Delta<FullSensor> delta = parser.parse(sensors);
+
+        assertEquals(1, delta.getChanged().size());
+        assertEquals("4", delta.getChanged().get(0).getId());
+        assertEquals(Boolean.TRUE, delta.getChanged().get(0).getState().get(FullSensor.STATE_PRESENCE));
+    }
+}
@@ -12,9 +12,13 @@
  */
 package org.openhab.binding.knx.internal.client;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -64,6 +68,8 @@ import tuwien.auto.calimero.process.ProcessListener;
 public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClient {
 
     private static final int MAX_SEND_ATTEMPTS = 2;
+    /** TPCI and APCI of an A_GroupValue_Read service */
+    private static final byte[] GROUP_READ_APDU = new byte[] { 0x00, 0x00 };
 
     private final Logger logger = LoggerFactory.getLogger(AbstractKNXClient.class);
     private final KNXTypeMapper typeHelper = new KNXCoreTypeMapper();
@@ -85,8 +91,10 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private @Nullable ScheduledFuture<?> busJob;
     private @Nullable ScheduledFuture<?> connectJob;
 
-    private final Set<GroupAddressListener> groupAddressListeners = new CopyOnWriteArraySet<>();
-    private final LinkedBlockingQueue<ReadDatapoint> readDatapoints = new LinkedBlockingQueue<>();
+    private final Map<GroupAddressListener, Set<GroupAddress>> groupAddressListeners = new HashMap<>();
+    private final Map<GroupAddress, Set<GroupAddressListener>> listenersByGroupAddress = new ConcurrentHashMap<>();
+    private final GroupAddressDispatcher dispatcher;
+    private final ReadScheduler readScheduler;
 
     @FunctionalInterface
     private interface ListenerNotification {
@@ -103,6 +111,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
         @Override
         public void groupWrite(ProcessEvent e) {
+            readScheduler.answered(e.getDestination());
             processEvent("Group Write", e, (listener, source, destination, asdu) -> {
                 listener.onGroupWrite(AbstractKNXClient.this, source, destination, asdu);
             });
@@ -117,6 +126,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
         @Override
         public void groupReadResponse(ProcessEvent e) {
+            readScheduler.answered(e.getDestination());
             processEvent("Group Read Response", e, (listener, source, destination, asdu) -> {
                 listener.onGroupReadResponse(AbstractKNXClient.this, source, destination, asdu);
             });
@@ -132,6 +142,8 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         this.readRetriesLimit = readRetriesLimit;
         this.knxScheduler = knxScheduler;
         this.statusUpdateCallback = statusUpdateCallback;
+        this.dispatcher = new GroupAddressDispatcher(knxScheduler);
+        this.readScheduler = new ReadScheduler(readingPause, responseTimeout);
     }
 
     public void initialize() {
@@ -221,7 +233,9 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
     private void releaseConnection() {
         logger.debug("Bridge {} is disconnecting from the KNX bus", thingUID);
-        readDatapoints.clear();
+        readScheduler.clear();
+        dispatcher.clear();
+        logger.debug("Telegram statistics of bridge {}: {}, reads: {}", thingUID, dispatcher, readScheduler);
         busJob = nullify(busJob, j -> j.cancel(true));
         deviceInfoClient = null;
         managementProcedures = nullify(managementProcedures, mp -> mp.detach());
@@ -249,10 +263,13 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         IndividualAddress source = event.getSourceAddr();
         byte[] asdu = event.getASDU();
         logger.trace("Received a {} telegram from '{}' to '{}' with value '{}'", task, source, destination, asdu);
-        for (GroupAddressListener listener : groupAddressListeners) {
-            if (listener.listensTo(destination)) {
-                knxScheduler.schedule(() -> action.apply(listener, source, destination, asdu), 0, TimeUnit.SECONDS);
-            }
+        dispatcher.telegramReceived();
+        Set<GroupAddressListener> listeners = listenersByGroupAddress.get(destination);
+        if (listeners == null) {
+            return;
+        }
+        for (GroupAddressListener listener : listeners) {
+            dispatcher.dispatch(destination, () -> action.apply(listener, source, destination, asdu));
         }
     }
 
@@ -272,25 +289,23 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         if (!connectIfNotAutomatic()) {
             return;
         }
-        ProcessCommunicator processCommunicator = this.processCommunicator;
-        if (processCommunicator == null) {
+        KNXNetworkLink link = this.link;
+        if (link == null) {
             return;
         }
-        ReadDatapoint datapoint = readDatapoints.poll();
+        for (ReadDatapoint datapoint : readScheduler.expire(System.nanoTime())) {
+            retryReadDatapoint(datapoint, "no response received");
+        }
+        ReadDatapoint datapoint = readScheduler.poll(System.nanoTime());
         if (datapoint != null) {
             datapoint.incrementRetries();
             try {
                 logger.trace("Sending a Group Read Request telegram for {}", datapoint.getDatapoint().getMainAddress());
-                processCommunicator.read(datapoint.getDatapoint());
+                long sent = System.nanoTime();
+                sendReadRequest(link, datapoint.getDatapoint());
+                readScheduler.acknowledged(datapoint, sent, System.nanoTime());
             } catch (KNXException e) {
-                if (datapoint.getRetries() < datapoint.getLimit()) {
-                    readDatapoints.add(datapoint);
-                    logger.debug("Could not read value for datapoint {}: {}. Going to retry.",
-                            datapoint.getDatapoint().getMainAddress(), e.getMessage());
-                } else {
-                    logger.warn("Giving up reading datapoint {}, the number of maximum retries ({}) is reached.",
-                            datapoint.getDatapoint().getMainAddress(), datapoint.getLimit());
-                }
+                retryReadDatapoint(datapoint, e.getMessage());
             } catch (InterruptedException e) {
                 logger.debug("Interrupted sending KNX read request");
                 return;
@@ -298,6 +313,25 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         }
     }
 
+    /**
+     * Sends a group read request and waits until it has been acknowledged by the KNX interface. The response is
+     * received by the process listener like any other telegram.
+     */
+    private void sendReadRequest(KNXNetworkLink link, Datapoint datapoint) throws KNXException, InterruptedException {
+        link.sendRequestWait(datapoint.getMainAddress(), datapoint.getPriority(), GROUP_READ_APDU);
+    }
+
+    private void retryReadDatapoint(ReadDatapoint datapoint, @Nullable String reason) {
+        if (datapoint.getRetries() < datapoint.getLimit()) {
+            readScheduler.add(datapoint, ReadPriority.RETRY);
+            logger.debug("Could not read value for datapoint {}: {}. Going to retry.",
+                    datapoint.getDatapoint().getMainAddress(), reason);
+        } else {
+            logger.warn("Giving up reading datapoint {}, the number of maximum retries ({}) is reached.",
+                    datapoint.getDatapoint().getMainAddress(), datapoint.getLimit());
+        }
+    }
+
     public void dispose() {
         cancelReconnectJob(true);
         disconnect(null);
@@ -363,23 +397,51 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     }
 
     @Override
-    public void readDatapoint(Datapoint datapoint) {
-        synchronized (this) {
-            ReadDatapoint retryDatapoint = new ReadDatapoint(datapoint, readRetriesLimit);
-            if (!readDatapoints.contains(retryDatapoint)) {
-                readDatapoints.add(retryDatapoint);
-            }
-        }
+    public void readDatapoint(Datapoint datapoint, ReadPriority priority) {
+        readScheduler.add(new ReadDatapoint(datapoint, readRetriesLimit), priority);
     }
 
     @Override
     public final boolean registerGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.add(listener);
+        Set<GroupAddress> groupAddresses = new HashSet<>(listener.getGroupAddresses());
+        synchronized (groupAddressListeners) {
+            Set<GroupAddress> previousGroupAddresses = groupAddressListeners.put(listener, groupAddresses);
+            removeFromIndex(listener, previousGroupAddresses != null ? previousGroupAddresses : Collections.emptySet());
+            for (GroupAddress groupAddress : groupAddresses) {
+                listenersByGroupAddress.computeIfAbsent(groupAddress, ga -> new CopyOnWriteArraySet<>()).add(listener);
+            }
+            return previousGroupAddresses == null;
+        }
     }
 
     @Override
     public final boolean unregisterGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.remove(listener);
+        synchronized (groupAddressListeners) {
+            Set<GroupAddress> groupAddresses = groupAddressListeners.remove(listener);
+            if (groupAddresses == null) {
+                return false;
+            }
+            removeFromIndex(listener, groupAddresses);
+            return true;
+        }
+    }
+
+    private void removeFromIndex(GroupAddressListener listener, Set<GroupAddress> groupAddresses) {
+        for (GroupAddress groupAddress : groupAddresses) {
+            listenersByGroupAddress.computeIfPresent(groupAddress, (ga, listeners) -> {
+                listeners.remove(listener);
+                return listeners.isEmpty() ? null : listeners;
+            });
+        }
+    }
+
+    /**
+     * Returns the statistics of the received telegrams and of the listener notifications.
+     *
+     * @return the dispatcher which notifies the group address listeners
+     */
+    public GroupAddressDispatcher getDispatcher() {
+        return dispatcher;
     }
 
     @Override
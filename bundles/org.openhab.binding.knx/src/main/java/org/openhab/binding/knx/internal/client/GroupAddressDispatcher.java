@@ -0,0 +1,222 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ * Dispatches the notifications for received telegrams on a shared executor.
+ *
+ * Notifications for the same group address are executed one after the other in the order in which the telegrams were
+ * received, notifications for different group addresses are executed concurrently. A queue only occupies a thread of
+ * the executor while it has pending notifications.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class GroupAddressDispatcher {
+
+    /** number of notifications a queue executes before it yields its thread to the other queues */
+    private static final int MAX_BATCH_SIZE = 16;
+    private static final long RATE_WINDOW = TimeUnit.SECONDS.toNanos(10);
+
+    private final Logger logger = LoggerFactory.getLogger(GroupAddressDispatcher.class);
+
+    private final Executor executor;
+    private final Map<GroupAddress, DispatchQueue> queues = new ConcurrentHashMap<>();
+
+    private final AtomicLong telegrams = new AtomicLong();
+    private long windowStart = System.nanoTime();
+    private long windowTelegrams;
+    private double telegramRate;
+
+    private long dispatched;
+    private long totalLatencyNanos;
+    private long maxLatencyNanos;
+
+    public GroupAddressDispatcher(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Counts a telegram received from the bus, whether or not it is dispatched to any listener.
+     */
+    public void telegramReceived() {
+        telegrams.incrementAndGet();
+        synchronized (this) {
+            windowTelegrams++;
+            updateTelegramRate(System.nanoTime());
+        }
+    }
+
+    /**
+     * Queues a notification for the given group address.
+     *
+     * @param destination the group address the telegram was sent to
+     * @param notification the notification to execute
+     */
+    public void dispatch(GroupAddress destination, Runnable notification) {
+        queues.computeIfAbsent(destination, DispatchQueue::new).submit(new Notification(notification));
+    }
+
+    /**
+     * Drops all pending notifications.
+     */
+    public void clear() {
+        queues.values().forEach(queue -> queue.notifications.clear());
+        queues.clear();
+    }
+
+    private synchronized void notificationStarted(long latencyNanos) {
+        dispatched++;
+        totalLatencyNanos += latencyNanos;
+        if (latencyNanos > maxLatencyNanos) {
+            maxLatencyNanos = latencyNanos;
+        }
+    }
+
+    private void updateTelegramRate(long now) {
+        long elapsed = now - windowStart;
+        if (elapsed >= RATE_WINDOW) {
+            telegramRate = windowTelegrams * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+            windowTelegrams = 0;
+            windowStart = now;
+        }
+    }
+
+    /**
+     * @return the number of telegrams received from the bus
+     */
+    public long getTelegramCount() {
+        return telegrams.get();
+    }
+
+    /**
+     * @return the number of telegrams per second, averaged over the last completed measuring window
+     */
+    public synchronized double getTelegramRate() {
+        updateTelegramRate(System.nanoTime());
+        return telegramRate;
+    }
+
+    /**
+     * @return the number of executed notifications
+     */
+    public synchronized long getDispatchedCount() {
+        return dispatched;
+    }
+
+    /**
+     * @return the number of notifications waiting to be executed
+     */
+    public int getPendingCount() {
+        int pending = 0;
+        for (DispatchQueue queue : queues.values()) {
+            pending += queue.notifications.size();
+        }
+        return pending;
+    }
+
+    /**
+     * @return the average time in microseconds a notification waited in its queue
+     */
+    public synchronized long getAverageDispatchLatency() {
+        return dispatched == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalLatencyNanos / dispatched);
+    }
+
+    /**
+     * @return the maximum time in microseconds a notification waited in its queue
+     */
+    public synchronized long getMaxDispatchLatency() {
+        return TimeUnit.NANOSECONDS.toMicros(maxLatencyNanos);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "[telegrams=" + telegrams + ", rate=" + String.format("%.1f", getTelegramRate()) + "/s, dispatched="
+                + dispatched + ", pending=" + getPendingCount() + ", avgLatency=" + getAverageDispatchLatency()
+                + "us, maxLatency=" + getMaxDispatchLatency() + "us]";
+    }
+
+    private static class Notification {
+        private final Runnable action;
+        private final long queued = System.nanoTime();
+
+        private Notification(Runnable action) {
+            this.action = action;
+        }
+    }
+
+    private class DispatchQueue implements Runnable {
+        private final GroupAddress groupAddress;
+        private final Queue<Notification> notifications = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private DispatchQueue(GroupAddress groupAddress) {
+            this.groupAddress = groupAddress;
+        }
+
+        private void submit(Notification notification) {
+            notifications.add(notification);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    logger.debug("Dropping {} notifications for '{}', the executor has been shut down",
+                            notifications.size(), groupAddress);
+                    notifications.clear();
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < MAX_BATCH_SIZE; i++) {
+                Notification notification = notifications.poll();
+                if (notification == null) {
+                    break;
+                }
+                notificationStarted(System.nanoTime() - notification.queued);
+                try {
+                    notification.action.run();
+                } catch (RuntimeException e) {
+                    logger.warn("Notifying listeners of '{}' failed: {}", groupAddress, e.getMessage(), e);
+                }
+            }
+            scheduled.set(false);
+            if (!notifications.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+/**
+ * Priority of a queued read request, in descending order.
+ *
+ * @author agent - Initial contribution
+ */
+public enum ReadPriority {
+    /** explicitly requested or periodic refresh of a value */
+    REFRESH,
+    /** initial read of a value after a thing has been initialized or a channel has been linked */
+    INITIAL,
+    /** repeated read of a value which could not be read before */
+    RETRY
+}
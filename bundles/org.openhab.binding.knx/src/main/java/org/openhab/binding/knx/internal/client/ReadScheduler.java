@@ -0,0 +1,241 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ * Schedules the read requests sent to the KNX bus.
+ *
+ * Read requests are queued by {@link ReadPriority}, so a large initial read-out does not delay refreshes and failing
+ * datapoints do not delay the initial read-out. There is at most one queued or unanswered read request per group
+ * address.
+ *
+ * The read requests are paced by the time the KNX interface needs to acknowledge a request, which increases with the
+ * load of the bus. The next request is sent after the average acknowledge latency times {@link #BUS_LOAD_FACTOR}, but
+ * not earlier than the configured reading pause.
+ *
+ * A read request is answered when a group read response or a group write for its group address is received. If no
+ * answer is received within the response timeout, the request is returned by {@link #expire(long)}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ReadScheduler {
+
+    /** the share of the bus time used by read requests is at most 1 / BUS_LOAD_FACTOR */
+    private static final int BUS_LOAD_FACTOR = 3;
+    private static final double LATENCY_WEIGHT = 0.2;
+
+    private final long readingPause;
+    private final long responseTimeout;
+
+    private final List<ArrayDeque<QueuedRead>> queues = new ArrayList<>();
+    private final Map<GroupAddress, QueuedRead> queuedReads = new HashMap<>();
+    private final Map<GroupAddress, PendingRead> pendingReads = new LinkedHashMap<>();
+
+    private long nextRead;
+    private double averageAckLatency;
+    private long sentReads;
+    private long answeredReads;
+    private long expiredReads;
+
+    private static class QueuedRead {
+        private final ReadDatapoint datapoint;
+        private final ReadPriority priority;
+        private boolean removed;
+
+        private QueuedRead(ReadDatapoint datapoint, ReadPriority priority) {
+            this.datapoint = datapoint;
+            this.priority = priority;
+        }
+    }
+
+    private static class PendingRead {
+        private final ReadDatapoint datapoint;
+        private final long deadline;
+
+        private PendingRead(ReadDatapoint datapoint, long deadline) {
+            this.datapoint = datapoint;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * @param readingPause the minimum time between two read requests in milliseconds
+     * @param responseTimeout the time to wait for the answer to a read request in seconds
+     */
+    public ReadScheduler(int readingPause, int responseTimeout) {
+        this.readingPause = TimeUnit.MILLISECONDS.toNanos(readingPause);
+        this.responseTimeout = TimeUnit.SECONDS.toNanos(responseTimeout);
+        for (int i = 0; i < ReadPriority.values().length; i++) {
+            queues.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Queues a read request. If there is already a request for the group address, its priority is raised if
+     * necessary.
+     *
+     * @param datapoint the datapoint to read
+     * @param priority the priority of the request
+     * @return {@code true} if the request has been queued or its priority has been raised
+     */
+    public synchronized boolean add(ReadDatapoint datapoint, ReadPriority priority) {
+        GroupAddress groupAddress = datapoint.getDatapoint().getMainAddress();
+        if (pendingReads.containsKey(groupAddress)) {
+            return false;
+        }
+        QueuedRead queuedRead = queuedReads.get(groupAddress);
+        if (queuedRead != null) {
+            if (queuedRead.priority.compareTo(priority) <= 0) {
+                return false;
+            }
+            queuedRead.removed = true;
+        }
+        QueuedRead read = new QueuedRead(datapoint, priority);
+        queuedReads.put(groupAddress, read);
+        queues.get(priority.ordinal()).add(read);
+        return true;
+    }
+
+    /**
+     * Returns the next read request to send, if the pacing allows to send a request now.
+     *
+     * @param now the current time in nanoseconds
+     * @return the read request or {@code null} if there is none or it is too early
+     */
+    public synchronized @Nullable ReadDatapoint poll(long now) {
+        if (now - nextRead < 0) {
+            return null;
+        }
+        for (ArrayDeque<QueuedRead> queue : queues) {
+            QueuedRead read;
+            while ((read = queue.poll()) != null) {
+                if (!read.removed) {
+                    queuedReads.remove(read.datapoint.getDatapoint().getMainAddress());
+                    nextRead = now + getDelay();
+                    return read.datapoint;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records that a read request has been acknowledged by the KNX interface.
+     *
+     * @param datapoint the read request
+     * @param sent the time the request has been sent in nanoseconds
+     * @param acknowledged the time the request has been acknowledged in nanoseconds
+     */
+    public synchronized void acknowledged(ReadDatapoint datapoint, long sent, long acknowledged) {
+        long latency = acknowledged - sent;
+        averageAckLatency = sentReads == 0 ? latency
+                : averageAckLatency + LATENCY_WEIGHT * (latency - averageAckLatency);
+        sentReads++;
+        nextRead = acknowledged + getDelay();
+        pendingReads.put(datapoint.getDatapoint().getMainAddress(),
+                new PendingRead(datapoint, acknowledged + responseTimeout));
+    }
+
+    /**
+     * Records that the value of a group address has been received.
+     *
+     * @param groupAddress the group address
+     */
+    public synchronized void answered(GroupAddress groupAddress) {
+        if (pendingReads.remove(groupAddress) != null) {
+            answeredReads++;
+        }
+    }
+
+    /**
+     * Removes the read requests which have not been answered within the response timeout.
+     *
+     * @param now the current time in nanoseconds
+     * @return the expired read requests
+     */
+    public synchronized List<ReadDatapoint> expire(long now) {
+        List<ReadDatapoint> expired = new ArrayList<>();
+        // the requests are ordered by their deadline, as the response timeout is the same for all of them
+        Iterator<PendingRead> iterator = pendingReads.values().iterator();
+        while (iterator.hasNext()) {
+            PendingRead read = iterator.next();
+            if (now - read.deadline < 0) {
+                break;
+            }
+            iterator.remove();
+            expired.add(read.datapoint);
+        }
+        expiredReads += expired.size();
+        return expired;
+    }
+
+    /**
+     * Removes all queued and unanswered read requests.
+     */
+    public synchronized void clear() {
+        queues.forEach(ArrayDeque::clear);
+        queuedReads.clear();
+        pendingReads.clear();
+        nextRead = 0;
+    }
+
+    /**
+     * @return the time between two read requests in nanoseconds
+     */
+    public synchronized long getDelay() {
+        return Math.max(readingPause, Math.round(averageAckLatency * BUS_LOAD_FACTOR));
+    }
+
+    /**
+     * @return the number of queued read requests
+     */
+    public synchronized int getQueueSize() {
+        return queuedReads.size();
+    }
+
+    /**
+     * @return the number of sent read requests waiting for an answer
+     */
+    public synchronized int getPendingSize() {
+        return pendingReads.size();
+    }
+
+    /**
+     * @return the average time in microseconds until a read request is acknowledged by the KNX interface
+     */
+    public synchronized long getAverageAckLatency() {
+        return TimeUnit.NANOSECONDS.toMicros(Math.round(averageAckLatency));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "[queued=" + queuedReads.size() + ", pending=" + pendingReads.size() + ", sent=" + sentReads
+                + ", answered=" + answeredReads + ", expired=" + expiredReads + ", ackLatency="
+                + getAverageAckLatency() + "us, delay=" + TimeUnit.NANOSECONDS.toMillis(getDelay()) + "ms]";
+    }
+}
@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -107,6 +108,17 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     /** stores the default KNX DPT to use for each openHAB type */
     private final Map<Class<? extends Type>, String> defaultDptMap;
 
+    /** stores the decoder for each KNX datapoint type id which has been received */
+    private final Map<String, DPTDecoder> decoders = new ConcurrentHashMap<>();
+
+    /**
+     * Converts the ASDU of a datapoint into an openHAB type.
+     */
+    @FunctionalInterface
+    private interface DPTDecoder {
+        Type decode(Datapoint datapoint, byte[] data);
+    }
+
     public KNXCoreTypeMapper() {
 
         @SuppressWarnings("unused")
@@ -674,6 +686,157 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
 
     @Override
     public Type toType(Datapoint datapoint, byte[] data) {
+        String dptId = datapoint.getDPT();
+        if (dptId == null) {
+            return toTypeWithTranslator(datapoint, data);
+        }
+        DPTDecoder decoder = decoders.get(dptId);
+        if (decoder == null) {
+            decoder = createDecoder(datapoint, dptId);
+            decoders.put(dptId, decoder);
+        }
+        return decoder.decode(datapoint, data);
+    }
+
+    /**
+     * Creates the decoder for a datapoint type.
+     *
+     * The common datapoint types are decoded directly from the ASDU, all other datapoint types are decoded by a
+     * calimero translator. The direct decoders are only used for datapoint types supported by calimero, so unknown
+     * datapoint types are still rejected by the translator.
+     *
+     * @param datapoint the datapoint
+     * @param dptId the datapoint type id
+     * @return the decoder
+     */
+    private DPTDecoder createDecoder(Datapoint datapoint, String dptId) {
+        int mainNumber = getMainNumber(dptId);
+        int subNumber = getSubNumber(dptId);
+        Class<? extends Type> typeClass = toTypeClass(dptId);
+        if (mainNumber == -1 || subNumber == -1 || typeClass == null) {
+            return this::toTypeWithTranslator;
+        }
+        try {
+            TranslatorTypes.createTranslator(datapoint.getMainNumber(), dptId);
+        } catch (KNXException e) {
+            return this::toTypeWithTranslator;
+        }
+        switch (mainNumber) {
+            case 1:
+                return createBooleanDecoder(subNumber);
+            case 5:
+                return create8BitUnsignedDecoder(subNumber, typeClass);
+            case 9:
+                if (typeClass.equals(DecimalType.class) || typeClass.equals(PercentType.class)) {
+                    return (dp, data) -> data.length < 2 ? toTypeWithTranslator(dp, data)
+                            : toDecimalType(decode2ByteFloat(data), typeClass);
+                }
+                break;
+            case 14:
+                if (typeClass.equals(DecimalType.class)) {
+                    return (dp, data) -> {
+                        if (data.length < 4) {
+                            return toTypeWithTranslator(dp, data);
+                        }
+                        float value = Float.intBitsToFloat((data[0] & 0xff) << 24 | (data[1] & 0xff) << 16
+                                | (data[2] & 0xff) << 8 | (data[3] & 0xff));
+                        if (Float.isNaN(value) || Float.isInfinite(value)) {
+                            return toTypeWithTranslator(dp, data);
+                        }
+                        return new DecimalType(new BigDecimal(Float.toString(value)));
+                    };
+                }
+                break;
+            case 232:
+                if (typeClass.equals(HSBType.class)) {
+                    return (dp, data) -> data.length < 3 ? toTypeWithTranslator(dp, data)
+                            : HSBType.fromRGB(data[0] & 0xff, data[1] & 0xff, data[2] & 0xff);
+                }
+                break;
+        }
+        return this::toTypeWithTranslator;
+    }
+
+    private DPTDecoder createBooleanDecoder(int subNumber) {
+        Type[] values;
+        switch (subNumber) {
+            case 8:
+                values = new Type[] { UpDownType.UP, UpDownType.DOWN };
+                break;
+            case 9:
+            case 19:
+                values = new Type[] { OpenClosedType.CLOSED, OpenClosedType.OPEN };
+                break;
+            case 10:
+                values = new Type[] { StopMoveType.STOP, StopMoveType.MOVE };
+                break;
+            case 22:
+                values = new Type[] { DecimalType.valueOf("0"), DecimalType.valueOf("1") };
+                break;
+            default:
+                values = new Type[] { OnOffType.OFF, OnOffType.ON };
+                break;
+        }
+        return (dp, data) -> data.length < 1 ? toTypeWithTranslator(dp, data) : values[data[0] & 0x01];
+    }
+
+    private DPTDecoder create8BitUnsignedDecoder(int subNumber, Class<? extends Type> typeClass) {
+        if (!typeClass.equals(DecimalType.class) && !typeClass.equals(PercentType.class)) {
+            return this::toTypeWithTranslator;
+        }
+        // all 256 values are decoded in advance, values which can't be represented are left to the translator
+        Type[] values = new Type[256];
+        for (int i = 0; i < values.length; i++) {
+            int value;
+            if (subNumber == 1) {
+                value = Math.round(i * 100f / 255);
+            } else if (subNumber == 3) {
+                value = Math.round(i * 360f / 255);
+            } else {
+                value = i;
+            }
+            if (typeClass.equals(PercentType.class)) {
+                values[i] = value <= 100 ? new PercentType(value) : null;
+            } else {
+                values[i] = new DecimalType(value);
+            }
+        }
+        return (dp, data) -> {
+            Type type = data.length < 1 ? null : values[data[0] & 0xff];
+            return type != null ? type : toTypeWithTranslator(dp, data);
+        };
+    }
+
+    /**
+     * Decodes a KNX 2-octet float value (DPT 9.x), which is encoded as 0.01 * mantissa * 2^exponent with a 12 bit
+     * two's complement mantissa.
+     *
+     * @param data the ASDU
+     * @return the exact decimal value
+     */
+    private BigDecimal decode2ByteFloat(byte[] data) {
+        int raw = (data[0] & 0xff) << 8 | (data[1] & 0xff);
+        int exponent = (raw >> 11) & 0x0f;
+        int mantissa = (raw & 0x07ff) - ((raw & 0x8000) != 0 ? 0x0800 : 0);
+        return BigDecimal.valueOf((long) mantissa << exponent, 2);
+    }
+
+    private Type toDecimalType(BigDecimal value, Class<? extends Type> typeClass) {
+        if (typeClass.equals(PercentType.class)) {
+            return new PercentType(BigDecimal.valueOf(Math.round(value.doubleValue())));
+        }
+        BigDecimal stripped = value.stripTrailingZeros();
+        return new DecimalType(stripped.scale() < 0 ? stripped.setScale(0) : stripped);
+    }
+
+    /**
+     * Converts the ASDU of a datapoint into an openHAB type using a calimero translator.
+     *
+     * @param datapoint the datapoint
+     * @param data the ASDU
+     * @return a command or state of openHAB
+     */
+    Type toTypeWithTranslator(Datapoint datapoint, byte[] data) {
         try {
             DPTXlator translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
             translator.setData(data);
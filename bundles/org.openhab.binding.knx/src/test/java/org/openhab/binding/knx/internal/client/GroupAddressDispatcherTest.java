@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class GroupAddressDispatcherTest {
+
+    private ExecutorService executor;
+    private GroupAddressDispatcher dispatcher;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        dispatcher = new GroupAddressDispatcher(executor);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testNotificationsForSameGroupAddressAreOrdered() throws InterruptedException {
+        GroupAddress groupAddress = new GroupAddress(1, 2, 3);
+        List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1000);
+        for (int i = 0; i < 1000; i++) {
+            int value = i;
+            dispatcher.dispatch(groupAddress, () -> {
+                received.add(value);
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, received.get(i).intValue());
+        }
+        assertEquals(1000, dispatcher.getDispatchedCount());
+    }
+
+    @Test
+    public void testBlockedGroupAddressDoesNotDelayOthers() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        dispatcher.dispatch(new GroupAddress(1, 1, 1), () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        dispatcher.dispatch(new GroupAddress(1, 1, 2), () -> done.countDown());
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    public void testFailingNotificationDoesNotStopQueue() throws InterruptedException {
+        GroupAddress groupAddress = new GroupAddress(1, 2, 3);
+        CountDownLatch done = new CountDownLatch(1);
+        dispatcher.dispatch(groupAddress, () -> {
+            throw new IllegalStateException("test");
+        });
+        dispatcher.dispatch(groupAddress, () -> done.countDown());
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTelegramsAreCounted() {
+        dispatcher.telegramReceived();
+        dispatcher.telegramReceived();
+
+        assertEquals(2, dispatcher.getTelegramCount());
+        assertEquals(0, dispatcher.getDispatchedCount());
+    }
+
+    @Test
+    public void testRejectedNotificationsAreDropped() {
+        executor.shutdown();
+        dispatcher.dispatch(new GroupAddress(1, 2, 3), () -> fail());
+
+        assertEquals(0, dispatcher.getPendingCount());
+    }
+
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+
+/**
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class ReadSchedulerTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private ReadScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new ReadScheduler(50, 10);
+    }
+
+    private ReadDatapoint datapoint(int subGroup) {
+        return new ReadDatapoint(new CommandDP(new GroupAddress(1, 2, subGroup), "test", 0, "1.001"), 3);
+    }
+
+    private GroupAddress poll(long now) {
+        ReadDatapoint datapoint = scheduler.poll(now);
+        assertNotNull(datapoint);
+        return datapoint.getDatapoint().getMainAddress();
+    }
+
+    @Test
+    public void testRequestsArePolledByPriority() {
+        scheduler.add(datapoint(1), ReadPriority.RETRY);
+        scheduler.add(datapoint(2), ReadPriority.INITIAL);
+        scheduler.add(datapoint(3), ReadPriority.REFRESH);
+        scheduler.add(datapoint(4), ReadPriority.INITIAL);
+
+        assertEquals(new GroupAddress(1, 2, 3), poll(0));
+        assertEquals(new GroupAddress(1, 2, 2), poll(100 * MS));
+        assertEquals(new GroupAddress(1, 2, 4), poll(200 * MS));
+        assertEquals(new GroupAddress(1, 2, 1), poll(300 * MS));
+        assertNull(scheduler.poll(400 * MS));
+    }
+
+    @Test
+    public void testDuplicateRequestsAreIgnored() {
+        assertTrue(scheduler.add(datapoint(1), ReadPriority.INITIAL));
+        assertFalse(scheduler.add(datapoint(1), ReadPriority.INITIAL));
+        assertFalse(scheduler.add(datapoint(1), ReadPriority.RETRY));
+
+        assertEquals(1, scheduler.getQueueSize());
+    }
+
+    @Test
+    public void testDuplicateRequestRaisesPriority() {
+        scheduler.add(datapoint(1), ReadPriority.INITIAL);
+        scheduler.add(datapoint(2), ReadPriority.INITIAL);
+        assertTrue(scheduler.add(datapoint(2), ReadPriority.REFRESH));
+
+        assertEquals(2, scheduler.getQueueSize());
+        assertEquals(new GroupAddress(1, 2, 2), poll(0));
+        assertEquals(new GroupAddress(1, 2, 1), poll(100 * MS));
+        assertNull(scheduler.poll(200 * MS));
+    }
+
+    @Test
+    public void testRequestsArePacedByReadingPause() {
+        scheduler.add(datapoint(1), ReadPriority.INITIAL);
+        scheduler.add(datapoint(2), ReadPriority.INITIAL);
+
+        assertNotNull(scheduler.poll(0));
+        assertNull(scheduler.poll(49 * MS));
+        assertNotNull(scheduler.poll(50 * MS));
+    }
+
+    @Test
+    public void testRequestsArePacedByAckLatency() {
+        scheduler.add(datapoint(1), ReadPriority.INITIAL);
+        scheduler.add(datapoint(2), ReadPriority.INITIAL);
+
+        ReadDatapoint datapoint = scheduler.poll(0);
+        scheduler.acknowledged(datapoint, 0, 100 * MS);
+
+        assertEquals(300 * MS, scheduler.getDelay());
+        assertNull(scheduler.poll(399 * MS));
+        assertNotNull(scheduler.poll(400 * MS));
+    }
+
+    @Test
+    public void testAnsweredRequestDoesNotExpire() {
+        scheduler.add(datapoint(1), ReadPriority.INITIAL);
+        ReadDatapoint datapoint = scheduler.poll(0);
+        scheduler.acknowledged(datapoint, 0, MS);
+
+        assertFalse(scheduler.add(datapoint(1), ReadPriority.REFRESH));
+        scheduler.answered(new GroupAddress(1, 2, 1));
+
+        assertTrue(scheduler.expire(TimeUnit.SECONDS.toNanos(20)).isEmpty());
+        assertEquals(0, scheduler.getPendingSize());
+    }
+
+    @Test
+    public void testUnansweredRequestExpires() {
+        scheduler.add(datapoint(1), ReadPriority.INITIAL);
+        ReadDatapoint datapoint = scheduler.poll(0);
+        scheduler.acknowledged(datapoint, 0, MS);
+
+        assertTrue(scheduler.expire(TimeUnit.SECONDS.toNanos(5)).isEmpty());
+        assertEquals(1, scheduler.expire(TimeUnit.SECONDS.toNanos(11)).size());
+        assertEquals(0, scheduler.getPendingSize());
+    }
+
+}
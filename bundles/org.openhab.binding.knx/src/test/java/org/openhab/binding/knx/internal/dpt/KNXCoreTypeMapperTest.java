@@ -12,11 +12,28 @@
  */
 package org.openhab.binding.knx.internal.dpt;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.UpDownType;
+import org.eclipse.smarthome.core.types.Type;
 import org.junit.Test;
 
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.datapoint.Datapoint;
+import tuwien.auto.calimero.dptxlator.TranslatorTypes;
+
 /**
  *
  * @author Simon Kaufmann - initial contribution and API
@@ -24,10 +41,120 @@ import org.junit.Test;
  */
 public class KNXCoreTypeMapperTest {
 
+    private final KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+
     @Test
     public void testToDPTValue_trailingZeroesStrippedOff() {
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3"), "17.001"));
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3.0"), "17.001"));
     }
 
+    @Test
+    public void testToType_boolean() {
+        assertEquals(OnOffType.ON, mapper.toType(datapoint("1.001"), new byte[] { 0x01 }));
+        assertEquals(OnOffType.OFF, mapper.toType(datapoint("1.001"), new byte[] { 0x00 }));
+        assertEquals(UpDownType.DOWN, mapper.toType(datapoint("1.008"), new byte[] { 0x01 }));
+    }
+
+    @Test
+    public void testToType_8BitUnsigned() {
+        assertEquals(new PercentType(100), mapper.toType(datapoint("5.001"), new byte[] { (byte) 0xFF }));
+        assertEquals(new PercentType(50), mapper.toType(datapoint("5.001"), new byte[] { (byte) 0x80 }));
+        assertEquals(new DecimalType(200), mapper.toType(datapoint("5.010"), new byte[] { (byte) 0xC8 }));
+    }
+
+    @Test
+    public void testToType_2ByteFloat() {
+        assertEquals(new DecimalType("21"), mapper.toType(datapoint("9.001"), new byte[] { 0x0C, 0x1A }));
+        assertEquals(new DecimalType("-30"), mapper.toType(datapoint("9.001"), new byte[] { (byte) 0x8A, 0x24 }));
+        assertEquals(new DecimalType("0.01"), mapper.toType(datapoint("9.001"), new byte[] { 0x00, 0x01 }));
+    }
+
+    @Test
+    public void testToType_4ByteFloat() {
+        byte[] data = ByteBuffer.allocate(4).putFloat(21.3f).array();
+        assertEquals(new DecimalType("21.3"), mapper.toType(datapoint("14.068"), data));
+    }
+
+    @Test
+    public void testToType_rgb() {
+        assertEquals(HSBType.fromRGB(255, 0, 0),
+                mapper.toType(datapoint("232.600"), new byte[] { (byte) 0xFF, 0x00, 0x00 }));
+    }
+
+    @Test
+    public void testToType_directDecodingMatchesTranslator() throws KNXException {
+        for (int mainNumber : new int[] { 1, 5, 9, 14, 232 }) {
+            for (String dptId : TranslatorTypes.getMainType(mainNumber).getSubTypes().keySet()) {
+                Datapoint datapoint = datapoint(dptId);
+                for (byte[] data : samples(mainNumber)) {
+                    Object expected = decode(() -> mapper.toTypeWithTranslator(datapoint, data));
+                    Object actual = decode(() -> mapper.toType(datapoint, data));
+                    if (expected != null) {
+                        assertEquivalent(dptId, expected, actual);
+                    }
+                }
+            }
+        }
+    }
+
+    private Datapoint datapoint(String dptId) {
+        return new CommandDP(new GroupAddress(1, 2, 3), "test", 0, dptId);
+    }
+
+    private Object decode(Supplier<Type> decoder) {
+        try {
+            return decoder.get();
+        } catch (IllegalArgumentException e) {
+            return e.getClass();
+        }
+    }
+
+    private void assertEquivalent(String dptId, Object expected, Object actual) {
+        if (expected instanceof DecimalType) {
+            assertNotNull(dptId, actual);
+            assertEquals(dptId, expected.getClass(), actual.getClass());
+            double expectedValue = ((DecimalType) expected).doubleValue();
+            double actualValue = ((DecimalType) actual).doubleValue();
+            // the translator may round to float precision, the percent types are rounded to integers
+            double delta = expected instanceof PercentType ? 1 : Math.max(1, Math.abs(expectedValue)) * 1e-6;
+            assertEquals(dptId, expectedValue, actualValue, delta);
+        } else {
+            assertEquals(dptId, expected, actual);
+        }
+    }
+
+    private List<byte[]> samples(int mainNumber) {
+        List<byte[]> samples = new ArrayList<>();
+        switch (mainNumber) {
+            case 1:
+            case 5:
+                for (int i = 0; i < 256; i++) {
+                    samples.add(new byte[] { (byte) i });
+                }
+                break;
+            case 9:
+                for (int i = 0; i < 0x10000; i += 7) {
+                    samples.add(new byte[] { (byte) (i >> 8), (byte) i });
+                }
+                break;
+            case 14:
+                for (float value : new float[] { 0f, 1f, -1f, 21.3f, 1e-10f, -3.4e38f, 100000f, 123456.7f }) {
+                    samples.add(ByteBuffer.allocate(4).putFloat(value).array());
+                }
+                Random random = new Random(42);
+                for (int i = 0; i < 1000; i++) {
+                    samples.add(ByteBuffer.allocate(4).putInt(random.nextInt()).array());
+                }
+                break;
+            case 232:
+                Random rgb = new Random(42);
+                for (int i = 0; i < 100; i++) {
+                    samples.add(new byte[] { (byte) rgb.nextInt(), (byte) rgb.nextInt(), (byte) rgb.nextInt() });
+                }
+                break;
+        }
+        return samples;
+    }
+
 }
@@ -12,19 +12,14 @@
  */
 package org.openhab.binding.lifx.internal;
 
-import static org.openhab.binding.lifx.internal.LifxBindingConstants.PACKET_INTERVAL;
 import static org.openhab.binding.lifx.internal.fields.MACAddress.BROADCAST_ADDRESS;
 import static org.openhab.binding.lifx.internal.util.LifxMessageUtil.randomSourceId;
-import static org.openhab.binding.lifx.internal.util.LifxSelectorUtil.*;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.nio.channels.SelectionKey;
-import java.nio.channels.Selector;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiFunction;
@@ -32,13 +27,13 @@ import java.util.function.Supplier;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.lifx.internal.LifxSelectorEventLoop.Endpoint;
 import org.openhab.binding.lifx.internal.fields.MACAddress;
 import org.openhab.binding.lifx.internal.handler.LifxLightHandler.CurrentLightState;
 import org.openhab.binding.lifx.internal.listener.LifxResponsePacketListener;
 import org.openhab.binding.lifx.internal.protocol.GetServiceRequest;
 import org.openhab.binding.lifx.internal.protocol.Packet;
 import org.openhab.binding.lifx.internal.protocol.StateServiceResponse;
-import org.openhab.binding.lifx.internal.util.LifxNetworkUtil;
 import org.openhab.binding.lifx.internal.util.LifxSelectorUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,17 +58,12 @@ public class LifxLightCommunicationHandler {
 
     private int service;
     private int unicastPort;
-    private final int broadcastPort = LifxNetworkUtil.getNewBroadcastPort();
-
-    private @Nullable ScheduledFuture<?> networkJob;
 
     private @Nullable MACAddress macAddress;
     private @Nullable InetSocketAddress host;
     private boolean broadcastEnabled;
 
-    private @Nullable Selector selector;
-    private @Nullable SelectionKey broadcastKey;
-    private @Nullable SelectionKey unicastKey;
+    private @Nullable Endpoint endpoint;
     private @Nullable LifxSelectorContext selectorContext;
 
     public LifxLightCommunicationHandler(LifxLightContext context) {
@@ -102,50 +92,39 @@ public class LifxLightCommunicationHandler {
             logger.debug("{} : Starting communication handler", logId);
             logger.debug("{} : Using '{}' as source identifier", logId, Long.toString(sourceId, 16));
 
-            ScheduledFuture<?> localNetworkJob = networkJob;
-            if (localNetworkJob == null || localNetworkJob.isCancelled()) {
-                networkJob = scheduler.scheduleWithFixedDelay(this::receiveAndHandlePackets, 0, PACKET_INTERVAL,
-                        TimeUnit.MILLISECONDS);
-            }
-
             currentLightState.setOffline();
 
-            Selector localSelector = Selector.open();
-            selector = localSelector;
-
-            if (isBroadcastEnabled()) {
-                broadcastKey = openBroadcastChannel(selector, logId, broadcastPort);
-                selectorContext = new LifxSelectorContext(localSelector, sourceId, sequenceNumberSupplier, logId, host,
-                        macAddress, broadcastKey, unicastKey);
-                broadcastPacket(new GetServiceRequest());
-            } else {
-                unicastKey = openUnicastChannel(selector, logId, host);
-                selectorContext = new LifxSelectorContext(localSelector, sourceId, sequenceNumberSupplier, logId, host,
-                        macAddress, broadcastKey, unicastKey);
-                sendPacket(new GetServiceRequest());
+            if (endpoint == null) {
+                Endpoint localEndpoint = LifxSelectorEventLoop.getInstance().register(logId, sourceId, macAddress,
+                        scheduler, this::handlePacket);
+                endpoint = localEndpoint;
+                selectorContext = new LifxSelectorContext(localEndpoint, sourceId, sequenceNumberSupplier, logId,
+                        host, macAddress);
             }
         } catch (IOException e) {
             logger.error("{} while starting LIFX communication handler for light '{}' : {}",
                     e.getClass().getSimpleName(), logId, e.getMessage(), e);
+            return;
         } finally {
             lock.unlock();
         }
+
+        if (isBroadcastEnabled()) {
+            broadcastPacket(new GetServiceRequest());
+        } else {
+            sendPacket(new GetServiceRequest());
+        }
     }
 
     public void stop() {
         try {
             lock.lock();
 
-            ScheduledFuture<?> localNetworkJob = networkJob;
-            if (localNetworkJob != null && !localNetworkJob.isCancelled()) {
-                localNetworkJob.cancel(true);
-                networkJob = null;
+            Endpoint localEndpoint = endpoint;
+            if (localEndpoint != null) {
+                localEndpoint.close();
             }
-
-            closeSelector(selector, logId);
-            selector = null;
-            broadcastKey = null;
-            unicastKey = null;
+            endpoint = null;
             selectorContext = null;
         } finally {
             lock.unlock();
@@ -160,25 +139,16 @@ public class LifxLightCommunicationHandler {
         return macAddress;
     }
 
-    public void receiveAndHandlePackets() {
+    private void handlePacket(Packet packet, InetSocketAddress address) {
         try {
             lock.lock();
-            Selector localSelector = selector;
-            if (localSelector == null || !localSelector.isOpen()) {
-                logger.debug("{} : Unable to receive and handle packets with null or closed selector", logId);
-            } else {
-                LifxSelectorUtil.receiveAndHandlePackets(localSelector, logId,
-                        (packet, address) -> handlePacket(packet, address));
-            }
-        } catch (Exception e) {
-            logger.error("{} while receiving a packet from the light ({}): {}", e.getClass().getSimpleName(), logId,
-                    e.getMessage());
+            handlePacketLocked(packet, address);
         } finally {
             lock.unlock();
         }
     }
 
-    private void handlePacket(Packet packet, InetSocketAddress address) {
+    private void handlePacketLocked(Packet packet, InetSocketAddress address) {
         boolean packetFromConfiguredMAC = macAddress != null && (packet.getTarget().equals(macAddress));
         boolean packetFromConfiguredHost = host != null && (address.equals(host));
         boolean broadcastPacket = packet.getTarget().equals(BROADCAST_ADDRESS);
@@ -196,6 +166,10 @@ public class LifxLightCommunicationHandler {
                     macAddress = discoveredAddress;
                     currentLightState.setOnline(discoveredAddress);
 
+                    Endpoint localEndpoint = endpoint;
+                    if (localEndpoint != null) {
+                        localEndpoint.setMACAddress(macAddress);
+                    }
                     LifxSelectorContext context = selectorContext;
                     if (context != null) {
                         context.setMACAddress(macAddress);
@@ -216,20 +190,9 @@ public class LifxLightCommunicationHandler {
                         } else {
                             this.host = new InetSocketAddress(address.getAddress(), unicastPort);
 
-                            try {
-                                cancelKey(unicastKey, logId);
-                                unicastKey = openUnicastChannel(selector, logId, host);
-
-                                LifxSelectorContext context = selectorContext;
-                                if (context != null) {
-                                    context.setHost(host);
-                                    context.setUnicastKey(unicastKey);
-                                }
-                            } catch (IOException e) {
-                                logger.warn("{} while opening the unicast channel of the light ({}): {}",
-                                        e.getClass().getSimpleName(), logId, e.getMessage());
-                                currentLightState.setOfflineByCommunicationError();
-                                return;
+                            LifxSelectorContext context = selectorContext;
+                            if (context != null) {
+                                context.setHost(host);
                             }
 
                             currentLightState.setOnline();
@@ -266,17 +229,12 @@ public class LifxLightCommunicationHandler {
     }
 
     private void wrappedPacketSend(BiFunction<LifxSelectorContext, Packet, Boolean> function, Packet packet) {
+        // the shared channel is thread-safe, so the lock is not held while sending (and throttling) a packet
         LifxSelectorContext localSelectorContext = selectorContext;
         if (localSelectorContext != null) {
-            boolean result = false;
-            try {
-                lock.lock();
-                result = function.apply(localSelectorContext, packet);
-            } finally {
-                lock.unlock();
-                if (!result) {
-                    currentLightState.setOfflineByCommunicationError();
-                }
+            boolean result = function.apply(localSelectorContext, packet);
+            if (!result) {
+                currentLightState.setOfflineByCommunicationError();
             }
         }
     }
@@ -18,10 +18,10 @@ import static org.openhab.binding.lifx.internal.util.LifxSelectorUtil.*;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.nio.channels.SelectionKey;
-import java.nio.channels.Selector;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
@@ -34,6 +34,7 @@ import org.eclipse.smarthome.config.discovery.DiscoveryResult;
 import org.eclipse.smarthome.config.discovery.DiscoveryResultBuilder;
 import org.eclipse.smarthome.config.discovery.DiscoveryService;
 import org.eclipse.smarthome.core.thing.ThingUID;
+import org.openhab.binding.lifx.internal.LifxSelectorEventLoop.Endpoint;
 import org.openhab.binding.lifx.internal.fields.MACAddress;
 import org.openhab.binding.lifx.internal.protocol.GetLabelRequest;
 import org.openhab.binding.lifx.internal.protocol.GetServiceRequest;
@@ -43,7 +44,6 @@ import org.openhab.binding.lifx.internal.protocol.Product;
 import org.openhab.binding.lifx.internal.protocol.StateLabelResponse;
 import org.openhab.binding.lifx.internal.protocol.StateServiceResponse;
 import org.openhab.binding.lifx.internal.protocol.StateVersionResponse;
-import org.openhab.binding.lifx.internal.util.LifxSelectorUtil;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
@@ -73,14 +73,24 @@ public class LifxLightDiscovery extends AbstractDiscoveryService {
     private final long sourceId = randomSourceId();
     private final Supplier<Integer> sequenceNumberSupplier = new LifxSequenceNumberSupplier();
 
-    private @Nullable Selector selector;
-    private @Nullable SelectionKey broadcastKey;
+    private final BlockingQueue<ReceivedPacket> receivedPackets = new LinkedBlockingQueue<>();
+    private @Nullable Endpoint endpoint;
 
     private @Nullable ScheduledFuture<?> discoveryJob;
     private @Nullable ScheduledFuture<?> networkJob;
 
     private boolean isScanning = false;
 
+    private static class ReceivedPacket {
+        private final Packet packet;
+        private final InetSocketAddress address;
+
+        private ReceivedPacket(Packet packet, InetSocketAddress address) {
+            this.packet = packet;
+            this.address = address;
+        }
+    }
+
     private class DiscoveredLight {
 
         private MACAddress macAddress;
@@ -94,25 +104,18 @@ public class LifxLightDiscovery extends AbstractDiscoveryService {
 
         private long lastRequestTimeMillis;
 
-        public DiscoveredLight(Selector lightSelector, MACAddress macAddress, InetSocketAddress socketAddress,
-                String logId, @Nullable SelectionKey unicastKey) {
+        public DiscoveredLight(Endpoint endpoint, MACAddress macAddress, InetSocketAddress socketAddress,
+                String logId) {
             this.macAddress = macAddress;
             this.logId = logId;
             this.socketAddress = socketAddress;
-            this.selectorContext = new LifxSelectorContext(lightSelector, sourceId, sequenceNumberSupplier, logId,
-                    socketAddress, macAddress, broadcastKey, unicastKey);
+            this.selectorContext = new LifxSelectorContext(endpoint, sourceId, sequenceNumberSupplier, logId,
+                    socketAddress, macAddress);
         }
 
         public boolean isDataComplete() {
             return label != null && product != null;
         }
-
-        public void cancelUnicastKey() {
-            SelectionKey unicastKey = selectorContext.getUnicastKey();
-            if (unicastKey != null) {
-                cancelKey(unicastKey, selectorContext.getLogId());
-            }
-        }
     }
 
     public LifxLightDiscovery() throws IllegalArgumentException {
@@ -179,21 +182,22 @@ public class LifxLightDiscovery extends AbstractDiscoveryService {
         try {
             if (!isScanning) {
                 isScanning = true;
-                if (selector != null) {
-                    closeSelector(selector, LOG_ID);
+                if (endpoint != null) {
+                    endpoint.close();
                 }
 
                 logger.debug("The LIFX discovery service will use '{}' as source identifier",
                         Long.toString(sourceId, 16));
 
-                Selector localSelector = Selector.open();
-                selector = localSelector;
+                receivedPackets.clear();
+                Endpoint localEndpoint = LifxSelectorEventLoop.getInstance().register(LOG_ID, sourceId, null, scheduler,
+                        (packet, address) -> receivedPackets.add(new ReceivedPacket(packet, address)));
+                endpoint = localEndpoint;
 
-                broadcastKey = openBroadcastChannel(localSelector, LOG_ID, BROADCAST_PORT);
                 networkJob = scheduler.schedule(this::receiveAndHandlePackets, 0, TimeUnit.MILLISECONDS);
 
-                LifxSelectorContext selectorContext = new LifxSelectorContext(localSelector, sourceId,
-                        sequenceNumberSupplier, LOG_ID, broadcastKey);
+                LifxSelectorContext selectorContext = new LifxSelectorContext(localEndpoint, sourceId,
+                        sequenceNumberSupplier, LOG_ID);
                 broadcastPacket(selectorContext, new GetServiceRequest());
             } else {
                 logger.info("A discovery scan for LIFX lights is already underway");
@@ -205,11 +209,11 @@ public class LifxLightDiscovery extends AbstractDiscoveryService {
     }
 
     public void receiveAndHandlePackets() {
-        Selector localSelector = selector;
+        Endpoint localEndpoint = endpoint;
 
         try {
-            if (localSelector == null || !localSelector.isOpen()) {
-                logger.debug("Unable to receive and handle packets with null or closed selector");
+            if (localEndpoint == null) {
+                logger.debug("Unable to receive and handle packets without endpoint");
                 return;
             }
 
@@ -218,35 +222,29 @@ public class LifxLightDiscovery extends AbstractDiscoveryService {
             long startStamp = System.currentTimeMillis();
 
             while (System.currentTimeMillis() - startStamp < SELECTOR_TIMEOUT) {
-                int lightCount = discoveredLights.size();
-                long selectStamp = System.currentTimeMillis();
-
-                LifxSelectorUtil.receiveAndHandlePackets(localSelector, LOG_ID,
-                        (packet, address) -> handlePacket(packet, address));
-                requestAdditionalLightData();
-
-                boolean discoveredNewLights = lightCount < discoveredLights.size();
-                if (!discoveredNewLights) {
-                    boolean preventBusyWaiting = System.currentTimeMillis() - selectStamp < PACKET_INTERVAL;
-                    if (preventBusyWaiting) {
-                        Thread.sleep(PACKET_INTERVAL);
-                    }
+                // the packets are received by the selector thread and handled here, so there is no busy waiting
+                ReceivedPacket receivedPacket = receivedPackets.poll(PACKET_INTERVAL, TimeUnit.MILLISECONDS);
+                if (receivedPacket != null) {
+                    handlePacket(receivedPacket.packet, receivedPacket.address);
                 }
+                requestAdditionalLightData();
             }
             logger.trace("Exited read loop");
         } catch (Exception e) {
             logger.debug("{} while receiving and handling discovery packets: {}", e.getClass().getSimpleName(),
                     e.getMessage(), e);
         } finally {
-            LifxSelectorUtil.closeSelector(localSelector, LOG_ID);
-            selector = null;
+            if (localEndpoint != null) {
+                localEndpoint.close();
+            }
+            endpoint = null;
+            receivedPackets.clear();
             isScanning = false;
         }
     }
 
     private void requestAdditionalLightData() {
         // Iterate through the discovered lights that have to be set up, and the packets that have to be sent
-        // Workaround to avoid a ConcurrentModifictionException on the selector.SelectedKeys() Set
         for (DiscoveredLight light : discoveredLights.values()) {
             if (light == null) {
                 continue;
@@ -280,15 +278,10 @@ public class LifxLightDiscovery extends AbstractDiscoveryService {
                     try {
                         InetSocketAddress socketAddress = new InetSocketAddress(address.getAddress(), port);
                         if (light == null || (!socketAddress.equals(light.socketAddress))) {
-                            if (light != null) {
-                                light.cancelUnicastKey();
-                            }
-
-                            Selector lightSelector = selector;
-                            if (lightSelector != null) {
+                            Endpoint lightEndpoint = endpoint;
+                            if (lightEndpoint != null) {
                                 String logId = getLogId(macAddress, socketAddress);
-                                light = new DiscoveredLight(lightSelector, macAddress, socketAddress, logId,
-                                        openUnicastChannel(lightSelector, logId, socketAddress));
+                                light = new DiscoveredLight(lightEndpoint, macAddress, socketAddress, logId);
                                 discoveredLights.put(macAddress, light);
                             }
                         }
@@ -13,52 +13,46 @@
 package org.openhab.binding.lifx.internal;
 
 import java.net.InetSocketAddress;
-import java.nio.channels.SelectionKey;
-import java.nio.channels.Selector;
 import java.util.function.Supplier;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.lifx.internal.LifxSelectorEventLoop.Endpoint;
 import org.openhab.binding.lifx.internal.fields.MACAddress;
 
 /**
  * The {@link LifxSelectorContext} stores the context that is used for broadcast and unicast communications with a
- * light using a {@link Selector}.
+ * light using an {@link Endpoint} of the {@link LifxSelectorEventLoop}.
  *
  * @author Wouter Born - Make selector logic reusable between discovery and handlers
  */
 @NonNullByDefault
 public class LifxSelectorContext {
 
-    private final Selector selector;
+    private final Endpoint endpoint;
     private final long sourceId;
     private final Supplier<Integer> sequenceNumberSupplier;
     private final String logId;
     private @Nullable InetSocketAddress host;
     private @Nullable MACAddress macAddress;
-    private @Nullable SelectionKey broadcastKey;
-    private @Nullable SelectionKey unicastKey;
 
-    public LifxSelectorContext(Selector selector, long sourceId, Supplier<Integer> sequenceNumberSupplier, String logId,
-            @Nullable SelectionKey broadcastKey) {
-        this(selector, sourceId, sequenceNumberSupplier, logId, null, null, broadcastKey, null);
+    public LifxSelectorContext(Endpoint endpoint, long sourceId, Supplier<Integer> sequenceNumberSupplier,
+            String logId) {
+        this(endpoint, sourceId, sequenceNumberSupplier, logId, null, null);
     }
 
-    public LifxSelectorContext(Selector selector, long sourceId, Supplier<Integer> sequenceNumberSupplier, String logId,
-            @Nullable InetSocketAddress host, @Nullable MACAddress macAddress, @Nullable SelectionKey broadcastKey,
-            @Nullable SelectionKey unicastKey) {
-        this.selector = selector;
+    public LifxSelectorContext(Endpoint endpoint, long sourceId, Supplier<Integer> sequenceNumberSupplier,
+            String logId, @Nullable InetSocketAddress host, @Nullable MACAddress macAddress) {
+        this.endpoint = endpoint;
         this.sourceId = sourceId;
         this.sequenceNumberSupplier = sequenceNumberSupplier;
         this.logId = logId;
         this.host = host;
         this.macAddress = macAddress;
-        this.broadcastKey = broadcastKey;
-        this.unicastKey = unicastKey;
     }
 
-    public Selector getSelector() {
-        return selector;
+    public Endpoint getEndpoint() {
+        return endpoint;
     }
 
     public long getSourceId() {
@@ -81,14 +75,6 @@ public class LifxSelectorContext {
         return macAddress;
     }
 
-    public @Nullable SelectionKey getBroadcastKey() {
-        return broadcastKey;
-    }
-
-    public @Nullable SelectionKey getUnicastKey() {
-        return unicastKey;
-    }
-
     public void setHost(@Nullable InetSocketAddress host) {
         this.host = host;
     }
@@ -97,12 +83,4 @@ public class LifxSelectorContext {
         this.macAddress = macAddress;
     }
 
-    public void setBroadcastKey(@Nullable SelectionKey broadcastKey) {
-        this.broadcastKey = broadcastKey;
-    }
-
-    public void setUnicastKey(@Nullable SelectionKey unicastKey) {
-        this.unicastKey = unicastKey;
-    }
-
 }
@@ -0,0 +1,403 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.lifx.internal;
+
+import static org.openhab.binding.lifx.internal.util.LifxNetworkUtil.isRemoteAddress;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.lifx.internal.fields.MACAddress;
+import org.openhab.binding.lifx.internal.protocol.Packet;
+import org.openhab.binding.lifx.internal.util.LifxNetworkUtil;
+import org.openhab.binding.lifx.internal.util.LifxSelectorUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link LifxSelectorEventLoop} multiplexes the communication with all LIFX lights over a single datagram channel.
+ *
+ * Broadcast and unicast packets are sent from the same channel, so all responses are received on the same port by a
+ * single selector thread. The thread only wakes up when packets are received and parses them from a receive buffer
+ * that is reused for all packets. Each received packet is dispatched to the {@link Endpoint} that sent the request,
+ * which is identified by the source identifier in the packet. Packets without source identifier are dispatched by the
+ * target MAC address of the packet. The packets of an endpoint are consumed one after the other on the executor of
+ * the endpoint, so a slow endpoint does not delay receiving the packets of other endpoints.
+ *
+ * The channel and the selector thread are opened when the first endpoint is registered and closed when the last
+ * endpoint is closed. If the channel fails, it is opened again when the next packet is sent or the next endpoint is
+ * registered.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class LifxSelectorEventLoop {
+
+    private static final String THREAD_NAME = "OH-binding-lifx-selector";
+    private static final int MAX_SEND_RETRIES = 10;
+    private static final long SEND_RETRY_INTERVAL = 20;
+    private static final int MAX_PENDING_PACKETS = 64;
+
+    private static final LifxSelectorEventLoop INSTANCE = new LifxSelectorEventLoop();
+
+    private final Logger logger = LoggerFactory.getLogger(LifxSelectorEventLoop.class);
+
+    private final List<Endpoint> endpoints = new CopyOnWriteArrayList<>();
+    private final Map<Long, Endpoint> sourceEndpoints = new ConcurrentHashMap<>();
+    private final Map<MACAddress, Endpoint> macEndpoints = new ConcurrentHashMap<>();
+
+    private volatile @Nullable DatagramChannel channel;
+    private volatile @Nullable Selector selector;
+    private volatile @Nullable Thread selectorThread;
+
+    // only used by the selector thread
+    private ByteBuffer receiveBuffer = ByteBuffer.allocate(0);
+
+    /**
+     * A registered receiver of packets, e.g. a light or the discovery service.
+     */
+    public class Endpoint {
+
+        private final String logId;
+        private final long sourceId;
+        private final Executor executor;
+        private final BiConsumer<Packet, InetSocketAddress> packetConsumer;
+        private @Nullable MACAddress macAddress;
+
+        private final Queue<Runnable> pendingPackets = new ArrayDeque<>();
+        private boolean consuming;
+
+        private Endpoint(String logId, long sourceId, @Nullable MACAddress macAddress, Executor executor,
+                BiConsumer<Packet, InetSocketAddress> packetConsumer) {
+            this.logId = logId;
+            this.sourceId = sourceId;
+            this.macAddress = macAddress;
+            this.executor = executor;
+            this.packetConsumer = packetConsumer;
+        }
+
+        public String getLogId() {
+            return logId;
+        }
+
+        public long getSourceId() {
+            return sourceId;
+        }
+
+        /**
+         * Sets the MAC address that is used to dispatch packets without source identifier to this endpoint.
+         */
+        public void setMACAddress(@Nullable MACAddress macAddress) {
+            synchronized (LifxSelectorEventLoop.this) {
+                MACAddress oldMacAddress = this.macAddress;
+                if (oldMacAddress != null) {
+                    macEndpoints.remove(oldMacAddress, this);
+                }
+                this.macAddress = macAddress;
+                if (macAddress != null && endpoints.contains(this)) {
+                    macEndpoints.put(macAddress, this);
+                }
+            }
+        }
+
+        public boolean send(ByteBuffer bytes, InetSocketAddress address) {
+            return LifxSelectorEventLoop.this.send(this, bytes, address);
+        }
+
+        public void close() {
+            unregister(this);
+        }
+
+        /**
+         * Queues a packet and starts consuming the queued packets on the executor, unless they are already being
+         * consumed. Called by the selector thread.
+         */
+        private void offer(Packet packet, InetSocketAddress address) {
+            synchronized (this) {
+                if (pendingPackets.size() >= MAX_PENDING_PACKETS) {
+                    logger.debug("{} : Dropping packet type '{}', {} packets are waiting to be handled", logId,
+                            packet.getClass().getSimpleName(), pendingPackets.size());
+                    return;
+                }
+                pendingPackets.add(() -> packetConsumer.accept(packet, address));
+                if (consuming) {
+                    return;
+                }
+                consuming = true;
+            }
+            try {
+                executor.execute(this::consumePackets);
+            } catch (RejectedExecutionException e) {
+                logger.debug("{} : Unable to handle packets: {}", logId, e.getMessage());
+                synchronized (this) {
+                    pendingPackets.clear();
+                    consuming = false;
+                }
+            }
+        }
+
+        private void consumePackets() {
+            while (true) {
+                Runnable consumer;
+                synchronized (this) {
+                    consumer = pendingPackets.poll();
+                    if (consumer == null) {
+                        consuming = false;
+                        return;
+                    }
+                }
+                try {
+                    consumer.run();
+                } catch (RuntimeException e) {
+                    logger.warn("{} while handling a packet of the light ({}): {}", e.getClass().getSimpleName(),
+                            logId, e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private LifxSelectorEventLoop() {
+        // use getInstance()
+    }
+
+    public static LifxSelectorEventLoop getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers an endpoint and opens the channel if necessary.
+     *
+     * @param logId the identifier used in log messages
+     * @param sourceId the source identifier used in the packets sent by the endpoint
+     * @param macAddress the MAC address of the light or null if unknown
+     * @param executor the executor on which the packets of the endpoint are consumed, one after the other
+     * @param packetConsumer consumes the packets dispatched to the endpoint
+     * @return the endpoint that has to be closed when it is no longer used
+     * @throws IOException if the channel can't be opened
+     */
+    public synchronized Endpoint register(String logId, long sourceId, @Nullable MACAddress macAddress,
+            Executor executor, BiConsumer<Packet, InetSocketAddress> packetConsumer) throws IOException {
+        if (selectorThread == null) {
+            open();
+        }
+        Endpoint endpoint = new Endpoint(logId, sourceId, macAddress, executor, packetConsumer);
+        endpoints.add(endpoint);
+        sourceEndpoints.put(sourceId, endpoint);
+        if (macAddress != null) {
+            macEndpoints.put(macAddress, endpoint);
+        }
+        logger.debug("{} : Registered with the LIFX selector ({} endpoints)", logId, endpoints.size());
+        return endpoint;
+    }
+
+    private synchronized void unregister(Endpoint endpoint) {
+        if (!endpoints.remove(endpoint)) {
+            return;
+        }
+        sourceEndpoints.remove(endpoint.sourceId, endpoint);
+        MACAddress macAddress = endpoint.macAddress;
+        if (macAddress != null) {
+            macEndpoints.remove(macAddress, endpoint);
+        }
+        logger.debug("{} : Unregistered from the LIFX selector ({} endpoints)", endpoint.logId, endpoints.size());
+        if (endpoints.isEmpty()) {
+            close();
+        }
+    }
+
+    @SuppressWarnings("resource")
+    private void open() throws IOException {
+        Selector localSelector = Selector.open();
+        DatagramChannel localChannel = null;
+        try {
+            localChannel = DatagramChannel.open(StandardProtocolFamily.INET)
+                    .setOption(StandardSocketOptions.SO_BROADCAST, true);
+            localChannel.configureBlocking(false);
+            localChannel.bind(new InetSocketAddress(0));
+            localChannel.register(localSelector, SelectionKey.OP_READ);
+        } catch (IOException e) {
+            closeQuietly(localChannel, localSelector);
+            throw e;
+        }
+
+        logger.debug("Opened the LIFX channel on {}", localChannel.getLocalAddress());
+        DatagramChannel finalChannel = localChannel;
+        Thread thread = new Thread(() -> selectPackets(localSelector, finalChannel), THREAD_NAME);
+        thread.setDaemon(true);
+        channel = localChannel;
+        selector = localSelector;
+        selectorThread = thread;
+        thread.start();
+    }
+
+    private void close() {
+        Selector localSelector = selector;
+        channel = null;
+        selector = null;
+        selectorThread = null;
+        if (localSelector != null) {
+            // the selector thread closes the channel and the selector
+            localSelector.wakeup();
+        }
+    }
+
+    private void closeQuietly(@Nullable DatagramChannel localChannel, Selector localSelector) {
+        try {
+            if (localChannel != null) {
+                localChannel.close();
+            }
+            localSelector.close();
+        } catch (IOException e) {
+            logger.debug("{} while closing the LIFX channel: {}", e.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    private void selectPackets(Selector localSelector, DatagramChannel localChannel) {
+        Thread currentThread = Thread.currentThread();
+        try {
+            while (selectorThread == currentThread) {
+                localSelector.select();
+                localSelector.selectedKeys().clear();
+                receivePackets(localChannel);
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            logger.warn("{} while selecting LIFX packets: {}", e.getClass().getSimpleName(), e.getMessage());
+        } finally {
+            closeQuietly(localChannel, localSelector);
+            selectorStopped(currentThread);
+            logger.debug("Closed the LIFX channel");
+        }
+    }
+
+    /**
+     * Clears the state of a selector thread that stopped due to an error, so the channel is opened again when it is
+     * used the next time. Packets sent to the lights in the meantime are not answered, they are handled as timeouts
+     * by the lights.
+     */
+    private synchronized void selectorStopped(Thread thread) {
+        if (selectorThread == thread) {
+            channel = null;
+            selector = null;
+            selectorThread = null;
+        }
+    }
+
+    private synchronized @Nullable DatagramChannel reopen() {
+        if (selectorThread == null && !endpoints.isEmpty()) {
+            try {
+                open();
+            } catch (IOException e) {
+                logger.debug("{} while opening the LIFX channel: {}", e.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+        return channel;
+    }
+
+    private void receivePackets(DatagramChannel localChannel) {
+        while (true) {
+            int bufferSize = LifxNetworkUtil.getBufferSize();
+            if (receiveBuffer.capacity() < bufferSize) {
+                receiveBuffer = ByteBuffer.allocate(bufferSize);
+            }
+            receiveBuffer.clear();
+
+            InetSocketAddress address;
+            try {
+                address = (InetSocketAddress) localChannel.receive(receiveBuffer);
+            } catch (IOException e) {
+                logger.debug("{} while receiving a LIFX packet: {}", e.getClass().getSimpleName(), e.getMessage());
+                return;
+            }
+            if (address == null) {
+                return;
+            }
+            if (isRemoteAddress(address.getAddress())) {
+                Packet packet = LifxSelectorUtil.parsePacket(receiveBuffer, address);
+                if (packet != null) {
+                    dispatchPacket(packet, address);
+                }
+            }
+        }
+    }
+
+    private void dispatchPacket(Packet packet, InetSocketAddress address) {
+        Endpoint endpoint = packet.getSource() != 0 ? sourceEndpoints.get(packet.getSource()) : null;
+        if (endpoint == null) {
+            endpoint = macEndpoints.get(packet.getTarget());
+        }
+        if (endpoint != null) {
+            consumePacket(endpoint, packet, address);
+        } else if (packet.getSource() == 0) {
+            // the packet may be of interest to endpoints that do not know the MAC address of their light yet
+            for (Endpoint unresolvedEndpoint : endpoints) {
+                if (unresolvedEndpoint.macAddress == null) {
+                    consumePacket(unresolvedEndpoint, packet, address);
+                }
+            }
+        } else {
+            logger.trace("Ignoring packet type '{}' from '{}' with unknown source '{}'",
+                    packet.getClass().getSimpleName(), address, Long.toString(packet.getSource(), 16));
+        }
+    }
+
+    private void consumePacket(Endpoint endpoint, Packet packet, InetSocketAddress address) {
+        endpoint.offer(packet, address);
+    }
+
+    private boolean send(Endpoint endpoint, ByteBuffer bytes, InetSocketAddress address) {
+        DatagramChannel localChannel = channel;
+        if (localChannel == null && endpoints.contains(endpoint)) {
+            localChannel = reopen();
+        }
+        if (localChannel == null || !endpoints.contains(endpoint)) {
+            logger.debug("{} : Unable to send a packet with closed endpoint", endpoint.logId);
+            return false;
+        }
+        try {
+            for (int i = 0; i <= MAX_SEND_RETRIES; i++) {
+                // a non-blocking channel does not send the packet if the send buffer is full
+                if (localChannel.send(bytes, address) > 0) {
+                    return true;
+                }
+                Thread.sleep(SEND_RETRY_INTERVAL);
+            }
+            logger.debug("Failed to send packet after {} retries to the light ({})", MAX_SEND_RETRIES,
+                    endpoint.logId);
+        } catch (IOException e) {
+            logger.debug("{} while sending a packet to the light ({}): {}", e.getClass().getSimpleName(),
+                    endpoint.logId, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+}
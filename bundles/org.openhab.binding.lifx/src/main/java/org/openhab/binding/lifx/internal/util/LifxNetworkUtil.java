@@ -24,7 +24,6 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.slf4j.Logger;
@@ -40,9 +39,7 @@ import org.slf4j.LoggerFactory;
 public final class LifxNetworkUtil {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LifxNetworkUtil.class);
-    private static final AtomicInteger BROADCAST_PORT_COUNTER = new AtomicInteger(1);
     private static final long UPDATE_INTERVAL_MILLIS = Duration.ofSeconds(15).toMillis();
-    private static final int PORT_MAX = 65535;
 
     private static List<InetSocketAddress> broadcastAddresses = new ArrayList<>();
     private static List<InetAddress> interfaceAddresses = new ArrayList<>();
@@ -130,11 +127,4 @@ public final class LifxNetworkUtil {
         return !isLocalAddress(address);
     }
 
-    public static int getNewBroadcastPort() {
-        int offset = BROADCAST_PORT_COUNTER.getAndUpdate((value) -> {
-            return (value + 1) % Integer.MAX_VALUE;
-        });
-        return BROADCAST_PORT + (offset % (PORT_MAX - BROADCAST_PORT));
-    }
-
 }
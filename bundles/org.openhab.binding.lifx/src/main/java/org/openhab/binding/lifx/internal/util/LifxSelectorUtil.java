@@ -12,22 +12,10 @@
  */
 package org.openhab.binding.lifx.internal.util;
 
-import static org.openhab.binding.lifx.internal.util.LifxNetworkUtil.isRemoteAddress;
 import static org.openhab.binding.lifx.internal.util.LifxSelectorUtil.CastType.*;
 
-import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.net.StandardProtocolFamily;
-import java.net.StandardSocketOptions;
 import java.nio.ByteBuffer;
-import java.nio.channels.DatagramChannel;
-import java.nio.channels.SelectableChannel;
-import java.nio.channels.SelectionKey;
-import java.nio.channels.Selector;
-import java.nio.channels.SocketChannel;
-import java.util.ConcurrentModificationException;
-import java.util.Iterator;
-import java.util.function.BiConsumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -40,7 +28,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Utility class for sharing {@link Selector} logic between objects.
+ * Utility class for sharing the packet sending and parsing logic between objects.
  *
  * @author Wouter Born - Make selector logic reusable between discovery and handlers
  */
@@ -48,136 +36,20 @@ import org.slf4j.LoggerFactory;
 public class LifxSelectorUtil {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LifxSelectorUtil.class);
-    private static final int MAX_SEND_SELECT_RETRIES = 10;
-    private static final int SEND_SELECT_TIMEOUT = 200;
 
     enum CastType {
         BROADCAST,
         UNICAST;
     }
 
-    @SuppressWarnings("resource")
-    public static @Nullable SelectionKey openBroadcastChannel(@Nullable Selector selector, String logId,
-            int broadcastPort) throws IOException {
-        if (selector == null) {
-            return null;
-        }
-        DatagramChannel broadcastChannel = DatagramChannel.open(StandardProtocolFamily.INET)
-                .setOption(StandardSocketOptions.SO_REUSEADDR, true)
-                .setOption(StandardSocketOptions.SO_BROADCAST, true);
-        broadcastChannel.configureBlocking(false);
-        LOGGER.debug("{} : Binding the broadcast channel on port {}", logId, broadcastPort);
-        broadcastChannel.bind(new InetSocketAddress(broadcastPort));
-        return broadcastChannel.register(selector, SelectionKey.OP_READ | SelectionKey.OP_WRITE);
-    }
-
-    @SuppressWarnings("resource")
-    public static @Nullable SelectionKey openUnicastChannel(@Nullable Selector selector, String logId,
-            @Nullable InetSocketAddress address) throws IOException {
-        if (selector == null || address == null) {
-            return null;
-        }
-        DatagramChannel unicastChannel = DatagramChannel.open(StandardProtocolFamily.INET)
-                .setOption(StandardSocketOptions.SO_REUSEADDR, true);
-        unicastChannel.configureBlocking(false);
-        unicastChannel.connect(address);
-        LOGGER.trace("{} : Connected to light via {}", logId, unicastChannel.getLocalAddress().toString());
-        return unicastChannel.register(selector, SelectionKey.OP_READ | SelectionKey.OP_WRITE);
-    }
-
-    public static void closeSelector(@Nullable Selector selector, String logId) {
-        if (selector == null) {
-            return;
-        }
-
-        try {
-            selector.wakeup();
-
-            boolean done = false;
-            while (!done) {
-                try {
-                    selector.keys().stream().forEach(key -> cancelKey(key, logId));
-                    done = true; // continue until all keys are cancelled
-                } catch (ConcurrentModificationException e) {
-                    LOGGER.debug("{} while closing selection keys of the light ({}): {}", e.getClass().getSimpleName(),
-                            logId, e.getMessage());
-                }
-            }
-
-            selector.close();
-        } catch (IOException e) {
-            LOGGER.warn("{} while closing the selector of the light ({}): {}", e.getClass().getSimpleName(), logId,
-                    e.getMessage());
-        }
-    }
-
-    public static void cancelKey(@Nullable SelectionKey key, String logId) {
-        if (key == null) {
-            return;
-        }
-
-        try {
-            key.channel().close();
-        } catch (IOException e) {
-            LOGGER.error("{} while closing a channel of the light ({}): {}", e.getClass().getSimpleName(), logId,
-                    e.getMessage());
-        }
-        key.cancel();
-    }
-
-    @SuppressWarnings("resource")
-    public static void receiveAndHandlePackets(Selector selector, String logId,
-            BiConsumer<Packet, InetSocketAddress> packetConsumer) {
-        try {
-            selector.selectNow();
-        } catch (IOException e) {
-            LOGGER.error("{} while selecting keys for the light ({}) : {}", e.getClass().getSimpleName(), logId,
-                    e.getMessage());
-        }
-
-        Iterator<SelectionKey> keyIterator = selector.selectedKeys().iterator();
-
-        while (keyIterator.hasNext()) {
-            SelectionKey key;
-
-            try {
-                key = keyIterator.next();
-            } catch (ConcurrentModificationException e) {
-                // when a StateServiceResponse packet is handled a new unicastChannel may be registered
-                // in the selector which causes this exception, recover from it by restarting the iteration
-                LOGGER.debug("{} : Restarting iteration after ConcurrentModificationException", logId);
-                keyIterator = selector.selectedKeys().iterator();
-                continue;
-            }
-
-            if (key.isValid() && key.isReadable()) {
-                LOGGER.trace("{} : Channel is ready for reading", logId);
-                SelectableChannel channel = key.channel();
-                ByteBuffer readBuffer = ByteBuffer.allocate(LifxNetworkUtil.getBufferSize());
-
-                try {
-                    if (channel instanceof DatagramChannel) {
-                        InetSocketAddress address = (InetSocketAddress) ((DatagramChannel) channel).receive(readBuffer);
-                        if (isRemoteAddress(address.getAddress())) {
-                            supplyParsedPacketToConsumer(readBuffer, address, packetConsumer, logId);
-                        }
-                    } else if (channel instanceof SocketChannel) {
-                        InetSocketAddress address = (InetSocketAddress) ((SocketChannel) channel).getRemoteAddress();
-                        ((SocketChannel) channel).read(readBuffer);
-                        if (isRemoteAddress(address.getAddress())) {
-                            supplyParsedPacketToConsumer(readBuffer, address, packetConsumer, logId);
-                        }
-                    }
-                } catch (Exception e) {
-                    LOGGER.debug("{} while reading data for the light ({}) : {}", e.getClass().getSimpleName(), logId,
-                            e.getMessage());
-                }
-            }
-        }
-    }
-
-    private static void supplyParsedPacketToConsumer(ByteBuffer readBuffer, InetSocketAddress address,
-            BiConsumer<Packet, InetSocketAddress> packetConsumer, String logId) {
+    /**
+     * Parses a packet that has been received in the given buffer.
+     *
+     * @param readBuffer the buffer with the received packet at its start and the position after its end
+     * @param address the address the packet has been received from
+     * @return the packet or null if the packet is incomplete or of an unknown type
+     */
+    public static @Nullable Packet parsePacket(ByteBuffer readBuffer, InetSocketAddress address) {
         int messageLength = readBuffer.position();
         readBuffer.rewind();
 
@@ -195,13 +67,13 @@ public class LifxSelectorUtil {
             PacketHandler<?> handler = PacketFactory.createHandler(type);
 
             if (handler == null) {
-                LOGGER.trace("{} : Unknown packet type: {} (source: {})", logId, String.format("0x%02X", type),
+                LOGGER.trace("Unknown packet type: {} (source: {})", String.format("0x%02X", type),
                         address.toString());
             } else {
-                Packet packet = handler.handle(readBuffer);
-                packetConsumer.accept(packet, address);
+                return handler.handle(readBuffer);
             }
         }
+        return null;
     }
 
     public static boolean broadcastPacket(@Nullable LifxSelectorContext context, Packet packet) {
@@ -254,7 +126,6 @@ public class LifxSelectorUtil {
         return sendPacket(context, packet, host, UNICAST);
     }
 
-    @SuppressWarnings("resource")
     private static boolean sendPacket(@Nullable LifxSelectorContext context, Packet packet, InetSocketAddress address,
             CastType castType) {
         if (context == null) {
@@ -268,42 +139,13 @@ public class LifxSelectorUtil {
                 LifxThrottlingUtil.lock();
             }
 
-            for (int i = 0; i <= MAX_SEND_SELECT_RETRIES; i++) {
-                context.getSelector().select(SEND_SELECT_TIMEOUT);
-
-                for (Iterator<SelectionKey> it = context.getSelector().selectedKeys().iterator(); it.hasNext();) {
-                    SelectionKey key = it.next();
-                    SelectionKey castKey = castType == UNICAST ? context.getUnicastKey() : context.getBroadcastKey();
-
-                    if (key.isValid() && key.isWritable() && key.equals(castKey)) {
-                        SelectableChannel channel = key.channel();
-                        if (channel instanceof DatagramChannel) {
-                            if (LOGGER.isTraceEnabled()) {
-                                LOGGER.trace(
-                                        "{} : Sending packet type '{}' from '{}' to '{}' for '{}' with sequence '{}' and source '{}'",
-                                        new Object[] { context.getLogId(), packet.getClass().getSimpleName(),
-                                                ((InetSocketAddress) ((DatagramChannel) channel).getLocalAddress())
-                                                        .toString(),
-                                                address.toString(), packet.getTarget().getHex(), packet.getSequence(),
-                                                Long.toString(packet.getSource(), 16) });
-                            }
-                            ((DatagramChannel) channel).send(packet.bytes(), address);
-                            return true;
-                        } else if (channel instanceof SocketChannel) {
-                            ((SocketChannel) channel).write(packet.bytes());
-                            return true;
-                        }
-                    }
-                }
-
-                if (i == MAX_SEND_SELECT_RETRIES) {
-                    LOGGER.debug("Failed to send packet after {} select retries to the light ({})", i,
-                            context.getLogId());
-                }
+            if (LOGGER.isTraceEnabled()) {
+                LOGGER.trace("{} : Sending packet type '{}' to '{}' for '{}' with sequence '{}' and source '{}'",
+                        new Object[] { context.getLogId(), packet.getClass().getSimpleName(), address.toString(),
+                                packet.getTarget().getHex(), packet.getSequence(),
+                                Long.toString(packet.getSource(), 16) });
             }
-        } catch (Exception e) {
-            LOGGER.debug("{} while sending a packet to the light ({}): {}", e.getClass().getSimpleName(),
-                    context.getLogId(), e.getMessage());
+            return context.getEndpoint().send(packet.bytes(), address);
         } finally {
             if (castType == UNICAST) {
                 LifxThrottlingUtil.unlock(packet.getTarget());
@@ -311,7 +153,6 @@ public class LifxSelectorUtil {
                 LifxThrottlingUtil.unlock();
             }
         }
-        return false;
     }
 
 }
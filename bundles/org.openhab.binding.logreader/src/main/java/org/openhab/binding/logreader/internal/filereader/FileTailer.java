@@ -12,12 +12,21 @@
  */
 package org.openhab.binding.logreader.internal.filereader;
 
-import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
-import org.apache.commons.io.input.Tailer;
-import org.apache.commons.io.input.TailerListener;
-import org.apache.commons.io.input.TailerListenerAdapter;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.logreader.internal.filereader.api.FileReaderException;
 import org.openhab.binding.logreader.internal.filereader.api.LogFileReader;
@@ -25,48 +34,57 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Apache Tailer based log file reader implementation.
+ * NIO based log file reader implementation.
+ *
+ * The file is checked periodically by a scheduled job, which reads all new bytes in large chunks through a
+ * {@link FileChannel} and splits them into lines. No thread is occupied between the checks. A rotation is detected
+ * when the file is replaced by a new file or when it is truncated; the new file is read from the beginning.
  *
  * @author Pauli Anttila - Initial contribution
+ * @author agent - NIO based rewrite
  */
 public class FileTailer extends AbstractLogFileReader implements LogFileReader {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private final Logger logger = LoggerFactory.getLogger(FileTailer.class);
 
-    private Tailer tailer;
+    private final Charset charset = Charset.defaultCharset();
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
 
-    TailerListener logListener = new TailerListenerAdapter() {
+    private byte[] lineBuffer = new byte[1024];
+    private int lineLength;
 
-        @Override
-        public void handle(@Nullable String line) {
-            sendLineToListeners(line);
-        }
-
-        @Override
-        public void fileNotFound() {
-            sendFileNotFoundToListeners();
-        }
+    private @Nullable ScheduledFuture<?> job;
+    private volatile boolean running;
 
-        @Override
-        public void handle(@Nullable Exception e) {
-            sendExceptionToListeners(e);
-        }
-
-        @Override
-        public void fileRotated() {
-            sendFileRotationToListeners();
-        }
-    };
+    private Path path;
+    private @Nullable FileChannel channel;
+    private @Nullable Object fileKey;
+    private long position;
+    private boolean skipToEnd;
+    private boolean fileNotFound;
 
     @Override
-    public void start(String filePath, long refreshRate, ScheduledExecutorService scheduler)
+    public synchronized void start(String filePath, long refreshRate, ScheduledExecutorService scheduler)
             throws FileReaderException {
-        tailer = new Tailer(new File(filePath), logListener, refreshRate, true, false, true);
+        try {
+            path = Paths.get(filePath);
+        } catch (Exception e) {
+            throw new FileReaderException(e);
+        }
+        fileKey = null;
+        position = 0;
+        lineLength = 0;
+        skipToEnd = true;
+        fileNotFound = false;
+        running = true;
 
         try {
             logger.debug("Start executor");
-            scheduler.execute(tailer);
+            job = scheduler.scheduleWithFixedDelay(this::poll, 0, refreshRate, TimeUnit.MILLISECONDS);
         } catch (Exception e) {
+            running = false;
             throw new FileReaderException(e);
         }
     }
@@ -75,8 +93,124 @@ public class FileTailer extends AbstractLogFileReader implements LogFileReader {
     public void stop() {
         logger.debug("Shutdown");
 
-        if (tailer != null) {
-            tailer.stop();
+        running = false;
+        ScheduledFuture<?> localJob = job;
+        if (localJob != null) {
+            localJob.cancel(false);
+            job = null;
+        }
+        synchronized (this) {
+            closeChannel();
+        }
+    }
+
+    private synchronized void poll() {
+        if (!running) {
+            return;
+        }
+
+        try {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                closeChannel();
+                if (!fileNotFound) {
+                    fileNotFound = true;
+                    sendFileNotFoundToListeners();
+                }
+                return;
+            }
+
+            // a file which reappears is a new file, even if the file system reuses the file key
+            Object key = attributes.fileKey();
+            boolean replaced = fileKey != null && (fileNotFound || key != null && !fileKey.equals(key));
+            fileNotFound = false;
+            if (replaced || attributes.size() < position) {
+                FileChannel oldChannel = channel;
+                if (replaced && oldChannel != null) {
+                    // read the lines which were written to the old file before it was rotated
+                    readLines(oldChannel);
+                }
+                closeChannel();
+                position = 0;
+                lineLength = 0;
+                logger.debug("Log file '{}' rotated", path);
+                sendFileRotationToListeners();
+            }
+
+            FileChannel localChannel = channel;
+            if (localChannel == null) {
+                localChannel = FileChannel.open(path, StandardOpenOption.READ);
+                channel = localChannel;
+                fileKey = key;
+                if (skipToEnd) {
+                    position = localChannel.size();
+                    skipToEnd = false;
+                }
+            }
+            readLines(localChannel);
+        } catch (IOException | RuntimeException e) {
+            closeChannel();
+            sendExceptionToListeners(e);
+        }
+    }
+
+    /**
+     * Reads all bytes after the current position and sends the complete lines to the listeners. An incomplete last
+     * line is kept until its end is read.
+     */
+    private void readLines(FileChannel localChannel) throws IOException {
+        while (running) {
+            buffer.clear();
+            int read = localChannel.read(buffer, position);
+            if (read <= 0) {
+                return;
+            }
+            position += read;
+
+            byte[] bytes = buffer.array();
+            int start = 0;
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == '\n') {
+                    if (lineLength == 0) {
+                        sendLine(bytes, start, i - start);
+                    } else {
+                        appendToLine(bytes, start, i - start);
+                        sendLine(lineBuffer, 0, lineLength);
+                        lineLength = 0;
+                    }
+                    start = i + 1;
+                }
+            }
+            appendToLine(bytes, start, read - start);
+        }
+    }
+
+    private void appendToLine(byte[] bytes, int offset, int length) {
+        if (lineLength + length > lineBuffer.length) {
+            lineBuffer = Arrays.copyOf(lineBuffer, Math.max(lineBuffer.length * 2, lineLength + length));
+        }
+        System.arraycopy(bytes, offset, lineBuffer, lineLength, length);
+        lineLength += length;
+    }
+
+    private void sendLine(byte[] bytes, int offset, int length) {
+        if (length > 0 && bytes[offset + length - 1] == '\r') {
+            length--;
+        }
+        sendLineToListeners(new String(bytes, offset, length, charset));
+    }
+
+    private void closeChannel() {
+        FileChannel localChannel = channel;
+        channel = null;
+        if (localChannel != null) {
+            try {
+                localChannel.close();
+            } catch (IOException e) {
+                logger.debug("Error while closing log file '{}': {}", path, e.getMessage());
+            }
         }
     }
 }
@@ -14,6 +14,7 @@ package org.openhab.binding.logreader.internal.handler;
 
 import static org.openhab.binding.logreader.internal.LogReaderBindingConstants.*;
 
+import java.util.BitSet;
 import java.util.Calendar;
 import java.util.regex.PatternSyntaxException;
 
@@ -31,6 +32,7 @@ import org.eclipse.smarthome.core.types.State;
 import org.openhab.binding.logreader.internal.config.LogReaderConfiguration;
 import org.openhab.binding.logreader.internal.filereader.api.FileReaderListener;
 import org.openhab.binding.logreader.internal.filereader.api.LogFileReader;
+import org.openhab.binding.logreader.internal.searchengine.MultiPatternMatcher;
 import org.openhab.binding.logreader.internal.searchengine.SearchEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,6 +51,7 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
 
     private LogFileReader fileReader;
 
+    private MultiPatternMatcher patternMatcher;
     private SearchEngine errorEngine;
     private SearchEngine warningEngine;
     private SearchEngine customEngine;
@@ -90,9 +93,13 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
         clearCounters();
 
         try {
-            warningEngine = new SearchEngine(configuration.warningPatterns, configuration.warningBlacklistingPatterns);
-            errorEngine = new SearchEngine(configuration.errorPatterns, configuration.errorBlacklistingPatterns);
-            customEngine = new SearchEngine(configuration.customPatterns, configuration.customBlacklistingPatterns);
+            patternMatcher = new MultiPatternMatcher();
+            warningEngine = new SearchEngine(patternMatcher, configuration.warningPatterns,
+                    configuration.warningBlacklistingPatterns);
+            errorEngine = new SearchEngine(patternMatcher, configuration.errorPatterns,
+                    configuration.errorBlacklistingPatterns);
+            customEngine = new SearchEngine(patternMatcher, configuration.customPatterns,
+                    configuration.customBlacklistingPatterns);
 
         } catch (PatternSyntaxException e) {
             logger.debug("Illegal search pattern syntax '{}'. ", e.getMessage(), e);
@@ -176,17 +183,19 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
             updateStatus(ThingStatus.ONLINE);
         }
 
-        if (errorEngine.isMatching(line)) {
+        BitSet candidates = patternMatcher.scan(line);
+
+        if (errorEngine.isMatching(line, candidates)) {
             updateChannelIfLinked(CHANNEL_ERRORS, new DecimalType(errorEngine.getMatchCount()));
             updateChannelIfLinked(CHANNEL_LASTERROR, new StringType(line));
             triggerChannel(CHANNEL_NEWERROR, line);
         }
-        if (warningEngine.isMatching(line)) {
+        if (warningEngine.isMatching(line, candidates)) {
             updateChannelIfLinked(CHANNEL_WARNINGS, new DecimalType(warningEngine.getMatchCount()));
             updateChannelIfLinked(CHANNEL_LASTWARNING, new StringType(line));
             triggerChannel(CHANNEL_NEWWARNING, line);
         }
-        if (customEngine.isMatching(line)) {
+        if (customEngine.isMatching(line, candidates)) {
             updateChannelIfLinked(CHANNEL_CUSTOMEVENTS, new DecimalType(customEngine.getMatchCount()));
             updateChannelIfLinked(CHANNEL_LASTCUSTOMEVENT, new StringType(line));
             triggerChannel(CHANNEL_NEWCUSTOM, line);
@@ -0,0 +1,240 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.searchengine;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.regex.Pattern;
+
+/**
+ * The {@link MultiPatternMatcher} finds the candidate patterns of a line in a single pass.
+ *
+ * Most search patterns start with a literal text, e.g. <code>ERROR</code> or <code>\[WARN</code>, which has to
+ * be part of every matching line. The literals of all registered patterns are combined into one Aho-Corasick
+ * automaton, so a line is scanned once for all literals and the regular expression of a pattern is only evaluated if
+ * its literal occurs in the line. Patterns without a literal prefix, e.g. case insensitive patterns, are always
+ * candidates.
+ *
+ * The matcher is shared by the {@link SearchEngine}s of a log reader and is not thread safe.
+ *
+ * @author agent - Initial contribution
+ */
+public class MultiPatternMatcher {
+
+    private static final String META_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    // the flags with which the text of a pattern is not matched literally
+    private static final int NON_LITERAL_FLAGS = Pattern.CASE_INSENSITIVE | Pattern.COMMENTS;
+
+    private final List<Pattern> patterns = new ArrayList<>();
+    private final List<String> literals = new ArrayList<>();
+    private final BitSet unfiltered = new BitSet();
+
+    private Node root = new Node();
+    private boolean compiled;
+
+    private static class Node {
+        private final Map<Character, Node> next = new HashMap<>();
+        private Node fail;
+        private int[] outputs = new int[0];
+    }
+
+    /**
+     * Registers a pattern.
+     *
+     * @param pattern the pattern to register.
+     * @return the index of the pattern, used to look it up in the result of {@link #scan(String)}.
+     */
+    public int add(Pattern pattern) {
+        int index = patterns.size();
+        String literal = (pattern.flags() & NON_LITERAL_FLAGS) == 0 ? requiredLiteral(pattern.pattern()) : "";
+        patterns.add(pattern);
+        literals.add(literal);
+        if (literal.isEmpty()) {
+            unfiltered.set(index);
+        }
+        compiled = false;
+        return index;
+    }
+
+    public Pattern getPattern(int index) {
+        return patterns.get(index);
+    }
+
+    public int size() {
+        return patterns.size();
+    }
+
+    /**
+     * Scans the data once for the literals of all registered patterns.
+     *
+     * @param data data against search will be done.
+     * @return the indexes of the patterns which may match the data.
+     */
+    public BitSet scan(String data) {
+        if (!compiled) {
+            compile();
+        }
+
+        BitSet candidates = (BitSet) unfiltered.clone();
+        Node node = root;
+        for (int i = 0; i < data.length(); i++) {
+            Character c = data.charAt(i);
+            Node next = node.next.get(c);
+            while (next == null && node != root) {
+                node = node.fail;
+                next = node.next.get(c);
+            }
+            node = next != null ? next : root;
+            for (int index : node.outputs) {
+                candidates.set(index);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Builds the Aho-Corasick automaton of the literals of all registered patterns.
+     */
+    private void compile() {
+        root = new Node();
+        for (int index = 0; index < literals.size(); index++) {
+            String literal = literals.get(index);
+            if (literal.isEmpty()) {
+                continue;
+            }
+            Node node = root;
+            for (int i = 0; i < literal.length(); i++) {
+                node = node.next.computeIfAbsent(literal.charAt(i), c -> new Node());
+            }
+            node.outputs = append(node.outputs, new int[] { index });
+        }
+
+        Queue<Node> queue = new ArrayDeque<>();
+        for (Node child : root.next.values()) {
+            child.fail = root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (Map.Entry<Character, Node> entry : node.next.entrySet()) {
+                Node child = entry.getValue();
+                Node fail = node.fail;
+                while (fail != root && !fail.next.containsKey(entry.getKey())) {
+                    fail = fail.fail;
+                }
+                Node target = fail.next.get(entry.getKey());
+                child.fail = target != null && target != child ? target : root;
+                child.outputs = append(child.outputs, child.fail.outputs);
+                queue.add(child);
+            }
+        }
+        compiled = true;
+    }
+
+    private static int[] append(int[] a, int[] b) {
+        if (b.length == 0) {
+            return a;
+        }
+        int[] result = new int[a.length + b.length];
+        System.arraycopy(a, 0, result, 0, a.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+
+    /**
+     * Extracts the literal text every match of the regular expression has to start with. The extraction is
+     * conservative, it stops at the first construct which is not a plain or escaped character. A leading group, e.g.
+     * the embedded flag <code>(?i)</code>, and an alternation outside of groups result in no literal.
+     *
+     * @param regex the regular expression.
+     * @return the literal prefix of the regular expression or an empty string if it has none.
+     */
+    static String requiredLiteral(String regex) {
+        if (hasAlternationOutsideOfGroups(regex)) {
+            return "";
+        }
+        StringBuilder literal = new StringBuilder();
+        int i = regex.startsWith("^") ? 1 : 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            int length = 1;
+            if (c == '\\') {
+                if (i + 1 >= regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                    // character classes, quotes, back references and other escape sequences
+                    break;
+                }
+                c = regex.charAt(i + 1);
+                length = 2;
+            } else if (META_CHARACTERS.indexOf(c) >= 0) {
+                break;
+            }
+            if (Character.isSurrogate(c)) {
+                break;
+            }
+
+            int quantifier = i + length;
+            if (quantifier < regex.length() && "?*{".indexOf(regex.charAt(quantifier)) >= 0) {
+                // the character is optional
+                break;
+            }
+            literal.append(c);
+            if (quantifier < regex.length() && regex.charAt(quantifier) == '+') {
+                // the character is required at least once
+                break;
+            }
+            i += length;
+        }
+        return literal.toString();
+    }
+
+    /**
+     * Checks if the regular expression contains an alternation outside of groups, e.g. <code>ERROR|WARN</code>, so
+     * that a match does not have to start with the literal prefix.
+     *
+     * @param regex the regular expression.
+     * @return true if the regular expression contains an alternation outside of groups.
+     */
+    private static boolean hasAlternationOutsideOfGroups(String regex) {
+        int depth = 0;
+        boolean characterClass = false;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (regex.startsWith("Q", i + 1)) {
+                    // skip the quoted text
+                    int end = regex.indexOf("\\E", i + 2);
+                    i = end < 0 ? regex.length() : end + 1;
+                } else {
+                    i++;
+                }
+            } else if (characterClass) {
+                characterClass = c != ']';
+            } else if (c == '[') {
+                characterClass = true;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth <= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
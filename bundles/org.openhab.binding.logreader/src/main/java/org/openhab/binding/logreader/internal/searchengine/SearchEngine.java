@@ -12,9 +12,7 @@
  */
 package org.openhab.binding.logreader.internal.searchengine;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Matcher;
+import java.util.BitSet;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -23,12 +21,17 @@ import org.eclipse.jdt.annotation.Nullable;
 /**
  * This class implements logic for regular expression based searching.
  *
+ * The patterns are registered with a {@link MultiPatternMatcher}, which can be shared by several search engines. The
+ * matcher scans a line once for the literals of all patterns and the engines evaluate only the regular expressions of
+ * the candidate patterns.
+ *
  * @author Pauli Anttila - Initial contribution
  */
 public class SearchEngine {
 
-    private List<Pattern> matchers;
-    private List<Pattern> blacklistingMatchers;
+    private final MultiPatternMatcher multiPatternMatcher;
+    private final BitSet matchers;
+    private final BitSet blacklistingMatchers;
 
     private long matchCount;
 
@@ -40,6 +43,20 @@ public class SearchEngine {
      *
      */
     public SearchEngine(String patterns, String blacklistingPatterns) throws PatternSyntaxException {
+        this(new MultiPatternMatcher(), patterns, blacklistingPatterns);
+    }
+
+    /**
+     * Initialize search patterns and register them with a shared matcher.
+     *
+     * @param multiPatternMatcher matcher which is shared with other search engines.
+     * @param patterns search patterns.
+     * @param blacklistingPatterns search patterns to bypass results which have found by the initial search patterns.
+     *
+     */
+    public SearchEngine(MultiPatternMatcher multiPatternMatcher, String patterns, String blacklistingPatterns)
+            throws PatternSyntaxException {
+        this.multiPatternMatcher = multiPatternMatcher;
         matchers = compilePatterns(patterns);
         blacklistingMatchers = compilePatterns(blacklistingPatterns);
     }
@@ -51,8 +68,19 @@ public class SearchEngine {
      * @return true if one of the search patterns found.
      */
     public boolean isMatching(String data) {
-        if (isMatching(matchers, data)) {
-            if (notBlacklisted(data)) {
+        return isMatching(data, multiPatternMatcher.scan(data));
+    }
+
+    /**
+     * Check if data is matching to one of the provided search patterns.
+     *
+     * @param data data against search will be done.
+     * @param candidates result of {@link MultiPatternMatcher#scan(String)} for the data.
+     * @return true if one of the search patterns found.
+     */
+    public boolean isMatching(String data, BitSet candidates) {
+        if (isMatching(matchers, candidates, data)) {
+            if (notBlacklisted(data, candidates)) {
                 matchCount++;
                 return true;
             }
@@ -76,34 +104,31 @@ public class SearchEngine {
      * Split pattern string and precompile search patterns.
      *
      * @param patterns patterns which will handled.
-     * @return list of precompiled patterns. If pattern parameter is null, empty list is returned.
+     * @return indexes of the precompiled patterns in the matcher. If pattern parameter is null, empty set is returned.
      */
-    private List<Pattern> compilePatterns(@Nullable String patterns) throws PatternSyntaxException {
-        List<Pattern> patternsList = new ArrayList<Pattern>();
+    private BitSet compilePatterns(@Nullable String patterns) throws PatternSyntaxException {
+        BitSet patternsList = new BitSet();
 
         if (patterns != null && !patterns.isEmpty()) {
             String list[] = patterns.split("\\|");
             if (list.length > 0) {
 
                 for (String patternStr : list) {
-                    patternsList.add(Pattern.compile(patternStr));
+                    patternsList.set(multiPatternMatcher.add(Pattern.compile(patternStr)));
                 }
             }
         }
         return patternsList;
     }
 
-    private boolean notBlacklisted(String data) {
-        return !isMatching(blacklistingMatchers, data);
+    private boolean notBlacklisted(String data, BitSet candidates) {
+        return !isMatching(blacklistingMatchers, candidates, data);
     }
 
-    private boolean isMatching(@Nullable List<Pattern> patterns, String data) {
-        if (patterns != null) {
-            for (Pattern pattern : patterns) {
-                Matcher matcher = pattern.matcher(data);
-                if (matcher.find()) {
-                    return true;
-                }
+    private boolean isMatching(BitSet patterns, BitSet candidates, String data) {
+        for (int i = patterns.nextSetBit(0); i >= 0; i = patterns.nextSetBit(i + 1)) {
+            if (candidates.get(i) && multiPatternMatcher.getPattern(i).matcher(data).find()) {
+                return true;
             }
         }
         return false;
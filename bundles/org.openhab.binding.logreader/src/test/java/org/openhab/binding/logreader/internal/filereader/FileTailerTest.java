@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.filereader;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openhab.binding.logreader.internal.filereader.api.FileReaderException;
+import org.openhab.binding.logreader.internal.filereader.api.FileReaderListener;
+
+/**
+ * Test class for the {@link FileTailer} class. The file is polled by the test instead of the scheduler.
+ *
+ * @author agent - Initial contribution
+ */
+public class FileTailerTest {
+
+    private static final String ROTATED = "<rotated>";
+    private static final String NOT_FOUND = "<not found>";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ManualScheduler scheduler = new ManualScheduler();
+    private final FileTailer tailer = new FileTailer();
+    private final List<String> events = new ArrayList<>();
+
+    private File logFile;
+
+    /**
+     * Runs the job of the tailer only when the test polls.
+     */
+    private static class ManualScheduler extends ScheduledThreadPoolExecutor {
+        private Runnable job;
+
+        private ManualScheduler() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay,
+                TimeUnit unit) {
+            job = command;
+            return schedule(() -> {
+            }, 1, TimeUnit.DAYS);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        logFile = new File(folder.getRoot(), "openhab.log");
+        tailer.registerListener(new FileReaderListener() {
+            @Override
+            public void fileNotFound() {
+                events.add(NOT_FOUND);
+            }
+
+            @Override
+            public void fileRotated() {
+                events.add(ROTATED);
+            }
+
+            @Override
+            public void handle(String line) {
+                events.add(line);
+            }
+
+            @Override
+            public void handle(Exception ex) {
+                events.add("<" + ex + ">");
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        tailer.stop();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void existingLinesAreSkipped() throws IOException, FileReaderException {
+        append("old\n");
+        start();
+
+        append("first\r\nsecond\n");
+        poll();
+
+        assertThat(events, is(Arrays.asList("first", "second")));
+    }
+
+    @Test
+    public void partialLastLineIsSentWhenComplete() throws IOException, FileReaderException {
+        start();
+
+        append("first\npar");
+        poll();
+        assertThat(events, is(Arrays.asList("first")));
+
+        append("tial");
+        poll();
+        append("\n");
+        poll();
+        assertThat(events, is(Arrays.asList("first", "partial")));
+    }
+
+    @Test
+    public void longLinesAreSent() throws IOException, FileReaderException {
+        start();
+        char[] chars = new char[200 * 1024];
+        Arrays.fill(chars, 'x');
+        String line = new String(chars);
+
+        append(line + "\nshort\n");
+        poll();
+
+        assertThat(events, is(Arrays.asList(line, "short")));
+    }
+
+    @Test
+    public void truncatedFileIsReadFromTheBeginning() throws IOException, FileReaderException {
+        start();
+        append("first\nsecond\n");
+        poll();
+
+        Files.write(logFile.toPath(), "new\n".getBytes(Charset.defaultCharset()),
+                StandardOpenOption.TRUNCATE_EXISTING);
+        poll();
+
+        assertThat(events, is(Arrays.asList("first", "second", ROTATED, "new")));
+    }
+
+    @Test
+    public void renamedFileIsReadToTheEndAndNewFileFromTheBeginning() throws IOException, FileReaderException {
+        start();
+        append("first\n");
+        poll();
+
+        append("last\n");
+        assertThat(logFile.renameTo(new File(folder.getRoot(), "openhab.log.1")), is(true));
+        append("new\n");
+        poll();
+
+        assertThat(events, is(Arrays.asList("first", "last", ROTATED, "new")));
+    }
+
+    @Test
+    public void recreatedFileIsReadFromTheBeginning() throws IOException, FileReaderException {
+        start();
+        append("first\n");
+        poll();
+
+        Files.delete(logFile.toPath());
+        poll();
+        poll();
+        append("new\n");
+        poll();
+
+        assertThat(events, is(Arrays.asList("first", NOT_FOUND, ROTATED, "new")));
+    }
+
+    private void start() throws IOException, FileReaderException {
+        if (!logFile.exists()) {
+            append("");
+        }
+        tailer.start(logFile.getAbsolutePath(), 1000, scheduler);
+        poll();
+    }
+
+    private void poll() {
+        scheduler.job.run();
+    }
+
+    private void append(String text) throws IOException {
+        Files.write(logFile.toPath(), text.getBytes(Charset.defaultCharset()), StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.searchengine;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.BitSet;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/**
+ * Test class for the {@link MultiPatternMatcher} class.
+ *
+ * @author agent - Initial contribution
+ */
+public class MultiPatternMatcherTest {
+
+    private final MultiPatternMatcher matcher = new MultiPatternMatcher();
+
+    @Test
+    public void plainTextIsTheLiteral() {
+        assertThat(MultiPatternMatcher.requiredLiteral("ERROR"), is("ERROR"));
+        assertThat(MultiPatternMatcher.requiredLiteral("Connection lost"), is("Connection lost"));
+        assertThat(MultiPatternMatcher.requiredLiteral(""), is(""));
+    }
+
+    @Test
+    public void escapedCharactersArePartOfTheLiteral() {
+        assertThat(MultiPatternMatcher.requiredLiteral("\\[WARN \\]"), is("[WARN ]"));
+        assertThat(MultiPatternMatcher.requiredLiteral("a\\.b\\*c"), is("a.b*c"));
+        assertThat(MultiPatternMatcher.requiredLiteral("ERROR\\"), is("ERROR"));
+    }
+
+    @Test
+    public void literalStopsAtEscapeSequences() {
+        assertThat(MultiPatternMatcher.requiredLiteral("ERROR \\d+"), is("ERROR "));
+        assertThat(MultiPatternMatcher.requiredLiteral("\\d+ ERROR"), is(""));
+        assertThat(MultiPatternMatcher.requiredLiteral("\\QERROR\\E"), is(""));
+        assertThat(MultiPatternMatcher.requiredLiteral("\\bERROR"), is(""));
+    }
+
+    @Test
+    public void literalStopsAtMetaCharacters() {
+        assertThat(MultiPatternMatcher.requiredLiteral("ERROR.*failed"), is("ERROR"));
+        assertThat(MultiPatternMatcher.requiredLiteral("ERROR [a-z]"), is("ERROR "));
+        assertThat(MultiPatternMatcher.requiredLiteral(".*ERROR"), is(""));
+        assertThat(MultiPatternMatcher.requiredLiteral("ERROR$"), is("ERROR"));
+    }
+
+    @Test
+    public void optionalCharacterIsNotPartOfTheLiteral() {
+        assertThat(MultiPatternMatcher.requiredLiteral("ERRORS?"), is("ERROR"));
+        assertThat(MultiPatternMatcher.requiredLiteral("ERRORS*"), is("ERROR"));
+        assertThat(MultiPatternMatcher.requiredLiteral("ERRORS{0,2}"), is("ERROR"));
+        assertThat(MultiPatternMatcher.requiredLiteral("ERROR\\]?"), is("ERROR"));
+    }
+
+    @Test
+    public void repeatedCharacterIsPartOfTheLiteralOnce() {
+        assertThat(MultiPatternMatcher.requiredLiteral("ERRORS+ found"), is("ERRORS"));
+        assertThat(MultiPatternMatcher.requiredLiteral("\\[+WARN"), is("["));
+    }
+
+    @Test
+    public void leadingAnchorIsSkipped() {
+        assertThat(MultiPatternMatcher.requiredLiteral("^ERROR"), is("ERROR"));
+        assertThat(MultiPatternMatcher.requiredLiteral("^"), is(""));
+    }
+
+    @Test
+    public void caseInsensitivePatternHasNoLiteral() {
+        assertThat(MultiPatternMatcher.requiredLiteral("(?i)error"), is(""));
+        assertThat(MultiPatternMatcher.requiredLiteral("^(?i)error"), is(""));
+        // the flag does not apply to the text before it
+        assertThat(MultiPatternMatcher.requiredLiteral("ERROR(?i) failed"), is("ERROR"));
+    }
+
+    @Test
+    public void alternationOutsideOfGroupsHasNoLiteral() {
+        assertThat(MultiPatternMatcher.requiredLiteral("ERROR|WARN"), is(""));
+        assertThat(MultiPatternMatcher.requiredLiteral("ERROR (lost|failed)"), is("ERROR "));
+        assertThat(MultiPatternMatcher.requiredLiteral("ERROR [|]"), is("ERROR "));
+        assertThat(MultiPatternMatcher.requiredLiteral("ERROR\\|WARN"), is("ERROR|WARN"));
+        assertThat(MultiPatternMatcher.requiredLiteral("ERROR \\Q(\\E|WARN"), is(""));
+    }
+
+    @Test
+    public void caseInsensitivePatternIsAlwaysCandidate() {
+        int inline = matcher.add(Pattern.compile("(?i)error"));
+        int flag = matcher.add(Pattern.compile("error", Pattern.CASE_INSENSITIVE));
+        int caseSensitive = matcher.add(Pattern.compile("error"));
+
+        BitSet candidates = matcher.scan("An ERROR occurred");
+
+        assertTrue(candidates.get(inline));
+        assertTrue(candidates.get(flag));
+        assertFalse(candidates.get(caseSensitive));
+        assertTrue(matcher.getPattern(inline).matcher("An ERROR occurred").find());
+        assertTrue(matcher.getPattern(flag).matcher("An ERROR occurred").find());
+    }
+
+    @Test
+    public void overlappingLiteralsAreFound() {
+        int he = matcher.add(Pattern.compile("he"));
+        int she = matcher.add(Pattern.compile("she"));
+        int his = matcher.add(Pattern.compile("his"));
+        int hers = matcher.add(Pattern.compile("hers"));
+
+        BitSet candidates = matcher.scan("ushers");
+
+        assertTrue(candidates.get(he));
+        assertTrue(candidates.get(she));
+        assertFalse(candidates.get(his));
+        assertTrue(candidates.get(hers));
+    }
+
+    @Test
+    public void literalIsFoundThroughFailLinks() {
+        int abcd = matcher.add(Pattern.compile("abcd"));
+        int bce = matcher.add(Pattern.compile("bce"));
+        int c = matcher.add(Pattern.compile("c"));
+
+        // the scan fails from "abc" to "bc" and continues with "bce"
+        BitSet candidates = matcher.scan("xabce");
+
+        assertFalse(candidates.get(abcd));
+        assertTrue(candidates.get(bce));
+        assertTrue(candidates.get(c));
+    }
+
+    @Test
+    public void repeatedPrefixIsFound() {
+        int aab = matcher.add(Pattern.compile("aab"));
+        int aaa = matcher.add(Pattern.compile("aaa"));
+
+        assertTrue(matcher.scan("aaab").get(aab));
+        assertTrue(matcher.scan("aaab").get(aaa));
+        assertFalse(matcher.scan("abab").get(aab));
+    }
+
+    @Test
+    public void patternWithoutLiteralIsAlwaysCandidate() {
+        int any = matcher.add(Pattern.compile(".*"));
+        int error = matcher.add(Pattern.compile("ERROR"));
+
+        BitSet candidates = matcher.scan("INFO");
+
+        assertTrue(candidates.get(any));
+        assertFalse(candidates.get(error));
+    }
+
+    @Test
+    public void patternAddedAfterScanIsFound() {
+        int error = matcher.add(Pattern.compile("ERROR"));
+        assertFalse(matcher.scan("WARN").get(error));
+
+        int warn = matcher.add(Pattern.compile("WARN"));
+
+        assertThat(matcher.size(), is(2));
+        assertTrue(matcher.scan("WARN").get(warn));
+        assertTrue(matcher.scan("ERROR").get(error));
+    }
+
+    @Test
+    public void everyMatchingPatternIsCandidate() {
+        String[] regexes = { "^\\[ERROR\\]", "ERROR", "ERRORS?", "(?i)warn", "\\d+ ms", "Connection (lost|failed)",
+                "lost", "s+t", "ERROR|WARN" };
+        String[] lines = { "[ERROR] Connection lost", "2019 WARN took 15 ms", "ERRO", "Connection failed", "sst",
+                "no match" };
+        for (String regex : regexes) {
+            matcher.add(Pattern.compile(regex));
+        }
+
+        for (String line : lines) {
+            BitSet candidates = matcher.scan(line);
+            for (int i = 0; i < matcher.size(); i++) {
+                if (matcher.getPattern(i).matcher(line).find()) {
+                    assertTrue(regexes[i] + " matches " + line, candidates.get(i));
+                }
+            }
+        }
+    }
+}
@@ -16,6 +16,8 @@ import java.io.UnsupportedEncodingException;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
@@ -42,32 +44,55 @@ public class EncryptionHelper {
 
     private final Logger logger = LoggerFactory.getLogger(EncryptionHelper.class);
 
+    // the ciphers initialized with the default IV, by key
+    private final Map<String, Cipher> ciphers = new ConcurrentHashMap<>();
+
     public String encrypt(String text, String key) {
-        return encrypt(text, key, IV);
+        Cipher cipher = ciphers.get(key);
+        if (cipher == null) {
+            cipher = createCipher(key, IV);
+            if (cipher == null) {
+                return "";
+            }
+            ciphers.put(key, cipher);
+        }
+        // a cipher is reset to its initial state after each encryption, but is not thread safe
+        synchronized (cipher) {
+            return encrypt(text, cipher);
+        }
     }
 
     public String encrypt(String text, String key, byte[] iv) {
+        Cipher cipher = createCipher(key, iv);
+        return cipher == null ? "" : encrypt(text, cipher);
+    }
+
+    private Cipher createCipher(String key, byte[] iv) {
         IvParameterSpec vector = new IvParameterSpec(iv);
         Cipher cipher;
         try {
             cipher = Cipher.getInstance("AES/CBC/NoPadding");
         } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
             logger.warn("Failed to construct Cipher");
-            return "";
+            return null;
         }
         SecretKeySpec keySpec;
         try {
             keySpec = new SecretKeySpec(key.getBytes("UTF8"), "AES");
         } catch (UnsupportedEncodingException e) {
             logger.warn("Failed to construct SecretKeySpec");
-            return "";
+            return null;
         }
         try {
             cipher.init(Cipher.ENCRYPT_MODE, keySpec, vector);
         } catch (InvalidKeyException | InvalidAlgorithmParameterException e) {
             logger.warn("Failed to init Cipher");
-            return "";
+            return null;
         }
+        return cipher;
+    }
+
+    private String encrypt(String text, Cipher cipher) {
         byte[] encrypted;
         try {
             encrypted = cipher.doFinal(text.getBytes());
@@ -17,7 +17,6 @@ import static org.openhab.binding.mihome.internal.XiaomiGatewayBindingConstants.
 import java.math.BigDecimal;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -26,6 +25,7 @@ import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.smarthome.config.core.Configuration;
@@ -73,8 +73,9 @@ public class XiaomiBridgeHandler extends ConfigStatusBridgeHandler implements Xi
 
     private final Logger logger = LoggerFactory.getLogger(XiaomiBridgeHandler.class);
 
-    private List<XiaomiItemUpdateListener> itemListeners = new ArrayList<>();
-    private List<XiaomiItemUpdateListener> itemDiscoveryListeners = new ArrayList<>();
+    // the item listeners indexed by the item id, so that messages are only passed to the addressed device
+    private Map<String, List<XiaomiItemUpdateListener>> itemListeners = new ConcurrentHashMap<>();
+    private List<XiaomiItemUpdateListener> itemDiscoveryListeners = new CopyOnWriteArrayList<>();
 
     private String gatewayToken;
     private long lastDiscoveryTime;
@@ -131,8 +132,7 @@ public class XiaomiBridgeHandler extends ConfigStatusBridgeHandler implements Xi
             return;
         }
         logger.debug("Init socket on Port: {}", port);
-        socket = new XiaomiBridgeSocket(port);
-        socket.intialize();
+        socket = XiaomiBridgeSocket.getBridgeSocket(port);
         socket.registerListener(this);
 
         scheduler.schedule(() -> {
@@ -227,21 +227,19 @@ public class XiaomiBridgeHandler extends ConfigStatusBridgeHandler implements Xi
         }
     }
 
-    private synchronized void notifyListeners(String command, JsonObject message) {
-        boolean knownDevice = false;
+    private void notifyListeners(String command, JsonObject message) {
         String sid = message.get("sid").getAsString();
 
         // Not a message to pass to any itemListener
         if (sid == null) {
             return;
         }
-        for (XiaomiItemUpdateListener itemListener : itemListeners) {
-            if (sid.equals(itemListener.getItemId())) {
+        List<XiaomiItemUpdateListener> listeners = itemListeners.get(sid);
+        if (listeners != null && !listeners.isEmpty()) {
+            for (XiaomiItemUpdateListener itemListener : listeners) {
                 itemListener.onItemUpdate(sid, command, message);
-                knownDevice = true;
             }
-        }
-        if (!knownDevice) {
+        } else {
             for (XiaomiItemUpdateListener itemListener : itemDiscoveryListeners) {
                 itemListener.onItemUpdate(sid, command, message);
             }
@@ -255,16 +253,26 @@ public class XiaomiBridgeHandler extends ConfigStatusBridgeHandler implements Xi
         } else if (listener instanceof XiaomiItemDiscoveryService) {
             result = !(itemDiscoveryListeners.contains(listener)) ? itemDiscoveryListeners.add(listener) : false;
             logger.debug("Having {} Item Discovery listeners", itemDiscoveryListeners.size());
+        } else if (listener.getItemId() == null) {
+            // no message is addressed to a listener without item id
+            logger.debug("Not adding item listener {} without item id", listener);
         } else {
             logger.debug("Adding item listener for device {}", listener.getItemId());
-            result = !(itemListeners.contains(listener)) ? itemListeners.add(listener) : false;
+            List<XiaomiItemUpdateListener> listeners = itemListeners.computeIfAbsent(listener.getItemId(),
+                    itemId -> new CopyOnWriteArrayList<>());
+            result = !(listeners.contains(listener)) ? listeners.add(listener) : false;
             logger.debug("Having {} Item listeners", itemListeners.size());
         }
         return result;
     }
 
     public synchronized boolean unregisterItemListener(XiaomiItemUpdateListener listener) {
-        return itemListeners.remove(listener);
+        boolean result = itemDiscoveryListeners.remove(listener);
+        for (List<XiaomiItemUpdateListener> listeners : itemListeners.values()) {
+            result |= listeners.remove(listener);
+        }
+        itemListeners.values().removeIf(List::isEmpty);
+        return result;
     }
 
     private void sendMessageToBridge(String message) {
@@ -16,6 +16,8 @@ import java.io.IOException;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.net.MulticastSocket;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,17 +25,38 @@ import org.slf4j.LoggerFactory;
 /**
  * Takes care of the multicast communication with the bridge.
  *
+ * All bridges using the same port share one socket, so every multicast packet is received and parsed only once and
+ * then passed on to the bridge that sent it.
+ *
  * @author Dieter Schmidt - Initial contribution
  *
  */
 public class XiaomiBridgeSocket extends XiaomiSocket {
 
+    private static final Map<Integer, XiaomiBridgeSocket> BRIDGE_SOCKETS = new HashMap<>();
+
     private final Logger logger = LoggerFactory.getLogger(XiaomiBridgeSocket.class);
 
     public XiaomiBridgeSocket(int port) {
         super(port);
     }
 
+    /**
+     * Returns the {@link XiaomiBridgeSocket} shared by all bridges on the given port.
+     * The socket is set up, when the first listener is registered.
+     *
+     * @param port - the port of the bridges
+     * @return the shared socket
+     */
+    public static synchronized XiaomiBridgeSocket getBridgeSocket(int port) {
+        XiaomiBridgeSocket socket = BRIDGE_SOCKETS.get(port);
+        if (socket == null) {
+            socket = new XiaomiBridgeSocket(port);
+            BRIDGE_SOCKETS.put(port, socket);
+        }
+        return socket;
+    }
+
     /**
      * Sets up the {@link XiaomiBridgeSocket}.
      *
@@ -42,9 +65,6 @@ public class XiaomiBridgeSocket extends XiaomiSocket {
      */
     @Override
     synchronized DatagramSocket setupSocket() {
-        if (getOpenSockets().contains(getPort())) {
-            return getOpenSockets().get(getPort());
-        }
         try {
             logger.debug("Setup socket");
             setSocket(new MulticastSocket(getPort())); // must bind receive side
@@ -17,6 +17,8 @@ import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
@@ -28,65 +30,105 @@ import javax.crypto.spec.SecretKeySpec;
 /**
  * The {@link MiIoCrypto} is responsible for creating Xiaomi messages.
  *
+ * The key and the initialization vector derived from a token are cached. The message digests and the ciphers are
+ * reused by each thread, as they are not thread safe.
+ *
  * @author Marcel Verpaalen - Initial contribution
  */
 public class MiIoCrypto {
 
-    public static byte[] md5(byte[] source) throws MiIoCryptoException {
-        try {
-            MessageDigest m = MessageDigest.getInstance("MD5");
-            return m.digest(source);
-        } catch (NoSuchAlgorithmException e) {
-            throw new MiIoCryptoException(e.getMessage());
+    private static final String CIPHER_TRANSFORMATION = "AES/CBC/PKCS5Padding";
+
+    private static final Map<String, KeyMaterial> KEY_MATERIAL = new ConcurrentHashMap<>();
+    private static final ThreadLocal<MessageDigest> MD5 = new ThreadLocal<>();
+    private static final ThreadLocal<Cipher> CIPHER = new ThreadLocal<>();
+
+    private static class KeyMaterial {
+        private final SecretKeySpec key;
+        private final IvParameterSpec iv;
+
+        private KeyMaterial(byte[] token) throws MiIoCryptoException {
+            key = new SecretKeySpec(md5(token), "AES");
+            iv = new IvParameterSpec(iv(token));
         }
     }
 
-    public static byte[] iv(byte[] token) throws MiIoCryptoException {
-        try {
-            MessageDigest m = MessageDigest.getInstance("MD5");
-            byte[] ivbuf = new byte[32];
-            System.arraycopy(m.digest(token), 0, ivbuf, 0, 16);
-            System.arraycopy(token, 0, ivbuf, 16, 16);
-            return m.digest(ivbuf);
-        } catch (NoSuchAlgorithmException e) {
-            throw new MiIoCryptoException(e.getMessage());
+    private static MessageDigest getMd5() throws MiIoCryptoException {
+        MessageDigest m = MD5.get();
+        if (m == null) {
+            try {
+                m = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                throw new MiIoCryptoException(e.getMessage());
+            }
+            MD5.set(m);
         }
+        return m;
     }
 
-    public static byte[] encrypt(byte[] cipherText, byte[] key, byte[] iv) throws MiIoCryptoException {
+    private static Cipher getCipher() throws MiIoCryptoException {
+        Cipher cipher = CIPHER.get();
+        if (cipher == null) {
+            try {
+                cipher = Cipher.getInstance(CIPHER_TRANSFORMATION);
+            } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+                throw new MiIoCryptoException(e.getMessage());
+            }
+            CIPHER.set(cipher);
+        }
+        return cipher;
+    }
+
+    private static KeyMaterial getKeyMaterial(byte[] token) throws MiIoCryptoException {
+        String tokenKey = Utils.getHex(token);
+        KeyMaterial keyMaterial = KEY_MATERIAL.get(tokenKey);
+        if (keyMaterial == null) {
+            keyMaterial = new KeyMaterial(token);
+            KEY_MATERIAL.put(tokenKey, keyMaterial);
+        }
+        return keyMaterial;
+    }
+
+    private static byte[] doFinal(int mode, byte[] text, SecretKeySpec keySpec, IvParameterSpec vector)
+            throws MiIoCryptoException {
         try {
-            IvParameterSpec vector = new IvParameterSpec(iv);
-            Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
-            SecretKeySpec keySpec = new SecretKeySpec(key, "AES");
-            cipher.init(Cipher.ENCRYPT_MODE, keySpec, vector);
-            byte[] encrypted = cipher.doFinal(cipherText);
-            return encrypted;
-        } catch (InvalidKeyException | NoSuchAlgorithmException | NoSuchPaddingException
-                | InvalidAlgorithmParameterException | IllegalBlockSizeException | BadPaddingException e) {
+            Cipher cipher = getCipher();
+            cipher.init(mode, keySpec, vector);
+            return cipher.doFinal(text);
+        } catch (InvalidKeyException | InvalidAlgorithmParameterException | IllegalBlockSizeException
+                | BadPaddingException e) {
             throw new MiIoCryptoException(e.getMessage());
         }
     }
 
+    public static byte[] md5(byte[] source) throws MiIoCryptoException {
+        return getMd5().digest(source);
+    }
+
+    public static byte[] iv(byte[] token) throws MiIoCryptoException {
+        MessageDigest m = getMd5();
+        byte[] ivbuf = new byte[32];
+        System.arraycopy(m.digest(token), 0, ivbuf, 0, 16);
+        System.arraycopy(token, 0, ivbuf, 16, 16);
+        return m.digest(ivbuf);
+    }
+
+    public static byte[] encrypt(byte[] cipherText, byte[] key, byte[] iv) throws MiIoCryptoException {
+        return doFinal(Cipher.ENCRYPT_MODE, cipherText, new SecretKeySpec(key, "AES"), new IvParameterSpec(iv));
+    }
+
     public static byte[] encrypt(byte[] text, byte[] token) throws MiIoCryptoException {
-        return encrypt(text, md5(token), iv(token));
+        KeyMaterial keyMaterial = getKeyMaterial(token);
+        return doFinal(Cipher.ENCRYPT_MODE, text, keyMaterial.key, keyMaterial.iv);
     }
 
     public static byte[] decrypt(byte[] cipherText, byte[] key, byte[] iv) throws MiIoCryptoException {
-        try {
-            IvParameterSpec vector = new IvParameterSpec(iv);
-            Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
-            SecretKeySpec keySpec = new SecretKeySpec(key, "AES");
-            cipher.init(Cipher.DECRYPT_MODE, keySpec, vector);
-            byte[] crypted = cipher.doFinal(cipherText);
-            return (crypted);
-        } catch (InvalidKeyException | NoSuchAlgorithmException | NoSuchPaddingException
-                | InvalidAlgorithmParameterException | IllegalBlockSizeException | BadPaddingException e) {
-            throw new MiIoCryptoException(e.getMessage());
-        }
+        return doFinal(Cipher.DECRYPT_MODE, cipherText, new SecretKeySpec(key, "AES"), new IvParameterSpec(iv));
     }
 
     public static byte[] decrypt(byte[] cipherText, byte[] token) throws MiIoCryptoException {
-        return decrypt(cipherText, md5(token), iv(token));
+        KeyMaterial keyMaterial = getKeyMaterial(token);
+        return doFinal(Cipher.DECRYPT_MODE, cipherText, keyMaterial.key, keyMaterial.iv);
     }
 
     public static String decryptToken(byte[] cipherText) throws MiIoCryptoException {
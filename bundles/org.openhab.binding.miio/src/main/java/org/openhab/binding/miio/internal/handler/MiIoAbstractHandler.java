@@ -146,6 +146,13 @@ public abstract class MiIoAbstractHandler extends BaseThingHandler implements Mi
             pollingJob.cancel(true);
             pollingJob = null;
         }
+        closeConnection();
+    }
+
+    /**
+     * Closes the communication with the device, if it is open
+     */
+    protected synchronized void closeConnection() {
         if (miioCom != null) {
             lastId = miioCom.getId();
             miioCom.unregisterListener(this);
@@ -283,6 +290,8 @@ public abstract class MiIoAbstractHandler extends BaseThingHandler implements Mi
                     miioCom.registerListener(this);
                     return miioCom;
                 }
+                miioCom.close();
+                miioCom = null;
             } else {
                 logger.debug("No device ID defined. Retrieving Mi device ID");
                 MiIoAsyncCommunication miioCom = new MiIoAsyncCommunication(configuration.host, token, new byte[0],
@@ -302,6 +311,7 @@ public abstract class MiIoAbstractHandler extends BaseThingHandler implements Mi
                     miioCom.registerListener(this);
                     return miioCom;
                 }
+                miioCom.close();
             }
             logger.debug("Ping response from device {} at {} FAILED", configuration.deviceId, configuration.host);
             disconnectedNoResponse();
@@ -237,7 +237,9 @@ public class MiIoBasicHandler extends MiIoAbstractHandler {
     }
 
     @Override
-    protected boolean initializeData() {
+    protected synchronized boolean initializeData() {
+        // a connection may have been opened by a command in the meantime
+        closeConnection();
         miioCom = new MiIoAsyncCommunication(configuration.host, token,
                 Utils.hexStringToByteArray(configuration.deviceId), lastId, configuration.timeout);
         miioCom.registerListener(this);
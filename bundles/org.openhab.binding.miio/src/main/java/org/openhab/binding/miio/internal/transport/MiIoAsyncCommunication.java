@@ -13,20 +13,20 @@
 package org.openhab.binding.miio.internal.transport;
 
 import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
-import java.net.InetAddress;
-import java.net.SocketException;
 import java.net.SocketTimeoutException;
-import java.util.Arrays;
 import java.util.Calendar;
 import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.openhab.binding.miio.internal.Message;
@@ -37,6 +37,7 @@ import org.openhab.binding.miio.internal.MiIoCryptoException;
 import org.openhab.binding.miio.internal.MiIoMessageListener;
 import org.openhab.binding.miio.internal.MiIoSendCommand;
 import org.openhab.binding.miio.internal.Utils;
+import org.openhab.binding.miio.internal.transport.MiIoTransport.Endpoint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,18 +49,21 @@ import com.google.gson.JsonSyntaxException;
 /**
  * The {@link MiIoAsyncCommunication} is responsible for communications with the Mi IO devices
  *
+ * The queued commands are sent one after the other through the shared {@link MiIoTransport}. The responses are
+ * processed on the thread pool of the binding, so no thread is blocked while waiting for a device.
+ *
  * @author Marcel Verpaalen - Initial contribution
  */
 public class MiIoAsyncCommunication {
 
-    private static final int MSG_BUFFER_SIZE = 2048;
+    private static final String THREAD_POOL_NAME = "miio";
 
     private final Logger logger = LoggerFactory.getLogger(MiIoAsyncCommunication.class);
 
     private final String ip;
     private final byte[] token;
     private byte[] deviceId;
-    private DatagramSocket socket;
+    private Endpoint endpoint;
 
     private List<MiIoMessageListener> listeners = new CopyOnWriteArrayList<>();
 
@@ -67,7 +71,9 @@ public class MiIoAsyncCommunication {
     private int timeDelta;
     private int timeStamp;
     private final JsonParser parser;
-    private MessageSenderThread senderThread;
+    private final ExecutorService executor = ThreadPoolManager.getPool(THREAD_POOL_NAME);
+    private boolean sending;
+    private boolean closed;
     private boolean connected;
     private ThingStatusDetail status;
     private int errorCounter;
@@ -85,8 +91,6 @@ public class MiIoAsyncCommunication {
         this.timeout = timeout;
         setId(id);
         parser = new JsonParser();
-        senderThread = new MessageSenderThread();
-        senderThread.start();
     }
 
     protected List<MiIoMessageListener> getListeners() {
@@ -95,7 +99,7 @@ public class MiIoAsyncCommunication {
 
     /**
      * Registers a {@link MiIoMessageListener} to be called back, when data is received.
-     * If no {@link MessageSenderThread} exists, when the method is called, it is being set up.
+     * The sending of the queued commands is resumed, if the communication was closed.
      *
      * @param listener {@link MiIoMessageListener} to be called back
      */
@@ -110,7 +114,7 @@ public class MiIoAsyncCommunication {
 
     /**
      * Unregisters a {@link MiIoMessageListener}. If there are no listeners left,
-     * the {@link MessageSenderThread} is being closed.
+     * the communication is being closed.
      *
      * @param listener {@link MiIoMessageListener} to be unregistered
      */
@@ -149,6 +153,7 @@ public class MiIoAsyncCommunication {
             if (needPing) {
                 sendPing(ip);
             }
+            sendNextCommand();
             return cmdId;
         } catch (JsonSyntaxException e) {
             logger.warn("Send command '{}' with parameters {} -> {} (Device: {}) gave error {}", command, params, ip,
@@ -157,18 +162,18 @@ public class MiIoAsyncCommunication {
         }
     }
 
-    MiIoSendCommand sendMiIoSendCommand(MiIoSendCommand miIoSendCommand) {
+    MiIoSendCommand sendMiIoSendCommand(MiIoSendCommand miIoSendCommand, byte[] sendMsg, byte[] response) {
         String errorMsg = "Unknown Error while sending command";
         String decryptedResponse = "";
         try {
-            decryptedResponse = sendCommand(miIoSendCommand.getCommandString(), token, ip, deviceId);
+            decryptedResponse = processResponse(miIoSendCommand.getCommandString(), sendMsg, response);
             // hack due to avoid invalid json errors from some misbehaving device firmwares
             decryptedResponse = decryptedResponse.replace(",,", ",");
-            JsonElement response;
-            response = parser.parse(decryptedResponse);
-            if (response.isJsonObject()) {
-                logger.trace("Received  JSON message {}", response.toString());
-                miIoSendCommand.setResponse(response.getAsJsonObject());
+            JsonElement jsonResponse;
+            jsonResponse = parser.parse(decryptedResponse);
+            if (jsonResponse.isJsonObject()) {
+                logger.trace("Received  JSON message {}", jsonResponse.toString());
+                miIoSendCommand.setResponse(jsonResponse.getAsJsonObject());
                 return miIoSendCommand;
             } else {
                 errorMsg = "Received message is invalid JSON";
@@ -183,71 +188,98 @@ public class MiIoAsyncCommunication {
                     miIoSendCommand.getCommandString(), Utils.getHex(deviceId), e.getMessage());
             errorMsg = "Received message is invalid JSON";
         }
+        return sendMiIoSendCommandFailed(miIoSendCommand, errorMsg);
+    }
+
+    private MiIoSendCommand sendMiIoSendCommandFailed(MiIoSendCommand miIoSendCommand, String errorMsg) {
         JsonObject erroResp = new JsonObject();
         erroResp.addProperty("error", errorMsg);
         miIoSendCommand.setResponse(erroResp);
         return miIoSendCommand;
     }
 
+    /**
+     * Resumes the sending of the queued commands.
+     */
     public synchronized void startReceiver() {
-        if (senderThread == null) {
-            senderThread = new MessageSenderThread();
-        }
-        if (!senderThread.isAlive()) {
-            senderThread.start();
-        }
+        closed = false;
+        sendNextCommand();
     }
 
     /**
-     * The {@link MessageSenderThread} is responsible for consuming messages from the queue and sending these to the
-     * device
-     *
+     * Sends the next queued command, unless a command is being sent. The response is processed on the thread pool,
+     * after which the next command is sent.
      */
-    private class MessageSenderThread extends Thread {
-        public MessageSenderThread() {
-            super("Mi IO MessageSenderThread");
-            setDaemon(true);
+    private void sendNextCommand() {
+        MiIoSendCommand queuedMessage;
+        synchronized (this) {
+            if (sending || closed) {
+                return;
+            }
+            queuedMessage = concurrentLinkedQueue.poll();
+            if (queuedMessage == null) {
+                return;
+            }
+            sending = true;
         }
-
-        @Override
-        public void run() {
-            logger.debug("Starting Mi IO MessageSenderThread");
-            while (!interrupted()) {
-                try {
-                    if (concurrentLinkedQueue.isEmpty()) {
-                        Thread.sleep(100);
-                        continue;
-                    }
-                    MiIoSendCommand queuedMessage = concurrentLinkedQueue.remove();
-                    MiIoSendCommand miIoSendCommand = sendMiIoSendCommand(queuedMessage);
-                    for (MiIoMessageListener listener : listeners) {
-                        logger.trace("inform listener {}, data {} from {}", listener, queuedMessage, miIoSendCommand);
-                        try {
-                            listener.onMessageReceived(miIoSendCommand);
-                        } catch (Exception e) {
-                            logger.debug("Could not inform listener {}: {}: ", listener, e.getMessage(), e);
-                        }
+        byte[] sendMsg = new byte[0];
+        CompletableFuture<byte[]> response;
+        try {
+            sendMsg = createMsgData(queuedMessage.getCommandString());
+            response = getEndpoint().request(sendMsg, timeout);
+        } catch (MiIoCryptoException | IOException e) {
+            response = new CompletableFuture<>();
+            response.completeExceptionally(e);
+        }
+        byte[] finalSendMsg = sendMsg;
+        response.whenCompleteAsync((data, error) -> {
+            try {
+                MiIoSendCommand miIoSendCommand = commandResponseReceived(queuedMessage, finalSendMsg, data, error);
+                for (MiIoMessageListener listener : listeners) {
+                    logger.trace("inform listener {}, data {} from {}", listener, queuedMessage, miIoSendCommand);
+                    try {
+                        listener.onMessageReceived(miIoSendCommand);
+                    } catch (Exception e) {
+                        logger.debug("Could not inform listener {}: {}: ", listener, e.getMessage(), e);
                     }
-                } catch (NoSuchElementException e) {
-                    // ignore
-                } catch (InterruptedException e) {
-                    // That's our signal to stop
-                    break;
-                } catch (Exception e) {
-                    logger.warn("Error while polling/sending message", e);
                 }
+            } catch (Exception e) {
+                logger.warn("Error while polling/sending message", e);
+            } finally {
+                synchronized (this) {
+                    sending = false;
+                }
+                sendNextCommand();
             }
-            logger.debug("Finished Mi IO MessageSenderThread");
+        }, executor);
+    }
+
+    private MiIoSendCommand commandResponseReceived(MiIoSendCommand miIoSendCommand, byte[] sendMsg,
+            byte[] response, Throwable error) {
+        if (error == null) {
+            return sendMiIoSendCommand(miIoSendCommand, sendMsg, response);
+        }
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        if (cause instanceof SocketTimeoutException) {
+            logger.debug("Communication error for Mi device at {}: {}", ip, cause.getMessage());
+            needPing = true;
+            return sendMiIoSendCommand(miIoSendCommand, sendMsg, new byte[0]);
         }
+        logger.debug("Send command '{}'  -> {} (Device: {}) gave error {}", miIoSendCommand.getCommandString(), ip,
+                Utils.getHex(deviceId), cause.getMessage());
+        return sendMiIoSendCommandFailed(miIoSendCommand, cause.getMessage());
     }
 
-    private String sendCommand(String command, byte[] token, String ip, byte[] deviceId)
-            throws MiIoCryptoException, IOException {
+    private byte[] createMsgData(String command) throws MiIoCryptoException {
         byte[] encr;
         encr = MiIoCrypto.encrypt(command.getBytes(), token);
         timeStamp = (int) TimeUnit.MILLISECONDS.toSeconds(Calendar.getInstance().getTime().getTime());
-        byte[] sendMsg = Message.createMsgData(encr, token, deviceId, timeStamp + timeDelta);
-        Message miIoResponseMsg = sendData(sendMsg, ip);
+        return Message.createMsgData(encr, token, deviceId, timeStamp + timeDelta);
+    }
+
+    private String processResponse(String command, byte[] sendMsg, byte[] response)
+            throws MiIoCryptoException, IOException {
+        Message miIoResponseMsg = parseResponse(response);
         if (miIoResponseMsg == null) {
             if (logger.isTraceEnabled()) {
                 logger.trace("No response from device {} at {} for command {}.\r\n{}", Utils.getHex(deviceId), ip,
@@ -258,7 +290,7 @@ public class MiIoAsyncCommunication {
             errorCounter++;
             if (errorCounter > MAX_ERRORS) {
                 status = ThingStatusDetail.CONFIGURATION_ERROR;
-                sendPing(ip);
+                sendPingAsync(1);
             }
             return "{\"error\":\"No Response\"}";
         }
@@ -291,6 +323,33 @@ public class MiIoAsyncCommunication {
         return null;
     }
 
+    /**
+     * Sends a ping without blocking the calling thread. The ping is queued on the endpoint like a command and is
+     * repeated up to three times, if the device does not respond.
+     *
+     * @param attempt the number of the attempt
+     */
+    private void sendPingAsync(int attempt) {
+        logger.debug("Sending Ping {} ({})", Utils.getHex(deviceId), ip);
+        CompletableFuture<byte[]> response;
+        try {
+            response = getEndpoint().request(MiIoBindingConstants.DISCOVER_STRING, timeout);
+        } catch (IOException e) {
+            logger.debug("Could not send Ping {} ({}): {}", Utils.getHex(deviceId), ip, e.getMessage());
+            pingFail();
+            return;
+        }
+        response.whenCompleteAsync((data, error) -> {
+            if (error == null && parseResponse(data) != null) {
+                pingSuccess();
+            } else if (attempt < 3) {
+                sendPingAsync(attempt + 1);
+            } else {
+                pingFail();
+            }
+        }, executor);
+    }
+
     private void pingFail() {
         logger.debug("Ping {} ({}) failed", Utils.getHex(deviceId), ip);
         connected = false;
@@ -326,7 +385,10 @@ public class MiIoAsyncCommunication {
     }
 
     private Message sendData(byte[] sendMsg, String ip) throws IOException {
-        byte[] response = comms(sendMsg, ip);
+        return parseResponse(comms(sendMsg, ip));
+    }
+
+    private Message parseResponse(byte[] response) {
         if (response.length >= 32) {
             Message miIoResponse = new Message(response);
             timeStamp = (int) TimeUnit.MILLISECONDS.toSeconds(Calendar.getInstance().getTime().getTime());
@@ -339,47 +401,42 @@ public class MiIoAsyncCommunication {
         }
     }
 
-    private synchronized byte[] comms(byte[] message, String ip) throws IOException {
-        InetAddress ipAddress = InetAddress.getByName(ip);
-        DatagramSocket clientSocket = getSocket();
-        DatagramPacket receivePacket = new DatagramPacket(new byte[MSG_BUFFER_SIZE], MSG_BUFFER_SIZE);
+    private byte[] comms(byte[] message, String ip) throws IOException {
+        logger.trace("Connection {}", ip);
+        CompletableFuture<byte[]> response = getEndpoint().request(message, timeout);
         try {
-            logger.trace("Connection {}:{}", ip, clientSocket.getLocalPort());
-            byte[] sendData = new byte[MSG_BUFFER_SIZE];
-            sendData = message;
-            DatagramPacket sendPacket = new DatagramPacket(sendData, sendData.length, ipAddress,
-                    MiIoBindingConstants.PORT);
-            clientSocket.send(sendPacket);
-            sendPacket.setData(new byte[MSG_BUFFER_SIZE]);
-            clientSocket.receive(receivePacket);
-            byte[] response = Arrays.copyOfRange(receivePacket.getData(), receivePacket.getOffset(),
-                    receivePacket.getOffset() + receivePacket.getLength());
-            return response;
-        } catch (SocketTimeoutException e) {
-            logger.debug("Communication error for Mi device at {}: {}", ip, e.getMessage());
+            // the request may have to wait for the pending request of the endpoint before it is sent
+            return response.get(2L * timeout, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SocketTimeoutException) {
+                logger.debug("Communication error for Mi device at {}: {}", ip, e.getCause().getMessage());
+                needPing = true;
+                return new byte[0];
+            }
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            logger.debug("No response of Mi device at {} within {} ms", ip, 2L * timeout);
+            response.cancel(false);
             needPing = true;
             return new byte[0];
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the response of " + ip);
         }
     }
 
-    private DatagramSocket getSocket() throws SocketException {
-        if (socket == null || socket.isClosed()) {
-            socket = new DatagramSocket();
-            socket.setSoTimeout(timeout);
-            return socket;
-        } else {
-            return socket;
+    private synchronized Endpoint getEndpoint() throws IOException {
+        if (endpoint == null) {
+            endpoint = MiIoTransport.getInstance().register(ip);
         }
+        return endpoint;
     }
 
-    public void close() {
-        try {
-            if (socket != null) {
-                socket.close();
-            }
-            senderThread.interrupt();
-        } catch (Exception e) {
-            logger.debug("Error while closing ", e.getMessage());
+    public synchronized void close() {
+        closed = true;
+        if (endpoint != null) {
+            endpoint.close();
+            endpoint = null;
         }
     }
 
@@ -0,0 +1,420 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.miio.internal.transport;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.miio.internal.MiIoBindingConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link MiIoTransport} multiplexes the communication with all Mi IO devices over a single datagram channel.
+ *
+ * Every device has its own request queue. The requests of a device are sent one after the other, the next request is
+ * sent when the response of the previous request is received or it timed out. A single selector thread sends the
+ * requests of all devices and dispatches the responses by the address of the device. Every registration returns an
+ * {@link Endpoint}, registrations of the same address share the request queue of the device.
+ *
+ * The channel and the selector thread are opened when the first endpoint is registered and closed when the last
+ * endpoint is closed. If the selector thread stops because of an error, the requests of all endpoints are failed and
+ * the channel is reopened by the next request or registration.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MiIoTransport {
+
+    private static final String THREAD_NAME = "OH-binding-miio-transport";
+    private static final int MSG_BUFFER_SIZE = 2048;
+
+    private static final MiIoTransport INSTANCE = new MiIoTransport();
+
+    private final Logger logger = LoggerFactory.getLogger(MiIoTransport.class);
+
+    private final List<Device> devices = new CopyOnWriteArrayList<>();
+    private final Map<InetSocketAddress, Device> addressDevices = new ConcurrentHashMap<>();
+
+    private volatile @Nullable DatagramChannel channel;
+    private volatile @Nullable Selector selector;
+    private volatile @Nullable Thread selectorThread;
+
+    // only used by the selector thread
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocate(MSG_BUFFER_SIZE);
+
+    private static class Request {
+        private final byte[] message;
+        private final long timeout;
+        private final CompletableFuture<byte[]> response = new CompletableFuture<>();
+        private long deadline;
+
+        private Request(byte[] message, long timeout) {
+            this.message = message;
+            this.timeout = timeout;
+        }
+    }
+
+    /**
+     * A registration of a device. It has to be closed when it is no longer used.
+     */
+    public class Endpoint {
+
+        private final Device device;
+        // written by the transport
+        private volatile boolean closed;
+
+        private Endpoint(Device device) {
+            this.device = device;
+        }
+
+        /**
+         * Queues a request for the device. The returned future is completed on the selector thread with the
+         * response or exceptionally with a {@link SocketTimeoutException}, if the device did not respond in time.
+         *
+         * @param message the message to send
+         * @param timeout the time in ms to wait for the response
+         * @return the future response
+         */
+        public CompletableFuture<byte[]> request(byte[] message, int timeout) {
+            if (closed) {
+                CompletableFuture<byte[]> response = new CompletableFuture<>();
+                response.completeExceptionally(new IOException("The connection to " + device.address + " is closed"));
+                return response;
+            }
+            return device.request(message, timeout);
+        }
+
+        public void close() {
+            unregister(this);
+        }
+    }
+
+    /**
+     * The request queue of a single device, shared by all endpoints registered for its address.
+     */
+    private class Device {
+
+        private final InetSocketAddress address;
+        private final Queue<Request> requests = new ArrayDeque<>();
+        private @Nullable Request pendingRequest;
+        // number of open endpoints, guarded by the transport
+        private int references;
+
+        private Device(InetSocketAddress address) {
+            this.address = address;
+        }
+
+        private CompletableFuture<byte[]> request(byte[] message, int timeout) {
+            Request request = new Request(message, TimeUnit.MILLISECONDS.toNanos(timeout));
+            synchronized (this) {
+                requests.add(request);
+            }
+            Selector localSelector = null;
+            if (devices.contains(this)) {
+                try {
+                    localSelector = reopen();
+                } catch (IOException e) {
+                    fail(e);
+                    return request.response;
+                }
+            }
+            if (localSelector == null) {
+                fail(new IOException("The connection to " + address + " is closed"));
+            } else {
+                localSelector.wakeup();
+            }
+            return request.response;
+        }
+
+        private synchronized @Nullable Request nextRequest() {
+            if (pendingRequest != null) {
+                return null;
+            }
+            pendingRequest = requests.poll();
+            return pendingRequest;
+        }
+
+        private void complete(byte[] response) {
+            Request request;
+            synchronized (this) {
+                request = pendingRequest;
+                pendingRequest = null;
+            }
+            if (request != null) {
+                request.response.complete(response);
+            } else {
+                logger.trace("Ignoring unexpected message from {}", address);
+            }
+        }
+
+        private void expire(long now) {
+            Request request;
+            synchronized (this) {
+                request = pendingRequest;
+                if (request == null || now - request.deadline < 0) {
+                    return;
+                }
+                pendingRequest = null;
+            }
+            request.response.completeExceptionally(new SocketTimeoutException("Receive timed out"));
+        }
+
+        private synchronized long getDeadline(long deadline) {
+            Request request = pendingRequest;
+            if (request != null && (deadline == 0 || request.deadline - deadline < 0)) {
+                return request.deadline;
+            }
+            return deadline;
+        }
+
+        private void fail(IOException e) {
+            Request request;
+            while ((request = nextFailedRequest()) != null) {
+                request.response.completeExceptionally(e);
+            }
+        }
+
+        private synchronized @Nullable Request nextFailedRequest() {
+            Request request = pendingRequest;
+            if (request != null) {
+                pendingRequest = null;
+                return request;
+            }
+            return requests.poll();
+        }
+    }
+
+    private MiIoTransport() {
+        // use getInstance()
+    }
+
+    public static MiIoTransport getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers an endpoint for a device and opens the channel if necessary. If the address is registered already,
+     * the endpoints share the request queue of the device, which is removed when the last of them is closed.
+     *
+     * @param host the host name or IP address of the device
+     * @return the endpoint that has to be closed when it is no longer used
+     * @throws IOException if the host can't be resolved or the channel can't be opened
+     */
+    public synchronized Endpoint register(String host) throws IOException {
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getByName(host), MiIoBindingConstants.PORT);
+        if (selectorThread == null) {
+            open();
+        }
+        Device device = addressDevices.get(address);
+        if (device == null) {
+            device = new Device(address);
+            devices.add(device);
+            addressDevices.put(address, device);
+        }
+        device.references++;
+        logger.debug("Registered {} with the Mi IO transport ({} endpoints for {} devices)", address,
+                device.references, devices.size());
+        return new Endpoint(device);
+    }
+
+    private synchronized void unregister(Endpoint endpoint) {
+        if (endpoint.closed) {
+            return;
+        }
+        endpoint.closed = true;
+        Device device = endpoint.device;
+        if (--device.references > 0) {
+            logger.debug("Closed an endpoint of {} ({} remaining)", device.address, device.references);
+            return;
+        }
+        devices.remove(device);
+        addressDevices.remove(device.address);
+        device.fail(new IOException("The connection to " + device.address + " is closed"));
+        logger.debug("Unregistered {} from the Mi IO transport ({} devices)", device.address, devices.size());
+        if (devices.isEmpty()) {
+            close();
+        }
+    }
+
+    /**
+     * Opens the channel again, if the selector thread has stopped because of an error.
+     *
+     * @return the selector or null if the last endpoint has been closed in the meantime
+     */
+    private synchronized @Nullable Selector reopen() throws IOException {
+        if (selectorThread == null && !devices.isEmpty()) {
+            open();
+        }
+        return selector;
+    }
+
+    /**
+     * Resets the state of the selector thread, unless it has been closed or replaced already.
+     *
+     * @return true if the selector thread stopped unexpectedly
+     */
+    private synchronized boolean selectorStopped(Thread thread) {
+        if (selectorThread != thread) {
+            return false;
+        }
+        channel = null;
+        selector = null;
+        selectorThread = null;
+        return true;
+    }
+
+    @SuppressWarnings("resource")
+    private void open() throws IOException {
+        Selector localSelector = Selector.open();
+        DatagramChannel localChannel = null;
+        try {
+            localChannel = DatagramChannel.open(StandardProtocolFamily.INET);
+            localChannel.configureBlocking(false);
+            localChannel.bind(new InetSocketAddress(0));
+            localChannel.register(localSelector, SelectionKey.OP_READ);
+        } catch (IOException e) {
+            closeQuietly(localChannel, localSelector);
+            throw e;
+        }
+
+        logger.debug("Opened the Mi IO channel on {}", localChannel.getLocalAddress());
+        DatagramChannel finalChannel = localChannel;
+        Thread thread = new Thread(() -> run(localSelector, finalChannel), THREAD_NAME);
+        thread.setDaemon(true);
+        channel = localChannel;
+        selector = localSelector;
+        selectorThread = thread;
+        thread.start();
+    }
+
+    private void close() {
+        Selector localSelector = selector;
+        channel = null;
+        selector = null;
+        selectorThread = null;
+        if (localSelector != null) {
+            // the selector thread closes the channel and the selector
+            localSelector.wakeup();
+        }
+    }
+
+    private void closeQuietly(@Nullable DatagramChannel localChannel, Selector localSelector) {
+        try {
+            if (localChannel != null) {
+                localChannel.close();
+            }
+            localSelector.close();
+        } catch (IOException e) {
+            logger.debug("{} while closing the Mi IO channel: {}", e.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    private void run(Selector localSelector, DatagramChannel localChannel) {
+        Thread currentThread = Thread.currentThread();
+        try {
+            long deadline = 0;
+            while (selectorThread == currentThread) {
+                long timeout = 0;
+                if (deadline != 0) {
+                    timeout = Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()) + 1);
+                }
+                localSelector.select(timeout);
+                localSelector.selectedKeys().clear();
+                receiveResponses(localChannel);
+                deadline = sendRequests(localChannel);
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            logger.warn("{} while selecting Mi IO messages: {}", e.getClass().getSimpleName(), e.getMessage());
+        } finally {
+            closeQuietly(localChannel, localSelector);
+            logger.debug("Closed the Mi IO channel");
+            if (selectorStopped(currentThread)) {
+                IOException e = new IOException("The Mi IO channel has been closed after an error");
+                for (Device device : devices) {
+                    device.fail(e);
+                }
+            }
+        }
+    }
+
+    private void receiveResponses(DatagramChannel localChannel) {
+        while (true) {
+            receiveBuffer.clear();
+            InetSocketAddress address;
+            try {
+                address = (InetSocketAddress) localChannel.receive(receiveBuffer);
+            } catch (IOException e) {
+                logger.debug("{} while receiving a Mi IO message: {}", e.getClass().getSimpleName(), e.getMessage());
+                return;
+            }
+            if (address == null) {
+                return;
+            }
+            Device device = addressDevices.get(address);
+            if (device != null) {
+                device.complete(Arrays.copyOf(receiveBuffer.array(), receiveBuffer.position()));
+            } else {
+                logger.trace("Ignoring message from unknown device {}", address);
+            }
+        }
+    }
+
+    /**
+     * Expires the pending requests that timed out and sends the next request of every idle device.
+     *
+     * @return the earliest deadline of the pending requests or 0 if there are none
+     */
+    private long sendRequests(DatagramChannel localChannel) {
+        long now = System.nanoTime();
+        long deadline = 0;
+        for (Device device : devices) {
+            device.expire(now);
+            Request request = device.nextRequest();
+            if (request != null) {
+                request.deadline = now + request.timeout;
+                try {
+                    // datagrams are small, a non-blocking channel only fails to send them if the buffer is full
+                    if (localChannel.send(ByteBuffer.wrap(request.message), device.address) == 0) {
+                        logger.debug("Could not send message to {}, the send buffer is full", device.address);
+                    }
+                } catch (IOException e) {
+                    logger.debug("{} while sending a message to {}: {}", e.getClass().getSimpleName(),
+                            device.address, e.getMessage());
+                }
+            }
+            deadline = device.getDeadline(deadline);
+        }
+        return deadline;
+    }
+
+}
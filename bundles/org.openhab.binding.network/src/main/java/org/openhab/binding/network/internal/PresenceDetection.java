@@ -20,16 +20,13 @@ import java.net.UnknownHostException;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.cache.ExpiringCache;
-import org.openhab.binding.network.internal.dhcp.DHCPListenService;
 import org.openhab.binding.network.internal.dhcp.IPRequestReceivedCallback;
 import org.openhab.binding.network.internal.toberemoved.cache.ExpiringCacheAsync;
 import org.openhab.binding.network.internal.utils.NetworkUtils;
@@ -51,6 +48,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     public static final int DESTINATION_TTL = 300 * 1000; // in ms, 300 s
 
     NetworkUtils networkUtils = new NetworkUtils();
+    PresenceDetectionEngine engine = PresenceDetectionEngine.getInstance();
     private final Logger logger = LoggerFactory.getLogger(PresenceDetection.class);
 
     /// Configuration variables
@@ -66,6 +64,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     private long refreshIntervalInMS = 60000;
     private int timeoutInMS = 5000;
     private long lastSeenInMS;
+    private long lastDhcpRequestInMS;
 
     private @NonNullByDefault({}) String hostname;
     private @NonNullByDefault({}) ExpiringCache<@Nullable InetAddress> destination;
@@ -74,7 +73,6 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     /// State variables (cannot be final because of test dependency injections)
     ExpiringCacheAsync<PresenceDetectionValue> cache;
     private final PresenceDetectionListener updateListener;
-    private @Nullable ScheduledFuture<?> refreshJob;
     protected @Nullable ExecutorService executorService;
     private String dhcpState = "off";
     Integer currentCheck = 0;
@@ -160,16 +158,25 @@ public class PresenceDetection implements IPRequestReceivedCallback {
             ipPingState = "Disabled";
             pingMethod = null;
         } else if (useSystemPing) {
-            final IpPingMethodEnum pingMethod = networkUtils.determinePingMethod();
-            this.pingMethod = pingMethod;
-            ipPingState = pingMethod == IpPingMethodEnum.JAVA_PING ? "System ping feature test failed. Using Java ping"
-                    : pingMethod.name();
+            setIcmpPingMethod(networkUtils.determinePingMethod());
         } else {
             pingMethod = IpPingMethodEnum.JAVA_PING;
             ipPingState = "Java ping";
         }
     }
 
+    /**
+     * Sets a system ping method, that has already been determined by {@link NetworkUtils#determinePingMethod()}.
+     * No feature test is performed.
+     *
+     * @param pingMethod The system ping method or JAVA_PING, if the feature test failed.
+     */
+    public void setIcmpPingMethod(IpPingMethodEnum pingMethod) {
+        this.pingMethod = pingMethod;
+        ipPingState = pingMethod == IpPingMethodEnum.JAVA_PING ? "System ping feature test failed. Using Java ping"
+                : pingMethod.name();
+    }
+
     /**
      * Enables or disables ARP pings. Will be automatically disabled if the destination
      * is not an IPv4 address. If the feature test for the native arping utility fails,
@@ -271,14 +278,21 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         cache.getValue(callback);
     }
 
+    /**
+     * Returns an executor for the given number of checks. The checks share the probe threads of the
+     * {@link PresenceDetectionEngine}.
+     */
     public ExecutorService getThreadsFor(int threadCount) {
-        return Executors.newFixedThreadPool(threadCount);
+        return engine.newDetectionExecutor(threadCount);
     }
 
     /**
      * Perform a presence detection with ICMP-, ARP ping and
-     * TCP connection attempts simultaneously. A fixed thread pool will be created with as many
-     * thread as necessary to perform all tests at once.
+     * TCP connection attempts simultaneously. The checks are executed on the probe threads
+     * of the {@link PresenceDetectionEngine}.
+     *
+     * ICMP and ARP pings are skipped, if a DHCP request of the device has been received within
+     * the refresh interval. The device is known to be present then and no ping processes are spawned.
      *
      * This is a NO-OP, if there is already an ongoing detection or if the cached value
      * is not expired yet.
@@ -315,50 +329,70 @@ public class PresenceDetection implements IPRequestReceivedCallback {
             detectionChecks += interfaceNames.size();
         }
 
+        boolean seenByDhcp = isSeenByDhcp(System.currentTimeMillis());
+        if (seenByDhcp) {
+            logger.trace("Skipping ping presence detection for {}, a DHCP request has been received", hostname);
+            interfaceNames = null;
+            detectionChecks = tcpPorts.size();
+        }
+
         if (detectionChecks == 0) {
+            if (seenByDhcp) {
+                submitDhcpResult();
+                return true;
+            }
             return false;
         }
 
         final ExecutorService executorService = getThreadsFor(detectionChecks);
         this.executorService = executorService;
 
+        // The probe threads are shared, so a check that fails unexpectedly must still be counted
         for (Integer tcpPort : tcpPorts) {
             executorService.execute(() -> {
-                Thread.currentThread().setName("presenceDetectionTCP_" + hostname + " " + String.valueOf(tcpPort));
-                performServicePing(tcpPort);
-                checkIfFinished();
+                try {
+                    performServicePing(tcpPort);
+                } finally {
+                    checkIfFinished();
+                }
             });
         }
 
         // ARP ping for IPv4 addresses. Use single executor for Windows tool and 
         // each own executor for each network interface for other tools
-        if (arpPingMethod == ArpPingUtilEnum.ELI_FULKERSON_ARP_PING_FOR_WINDOWS) {
+        if (arpPingMethod == ArpPingUtilEnum.ELI_FULKERSON_ARP_PING_FOR_WINDOWS && !seenByDhcp) {
             executorService.execute(() -> {
-               Thread.currentThread().setName("presenceDetectionARP_" + hostname + " ");
-               // arp-ping.exe tool capable of handling multiple interfaces by itself
-               performARPping("");
-               checkIfFinished();
+                try {
+                    // arp-ping.exe tool capable of handling multiple interfaces by itself
+                    performARPping("");
+                } finally {
+                    checkIfFinished();
+                }
             });
         } else if (interfaceNames != null) {                        
             for (final String interfaceName : interfaceNames) {
                 executorService.execute(() -> {
-                   Thread.currentThread().setName("presenceDetectionARP_" + hostname + " " + interfaceName);
-                   performARPping(interfaceName);
-                   checkIfFinished();
-               });               
+                    try {
+                        performARPping(interfaceName);
+                    } finally {
+                        checkIfFinished();
+                    }
+                });
             }
         }
 
         // ICMP ping
-        if (pingMethod != null) {
+        if (pingMethod != null && !seenByDhcp) {
             executorService.execute(() -> {
-                if (pingMethod != IpPingMethodEnum.JAVA_PING) {
-                    Thread.currentThread().setName("presenceDetectionICMP_" + hostname);
-                    performSystemPing();
-                } else {
-                    performJavaPing();
+                try {
+                    if (pingMethod != IpPingMethodEnum.JAVA_PING) {
+                        performSystemPing();
+                    } else {
+                        performJavaPing();
+                    }
+                } finally {
+                    checkIfFinished();
                 }
-                checkIfFinished();
             });
         }
 
@@ -390,7 +424,12 @@ public class PresenceDetection implements IPRequestReceivedCallback {
 
         // The cache will be expired by now if cache_time < timeoutInMS. But the device might be actually reachable.
         // Therefore use lastSeenInMS here and not cache.isExpired() to determine if we got a ping response.
-        if (lastSeenInMS + timeoutInMS + 100 < System.currentTimeMillis()) {
+        // The pings are skipped for a device that sent a DHCP request within the refresh interval, that request
+        // counts as a response then.
+        long now = System.currentTimeMillis();
+        if (isSeenByDhcp(now)) {
+            v = getDhcpValue();
+        } else if (lastSeenInMS + timeoutInMS + 100 < now) {
             // We haven't seen the device in the detection process
             v = new PresenceDetectionValue(hostname, -1);
         } else {
@@ -406,6 +445,66 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         updateListener.finalDetectionResult(v);
     }
 
+    /**
+     * Submits the final result of the ongoing detection process after the timeout, if its checks have not
+     * finished by then. Used by the {@link PresenceDetectionEngine} instead of {@link #waitForPresenceDetection()},
+     * because the batched refresh must not block while the checks are running.
+     *
+     * @param scheduler The scheduler for the timeout.
+     */
+    synchronized void scheduleFinalResult(ScheduledExecutorService scheduler) {
+        ExecutorService service = executorService;
+        if (service != null) {
+            scheduleFinalResult(scheduler, service, timeoutInMS + 100);
+        }
+    }
+
+    private void scheduleFinalResult(ScheduledExecutorService scheduler, ExecutorService service, long delayInMS) {
+        scheduler.schedule(() -> submitFinalResult(scheduler, service), delayInMS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Submits the final result of the given detection process, if it is still ongoing and all of its checks have had
+     * the timeout to finish. The timeout of a check starts when a probe thread picks it up, so a device is not
+     * reported as unreachable just because the probe threads were busy with the checks of other devices.
+     */
+    private synchronized void submitFinalResult(ScheduledExecutorService scheduler, ExecutorService service) {
+        if (executorService != service) {
+            return;
+        }
+        long timeLeft = engine.getCheckTimeLeft(service, timeoutInMS + 100);
+        if (timeLeft > 0) {
+            logger.trace("Checks for {} have not had the timeout to finish yet, waiting another {} ms", hostname,
+                    timeLeft);
+            scheduleFinalResult(scheduler, service, timeLeft);
+            return;
+        }
+        submitFinalResult();
+    }
+
+    /**
+     * Submits the value of the last DHCP request as final result, if no check is necessary
+     * because a DHCP request has been received within the refresh interval.
+     */
+    private synchronized void submitDhcpResult() {
+        PresenceDetectionValue v = getDhcpValue();
+        cache.setValue(v);
+        updateListener.finalDetectionResult(v);
+    }
+
+    private boolean isSeenByDhcp(long now) {
+        return lastDhcpRequestInMS + refreshIntervalInMS > now;
+    }
+
+    private PresenceDetectionValue getDhcpValue() {
+        PresenceDetectionValue v = cache.getExpiredValue();
+        if (!v.isReachable()) {
+            v = new PresenceDetectionValue(hostname, 0);
+            v.addType(PresenceDetectionType.DHCP_REQUEST);
+        }
+        return v;
+    }
+
     /**
      * This method is called after each individual check and increases a check counter.
      * If the counter equals the total checks,the final result is submitted. This will
@@ -562,40 +661,33 @@ public class PresenceDetection implements IPRequestReceivedCallback {
 
     @Override
     public void dhcpRequestReceived(String ipAddress) {
+        lastDhcpRequestInMS = System.currentTimeMillis();
         PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.DHCP_REQUEST, 0);
         updateListener.partialDetectionResult(v);
     }
 
     /**
-     * Start/Restart a fixed scheduled runner to update the devices reach-ability state.
+     * Start/Restart updating the devices reach-ability state periodically. The device is refreshed
+     * together with all other devices of the same refresh interval by the {@link PresenceDetectionEngine}.
      *
      * @param scheduledExecutorService A scheduler to run pings periodically.
      */
     public void startAutomaticRefresh(ScheduledExecutorService scheduledExecutorService) {
-        ScheduledFuture<?> future = refreshJob;
-        if (future != null && !future.isDone()) {
-            future.cancel(true);
-        }
-        refreshJob = scheduledExecutorService.scheduleWithFixedDelay(() -> performPresenceDetection(true), 0,
-                refreshIntervalInMS, TimeUnit.MILLISECONDS);
+        engine.register(this, scheduledExecutorService);
     }
 
     /**
      * Return true if automatic refreshing is enabled.
      */
     public boolean isAutomaticRefreshing() {
-        return refreshJob != null;
+        return engine.isRegistered(this);
     }
 
     /**
      * Stop automatic refreshing.
      */
     public void stopAutomaticRefresh() {
-        ScheduledFuture<?> future = refreshJob;
-        if (future != null && !future.isDone()) {
-            future.cancel(true);
-            refreshJob = null;
-        }
+        engine.unregister(this);
         if (cachedDestination != null) {
             disableDHCPListen(cachedDestination);
         }
@@ -610,7 +702,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
      */
     private void enableDHCPListen(InetAddress destinationAddress) {
         try {
-            if (DHCPListenService.register(destinationAddress.getHostAddress(), this).isUseUnprevilegedPort()) {
+            if (engine.registerDHCPListener(destinationAddress.getHostAddress(), this).isUseUnprevilegedPort()) {
                 dhcpState = "No access right for port 67. Bound to port 6767 instead. Port forwarding necessary!";
             } else {
                 dhcpState = "Running normally";
@@ -624,7 +716,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
 
     private void disableDHCPListen(@Nullable InetAddress destinationAddress) {
         if (destinationAddress != null) {
-            DHCPListenService.unregister(destinationAddress.getHostAddress());
+            engine.unregisterDHCPListener(destinationAddress.getHostAddress(), this);
             dhcpState = "off";
         }
     }
@@ -0,0 +1,338 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal;
+
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.network.internal.dhcp.DHCPListenService;
+import org.openhab.binding.network.internal.dhcp.DHCPPacketListenerServer;
+import org.openhab.binding.network.internal.dhcp.IPRequestReceivedCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A singleton that performs the presence detection of all monitored hosts.
+ *
+ * All ICMP, ARP and TCP checks are executed on one bounded pool of probe threads instead of a new thread pool per
+ * detection. Idle probe threads are kept for a while, so periodic detections reuse them. The automatic refresh of all
+ * {@link PresenceDetection} objects with the same refresh interval is performed as one batch by a single scheduled
+ * job, which hands the detections over to the probe threads. The DHCP requests received by the
+ * {@link DHCPListenService} are forwarded to every presence detection of the requested address.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PresenceDetectionEngine implements IPRequestReceivedCallback {
+    static final int MAX_PROBE_THREADS = 64;
+    private static final long PROBE_THREAD_KEEP_ALIVE = 60;
+    private static final String THREAD_NAME_PREFIX = "OH-binding-network-presence-";
+
+    private static final PresenceDetectionEngine INSTANCE = new PresenceDetectionEngine();
+
+    private final Logger logger = LoggerFactory.getLogger(PresenceDetectionEngine.class);
+
+    private final ThreadPoolExecutor probeExecutor;
+    private final Map<Long, Batch> batches = new HashMap<>();
+    private final Map<PresenceDetection, Batch> batchByDetection = new HashMap<>();
+    private final Map<String, Set<IPRequestReceivedCallback>> dhcpListeners = new ConcurrentHashMap<>();
+
+    /**
+     * The presence detections with the same refresh interval, refreshed by one scheduled job.
+     */
+    private class Batch {
+        private final long refreshIntervalInMS;
+        private final Set<PresenceDetection> detections = new CopyOnWriteArraySet<>();
+        private final ScheduledExecutorService scheduler;
+        private final ScheduledFuture<?> job;
+
+        private Batch(long refreshIntervalInMS, ScheduledExecutorService scheduler) {
+            this.refreshIntervalInMS = refreshIntervalInMS;
+            this.scheduler = scheduler;
+            this.job = scheduler.scheduleWithFixedDelay(this::refresh, refreshIntervalInMS, refreshIntervalInMS,
+                    TimeUnit.MILLISECONDS);
+        }
+
+        private void refresh() {
+            logger.trace("Performing presence detection of {} hosts with a refresh interval of {} ms",
+                    detections.size(), refreshIntervalInMS);
+            // The detections are started on the probe threads, so that the batch does not wait for one detection to set
+            // up its checks before the next one is started
+            for (PresenceDetection detection : detections) {
+                probeExecutor.execute(() -> performPresenceDetection(detection, scheduler));
+            }
+        }
+    }
+
+    PresenceDetectionEngine() {
+        this(MAX_PROBE_THREADS);
+    }
+
+    PresenceDetectionEngine(int maxProbeThreads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        probeExecutor = new ThreadPoolExecutor(maxProbeThreads, maxProbeThreads, PROBE_THREAD_KEEP_ALIVE,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        probeExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    public static PresenceDetectionEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns an executor for the checks of a single presence detection. The checks are executed on the probe threads
+     * of this engine. Shutting the returned executor down only cancels the checks submitted to it.
+     *
+     * @param checkCount The number of checks that will be submitted.
+     */
+    public ExecutorService newDetectionExecutor(int checkCount) {
+        return new DetectionExecutor(checkCount);
+    }
+
+    /**
+     * Returns the time in milliseconds until all checks of the given detection executor have been running for the
+     * given timeout. Checks that are still waiting for a probe thread have not been running at all yet, so the full
+     * timeout is returned then.
+     *
+     * @param executor An executor returned by {@link #newDetectionExecutor(int)}.
+     * @param timeoutInMS The time a check may take.
+     */
+    long getCheckTimeLeft(ExecutorService executor, long timeoutInMS) {
+        if (!(executor instanceof DetectionExecutor)) {
+            return 0;
+        }
+        long timeLeft = ((DetectionExecutor) executor).getTimeLeft(TimeUnit.MILLISECONDS.toNanos(timeoutInMS));
+        return TimeUnit.NANOSECONDS.toMillis(timeLeft);
+    }
+
+    /**
+     * Adds the presence detection to the batch of its refresh interval and performs a first detection right away.
+     *
+     * @param detection The presence detection to refresh periodically.
+     * @param scheduler The scheduler for the batch job, if this is the first presence detection with this interval.
+     */
+    public synchronized void register(PresenceDetection detection, ScheduledExecutorService scheduler) {
+        unregister(detection);
+        long refreshInterval = detection.getRefreshInterval();
+        Batch batch = batches.get(refreshInterval);
+        if (batch == null) {
+            batch = new Batch(refreshInterval, scheduler);
+            batches.put(refreshInterval, batch);
+        }
+        batch.detections.add(detection);
+        batchByDetection.put(detection, batch);
+        probeExecutor.execute(() -> performPresenceDetection(detection, scheduler));
+    }
+
+    /**
+     * Removes the presence detection from its batch. The batch job is cancelled if it was the last one.
+     */
+    public synchronized void unregister(PresenceDetection detection) {
+        Batch batch = batchByDetection.remove(detection);
+        if (batch == null) {
+            return;
+        }
+        batch.detections.remove(detection);
+        if (batch.detections.isEmpty()) {
+            batch.job.cancel(false);
+            batches.remove(batch.refreshIntervalInMS);
+        }
+    }
+
+    public synchronized boolean isRegistered(PresenceDetection detection) {
+        return batchByDetection.containsKey(detection);
+    }
+
+    /**
+     * Returns the number of scheduled batch jobs.
+     */
+    public synchronized int getBatchCount() {
+        return batches.size();
+    }
+
+    /**
+     * Registers a listener for DHCP requests of the given address. Several listeners may be registered for the same
+     * address.
+     *
+     * @return The DHCP packet listener server.
+     * @throws SocketException If the DHCP socket can't be opened.
+     */
+    public synchronized DHCPPacketListenerServer registerDHCPListener(String hostAddress,
+            IPRequestReceivedCallback listener) throws SocketException {
+        DHCPPacketListenerServer server = DHCPListenService.register(hostAddress, this);
+        Set<IPRequestReceivedCallback> listeners = dhcpListeners.get(hostAddress);
+        if (listeners == null) {
+            listeners = new CopyOnWriteArraySet<>();
+            dhcpListeners.put(hostAddress, listeners);
+        }
+        listeners.add(listener);
+        return server;
+    }
+
+    public synchronized void unregisterDHCPListener(String hostAddress, IPRequestReceivedCallback listener) {
+        Set<IPRequestReceivedCallback> listeners = dhcpListeners.get(hostAddress);
+        if (listeners == null || !listeners.remove(listener) || !listeners.isEmpty()) {
+            return;
+        }
+        dhcpListeners.remove(hostAddress);
+        DHCPListenService.unregister(hostAddress);
+    }
+
+    @Override
+    public void dhcpRequestReceived(String ipAddress) {
+        Set<IPRequestReceivedCallback> listeners = dhcpListeners.get(ipAddress);
+        if (listeners != null) {
+            for (IPRequestReceivedCallback listener : listeners) {
+                listener.dhcpRequestReceived(ipAddress);
+            }
+        }
+    }
+
+    private void performPresenceDetection(PresenceDetection detection, ScheduledExecutorService scheduler) {
+        try {
+            // The checks are not awaited, a check that does not finish in time is cut off by the scheduled result
+            if (detection.performPresenceDetection(false)) {
+                detection.scheduleFinalResult(scheduler);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Presence detection for {} failed", detection.getHostname(), e);
+        }
+    }
+
+    /**
+     * A view of the probe threads for the checks of one presence detection.
+     */
+    private class DetectionExecutor extends AbstractExecutorService {
+        private final Set<Future<?>> tasks;
+        private final Set<Future<?>> queuedTasks;
+        private long lastTaskStart = System.nanoTime();
+        private boolean shutdown;
+
+        private DetectionExecutor(int checkCount) {
+            tasks = new HashSet<>(checkCount * 2);
+            queuedTasks = new HashSet<>(checkCount * 2);
+        }
+
+        @Override
+        public synchronized void execute(Runnable command) {
+            if (shutdown) {
+                throw new RejectedExecutionException("The presence detection has already finished");
+            }
+            FutureTask<@Nullable Void> task = new FutureTask<@Nullable Void>(command, null) {
+                @Override
+                public void run() {
+                    taskStarted(this);
+                    super.run();
+                }
+
+                @Override
+                protected void done() {
+                    taskDone(this);
+                }
+            };
+            tasks.add(task);
+            queuedTasks.add(task);
+            probeExecutor.execute(task);
+        }
+
+        private synchronized void taskStarted(Future<?> task) {
+            if (queuedTasks.remove(task)) {
+                lastTaskStart = System.nanoTime();
+            }
+        }
+
+        private synchronized void taskDone(Future<?> task) {
+            tasks.remove(task);
+            queuedTasks.remove(task);
+            notifyAll();
+        }
+
+        private synchronized long getTimeLeft(long timeoutInNanos) {
+            if (!queuedTasks.isEmpty()) {
+                return timeoutInNanos;
+            }
+            return Math.max(0, lastTaskStart + timeoutInNanos - System.nanoTime());
+        }
+
+        @Override
+        public synchronized void shutdown() {
+            shutdown = true;
+            notifyAll();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            List<Future<?>> pendingTasks;
+            synchronized (this) {
+                shutdown = true;
+                pendingTasks = new ArrayList<>(tasks);
+            }
+            // Cancelled checks that are still queued return immediately when a probe thread picks them up
+            for (Future<?> task : pendingTasks) {
+                task.cancel(true);
+            }
+            synchronized (this) {
+                notifyAll();
+            }
+            return Collections.emptyList();
+        }
+
+        @Override
+        public synchronized boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public synchronized boolean isTerminated() {
+            return shutdown && tasks.isEmpty();
+        }
+
+        @Override
+        public synchronized boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (!isTerminated()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            return true;
+        }
+    }
+}
@@ -19,8 +19,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -33,7 +31,6 @@ import org.eclipse.smarthome.config.discovery.DiscoveryResultBuilder;
 import org.eclipse.smarthome.config.discovery.DiscoveryService;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.openhab.binding.network.internal.NetworkBindingConfiguration;
-import org.openhab.binding.network.internal.PresenceDetection;
 import org.openhab.binding.network.internal.PresenceDetectionListener;
 import org.openhab.binding.network.internal.PresenceDetectionValue;
 import org.openhab.binding.network.internal.utils.NetworkUtils;
@@ -47,7 +44,8 @@ import org.slf4j.LoggerFactory;
 /**
  * The {@link NetworkDiscoveryService} is responsible for discovering devices on
  * the current Network. It uses every Network Interface which is connected to a network.
- * It tries common TCP ports to connect to, ICMP pings and ARP pings.
+ * It tries common TCP ports to connect to, ICMP pings and ARP pings. The addresses are probed
+ * by a {@link NetworkSweep} on a thread of the discovery scheduler.
  *
  * @author Marc Mettke - Initial contribution
  * @author David Graeff - Rewritten
@@ -56,23 +54,23 @@ import org.slf4j.LoggerFactory;
 @Component(service = DiscoveryService.class, immediate = true, configurationPid = "discovery.network")
 public class NetworkDiscoveryService extends AbstractDiscoveryService implements PresenceDetectionListener {
     static final int PING_TIMEOUT_IN_MS = 500;
-    static final int MAXIMUM_IPS_PER_INTERFACE = 255;
+    static final int MAXIMUM_IPS_PER_INTERFACE = 1024;
     private static final long DISCOVERY_RESULT_TTL = TimeUnit.MINUTES.toSeconds(10);
     private final Logger logger = LoggerFactory.getLogger(NetworkDiscoveryService.class);
 
     // TCP port 548 (Apple Filing Protocol (AFP))
     // TCP port 554 (Windows share / Linux samba)
     // TCP port 1025 (Xbox / MS-RPC)
-    private Set<Integer> tcpServicePorts = Collections
+    private static final Set<Integer> TCP_SERVICE_PORTS = Collections
             .unmodifiableSet(Stream.of(80, 548, 554, 1025).collect(Collectors.toSet()));
-    private Integer scannedIPcount = 0;
-    private @Nullable ExecutorService executorService = null;
+    private @Nullable NetworkSweep sweep = null;
     private final NetworkBindingConfiguration configuration = new NetworkBindingConfiguration();
     private final NetworkUtils networkUtils = new NetworkUtils();
 
     public NetworkDiscoveryService() {
-        super(SUPPORTED_THING_TYPES_UIDS, (int) Math.round(
-                new NetworkUtils().getNetworkIPs(MAXIMUM_IPS_PER_INTERFACE).size() * (PING_TIMEOUT_IN_MS / 1000.0)),
+        super(SUPPORTED_THING_TYPES_UIDS,
+                NetworkSweep.estimateDuration(new NetworkUtils().getNetworkIPs(MAXIMUM_IPS_PER_INTERFACE).size(),
+                        TCP_SERVICE_PORTS.size(), PING_TIMEOUT_IN_MS),
                 false);
     }
 
@@ -96,8 +94,9 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
     @Override
     @Deactivate
     protected void deactivate() {
-        if (executorService != null) {
-            executorService.shutdown();
+        final NetworkSweep sweep = this.sweep;
+        if (sweep != null) {
+            sweep.cancel();
         }
         super.deactivate();
     }
@@ -120,64 +119,39 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
     }
 
     /**
-     * Starts the DiscoveryThread for each IP on each interface on the network
+     * Starts a {@link NetworkSweep} of each IP on each interface on the network
      */
     @Override
-    protected void startScan() {
-        if (executorService == null) {
-            executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
-        }
-        final ExecutorService service = executorService;
-        if (service == null) {
-            return;
+    protected synchronized void startScan() {
+        NetworkSweep previousSweep = sweep;
+        if (previousSweep != null) {
+            previousSweep.cancel();
         }
         removeOlderResults(getTimestampOfLastScan(), null);
         logger.trace("Starting Network Device Discovery");
 
-        final Set<String> networkIPs = networkUtils.getNetworkIPs(MAXIMUM_IPS_PER_INTERFACE);
-        scannedIPcount = 0;
-
-        for (String ip : networkIPs) {
-            final PresenceDetection s = new PresenceDetection(this, 2000);
-            s.setHostname(ip);
-            s.setIOSDevice(true);
-            s.setUseDhcpSniffing(false);
-            s.setTimeout(PING_TIMEOUT_IN_MS);
-            // Ping devices
-            s.setUseIcmpPing(true);
-            s.setUseArpPing(true, configuration.arpPingToolPath, configuration.arpPingUtilMethod);
-            // TCP devices
-            s.setServicePorts(tcpServicePorts);
-
-            service.execute(() -> {
-                Thread.currentThread().setName("Discovery thread " + ip);
-                s.performPresenceDetection(true);
-                synchronized (scannedIPcount) {
-                    scannedIPcount += 1;
-                    if (scannedIPcount == networkIPs.size()) {
-                        logger.trace("Scan of {} IPs successful", scannedIPcount);
-                        stopScan();
-                    }
-                }
-            });
-        }
+        final NetworkSweep sweep = new NetworkSweep(this, this::newServiceDevice, PING_TIMEOUT_IN_MS);
+        this.sweep = sweep;
+        scheduler.execute(() -> {
+            // Determine the ping method once, instead of a feature test for every IP
+            sweep.setPingMethods(networkUtils.determinePingMethod(), configuration.arpPingToolPath,
+                    configuration.arpPingUtilMethod);
+            sweep.sweep(networkUtils.getNetworkIPs(MAXIMUM_IPS_PER_INTERFACE), TCP_SERVICE_PORTS);
+            if (!sweep.isCancelled()) {
+                stopScan();
+            }
+        });
     }
 
     @Override
     protected synchronized void stopScan() {
         super.stopScan();
-        final ExecutorService service = executorService;
-        if (service == null) {
+        final NetworkSweep sweep = this.sweep;
+        if (sweep == null) {
             return;
         }
-
-        try {
-            service.awaitTermination(PING_TIMEOUT_IN_MS, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt(); // Reset interrupt flag
-        }
-        service.shutdown();
-        executorService = null;
+        sweep.cancel();
+        this.sweep = null;
     }
 
     public static ThingUID createServiceUID(String ip, int tcpPort) {
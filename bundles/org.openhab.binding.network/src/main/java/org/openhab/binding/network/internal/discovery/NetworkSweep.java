@@ -0,0 +1,370 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.discovery;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.network.internal.PresenceDetection;
+import org.openhab.binding.network.internal.PresenceDetectionListener;
+import org.openhab.binding.network.internal.PresenceDetectionValue;
+import org.openhab.binding.network.internal.utils.NetworkUtils.ArpPingUtilEnum;
+import org.openhab.binding.network.internal.utils.NetworkUtils.IpPingMethodEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sweeps a set of IP addresses in two phases without blocking a thread per address.
+ *
+ * The first phase connects to the TCP service ports of all addresses with non-blocking {@link SocketChannel}s, that
+ * are all handled by one selector on the sweeping thread. The second phase performs the ICMP and ARP pings of all
+ * addresses with {@link PresenceDetection}s, which execute their checks on the shared probe threads. Both phases
+ * bound the number of probes in flight.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class NetworkSweep {
+    static final int MAX_CONNECTS_IN_FLIGHT = 256;
+    static final int MAX_PINGS_IN_FLIGHT = 32;
+    private static final long SELECT_INTERVAL_IN_MS = 50;
+    private static final int PROGRESS_STEPS = 10;
+
+    private final Logger logger = LoggerFactory.getLogger(NetworkSweep.class);
+
+    private final PresenceDetectionListener pingListener;
+    private final BiConsumer<String, Integer> serviceListener;
+    private final int timeoutInMS;
+
+    private IpPingMethodEnum pingMethod = IpPingMethodEnum.JAVA_PING;
+    private String arpPingUtilPath = "";
+    private ArpPingUtilEnum arpPingUtilMethod = ArpPingUtilEnum.UNKNOWN_TOOL;
+
+    private volatile boolean cancelled;
+    private volatile @Nullable Selector selector;
+    private volatile int progress;
+    private int totalProbes;
+    private int finishedProbes;
+
+    /**
+     * Creates a new sweep.
+     *
+     * @param pingListener Receives the results of the ICMP and ARP pings.
+     * @param serviceListener Receives the IP address and the port of every reachable TCP service.
+     * @param timeoutInMS The timeout of a single probe in milliseconds.
+     */
+    public NetworkSweep(PresenceDetectionListener pingListener, BiConsumer<String, Integer> serviceListener,
+            int timeoutInMS) {
+        this.pingListener = pingListener;
+        this.serviceListener = serviceListener;
+        this.timeoutInMS = timeoutInMS;
+    }
+
+    /**
+     * Sets the ping methods for the ping phase. The system ping method should be determined once in advance, so that
+     * not every address performs the feature test.
+     */
+    public void setPingMethods(IpPingMethodEnum pingMethod, String arpPingUtilPath,
+            ArpPingUtilEnum arpPingUtilMethod) {
+        this.pingMethod = pingMethod;
+        this.arpPingUtilPath = arpPingUtilPath;
+        this.arpPingUtilMethod = arpPingUtilMethod;
+    }
+
+    /**
+     * Returns a conservative estimation of the duration of a sweep in seconds.
+     */
+    public static int estimateDuration(int ipCount, int tcpPortCount, int timeoutInMS) {
+        int connectRounds = (ipCount * tcpPortCount + MAX_CONNECTS_IN_FLIGHT - 1) / MAX_CONNECTS_IN_FLIGHT;
+        int pingRounds = (ipCount + MAX_PINGS_IN_FLIGHT - 1) / MAX_PINGS_IN_FLIGHT;
+        // A ping round consists of an ICMP and ARP ping and spawns processes, allow for twice the timeout
+        long durationInMS = (long) connectRounds * timeoutInMS + 2L * pingRounds * timeoutInMS;
+        return (int) TimeUnit.MILLISECONDS.toSeconds(durationInMS) + 1;
+    }
+
+    /**
+     * Returns the progress of the sweep in percent.
+     */
+    public int getProgress() {
+        return progress;
+    }
+
+    /**
+     * Cancels the sweep. Pending TCP connects are aborted and no further pings are started.
+     */
+    public void cancel() {
+        cancelled = true;
+        Selector selector = this.selector;
+        if (selector != null) {
+            selector.wakeup();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Sweeps the given addresses. Blocks until the sweep is finished or cancelled.
+     *
+     * @param ips The IP addresses.
+     * @param tcpPorts The TCP service ports to connect to on every address.
+     */
+    public void sweep(Collection<String> ips, Collection<Integer> tcpPorts) {
+        synchronized (this) {
+            totalProbes = ips.size() * (tcpPorts.size() + 1);
+            finishedProbes = 0;
+            progress = 0;
+        }
+
+        long start = System.nanoTime();
+        int services = 0;
+        if (!tcpPorts.isEmpty()) {
+            try {
+                services = sweepServices(ips, tcpPorts);
+            } catch (IOException e) {
+                logger.warn("TCP service sweep failed: {}", e.getMessage());
+            }
+        }
+        long servicesDone = System.nanoTime();
+        logger.debug("TCP service sweep of {} IPs on {} ports finished in {} ms, {} services found", ips.size(),
+                tcpPorts.size(), TimeUnit.NANOSECONDS.toMillis(servicesDone - start), services);
+
+        try {
+            sweepPings(ips);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled = true;
+        }
+        long pingsDone = System.nanoTime();
+        logger.debug("Ping sweep of {} IPs finished in {} ms", ips.size(),
+                TimeUnit.NANOSECONDS.toMillis(pingsDone - servicesDone));
+        logger.debug("Network sweep of {} IPs {} after {} ms", ips.size(), cancelled ? "cancelled" : "finished",
+                TimeUnit.NANOSECONDS.toMillis(pingsDone - start));
+    }
+
+    private void probeFinished() {
+        int oldProgress;
+        int newProgress;
+        synchronized (this) {
+            finishedProbes++;
+            oldProgress = progress;
+            newProgress = totalProbes == 0 ? 100 : finishedProbes * 100 / totalProbes;
+            progress = newProgress;
+        }
+        if (newProgress / PROGRESS_STEPS != oldProgress / PROGRESS_STEPS) {
+            logger.debug("Network sweep progress: {}%", newProgress);
+        }
+    }
+
+    private static class PendingConnect {
+        final String ip;
+        final int port;
+        final long started = System.nanoTime();
+
+        PendingConnect(String ip, int port) {
+            this.ip = ip;
+            this.port = port;
+        }
+    }
+
+    /**
+     * Connects to all TCP service ports of all addresses with at most {@link #MAX_CONNECTS_IN_FLIGHT} pending
+     * connects. Returns the number of reachable services.
+     */
+    private int sweepServices(Collection<String> ips, Collection<Integer> tcpPorts) throws IOException {
+        long timeout = TimeUnit.MILLISECONDS.toNanos(timeoutInMS);
+        Iterator<String> ipIterator = ips.iterator();
+        Iterator<Integer> portIterator = Collections.emptyIterator();
+        String ip = "";
+        int inFlight = 0;
+        int services = 0;
+
+        try (Selector selector = Selector.open()) {
+            this.selector = selector;
+            while (!cancelled) {
+                // Start new connects, until the limit is reached
+                while (inFlight < MAX_CONNECTS_IN_FLIGHT) {
+                    if (!portIterator.hasNext()) {
+                        if (!ipIterator.hasNext()) {
+                            break;
+                        }
+                        ip = ipIterator.next();
+                        portIterator = tcpPorts.iterator();
+                    }
+                    int port = portIterator.next();
+                    if (connect(selector, ip, port)) {
+                        inFlight++;
+                    }
+                }
+                if (inFlight == 0) {
+                    break;
+                }
+
+                selector.select(SELECT_INTERVAL_IN_MS);
+                for (SelectionKey key : selector.selectedKeys()) {
+                    PendingConnect pending = (PendingConnect) key.attachment();
+                    if (finishConnect(key, pending)) {
+                        services++;
+                    }
+                    inFlight--;
+                }
+                selector.selectedKeys().clear();
+
+                // Abort connects that did not finish in time
+                long now = System.nanoTime();
+                for (SelectionKey key : selector.keys()) {
+                    PendingConnect pending = (PendingConnect) key.attachment();
+                    if (key.isValid() && now - pending.started > timeout) {
+                        close(key);
+                        probeFinished();
+                        inFlight--;
+                    }
+                }
+            }
+        } finally {
+            this.selector = null;
+        }
+        return services;
+    }
+
+    /**
+     * Starts a non-blocking connect. Returns true if the connect is pending.
+     */
+    @SuppressWarnings("resource")
+    private boolean connect(Selector selector, String ip, int port) {
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            if (channel.connect(new InetSocketAddress(ip, port))) {
+                channel.close();
+                serviceListener.accept(ip, port);
+                probeFinished();
+                return false;
+            }
+            channel.register(selector, SelectionKey.OP_CONNECT, new PendingConnect(ip, port));
+            return true;
+        } catch (IOException e) {
+            // For example no route to host
+            logger.trace("Failed to connect to {}:{}: {}", ip, port, e.getMessage());
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+            probeFinished();
+            return false;
+        }
+    }
+
+    private boolean finishConnect(SelectionKey key, PendingConnect pending) {
+        boolean connected = false;
+        try {
+            connected = ((SocketChannel) key.channel()).finishConnect();
+        } catch (IOException ignored) {
+            // Connection refused, the service is not available
+        }
+        close(key);
+        probeFinished();
+        if (connected) {
+            logger.trace("Connected to {}:{} after {} ms", pending.ip, pending.port,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pending.started));
+            serviceListener.accept(pending.ip, pending.port);
+        }
+        return connected;
+    }
+
+    private void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Pings all addresses with at most {@link #MAX_PINGS_IN_FLIGHT} presence detections in flight.
+     */
+    private void sweepPings(Collection<String> ips) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(MAX_PINGS_IN_FLIGHT);
+        PresenceDetectionListener listener = new PresenceDetectionListener() {
+            @Override
+            public void partialDetectionResult(PresenceDetectionValue value) {
+                pingListener.partialDetectionResult(value);
+            }
+
+            @Override
+            public void finalDetectionResult(PresenceDetectionValue value) {
+                probeFinished();
+                pingListener.finalDetectionResult(value);
+                inFlight.release();
+            }
+        };
+
+        for (String ip : ips) {
+            if (!acquire(inFlight, 1, Long.MAX_VALUE)) {
+                break;
+            }
+            boolean started = false;
+            try {
+                PresenceDetection detection = new PresenceDetection(listener, 2000);
+                detection.setHostname(ip);
+                detection.setIOSDevice(true);
+                detection.setUseDhcpSniffing(false);
+                detection.setTimeout(timeoutInMS);
+                detection.setIcmpPingMethod(pingMethod);
+                detection.setUseArpPing(true, arpPingUtilPath, arpPingUtilMethod);
+                started = detection.performPresenceDetection(false);
+            } finally {
+                // The permit is released by the listener of a started detection
+                if (!started) {
+                    inFlight.release();
+                    probeFinished();
+                }
+            }
+        }
+
+        // Wait for the pings in flight
+        if (!acquire(inFlight, MAX_PINGS_IN_FLIGHT, 10L * timeoutInMS) && !cancelled) {
+            logger.debug("{} pings did not finish in time", MAX_PINGS_IN_FLIGHT - inFlight.availablePermits());
+        }
+    }
+
+    /**
+     * Acquires the permits within the timeout. Returns false if the timeout elapsed or the sweep was cancelled.
+     */
+    private boolean acquire(Semaphore semaphore, int permits, long timeoutInMS) throws InterruptedException {
+        for (long waited = 0; !cancelled && waited < timeoutInMS; waited += SELECT_INTERVAL_IN_MS) {
+            if (semaphore.tryAcquire(permits, SELECT_INTERVAL_IN_MS, TimeUnit.MILLISECONDS)) {
+                if (!cancelled) {
+                    return true;
+                }
+                semaphore.release(permits);
+            }
+        }
+        return false;
+    }
+}
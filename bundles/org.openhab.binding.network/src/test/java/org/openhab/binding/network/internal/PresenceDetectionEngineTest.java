@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests cases for {@see PresenceDetectionEngine}
+ *
+ * @author agent - Initial contribution
+ */
+public class PresenceDetectionEngineTest {
+    PresenceDetectionEngine subject;
+    ScheduledExecutorService scheduler;
+
+    PresenceDetectionListener listener = new PresenceDetectionListener() {
+        @Override
+        public void partialDetectionResult(PresenceDetectionValue value) {
+        }
+
+        @Override
+        public void finalDetectionResult(PresenceDetectionValue value) {
+        }
+    };
+
+    @Before
+    public void setUp() {
+        subject = new PresenceDetectionEngine();
+        scheduler = new ScheduledThreadPoolExecutor(1);
+    }
+
+    @After
+    public void shutDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void detectionExecutorTerminatesAfterShutdown() throws InterruptedException {
+        ExecutorService executor = subject.newDetectionExecutor(2);
+        CountDownLatch latch = new CountDownLatch(2);
+        executor.execute(latch::countDown);
+        executor.execute(latch::countDown);
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertFalse(executor.isTerminated());
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        assertTrue(executor.isTerminated());
+    }
+
+    @Test
+    public void detectionExecutorShutdownNowInterruptsChecks() throws InterruptedException {
+        ExecutorService executor = subject.newDetectionExecutor(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        assertFalse(executor.awaitTermination(10, TimeUnit.MILLISECONDS));
+
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void detectionExecutorRejectsChecksAfterShutdown() {
+        ExecutorService executor = subject.newDetectionExecutor(1);
+        executor.shutdownNow();
+        executor.execute(() -> {
+        });
+    }
+
+    @Test
+    public void detectionsWithSameIntervalShareBatch() {
+        PresenceDetection first = newPresenceDetection(30000);
+        PresenceDetection second = newPresenceDetection(30000);
+        PresenceDetection third = newPresenceDetection(60000);
+
+        subject.register(first, scheduler);
+        subject.register(second, scheduler);
+        subject.register(third, scheduler);
+        assertThat(subject.getBatchCount(), is(2));
+        assertTrue(subject.isRegistered(first));
+
+        // Re-registering with another interval moves the detection to the other batch
+        first.setRefreshInterval(60000);
+        subject.register(first, scheduler);
+        assertThat(subject.getBatchCount(), is(2));
+
+        subject.unregister(second);
+        assertThat(subject.getBatchCount(), is(1));
+        assertFalse(subject.isRegistered(second));
+
+        subject.unregister(first);
+        subject.unregister(third);
+        assertThat(subject.getBatchCount(), is(0));
+    }
+
+    @Test
+    public void batchedDetectionIsFinishedAfterTimeout() throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(1);
+        PresenceDetection detection = new PresenceDetection(new PresenceDetectionListener() {
+            @Override
+            public void partialDetectionResult(PresenceDetectionValue value) {
+            }
+
+            @Override
+            public void finalDetectionResult(PresenceDetectionValue value) {
+                assertFalse(value.isReachable());
+                finished.countDown();
+            }
+        }, 2000) {
+            // A check which hangs, the batched refresh must not wait for it
+            @Override
+            protected void performServicePing(int tcpPort) {
+                try {
+                    Thread.sleep(10000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        detection.engine = subject;
+        detection.setHostname("127.0.0.1");
+        detection.setTimeout(100);
+        detection.setServicePorts(Collections.singleton(1010));
+
+        subject.register(detection, scheduler);
+        assertTrue(finished.await(2, TimeUnit.SECONDS));
+        assertNull(detection.executorService);
+
+        subject.unregister(detection);
+    }
+
+    @Test
+    public void queuedChecksAreNotCutOff() throws InterruptedException {
+        subject = new PresenceDetectionEngine(1);
+        // Keep the only probe thread busy for longer than the timeout of the detection
+        CountDownLatch blocking = new CountDownLatch(1);
+        subject.newDetectionExecutor(1).execute(() -> {
+            try {
+                blocking.await(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        CountDownLatch finished = new CountDownLatch(1);
+        PresenceDetectionValue[] result = new PresenceDetectionValue[1];
+        PresenceDetection detection = new PresenceDetection(new PresenceDetectionListener() {
+            @Override
+            public void partialDetectionResult(PresenceDetectionValue value) {
+            }
+
+            @Override
+            public void finalDetectionResult(PresenceDetectionValue value) {
+                result[0] = value;
+                finished.countDown();
+            }
+        }, 2000) {
+            @Override
+            protected void performServicePing(int tcpPort) {
+                updateReachableValue(PresenceDetectionType.TCP_CONNECTION, 0);
+            }
+        };
+        detection.engine = subject;
+        detection.setHostname("127.0.0.1");
+        detection.setTimeout(100);
+        detection.setServicePorts(Collections.singleton(1010));
+
+        assertTrue(detection.performPresenceDetection(false));
+        detection.scheduleFinalResult(scheduler);
+
+        // The check has not run yet, so no result is submitted after the timeout
+        assertFalse(finished.await(500, TimeUnit.MILLISECONDS));
+
+        blocking.countDown();
+        assertTrue(finished.await(1, TimeUnit.SECONDS));
+        assertTrue(result[0].isReachable());
+    }
+
+    private PresenceDetection newPresenceDetection(long refreshInterval) {
+        PresenceDetection detection = new PresenceDetection(listener, 2000);
+        detection.engine = subject;
+        detection.setRefreshInterval(refreshInterval);
+        return detection;
+    }
+}
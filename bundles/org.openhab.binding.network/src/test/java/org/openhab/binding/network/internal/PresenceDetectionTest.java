@@ -133,6 +133,27 @@ public class PresenceDetectionTest {
         assertThat(capture.getValue().getSuccessfulDetectionTypes(), is("ARP_PING, ICMP_PING, TCP_CONNECTION"));
     }
 
+    @Test
+    public void dhcpRequestReplacesPings() throws InterruptedException, IOException {
+        doReturn(false).when(networkUtils).servicePing(anyString(), anyInt(), anyInt());
+
+        subject.dhcpRequestReceived("127.0.0.1");
+        // The DHCP request is older than the timeout, but still within the refresh interval
+        Thread.sleep(500);
+        subject.cache.invalidateValue();
+
+        assertTrue(subject.performPresenceDetection(true));
+
+        verify(subject, times(0)).performSystemPing();
+        verify(subject, times(0)).performARPping(any());
+        verify(subject).performServicePing(anyInt());
+
+        ArgumentCaptor<PresenceDetectionValue> capture = ArgumentCaptor.forClass(PresenceDetectionValue.class);
+        verify(listener, times(1)).finalDetectionResult(capture.capture());
+        assertTrue(capture.getValue().isReachable());
+        assertThat(capture.getValue().getSuccessfulDetectionTypes(), is("DHCP_REQUEST"));
+    }
+
     @Test
     public void cacheTest() throws InterruptedException, IOException {
         doReturn(true).when(networkUtils).nativePing(eq(IpPingMethodEnum.WINDOWS_PING), anyString(), anyInt());
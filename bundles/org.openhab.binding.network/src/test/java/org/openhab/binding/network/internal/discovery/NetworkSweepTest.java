@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.discovery;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.openhab.binding.network.internal.PresenceDetectionListener;
+import org.openhab.binding.network.internal.PresenceDetectionValue;
+
+/**
+ * Tests cases for {@see NetworkSweep}
+ *
+ * @author agent - Initial contribution
+ */
+public class NetworkSweepTest {
+    PresenceDetectionListener listener = new PresenceDetectionListener() {
+        @Override
+        public void partialDetectionResult(PresenceDetectionValue value) {
+        }
+
+        @Override
+        public void finalDetectionResult(PresenceDetectionValue value) {
+        }
+    };
+
+    @Test
+    public void reachableServicesAreReported() throws IOException {
+        List<Integer> services = Collections.synchronizedList(new ArrayList<>());
+        int closedPort;
+        try (ServerSocket closed = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            closedPort = closed.getLocalPort();
+        }
+        try (ServerSocket open = new ServerSocket(0, 10, InetAddress.getLoopbackAddress())) {
+            NetworkSweep sweep = new NetworkSweep(listener, (ip, port) -> services.add(port), 500);
+            sweep.sweep(Collections.singleton("127.0.0.1"), Arrays.asList(open.getLocalPort(), closedPort));
+
+            assertThat(services, is(Collections.singletonList(open.getLocalPort())));
+            assertThat(sweep.getProgress(), is(100));
+            assertFalse(sweep.isCancelled());
+        }
+    }
+
+    @Test
+    public void cancelledSweepStartsNoProbes() {
+        List<Integer> services = Collections.synchronizedList(new ArrayList<>());
+        NetworkSweep sweep = new NetworkSweep(listener, (ip, port) -> services.add(port), 500);
+        sweep.cancel();
+        sweep.sweep(Arrays.asList("127.0.0.1", "127.0.0.2"), Collections.singleton(80));
+
+        assertTrue(services.isEmpty());
+        assertThat(sweep.getProgress(), is(0));
+    }
+
+    @Test
+    public void sweepReturnsSoonAfterCancel() throws InterruptedException {
+        List<String> ips = new ArrayList<>();
+        for (int i = 1; i <= 2 * NetworkSweep.MAX_PINGS_IN_FLIGHT; i++) {
+            ips.add("192.0.2." + i);
+        }
+        NetworkSweep sweep = new NetworkSweep(listener, (ip, port) -> {
+        }, 5000);
+        Thread thread = new Thread(() -> sweep.sweep(ips, Collections.emptyList()));
+        thread.start();
+
+        Thread.sleep(200);
+        sweep.cancel();
+        // The pings in flight are not awaited after a cancel
+        thread.join(2000);
+        assertFalse(thread.isAlive());
+        assertTrue(sweep.isCancelled());
+    }
+
+    @Test
+    public void durationEstimation() {
+        // 1024 IPs: 16 connect rounds of 500 ms and 32 ping rounds of 1000 ms
+        assertThat(NetworkSweep.estimateDuration(1024, 4, 500), is(41));
+        assertThat(NetworkSweep.estimateDuration(0, 4, 500), is(1));
+    }
+}
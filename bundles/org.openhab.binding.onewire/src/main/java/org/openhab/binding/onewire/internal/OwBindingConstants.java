@@ -62,6 +62,7 @@ public class OwBindingConstants {
     // List of all config options
     public static final String CONFIG_ADDRESS = "network-address";
     public static final String CONFIG_PORT = "port";
+    public static final String CONFIG_BULK_REFRESH = "bulkrefresh";
 
     public static final String CONFIG_ID = "id";
     public static final String CONFIG_RESOLUTION = "resolution";
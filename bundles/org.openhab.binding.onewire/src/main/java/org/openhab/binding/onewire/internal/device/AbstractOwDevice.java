@@ -16,12 +16,14 @@ import java.util.HashSet;
 import java.util.Set;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.types.State;
 import org.openhab.binding.onewire.internal.OwException;
 import org.openhab.binding.onewire.internal.SensorId;
 import org.openhab.binding.onewire.internal.handler.OwserverBridgeHandler;
 import org.openhab.binding.onewire.internal.handler.OwBaseThingHandler;
+import org.openhab.binding.onewire.internal.owserver.OwserverDeviceParameter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -74,6 +76,15 @@ public abstract class AbstractOwDevice {
      */
     public abstract void refresh(OwserverBridgeHandler owBridgeHandler, Boolean forcedRefresh) throws OwException;
 
+    /**
+     * get the parameter for reading the temperature of this sensor if it takes part in simultaneous conversions
+     *
+     * @return the temperature parameter or null if this sensor is not a simultaneously converting temperature sensor
+     */
+    public @Nullable OwserverDeviceParameter getSimultaneousTemperatureParameter() {
+        return null;
+    }
+
     /**
      * enables a channel on this device
      *
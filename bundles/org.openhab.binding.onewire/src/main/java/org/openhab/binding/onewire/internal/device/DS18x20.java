@@ -17,6 +17,7 @@ import static org.openhab.binding.onewire.internal.OwBindingConstants.*;
 import javax.measure.quantity.Temperature;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.config.core.Configuration;
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.QuantityType;
@@ -73,6 +74,14 @@ public class DS18x20 extends AbstractOwDevice {
         isConfigured = true;
     }
 
+    @Override
+    public @Nullable OwserverDeviceParameter getSimultaneousTemperatureParameter() {
+        if (isConfigured && enabledChannels.contains(CHANNEL_TEMPERATURE)) {
+            return temperatureParameter;
+        }
+        return null;
+    }
+
     @Override
     public void refresh(OwserverBridgeHandler bridgeHandler, Boolean forcedRefresh) throws OwException {
         if (isConfigured && enabledChannels.contains(CHANNEL_TEMPERATURE)) {
@@ -128,7 +128,7 @@ public class AdvancedMultisensorThingHandler extends OwBaseThingHandler {
                 sensors.get(3).refresh(bridgeHandler, forcedRefresh);
             }
 
-            if (now >= (lastRefresh + refreshInterval)) {
+            if (isRefreshDue(now)) {
                 if (!sensors.get(0).checkPresence(bridgeHandler)) {
                     return;
                 }
@@ -208,6 +208,16 @@ public abstract class OwBaseThingHandler extends BaseThingHandler {
                 && this.thing.getStatusInfo().getStatusDetail() != ThingStatusDetail.BRIDGE_OFFLINE;
     }
 
+    /**
+     * check if this thing is due for a refresh
+     *
+     * @param now current time
+     * @return true if the refresh interval elapsed
+     */
+    public boolean isRefreshDue(long now) {
+        return now >= (lastRefresh + refreshInterval);
+    }
+
     /**
      * refresh this thing
      *
@@ -219,7 +229,7 @@ public abstract class OwBaseThingHandler extends BaseThingHandler {
     public void refresh(OwserverBridgeHandler bridgeHandler, long now) {
         try {
             Boolean forcedRefresh = lastRefresh == 0;
-            if (now >= (lastRefresh + refreshInterval)) {
+            if (isRefreshDue(now)) {
                 logger.trace("refreshing {}", this.thing.getUID());
 
                 lastRefresh = now;
@@ -18,10 +18,14 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -44,11 +48,13 @@ import org.eclipse.smarthome.core.types.State;
 import org.openhab.binding.onewire.internal.OwException;
 import org.openhab.binding.onewire.internal.OwPageBuffer;
 import org.openhab.binding.onewire.internal.SensorId;
+import org.openhab.binding.onewire.internal.device.AbstractOwDevice;
 import org.openhab.binding.onewire.internal.device.OwSensorType;
 import org.openhab.binding.onewire.internal.owserver.OwfsDirectChannelConfig;
 import org.openhab.binding.onewire.internal.owserver.OwserverConnection;
 import org.openhab.binding.onewire.internal.owserver.OwserverConnectionState;
 import org.openhab.binding.onewire.internal.owserver.OwserverDeviceParameter;
+import org.openhab.binding.onewire.internal.owserver.OwserverReadStatistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -73,8 +79,18 @@ public class OwserverBridgeHandler extends BaseBridgeHandler {
     private final Queue<@Nullable Thing> thingPropertiesUpdateQueue = new ConcurrentLinkedQueue<>();
 
     private static final int RECONNECT_AFTER_FAIL_TIME = 5000; // in ms
+    private static final int SIMULTANEOUS_CONVERSION_TIME = 750; // in ms, 12 bit resolution
+    private static final int STATISTICS_LOG_INTERVAL = 300000; // in ms
+    private static final String SIMULTANEOUS_TEMPERATURE_PATH = "/simultaneous/temperature";
     private final OwserverConnection owserverConnection;
 
+    // bulk refresh: one simultaneous conversion for all due temperature sensors, pipelined reads
+    private boolean bulkRefresh = false;
+    private long simultaneousConversionStarted = 0;
+    private long lastStatisticsLog = 0;
+    private final Map<String, State> bulkValues = new ConcurrentHashMap<>();
+    private final Map<String, State> bulkPresences = new ConcurrentHashMap<>();
+
     private final List<OwfsDirectChannelConfig> channelConfigs = new ArrayList<>();
 
     public OwserverBridgeHandler(Bridge bridge) {
@@ -101,6 +117,12 @@ public class OwserverBridgeHandler extends BaseBridgeHandler {
         if (configuration.get(CONFIG_PORT) != null) {
             owserverConnection.setPort(((BigDecimal) configuration.get(CONFIG_PORT)).intValue());
         }
+        if (configuration.get(CONFIG_BULK_REFRESH) != null) {
+            bulkRefresh = (Boolean) configuration.get(CONFIG_BULK_REFRESH);
+        } else {
+            bulkRefresh = false;
+        }
+        simultaneousConversionStarted = 0;
 
         for (Channel channel : thing.getChannels()) {
             if (CHANNEL_TYPE_UID_OWFS_NUMBER.equals(channel.getChannelTypeUID())
@@ -141,9 +163,17 @@ public class OwserverBridgeHandler extends BaseBridgeHandler {
                 int thingCount = thingList.size();
                 Iterator<Thing> childListIterator = thingList.iterator();
                 logger.trace("refreshTask starts at {}, {} childs", now, thingCount);
+                Set<Thing> postponedThings = bulkRefresh ? prepareBulkRefresh(thingList, now)
+                        : Collections.emptySet();
                 while (childListIterator.hasNext() && refreshable) {
                     Thing owThing = childListIterator.next();
 
+                    if (postponedThings.contains(owThing)) {
+                        logger.trace("{} waiting for simultaneous conversion, postponing refresh", owThing.getUID());
+                        thingCount--;
+                        continue;
+                    }
+
                     logger.trace("refresh: getting handler for {} ({} to go)", owThing.getUID(), thingCount);
                     OwBaseThingHandler owHandler = (OwBaseThingHandler) owThing.getHandler();
                     if (owHandler != null) {
@@ -159,8 +189,17 @@ public class OwserverBridgeHandler extends BaseBridgeHandler {
                     thingCount--;
                 }
 
+                // values of sensors that were not refreshed are outdated in the next cycle
+                bulkValues.clear();
+                bulkPresences.clear();
+
                 refreshBridgeChannels(now);
 
+                if (now >= lastStatisticsLog + STATISTICS_LOG_INTERVAL) {
+                    logReadStatistics();
+                    lastStatisticsLog = now;
+                }
+
                 // update thing properties (only one per refresh cycle)
                 Thing updateThing = thingPropertiesUpdateQueue.poll();
                 if (updateThing != null) {
@@ -189,6 +228,91 @@ public class OwserverBridgeHandler extends BaseBridgeHandler {
         }
     }
 
+    /**
+     * prepare the bulk refresh of all due things
+     *
+     * starts a simultaneous conversion of all due temperature sensors and postpones their things until the conversion
+     * is finished. afterwards the converted temperatures and the presence of all due things are read with pipelined
+     * requests. the results are used by the refresh of the things instead of single requests.
+     *
+     * @param thingList all things attached to this bridge
+     * @param now current time
+     * @return the things that have to wait for the simultaneous conversion
+     */
+    private Set<Thing> prepareBulkRefresh(List<Thing> thingList, long now) {
+        Set<Thing> postponedThings = new HashSet<>();
+        Map<String, String> temperaturePaths = new HashMap<>();
+        List<String> presencePaths = new ArrayList<>();
+
+        for (Thing owThing : thingList) {
+            OwBaseThingHandler owHandler = (OwBaseThingHandler) owThing.getHandler();
+            if (owHandler == null || !owHandler.isRefreshable() || !owHandler.isRefreshDue(now)
+                    || owHandler.sensors.isEmpty()) {
+                continue;
+            }
+            presencePaths.add(owHandler.sensors.get(0).getSensorId().getFullPath());
+            for (AbstractOwDevice sensor : owHandler.sensors) {
+                OwserverDeviceParameter parameter = sensor.getSimultaneousTemperatureParameter();
+                if (parameter != null) {
+                    temperaturePaths.put(parameter.getPath(sensor.getSensorId()),
+                            sensor.getSensorId().getFullPath() + "/latesttemp");
+                    postponedThings.add(owThing);
+                }
+            }
+        }
+
+        if (!temperaturePaths.isEmpty()) {
+            if (simultaneousConversionStarted == 0) {
+                try {
+                    synchronized (owserverConnection) {
+                        owserverConnection.writeDecimalType(SIMULTANEOUS_TEMPERATURE_PATH, new DecimalType(1));
+                    }
+                    simultaneousConversionStarted = now;
+                    logger.trace("started simultaneous conversion for {} temperature sensors",
+                            temperaturePaths.size());
+                    return postponedThings;
+                } catch (OwException e) {
+                    logger.debug("could not start simultaneous conversion, using single reads: {}", e.getMessage());
+                    temperaturePaths.clear();
+                }
+            } else if (now < simultaneousConversionStarted + SIMULTANEOUS_CONVERSION_TIME) {
+                return postponedThings;
+            }
+        }
+        simultaneousConversionStarted = 0;
+
+        try {
+            synchronized (owserverConnection) {
+                bulkPresences.putAll(owserverConnection.checkPresences(presencePaths));
+                Map<String, State> temperatures = owserverConnection
+                        .readDecimalTypes(new ArrayList<>(temperaturePaths.values()));
+                temperaturePaths.forEach((path, latestPath) -> {
+                    State temperature = temperatures.get(latestPath);
+                    if (temperature != null) {
+                        bulkValues.put(path, temperature);
+                    }
+                });
+            }
+            logger.trace("bulk read {} presences and {} temperatures", bulkPresences.size(), bulkValues.size());
+        } catch (OwException e) {
+            logger.debug("bulk read failed, using single reads: {}", e.getMessage());
+        }
+
+        return Collections.emptySet();
+    }
+
+    /**
+     * log the read statistics of the owserver connection
+     */
+    private void logReadStatistics() {
+        if (logger.isDebugEnabled()) {
+            for (Map.Entry<String, OwserverReadStatistics> entry : owserverConnection.getReadStatistics()
+                    .entrySet()) {
+                logger.debug("read statistics {}: {}", entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
     @Override
     public void dispose() {
         refreshable = false;
@@ -226,6 +350,10 @@ public class OwserverBridgeHandler extends BaseBridgeHandler {
      * @throws OwException
      */
     public State checkPresence(SensorId sensorId) throws OwException {
+        State bulkPresence = bulkPresences.remove(sensorId.getFullPath());
+        if (bulkPresence != null) {
+            return bulkPresence;
+        }
         synchronized (owserverConnection) {
             return owserverConnection.checkPresence(sensorId.getFullPath());
         }
@@ -271,6 +399,10 @@ public class OwserverBridgeHandler extends BaseBridgeHandler {
      * @throws OwException
      */
     public State readDecimalType(SensorId sensorId, OwserverDeviceParameter parameter) throws OwException {
+        State bulkValue = bulkValues.remove(parameter.getPath(sensorId));
+        if (bulkValue != null) {
+            return bulkValue;
+        }
         synchronized (owserverConnection) {
             return owserverConnection.readDecimalType(parameter.getPath(sensorId));
         }
@@ -12,6 +12,7 @@
  */
 package org.openhab.binding.onewire.internal.owserver;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -19,7 +20,11 @@ import java.io.IOException;
 import java.net.Socket;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -47,6 +52,8 @@ public class OwserverConnection {
     public static final int KEEPALIVE_INTERVAL = 1000;
 
     private static final int CONNECTION_MAX_RETRY = 5;
+    // maximum number of requests sent before the first answer is read
+    private static final int PIPELINE_DEPTH = 16;
 
     private final Logger logger = LoggerFactory.getLogger(OwserverConnection.class);
 
@@ -62,6 +69,8 @@ public class OwserverConnection {
     // reset to 0 after successful request
     private int connectionErrorCounter = 0;
 
+    private final Map<String, OwserverReadStatistics> readStatistics = new ConcurrentHashMap<>();
+
     public OwserverConnection(OwserverBridgeHandler owBaseBridgeHandler) {
         this.thingHandlerCallback = owBaseBridgeHandler;
     }
@@ -184,6 +193,59 @@ public class OwserverConnection {
         return returnState;
     }
 
+    /**
+     * read several decimal types with pipelined requests
+     *
+     * @param paths full owfs paths to the sensors
+     * @return a map of the paths to the DecimalType values, paths without a valid answer are omitted
+     * @throws OwException
+     */
+    public Map<String, State> readDecimalTypes(List<String> paths) throws OwException {
+        Map<String, State> returnStates = new HashMap<>();
+        List<OwserverPacket> requestPackets = new ArrayList<>(paths.size());
+        paths.forEach(path -> requestPackets.add(new OwserverPacket(OwserverMessageType.READ, path)));
+
+        List<OwserverPacket> returnPackets = pipelinedRequest(requestPackets);
+        for (int i = 0; i < returnPackets.size(); i++) {
+            OwserverPacket returnPacket = returnPackets.get(i);
+            if ((returnPacket.getReturnCode() != -1) && returnPacket.hasPayload()) {
+                try {
+                    returnStates.put(paths.get(i), DecimalType.valueOf(returnPacket.getPayloadString().trim()));
+                } catch (NumberFormatException e) {
+                    logger.debug("could not parse '{}' from {} to a number", returnPacket.getPayloadString().trim(),
+                            paths.get(i));
+                }
+            } else {
+                logger.debug("invalid or empty packet for {}", paths.get(i));
+            }
+        }
+
+        return returnStates;
+    }
+
+    /**
+     * check the presence of several sensors with pipelined requests
+     *
+     * @param paths full owfs paths to the sensors
+     * @return a map of the paths to the presence, ON=present, OFF=not present
+     * @throws OwException
+     */
+    public Map<String, State> checkPresences(List<String> paths) throws OwException {
+        Map<String, State> returnStates = new HashMap<>();
+        List<OwserverPacket> requestPackets = new ArrayList<>(paths.size());
+        paths.forEach(path -> requestPackets
+                .add(new OwserverPacket(OwserverMessageType.PRESENT, path, OwserverControlFlag.UNCACHED)));
+
+        List<OwserverPacket> returnPackets = pipelinedRequest(requestPackets);
+        for (int i = 0; i < returnPackets.size(); i++) {
+            State presence = returnPackets.get(i).getReturnCode() == 0 ? OnOffType.ON : OnOffType.OFF;
+            logger.trace("presence {} : {}", paths.get(i), presence);
+            returnStates.put(paths.get(i), presence);
+        }
+
+        return returnStates;
+    }
+
     /**
      * read a decimal type array
      *
@@ -256,6 +318,15 @@ public class OwserverConnection {
         logger.trace("wrote: {}, got: {} ", requestPacket, returnPacket);
     }
 
+    /**
+     * get the read statistics of all paths read on this connection
+     *
+     * @return an unmodifiable map of the owfs paths to their statistics
+     */
+    public Map<String, OwserverReadStatistics> getReadStatistics() {
+        return Collections.unmodifiableMap(readStatistics);
+    }
+
     /**
      * process a request to the owserver
      *
@@ -267,6 +338,7 @@ public class OwserverConnection {
         OwserverPacket returnPacket = new OwserverPacket(OwserverPacketType.RETURN);
         // answer to value write is always empty
         boolean payloadExpected = requestPacket.getMessageType() != OwserverMessageType.WRITE;
+        long start = System.nanoTime();
         try {
             write(requestPacket);
             do {
@@ -279,8 +351,10 @@ public class OwserverConnection {
             } while (returnPacket.isPingPacket() || !(returnPacket.hasPayload() == payloadExpected));
         } catch (OwException e) {
             logger.debug("failed requesting {}->{} [{}]", requestPacket, returnPacket, e.getMessage());
+            updateReadStatistics(requestPacket, returnPacket, System.nanoTime() - start, false);
             throw e;
         }
+        updateReadStatistics(requestPacket, returnPacket, System.nanoTime() - start, true);
 
         if (!returnPacket.hasControlFlag(OwserverControlFlag.PERSISTENCE)) {
             logger.trace("closing connection because persistence was denied");
@@ -291,6 +365,106 @@ public class OwserverConnection {
         return returnPacket;
     }
 
+    /**
+     * process several requests to the owserver
+     *
+     * the first request is sent alone, if the owserver grants persistence, the remaining requests are sent in
+     * windows of {@link #PIPELINE_DEPTH} requests before reading the answers. the owserver answers requests on a
+     * persistent connection in order.
+     *
+     * @param requestPackets the requests to be send
+     * @return the raw owserver answers in the order of the requests
+     * @throws OwException
+     */
+    private List<OwserverPacket> pipelinedRequest(List<OwserverPacket> requestPackets) throws OwException {
+        List<OwserverPacket> returnPackets = new ArrayList<>(requestPackets.size());
+        while (returnPackets.size() < requestPackets.size()) {
+            int index = returnPackets.size();
+            if (index == 0 || owserverConnectionState != OwserverConnectionState.OPENED) {
+                // (re-)establish a persistent connection, fall back to single requests if persistence is denied
+                returnPackets.add(request(requestPackets.get(index)));
+            } else {
+                returnPackets.addAll(requestWindow(
+                        requestPackets.subList(index, Math.min(index + PIPELINE_DEPTH, requestPackets.size()))));
+            }
+        }
+
+        return returnPackets;
+    }
+
+    /**
+     * send several requests to the owserver at once and read the answers
+     *
+     * @param requestPackets the requests to be send
+     * @return the raw owserver answers, less than requested if the owserver denied persistence
+     * @throws OwException
+     */
+    private List<OwserverPacket> requestWindow(List<OwserverPacket> requestPackets) throws OwException {
+        List<OwserverPacket> returnPackets = new ArrayList<>(requestPackets.size());
+        long start = System.nanoTime();
+        try {
+            ByteArrayOutputStream requestBytes = new ByteArrayOutputStream();
+            for (OwserverPacket requestPacket : requestPackets) {
+                requestPacket.setControlFlags(OwserverControlFlag.PERSISTENCE);
+                requestBytes.write(requestPacket.toBytes());
+            }
+
+            if (!open()) {
+                throw new OwException("I/O error: could not open connection to send request packets");
+            }
+            DataOutputStream outputStream = owserverOutputStream;
+            if (outputStream == null) {
+                throw new OwException("I/O error: could not open connection to send request packets");
+            }
+            outputStream.write(requestBytes.toByteArray());
+            logger.trace("wrote {} pipelined requests", requestPackets.size());
+
+            for (OwserverPacket requestPacket : requestPackets) {
+                OwserverPacket returnPacket;
+                do {
+                    returnPacket = read(false);
+                } while (returnPacket.isPingPacket());
+                updateReadStatistics(requestPacket, returnPacket, System.nanoTime() - start,
+                        returnPacket.getReturnCode() != -1 && returnPacket.hasPayload());
+                returnPackets.add(returnPacket);
+
+                if (!returnPacket.hasControlFlag(OwserverControlFlag.PERSISTENCE)) {
+                    // the owserver closes the connection, the remaining requests are sent again
+                    logger.trace("closing connection because persistence was denied");
+                    close();
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            closeOnError();
+            logger.debug("couldn't send pipelined requests, {}", e.getMessage());
+            throw new OwException("I/O Error: exception while sending request packets - " + e.getMessage());
+        } catch (OwException e) {
+            // answers that were not read yet would be mistaken for answers to the next requests
+            closeOnError();
+            throw e;
+        }
+
+        connectionErrorCounter = 0;
+        return returnPackets;
+    }
+
+    /**
+     * add a finished read request to the read statistics
+     *
+     * @param requestPacket the request
+     * @param returnPacket the answer
+     * @param latency time from sending the request to receiving the answer in ns
+     * @param success true if the request did not fail
+     */
+    private void updateReadStatistics(OwserverPacket requestPacket, OwserverPacket returnPacket, long latency,
+            boolean success) {
+        if (requestPacket.getMessageType() == OwserverMessageType.READ) {
+            readStatistics.computeIfAbsent(requestPacket.getPayloadString(), path -> new OwserverReadStatistics())
+                    .addRead(latency, success && (returnPacket.getReturnCode() != -1));
+        }
+    }
+
     /**
      * open/reopen the connection to the owserver
      *
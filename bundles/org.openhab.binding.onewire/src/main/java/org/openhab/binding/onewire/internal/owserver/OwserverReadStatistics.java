@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.onewire.internal.owserver;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link OwserverReadStatistics} class collects the read latencies of a single owfs path
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class OwserverReadStatistics {
+    private long readCount = 0;
+    private long errorCount = 0;
+    private long totalLatency = 0;
+    private long maxLatency = 0;
+
+    /**
+     * add a read to the statistics
+     *
+     * @param latency time between sending the request and receiving the answer in ns
+     * @param success true if the answer contained a valid value
+     */
+    public synchronized void addRead(long latency, boolean success) {
+        readCount++;
+        if (!success) {
+            errorCount++;
+        }
+        totalLatency += latency;
+        if (latency > maxLatency) {
+            maxLatency = latency;
+        }
+    }
+
+    /**
+     * get the number of reads
+     *
+     * @return number of reads
+     */
+    public synchronized long getReadCount() {
+        return readCount;
+    }
+
+    /**
+     * get the number of failed reads
+     *
+     * @return number of reads without valid answer
+     */
+    public synchronized long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * get the average read latency
+     *
+     * @return average latency in ms
+     */
+    public synchronized double getAverageLatency() {
+        return readCount == 0 ? 0.0 : (double) totalLatency / readCount / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * get the maximum read latency
+     *
+     * @return maximum latency in ms
+     */
+    public synchronized double getMaxLatency() {
+        return (double) maxLatency / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d reads (%d errors), avg %.1f ms, max %.1f ms", readCount, errorCount,
+                getAverageLatency(), getMaxLatency());
+    }
+}
@@ -17,7 +17,10 @@ import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -142,6 +145,106 @@ public class OwserverConnectionTest extends JavaTest {
         }
     }
 
+    @Test
+    public void testCheckPresences() {
+        owserverConnection.start();
+        try {
+            Map<String, State> presences = owserverConnection
+                    .checkPresences(Arrays.asList("present", "notpresent", "present"));
+
+            assertEquals(2, presences.size());
+            assertEquals(OnOffType.ON, presences.get("present"));
+            assertEquals(OnOffType.OFF, presences.get("notpresent"));
+        } catch (OwException e) {
+            Assert.fail("caught unexpected OwException");
+        }
+    }
+
+    @Test
+    public void testReadDecimalTypes() {
+        owserverConnection.start();
+        try {
+            Map<String, State> numbers = owserverConnection
+                    .readDecimalTypes(Arrays.asList("testsensor/decimal", "testsensor/latesttemp"));
+
+            assertEquals(2, numbers.size());
+            assertEquals(17.4, ((DecimalType) numbers.get("testsensor/decimal")).doubleValue(), 0.01);
+            assertEquals(21.5, ((DecimalType) numbers.get("testsensor/latesttemp")).doubleValue(), 0.01);
+
+            assertEquals(1, owserverConnection.getReadStatistics().get("testsensor/decimal").getReadCount());
+            assertEquals(0, owserverConnection.getReadStatistics().get("testsensor/latesttemp").getErrorCount());
+        } catch (OwException e) {
+            Assert.fail("caught unexpected OwException");
+        }
+    }
+
+    @Test
+    public void testPipelinedReadDecimalTypes() {
+        owserverConnection.start();
+        try {
+            List<String> paths = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                paths.add("testsensor/value/" + i);
+            }
+            Map<String, State> numbers = owserverConnection.readDecimalTypes(paths);
+
+            assertEquals(40, numbers.size());
+            for (int i = 0; i < 40; i++) {
+                assertEquals(i, ((DecimalType) numbers.get("testsensor/value/" + i)).intValue());
+                assertEquals(1, owserverConnection.getReadStatistics().get("testsensor/value/" + i).getReadCount());
+            }
+            // all windows were sent on the persistent connection opened by start()
+            assertEquals(1, testServer.getConnectionCount());
+        } catch (OwException e) {
+            Assert.fail("caught unexpected OwException");
+        }
+    }
+
+    @Test
+    public void testPipelinedCheckPresences() {
+        owserverConnection.start();
+        try {
+            List<String> paths = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                paths.add((i % 3 == 0 ? "notpresent/" : "present/") + i);
+            }
+            Map<String, State> presences = owserverConnection.checkPresences(paths);
+
+            assertEquals(20, presences.size());
+            for (int i = 0; i < 20; i++) {
+                assertEquals(i % 3 == 0 ? OnOffType.OFF : OnOffType.ON, presences.get(paths.get(i)));
+            }
+            assertEquals(1, testServer.getConnectionCount());
+        } catch (OwException e) {
+            Assert.fail("caught unexpected OwException");
+        }
+    }
+
+    @Test
+    public void testPipelineFallsBackWhenPersistenceIsDropped() {
+        // the owserver drops persistence with the fifth answer on each connection, i.e. within the first window
+        testServer.setPersistenceLimit(5);
+        owserverConnection.start();
+        try {
+            List<String> paths = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                paths.add("testsensor/value/" + i);
+            }
+            Map<String, State> numbers = owserverConnection.readDecimalTypes(paths);
+
+            assertEquals(20, numbers.size());
+            for (int i = 0; i < 20; i++) {
+                assertEquals(i, ((DecimalType) numbers.get("testsensor/value/" + i)).intValue());
+                assertEquals(1, owserverConnection.getReadStatistics().get("testsensor/value/" + i).getReadCount());
+            }
+            // unanswered requests of a window are sent again on a new connection
+            assertEquals(4, testServer.getConnectionCount());
+            Mockito.verify(bridgeHandler, never()).reportConnectionState(OwserverConnectionState.FAILED);
+        } catch (OwException e) {
+            Assert.fail("caught unexpected OwException");
+        }
+    }
+
     @Test
     public void testReadDecimalTypeArray() {
         owserverConnection.start();
@@ -14,15 +14,18 @@ package org.openhab.binding.onewire.test;
 
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.ArrayList;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.openhab.binding.onewire.internal.OwException;
 import org.openhab.binding.onewire.internal.OwPageBuffer;
+import org.openhab.binding.onewire.internal.owserver.OwserverControlFlag;
 import org.openhab.binding.onewire.internal.owserver.OwserverPacket;
 import org.openhab.binding.onewire.internal.owserver.OwserverPacketType;
 import org.slf4j.Logger;
@@ -43,6 +46,8 @@ public class OwserverTestServer {
     private DataOutputStream outputStream;
 
     private boolean isRunning = false;
+    private volatile int persistenceLimit = 0;
+    private final AtomicInteger connectionCount = new AtomicInteger();
 
     public OwserverTestServer(int port) throws IOException {
         serverSocket = new ServerSocket(port);
@@ -54,27 +59,19 @@ public class OwserverTestServer {
         new Thread() {
             @Override
             public void run() {
-                OwserverPacket receivedPacket;
-                ArrayList<OwserverPacket> answerPackets;
                 serverStarted.complete(true);
                 try {
                     while (isRunning) {
                         connectionSocket = serverSocket.accept();
+                        connectionCount.incrementAndGet();
                         inputStream = new DataInputStream(connectionSocket.getInputStream());
                         outputStream = new DataOutputStream(connectionSocket.getOutputStream());
-
-                        receivedPacket = new OwserverPacket(inputStream, OwserverPacketType.REQUEST);
-                        logger.debug("received {}", receivedPacket);
-                        answerPackets = processPacket(receivedPacket);
-
-                        answerPackets.forEach(answerPacket -> {
-                            logger.debug("answering {}", answerPacket);
-                            try {
-                                outputStream.write(answerPacket.toBytes());
-                            } catch (IOException e) {
-                                logger.error("I/O Error: {}", e.getMessage());
-                            }
-                        });
+                        try {
+                            processConnection();
+                        } catch (EOFException e) {
+                            logger.debug("connection closed by client");
+                        }
+                        connectionSocket.close();
                     }
                 } catch (IOException e) {
                     logger.error("I/O Error: {}", e.getMessage());
@@ -88,6 +85,58 @@ public class OwserverTestServer {
     public void stopServer() throws IOException {
         isRunning = false;
         serverSocket.close();
+        if (connectionSocket != null) {
+            connectionSocket.close();
+        }
+    }
+
+    /**
+     * limit the number of answers on a persistent connection, the last answer denies persistence
+     *
+     * @param persistenceLimit maximum number of answers per connection, 0 for unlimited
+     */
+    public void setPersistenceLimit(int persistenceLimit) {
+        this.persistenceLimit = persistenceLimit;
+    }
+
+    /**
+     * get the number of connections accepted since the server was started
+     *
+     * @return number of connections
+     */
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    /**
+     * answer the requests on the current connection, as long as persistence is requested and granted
+     *
+     * @throws IOException
+     * @throws OwException
+     */
+    private void processConnection() throws IOException, OwException {
+        int answerCount = 0;
+        boolean persistent;
+        do {
+            OwserverPacket receivedPacket = new OwserverPacket(inputStream, OwserverPacketType.REQUEST);
+            logger.debug("received {}", receivedPacket);
+            answerCount++;
+            persistent = receivedPacket.hasControlFlag(OwserverControlFlag.PERSISTENCE)
+                    && (persistenceLimit == 0 || answerCount < persistenceLimit);
+
+            for (OwserverPacket answerPacket : processPacket(receivedPacket)) {
+                if (persistent) {
+                    answerPacket.setControlFlags(OwserverControlFlag.PERSISTENCE);
+                }
+                logger.debug("answering {}", answerPacket);
+                outputStream.write(answerPacket.toBytes());
+            }
+        } while (persistent);
+
+        // discard requests that were already sent on this connection until the client closes it
+        connectionSocket.shutdownOutput();
+        while (inputStream.read() != -1) {
+        }
     }
 
     private ArrayList<OwserverPacket> processPacket(OwserverPacket inputPacket) {
@@ -108,7 +157,9 @@ public class OwserverTestServer {
                     case "present":
                         break;
                     default:
-                        returnPacket.setReturnCode(-1);
+                        if (!inputPacket.getPayloadString().startsWith("present/")) {
+                            returnPacket.setReturnCode(-1);
+                        }
                 }
                 returnPacket.setPayload(inputPacket.getPayloadString());
                 returnPackets.add(returnPacket);
@@ -125,11 +176,19 @@ public class OwserverTestServer {
                         returnPacket.setPayload("    17.4");
                         returnPackets.add(returnPacket);
                         break;
+                    case "testsensor/latesttemp":
+                        returnPacket.setPayload("    21.5");
+                        returnPackets.add(returnPacket);
+                        break;
                     case "testsensor/decimalarray":
                         returnPacket.setPayload("        3834,           0");
                         returnPackets.add(returnPacket);
                         break;
                     default:
+                        if (inputPacket.getPayloadString().startsWith("testsensor/value/")) {
+                            returnPacket.setPayload("    " + inputPacket.getPayloadString().substring(17));
+                            returnPackets.add(returnPacket);
+                        }
                 }
                 break;
             case WRITE:
@@ -17,19 +17,39 @@ import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * This is a simple file based cache implementation.
  *
+ * The cache has two tiers. The recently used contents are kept in a size bounded memory tier, so that frequent hits
+ * are not read from disk. All contents are stored in a size bounded disk tier, to which they are written
+ * asynchronously. If a tier exceeds its size, the least recently used contents are evicted.
+ *
+ * The files are only read and written outside of the locks which guard the tiers, so a slow disk does not block the
+ * lookups of other keys. A file is written to a temporary file first, which replaces the file in the cache atomically.
+ *
  * @author Christoph Weitkamp - Initial contribution
  */
 @NonNullByDefault
@@ -37,20 +57,112 @@ public class ByteArrayFileCache {
 
     private final Logger logger = LoggerFactory.getLogger(ByteArrayFileCache.class);
 
-    private static final String CACHE_FOLDER_NAME = "cache";
-    public static final char EXTENSION_SEPARATOR = '.';
+    private static final String MD5_ALGORITHM = "MD5";
+
+    static final String CACHE_FOLDER_NAME = "cache";
+    private static final char EXTENSION_SEPARATOR = '.';
+    private static final char UNIX_SEPARATOR = '/';
+    private static final char WINDOWS_SEPARATOR = '\\';
+
+    private static final String THREAD_POOL_NAME = "bytearrayfilecache";
+
+    // the prefix of the temporary files, which cannot be confused with the MD5 hashes of the files in the cache
+    private static final String TEMP_FILE_PREFIX = ".write-";
+
+    static final int DEFAULT_MAX_MEMORY_SIZE = 4 * 1024 * 1024;
+    static final long DEFAULT_MAX_DISK_SIZE = 64L * 1024 * 1024;
+
+    // the time of last use of a file is updated at most once per interval for hits in the memory tier
+    private static final long TOUCH_INTERVAL_IN_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final File cacheFolder;
+
+    static final long ONE_DAY_IN_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private int expiry = 0;
+
+    private final int maxMemorySize;
+    private final long maxDiskSize;
+
+    // the memory tier by file name, in access order
+    private final LinkedHashMap<String, MemoryEntry> memoryEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private int memorySize = 0;
 
-    protected final File cacheFolder;
+    // the sizes of the files in the disk tier by file name, in access order
+    private final LinkedHashMap<String, Long> diskEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private long diskSize = 0;
 
+    // the contents which are not yet written to disk by file name, guarded by diskEntries
+    private final Map<String, byte[]> pendingWrites = new LinkedHashMap<>();
+    private boolean writeScheduled = false;
+
+    // serializes the changes of the files in the cache folder, always acquired before the lock of the disk tier
+    private final Object fileLock = new Object();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    private static class MemoryEntry {
+        private final byte[] content;
+        private long lastTouched;
+
+        private MemoryEntry(byte[] content, long lastTouched) {
+            this.content = content;
+            this.lastTouched = lastTouched;
+        }
+    }
+
+    /**
+     * Creates a new {@link ByteArrayFileCache} instance for a service. Creates a <code>cache</code> folder under
+     * <code>$userdata/cache/$servicePID</code>.
+     *
+     * @param servicePID PID of the service
+     */
     public ByteArrayFileCache(String servicePID) {
-        // TODO track and limit folder size
+        this(servicePID, 0, DEFAULT_MAX_MEMORY_SIZE, DEFAULT_MAX_DISK_SIZE);
+    }
+
+    /**
+     * Creates a new {@link ByteArrayFileCache} instance for a service. Creates a <code>cache</code> folder under
+     * <code>$userdata/cache/$servicePID/</code>.
+     *
+     * @param servicePID PID of the service
+     * @param int the days for how long the files stay in the cache valid. Must be positive. 0 to
+     *            disables this functionality.
+     */
+    public ByteArrayFileCache(String servicePID, int expiry) {
+        this(servicePID, expiry, DEFAULT_MAX_MEMORY_SIZE, DEFAULT_MAX_DISK_SIZE);
+    }
+
+    /**
+     * Creates a new {@link ByteArrayFileCache} instance for a service. Creates a <code>cache</code> folder under
+     * <code>$userdata/cache/$servicePID/</code>.
+     *
+     * @param servicePID PID of the service
+     * @param int the days for how long the files stay in the cache valid. Must be positive. 0 to
+     *            disables this functionality.
+     * @param maxMemorySize the maximum size in bytes of the contents kept in memory
+     * @param maxDiskSize the maximum size in bytes of the files in the cache folder
+     */
+    public ByteArrayFileCache(String servicePID, int expiry, int maxMemorySize, long maxDiskSize) {
+        if (expiry < 0) {
+            throw new IllegalArgumentException("Cache expiration time must be greater than or equal to 0");
+        }
+        if (maxMemorySize < 0 || maxDiskSize < 0) {
+            throw new IllegalArgumentException("Cache size must be greater than or equal to 0");
+        }
+        this.expiry = expiry;
+        this.maxMemorySize = maxMemorySize;
+        this.maxDiskSize = maxDiskSize;
+
         // TODO support user specific folder
-        cacheFolder = new File(new File(new File(ConfigConstants.getUserDataFolder()), CACHE_FOLDER_NAME), servicePID);
+        cacheFolder = new File(new File(ConfigConstants.getUserDataFolder(), CACHE_FOLDER_NAME), servicePID);
         if (!cacheFolder.exists()) {
             logger.debug("Creating cache folder '{}'", cacheFolder.getAbsolutePath());
             cacheFolder.mkdirs();
         }
         logger.debug("Using cache folder '{}'", cacheFolder.getAbsolutePath());
+        loadDiskEntries();
     }
 
     /**
@@ -61,7 +173,9 @@ public class ByteArrayFileCache {
      * @param content the content for the file to be associated with the specified key
      */
     public void put(String key, byte[] content) {
-        writeFile(getUniqueFile(key), content);
+        String fileName = getUniqueFile(key).getName();
+        putInMemory(fileName, content);
+        scheduleWrite(fileName, content);
     }
 
     /**
@@ -72,10 +186,12 @@ public class ByteArrayFileCache {
      */
     public void putIfAbsent(String key, byte[] content) {
         File fileInCache = getUniqueFile(key);
-        if (fileInCache.exists()) {
+        if (containsFile(fileInCache.getName())) {
             logger.debug("File '{}' present in cache", fileInCache.getName());
+            // update time of last use
+            fileInCache.setLastModified(System.currentTimeMillis());
         } else {
-            writeFile(fileInCache, content);
+            put(key, content);
         }
     }
 
@@ -89,22 +205,181 @@ public class ByteArrayFileCache {
     public byte[] putIfAbsentAndGet(String key, byte[] content) {
         putIfAbsent(key, content);
 
-        // return get(key);
         return content;
     }
 
     /**
-     * Writes the given content to the given {@link File}.
+     * Adds the content to the memory tier and evicts the least recently used contents, if the memory tier is full.
      *
-     * @param fileInCache the {@link File}
+     * @param fileName the name of the file
+     * @param content the content of the file
+     */
+    private void putInMemory(String fileName, byte[] content) {
+        synchronized (memoryEntries) {
+            MemoryEntry oldEntry = content.length > maxMemorySize ? memoryEntries.remove(fileName)
+                    : memoryEntries.put(fileName, new MemoryEntry(content, System.currentTimeMillis()));
+            if (oldEntry != null) {
+                memorySize -= oldEntry.content.length;
+            }
+            if (content.length > maxMemorySize) {
+                return;
+            }
+            memorySize += content.length;
+            Iterator<MemoryEntry> iterator = memoryEntries.values().iterator();
+            while (memorySize > maxMemorySize && iterator.hasNext()) {
+                memorySize -= iterator.next().content.length;
+                iterator.remove();
+            }
+        }
+    }
+
+    private void removeFromMemory(String fileName) {
+        synchronized (memoryEntries) {
+            MemoryEntry entry = memoryEntries.remove(fileName);
+            if (entry != null) {
+                memorySize -= entry.content.length;
+            }
+        }
+    }
+
+    /**
+     * Queues the content to be written to disk.
+     *
+     * @param fileName the name of the file
      * @param content the content to be written
      */
-    private void writeFile(File fileInCache, byte[] content) {
-        logger.debug("Caching file '{}'", fileInCache.getName());
+    private void scheduleWrite(String fileName, byte[] content) {
+        synchronized (diskEntries) {
+            pendingWrites.put(fileName, content);
+            if (writeScheduled) {
+                return;
+            }
+            writeScheduled = true;
+        }
+        ThreadPoolManager.getPool(THREAD_POOL_NAME).execute(this::flush);
+    }
+
+    /**
+     * Writes all contents to disk, which are not yet written.
+     */
+    public void flush() {
+        while (true) {
+            synchronized (fileLock) {
+                String fileName;
+                byte[] content;
+                synchronized (diskEntries) {
+                    Iterator<Map.Entry<String, byte[]>> iterator = pendingWrites.entrySet().iterator();
+                    if (!iterator.hasNext()) {
+                        writeScheduled = false;
+                        return;
+                    }
+                    Map.Entry<String, byte[]> pendingWrite = iterator.next();
+                    fileName = pendingWrite.getKey();
+                    content = pendingWrite.getValue();
+                }
+                writeFile(fileName, content);
+            }
+        }
+    }
+
+    /**
+     * Writes the given content to the file with the given name and evicts the least recently used files, if the disk
+     * tier is full. The content stays readable from the pending writes until the file is written. Must be called while
+     * holding the file lock, but not the lock of the disk tier.
+     *
+     * @param fileName the name of the file
+     * @param content the content to be written
+     */
+    private void writeFile(String fileName, byte[] content) {
+        logger.debug("Caching file '{}'", fileName);
+        Path tempFile = null;
         try {
-            Files.write(fileInCache.toPath(), content);
+            tempFile = Files.createTempFile(cacheFolder.toPath(), TEMP_FILE_PREFIX, null);
+            Files.write(tempFile, content);
+            Files.move(tempFile, new File(cacheFolder, fileName).toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
-            logger.warn("Could not write file '{}' to cache", fileInCache.getName(), e);
+            logger.warn("Could not write file '{}' to cache", fileName, e);
+            if (tempFile != null) {
+                tempFile.toFile().delete();
+            }
+            synchronized (diskEntries) {
+                pendingWrites.remove(fileName, content);
+                removeFromDisk(fileName);
+            }
+            return;
+        }
+
+        List<String> evictedFileNames;
+        synchronized (diskEntries) {
+            if (!pendingWrites.remove(fileName, content)) {
+                // the content was replaced while it was written, the new content is written next
+                return;
+            }
+            Long oldSize = diskEntries.put(fileName, (long) content.length);
+            diskSize += content.length - (oldSize == null ? 0 : oldSize);
+            evictedFileNames = evictFromDisk();
+        }
+        deleteEvictedFiles(evictedFileNames);
+    }
+
+    /**
+     * Removes the least recently used files from the disk tier, until it does not exceed its size. The most recently
+     * used file is always kept. Must be called while holding the lock of the disk tier.
+     *
+     * @return the names of the evicted files, which have to be deleted by {@link #deleteEvictedFiles(List)}
+     */
+    private List<String> evictFromDisk() {
+        List<String> evictedFileNames = new ArrayList<>();
+        Iterator<Map.Entry<String, Long>> iterator = diskEntries.entrySet().iterator();
+        while (diskSize > maxDiskSize && diskEntries.size() > 1) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            diskSize -= eldest.getValue();
+            evictedFileNames.add(eldest.getKey());
+            evictionCount.incrementAndGet();
+        }
+        return evictedFileNames;
+    }
+
+    /**
+     * Deletes the evicted files and removes them from the memory tier. Must be called while holding the file lock,
+     * but not the lock of the disk tier.
+     *
+     * @param evictedFileNames the names of the evicted files
+     */
+    private void deleteEvictedFiles(List<String> evictedFileNames) {
+        for (String fileName : evictedFileNames) {
+            logger.debug("Evicting file '{}' from cache", fileName);
+            new File(cacheFolder, fileName).delete();
+            removeFromMemory(fileName);
+        }
+    }
+
+    /**
+     * Reads the files in the cache folder into the disk tier, the least recently used file first. Temporary files,
+     * which were left by an interrupted write, are deleted.
+     */
+    private void loadDiskEntries() {
+        File[] filesInCache = cacheFolder.listFiles(File::isFile);
+        if (filesInCache == null) {
+            return;
+        }
+        Arrays.sort(filesInCache, Comparator.comparingLong(File::lastModified));
+        synchronized (fileLock) {
+            List<String> evictedFileNames;
+            synchronized (diskEntries) {
+                for (File fileInCache : filesInCache) {
+                    if (fileInCache.getName().startsWith(TEMP_FILE_PREFIX)) {
+                        fileInCache.delete();
+                        continue;
+                    }
+                    diskEntries.put(fileInCache.getName(), fileInCache.length());
+                    diskSize += fileInCache.length();
+                }
+                evictedFileNames = evictFromDisk();
+            }
+            deleteEvictedFiles(evictedFileNames);
         }
     }
 
@@ -115,7 +390,18 @@ public class ByteArrayFileCache {
      * @return true if the cache contains a file for the specified key
      */
     public boolean containsKey(String key) {
-        return getUniqueFile(key).exists();
+        return containsFile(getUniqueFile(key).getName());
+    }
+
+    private boolean containsFile(String fileName) {
+        synchronized (memoryEntries) {
+            if (memoryEntries.containsKey(fileName)) {
+                return true;
+            }
+        }
+        synchronized (diskEntries) {
+            return pendingWrites.containsKey(fileName) || diskEntries.containsKey(fileName);
+        }
     }
 
     /**
@@ -124,7 +410,27 @@ public class ByteArrayFileCache {
      * @param key the key whose associated file is to be removed
      */
     public void remove(String key) {
-        deleteFile(getUniqueFile(key));
+        String fileName = getUniqueFile(key).getName();
+        removeFromMemory(fileName);
+        synchronized (fileLock) {
+            synchronized (diskEntries) {
+                pendingWrites.remove(fileName);
+                removeFromDisk(fileName);
+            }
+            deleteFile(new File(cacheFolder, fileName));
+        }
+    }
+
+    /**
+     * Removes the file from the disk tier. Must be called while holding the lock of the disk tier.
+     *
+     * @param fileName the name of the file
+     */
+    private void removeFromDisk(String fileName) {
+        Long size = diskEntries.remove(fileName);
+        if (size != null) {
+            diskSize -= size;
+        }
     }
 
     /**
@@ -145,41 +451,213 @@ public class ByteArrayFileCache {
      * Removes all files from the cache.
      */
     public void clear() {
-        File[] filesInCache = cacheFolder.listFiles();
-        if (filesInCache != null && filesInCache.length > 0) {
-            logger.debug("Deleting all files from cache");
-            Arrays.stream(filesInCache).forEach(File::delete);
+        synchronized (memoryEntries) {
+            memoryEntries.clear();
+            memorySize = 0;
+        }
+        synchronized (fileLock) {
+            synchronized (diskEntries) {
+                pendingWrites.clear();
+                diskEntries.clear();
+                diskSize = 0;
+            }
+            File[] filesInCache = cacheFolder.listFiles();
+            if (filesInCache != null && filesInCache.length > 0) {
+                logger.debug("Deleting all files from cache");
+                Arrays.stream(filesInCache).forEach(File::delete);
+            }
         }
     }
 
     /**
-     * Returns the content of the file associated with the given key, if it is present.
+     * Removes expired files from the cache.
+     */
+    public void clearExpired() {
+        // exit if expiry is set to 0 (disabled)
+        if (expiry <= 0) {
+            return;
+        }
+        List<File> expiredFiles = new ArrayList<>();
+        synchronized (fileLock) {
+            File[] filesInCache = cacheFolder.listFiles();
+            if (filesInCache == null || filesInCache.length == 0) {
+                return;
+            }
+            List<File> candidates = Arrays.stream(filesInCache).filter(file -> isExpired(file))
+                    .collect(Collectors.toList());
+            synchronized (diskEntries) {
+                candidates.stream().filter(file -> !pendingWrites.containsKey(file.getName())).forEach(file -> {
+                    removeFromDisk(file.getName());
+                    expiredFiles.add(file);
+                });
+            }
+            if (!expiredFiles.isEmpty()) {
+                logger.debug("Deleting expired files from cache");
+                expiredFiles.forEach(File::delete);
+            }
+        }
+        expiredFiles.forEach(file -> removeFromMemory(file.getName()));
+    }
+
+    /**
+     * Checks if the given {@link File} is expired.
+     *
+     * @param fileInCache the {@link File}
+     * @return <code>true</code> if the file is expired, <code>false</code> otherwise
+     */
+    private boolean isExpired(File fileInCache) {
+        // exit if expiry is set to 0 (disabled)
+        if (expiry <= 0) {
+            return false;
+        }
+        return expiry * ONE_DAY_IN_MILLIS < System.currentTimeMillis() - fileInCache.lastModified();
+    }
+
+    /**
+     * Returns the content of the file associated with the given key, if it is present. The returned content must not
+     * be modified.
      *
      * @param key the key whose associated file is to be returned
      * @return the content of the file associated with the given key
      */
     public byte[] get(String key) {
-        return readFile(getUniqueFile(key));
+        File fileInCache = getUniqueFile(key);
+        String fileName = fileInCache.getName();
+        long now = System.currentTimeMillis();
+
+        boolean touch = false;
+        byte[] content = null;
+        synchronized (memoryEntries) {
+            MemoryEntry entry = memoryEntries.get(fileName);
+            if (entry != null) {
+                content = entry.content;
+                if (now - entry.lastTouched > TOUCH_INTERVAL_IN_MILLIS) {
+                    entry.lastTouched = now;
+                    touch = true;
+                }
+            }
+        }
+        if (content != null) {
+            hitCount.incrementAndGet();
+            if (touch) {
+                synchronized (diskEntries) {
+                    diskEntries.get(fileName);
+                }
+                // update time of last use
+                fileInCache.setLastModified(now);
+            }
+            return content;
+        }
+
+        content = readFile(fileInCache);
+        if (content == null) {
+            missCount.incrementAndGet();
+            return new byte[0];
+        }
+        hitCount.incrementAndGet();
+        putInMemory(fileName, content);
+        return content;
     }
 
     /**
      * Reads the content from the given {@link File}, if it is present.
      *
      * @param fileInCache the {@link File}
-     * @return the content of the file
+     * @return the content of the file or null if the file is not present
      */
-    private byte[] readFile(File fileInCache) {
-        if (fileInCache.exists()) {
-            logger.debug("Reading file '{}' from cache", fileInCache.getName());
-            try {
-                return Files.readAllBytes(fileInCache.toPath());
-            } catch (IOException e) {
-                logger.warn("Could not read file '{}' from cache", fileInCache.getName(), e);
+    private byte @Nullable [] readFile(File fileInCache) {
+        String fileName = fileInCache.getName();
+        synchronized (diskEntries) {
+            byte[] pendingWrite = pendingWrites.get(fileName);
+            if (pendingWrite != null) {
+                return pendingWrite;
             }
-        } else {
-            logger.debug("File '{}' not found in cache", fileInCache.getName());
+            if (diskEntries.get(fileName) == null) {
+                logger.debug("File '{}' not found in cache", fileName);
+                return null;
+            }
+        }
+
+        logger.debug("Reading file '{}' from cache", fileName);
+        // update time of last use
+        fileInCache.setLastModified(System.currentTimeMillis());
+        try {
+            return Files.readAllBytes(fileInCache.toPath());
+        } catch (NoSuchFileException e) {
+            // the file was evicted or removed while it was read
+            logger.debug("File '{}' not found in cache", fileName);
+        } catch (IOException e) {
+            logger.warn("Could not read file '{}' from cache", fileName, e);
+        }
+        synchronized (diskEntries) {
+            if (!pendingWrites.containsKey(fileName)) {
+                removeFromDisk(fileName);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of lookups which were answered from the cache.
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of lookups for keys which were not present in the cache.
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns the number of files which were deleted, because the cache exceeded its size.
+     *
+     * @return the number of evictions
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * Returns the size of the contents kept in memory.
+     *
+     * @return the size in bytes
+     */
+    public int getMemorySize() {
+        synchronized (memoryEntries) {
+            return memorySize;
         }
-        return new byte[0];
+    }
+
+    /**
+     * Returns the size of the files in the cache folder, including the contents not yet written.
+     *
+     * @return the size in bytes
+     */
+    public long getDiskSize() {
+        synchronized (diskEntries) {
+            long size = diskSize + pendingWrites.values().stream().mapToLong(content -> content.length).sum();
+            // a content which is not yet written replaces the file of the same name
+            for (Map.Entry<String, Long> diskEntry : diskEntries.entrySet()) {
+                if (pendingWrites.containsKey(diskEntry.getKey())) {
+                    size -= diskEntry.getValue();
+                }
+            }
+            return size;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d hits, %d misses, %d evictions, %d bytes in memory, %d bytes on disk",
+                cacheFolder.getName(), getHitCount(), getMissCount(), getEvictionCount(), getMemorySize(),
+                getDiskSize());
     }
 
     /**
@@ -188,8 +666,7 @@ public class ByteArrayFileCache {
      * @param key the key with which the file is to be associated
      * @return unique file for the file associated with the given key
      */
-    private File getUniqueFile(String key) {
-        // TODO: store / cache file internally for faster operations
+    File getUniqueFile(String key) {
         String fileExtension = getFileExtension(key);
         return new File(cacheFolder,
                 getUniqueFileName(key) + (fileExtension == null ? "" : EXTENSION_SEPARATOR + fileExtension));
@@ -201,14 +678,11 @@ public class ByteArrayFileCache {
      * @param fileName the file name to retrieve the extension of
      * @return the extension of the file or null if none exists
      */
-    private @Nullable String getFileExtension(String fileName) {
-        int index = fileName.lastIndexOf(EXTENSION_SEPARATOR);
-        // exclude file names starting with a dot
-        if (index > 0) {
-            return fileName.substring(index + 1);
-        } else {
-            return null;
-        }
+    @Nullable
+    String getFileExtension(String fileName) {
+        int extensionPos = fileName.lastIndexOf(EXTENSION_SEPARATOR);
+        int lastSeparatorPos = Math.max(fileName.lastIndexOf(UNIX_SEPARATOR), fileName.lastIndexOf(WINDOWS_SEPARATOR));
+        return lastSeparatorPos > extensionPos ? null : fileName.substring(extensionPos + 1);
     }
 
     /**
@@ -217,22 +691,22 @@ public class ByteArrayFileCache {
      * @param key the key with which the file is to be associated
      * @return unique file name for the file associated with the given key
      */
-    private String getUniqueFileName(String key) {
+    String getUniqueFileName(String key) {
         try {
-            byte[] bytesOfFileName = key.getBytes(StandardCharsets.UTF_8);
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            byte[] md5Hash = md.digest(bytesOfFileName);
+            MessageDigest md = MessageDigest.getInstance(MD5_ALGORITHM);
+            byte[] bytesOfKey = key.getBytes(StandardCharsets.UTF_8);
+            byte[] md5Hash = md.digest(bytesOfKey);
             BigInteger bigInt = new BigInteger(1, md5Hash);
-            StringBuilder fileNameHash = new StringBuilder(bigInt.toString(16));
+            String fileNameHash = bigInt.toString(16);
             // Now we need to zero pad it if you actually want the full 32 chars
             while (fileNameHash.length() < 32) {
-                fileNameHash.insert(0, "0");
+                fileNameHash = "0" + fileNameHash;
             }
-            return fileNameHash.toString();
+            return fileNameHash;
         } catch (NoSuchAlgorithmException ex) {
             // should not happen
             logger.error("Could not create MD5 hash for key '{}'", key, ex);
-            return key.toString();
+            return key;
         }
     }
 }
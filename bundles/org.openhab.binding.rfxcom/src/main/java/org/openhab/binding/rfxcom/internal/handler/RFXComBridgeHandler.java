@@ -14,7 +14,9 @@ package org.openhab.binding.rfxcom.internal.handler;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledFuture;
@@ -64,7 +66,15 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
     private RFXComConnectorInterface connector = null;
     private MessageListener eventListener = new MessageListener();
 
+    /**
+     * Repeated frames received within this time are only passed on once.
+     */
+    private static final long REPEAT_WINDOW_MS = 1000;
+
     private List<DeviceMessageListener> deviceStatusListeners = new CopyOnWriteArrayList<>();
+    private Map<String, List<DeviceMessageListener>> deviceStatusListenersById = new ConcurrentHashMap<>();
+
+    private RFXComRepeatFilter repeatFilter = new RFXComRepeatFilter(REPEAT_WINDOW_MS);
 
     private RFXComBridgeConfiguration configuration = null;
     private ScheduledFuture<?> connectorTask;
@@ -126,6 +136,8 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
         for (DeviceMessageListener deviceStatusListener : deviceStatusListeners) {
             unregisterDeviceStatusListener(deviceStatusListener);
         }
+        deviceStatusListenersById.clear();
+        repeatFilter.clear();
 
         if (connector != null) {
             connector.removeEventListener(eventListener);
@@ -297,14 +309,17 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
 
                     transmitQueue.sendNext();
                 } else if (message instanceof RFXComDeviceMessage) {
-                    for (DeviceMessageListener deviceStatusListener : deviceStatusListeners) {
-                        try {
-                            deviceStatusListener.onDeviceMessageReceived(getThing().getUID(),
-                                    (RFXComDeviceMessage) message);
-                        } catch (Exception e) {
-                            // catch all exceptions give all handlers a fair chance of handling the messages
-                            logger.error("An exception occurred while calling the DeviceStatusListener", e);
-                        }
+                    RFXComDeviceMessage deviceMessage = (RFXComDeviceMessage) message;
+                    String deviceId = deviceMessage.getDeviceId();
+                    if (repeatFilter.isRepeat(deviceId, packet, System.currentTimeMillis())) {
+                        logger.trace("Ignoring repeated message of device {}", deviceId);
+                        return;
+                    }
+
+                    notifyDeviceStatusListeners(deviceStatusListeners, deviceMessage);
+                    List<DeviceMessageListener> listeners = deviceStatusListenersById.get(deviceId);
+                    if (listeners != null) {
+                        notifyDeviceStatusListeners(listeners, deviceMessage);
                     }
                 } else {
                     logger.warn("The received message cannot be processed, please create an "
@@ -319,6 +334,18 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
             }
         }
 
+        private void notifyDeviceStatusListeners(List<DeviceMessageListener> listeners,
+                RFXComDeviceMessage message) {
+            for (DeviceMessageListener deviceStatusListener : listeners) {
+                try {
+                    deviceStatusListener.onDeviceMessageReceived(getThing().getUID(), message);
+                } catch (Exception e) {
+                    // catch all exceptions give all handlers a fair chance of handling the messages
+                    logger.error("An exception occurred while calling the DeviceStatusListener", e);
+                }
+            }
+        }
+
         @Override
         public void errorOccurred(String error) {
             logger.error("Error occurred: {}", error);
@@ -334,11 +361,30 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
                 : deviceStatusListeners.add(deviceStatusListener);
     }
 
-    public boolean unregisterDeviceStatusListener(DeviceMessageListener deviceStatusListener) {
+    /**
+     * Registers a listener for the messages of a single device. Only the messages with the given device id are passed
+     * to the listener.
+     */
+    public synchronized boolean registerDeviceStatusListener(String deviceId,
+            DeviceMessageListener deviceStatusListener) {
+        if (deviceStatusListener == null) {
+            throw new IllegalArgumentException("It's not allowed to pass a null deviceStatusListener.");
+        }
+        List<DeviceMessageListener> listeners = deviceStatusListenersById.computeIfAbsent(deviceId,
+                id -> new CopyOnWriteArrayList<>());
+        return listeners.contains(deviceStatusListener) ? false : listeners.add(deviceStatusListener);
+    }
+
+    public synchronized boolean unregisterDeviceStatusListener(DeviceMessageListener deviceStatusListener) {
         if (deviceStatusListener == null) {
             throw new IllegalArgumentException("It's not allowed to pass a null deviceStatusListener.");
         }
-        return deviceStatusListeners.remove(deviceStatusListener);
+        boolean removed = deviceStatusListeners.remove(deviceStatusListener);
+        for (List<DeviceMessageListener> listeners : deviceStatusListenersById.values()) {
+            removed |= listeners.remove(deviceStatusListener);
+        }
+        deviceStatusListenersById.values().removeIf(List::isEmpty);
+        return removed;
     }
 
     public RFXComBridgeConfiguration getConfiguration() {
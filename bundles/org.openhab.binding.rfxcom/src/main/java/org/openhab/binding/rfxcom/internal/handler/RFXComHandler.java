@@ -107,7 +107,7 @@ public class RFXComHandler extends BaseThingHandler implements DeviceMessageList
                     "RFXCOM device missing deviceId or subType");
         } else if (thingHandler != null && bridgeStatus != null) {
             bridgeHandler = (RFXComBridgeHandler) thingHandler;
-            bridgeHandler.registerDeviceStatusListener(this);
+            bridgeHandler.registerDeviceStatusListener(config.deviceId, this);
 
             if (bridgeStatus == ThingStatus.ONLINE) {
                 updateStatus(ThingStatus.ONLINE);
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rfxcom.internal.handler;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@link RFXComRepeatFilter} detects the repeated frames of a device. RF devices transmit each frame several
+ * times, the RFXCOM transceiver passes every copy on with a new sequence number.
+ *
+ * A packet is a repeat if the previous packet of the same device was identical, apart from the sequence number, and
+ * the first packet of this burst was received within the repeat window. The window is not extended by the repeats,
+ * so a device that sends the same frame continuously is still passed on once per window.
+ *
+ * @author agent - Initial contribution
+ */
+public class RFXComRepeatFilter {
+    private static final int SEQUENCE_NUMBER_INDEX = 3;
+
+    private final long repeatWindow;
+
+    private final Map<String, Frame> lastFrames = new HashMap<>();
+
+    private static class Frame {
+        private final byte[] packet;
+        private final long received;
+
+        private Frame(byte[] packet, long received) {
+            this.packet = packet;
+            this.received = received;
+        }
+    }
+
+    /**
+     * @param repeatWindow the time in ms in which identical packets are treated as repeats
+     */
+    public RFXComRepeatFilter(long repeatWindow) {
+        this.repeatWindow = repeatWindow;
+    }
+
+    /**
+     * Checks if the packet is a repeat of the previous packet of the device.
+     *
+     * @param deviceId the id of the device that sent the packet
+     * @param packet the received packet
+     * @param now the time of reception in ms
+     * @return true if the packet is a repeat and should be dropped
+     */
+    public synchronized boolean isRepeat(String deviceId, byte[] packet, long now) {
+        byte[] frame = packet.clone();
+        if (frame.length > SEQUENCE_NUMBER_INDEX) {
+            frame[SEQUENCE_NUMBER_INDEX] = 0;
+        }
+
+        Frame lastFrame = lastFrames.get(deviceId);
+        if (lastFrame != null && now - lastFrame.received < repeatWindow && Arrays.equals(lastFrame.packet, frame)) {
+            return true;
+        }
+
+        lastFrames.put(deviceId, new Frame(frame, now));
+        return false;
+    }
+
+    public synchronized void clear() {
+        lastFrames.clear();
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rfxcom.internal.handler;
+
+import static org.junit.Assert.*;
+
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.junit.Test;
+
+/**
+ * Test for RFXCom-binding
+ *
+ * @author agent - Initial contribution
+ */
+public class RFXComRepeatFilterTest {
+    private final RFXComRepeatFilter filter = new RFXComRepeatFilter(1000);
+
+    @Test
+    public void testRepeatWithNewSequenceNumber() {
+        assertFalse(filter.isRepeat("195", HexUtils.hexToBytes("0850091A00C3800689"), 0));
+        assertTrue(filter.isRepeat("195", HexUtils.hexToBytes("0850091B00C3800689"), 200));
+        assertTrue(filter.isRepeat("195", HexUtils.hexToBytes("0850091C00C3800689"), 400));
+    }
+
+    @Test
+    public void testChangedFrame() {
+        assertFalse(filter.isRepeat("195", HexUtils.hexToBytes("0850091A00C3800689"), 0));
+        assertFalse(filter.isRepeat("195", HexUtils.hexToBytes("0850091B00C300E089"), 200));
+        assertFalse(filter.isRepeat("195", HexUtils.hexToBytes("0850091C00C3800689"), 400));
+    }
+
+    @Test
+    public void testRepeatWindow() {
+        assertFalse(filter.isRepeat("195", HexUtils.hexToBytes("0850091A00C3800689"), 0));
+        assertFalse(filter.isRepeat("195", HexUtils.hexToBytes("0850091B00C3800689"), 1000));
+        assertTrue(filter.isRepeat("195", HexUtils.hexToBytes("0850091C00C3800689"), 1500));
+    }
+
+    @Test
+    public void testLongSeriesOfRepeats() {
+        // The window starts with the first frame of a burst and is not extended by the repeats
+        assertFalse(filter.isRepeat("195", HexUtils.hexToBytes("0850091A00C3800689"), 0));
+        for (int time = 200; time < 1000; time += 200) {
+            assertTrue(filter.isRepeat("195", HexUtils.hexToBytes("0850091B00C3800689"), time));
+        }
+        assertFalse(filter.isRepeat("195", HexUtils.hexToBytes("0850091C00C3800689"), 1000));
+        for (int time = 1200; time < 2000; time += 200) {
+            assertTrue(filter.isRepeat("195", HexUtils.hexToBytes("0850091D00C3800689"), time));
+        }
+        assertFalse(filter.isRepeat("195", HexUtils.hexToBytes("0850091E00C3800689"), 2000));
+    }
+
+    @Test
+    public void testDifferentDevices() {
+        assertFalse(filter.isRepeat("1", HexUtils.hexToBytes("08500110000180BC69"), 0));
+        assertFalse(filter.isRepeat("64257", HexUtils.hexToBytes("0850021DFB0100D770"), 100));
+        assertTrue(filter.isRepeat("1", HexUtils.hexToBytes("08500111000180BC69"), 200));
+    }
+}
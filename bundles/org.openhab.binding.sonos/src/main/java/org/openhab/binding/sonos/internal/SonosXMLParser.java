@@ -16,12 +16,16 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.net.URL;
 import java.text.MessageFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiPredicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -29,6 +33,7 @@ import org.apache.commons.lang.StringEscapeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
@@ -55,6 +60,14 @@ public class SonosXMLParser {
                     + "<desc id=\"cdudn\" nameSpace=\"urn:schemas-rinconnetworks-com:metadata-1-0/\">" + "{4}</desc>"
                     + "</item></DIDL-Lite>");
 
+    /*
+     * Creating an XMLReader looks up the SAX driver every time, so the readers are reused. Every thread keeps a pool
+     * of idle readers, because a content handler may parse nested documents (e.g. resource meta data of an entry)
+     * while its reader is still in use.
+     */
+    private static final ThreadLocal<Deque<XMLReader>> XML_READERS = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final DefaultHandler NO_CONTENT_HANDLER = new DefaultHandler();
+
     private enum Element {
         TITLE,
         CLASS,
@@ -80,6 +93,34 @@ public class SonosXMLParser {
         desc;
     }
 
+    /**
+     * Parses the given xml string with a pooled XMLReader of the current thread.
+     *
+     * @param xml
+     * @param handler the content handler receiving the parse events
+     * @throws IOException
+     * @throws SAXException
+     */
+    private static void parse(String xml, ContentHandler handler) throws IOException, SAXException {
+        parse(new InputSource(new StringReader(xml)), handler);
+    }
+
+    private static void parse(InputSource source, ContentHandler handler) throws IOException, SAXException {
+        Deque<XMLReader> readers = XML_READERS.get();
+        XMLReader reader = readers.poll();
+        if (reader == null) {
+            reader = XMLReaderFactory.createXMLReader();
+        }
+        reader.setContentHandler(handler);
+        try {
+            reader.parse(source);
+        } finally {
+            // do not keep the handler and its results reachable from the idle reader
+            reader.setContentHandler(NO_CONTENT_HANDLER);
+            readers.push(reader);
+        }
+    }
+
     /**
      * @param xml
      * @return a list of alarms from the given xml string.
@@ -89,9 +130,7 @@ public class SonosXMLParser {
     public static List<SonosAlarm> getAlarmsFromStringResult(String xml) {
         AlarmHandler handler = new AlarmHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             LOGGER.error("Could not parse Alarms from string '{}'", xml);
         } catch (SAXException s) {
@@ -109,9 +148,7 @@ public class SonosXMLParser {
     public static List<SonosEntry> getEntriesFromString(String xml) {
         EntryHandler handler = new EntryHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             LOGGER.error("Could not parse Entries from string '{}'", xml);
         } catch (SAXException s) {
@@ -130,11 +167,9 @@ public class SonosXMLParser {
      * @throws SAXException
      */
     public static SonosResourceMetaData getResourceMetaData(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
         ResourceMetaDataHandler handler = new ResourceMetaDataHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             LOGGER.error("Could not parse Resource MetaData from String '{}'", xml);
         } catch (SAXException s) {
@@ -153,9 +188,7 @@ public class SonosXMLParser {
     public static List<SonosZoneGroup> getZoneGroupFromXML(String xml) {
         ZoneGroupHandler handler = new ZoneGroupHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse ZoneGroup from string '{}'", xml);
@@ -169,9 +202,7 @@ public class SonosXMLParser {
     public static List<String> getRadioTimeFromXML(String xml) {
         OpmlHandler handler = new OpmlHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse RadioTime from string '{}'", xml);
@@ -183,11 +214,22 @@ public class SonosXMLParser {
     }
 
     public static Map<String, String> getRenderingControlFromXML(String xml) {
-        RenderingControlEventHandler handler = new RenderingControlEventHandler();
+        return getRenderingControlFromXML(xml, (variable, value) -> true);
+    }
+
+    /**
+     * Parses a LastChange event of the RenderingControl service.
+     *
+     * @param xml
+     * @param changeFilter decides while parsing whether a variable with its value is returned, e.g. only if the value
+     *            differs from the last known value
+     * @return the accepted variables in the order of the event
+     */
+    public static Map<String, String> getRenderingControlFromXML(String xml,
+            BiPredicate<String, String> changeFilter) {
+        RenderingControlEventHandler handler = new RenderingControlEventHandler(changeFilter);
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse Rendering Control from string '{}'", xml);
@@ -198,11 +240,21 @@ public class SonosXMLParser {
     }
 
     public static Map<String, String> getAVTransportFromXML(String xml) {
-        AVTransportEventHandler handler = new AVTransportEventHandler();
+        return getAVTransportFromXML(xml, (variable, value) -> true);
+    }
+
+    /**
+     * Parses a LastChange event of the AVTransport service.
+     *
+     * @param xml
+     * @param changeFilter decides while parsing whether a variable with its value is returned, e.g. only if the value
+     *            differs from the last known value
+     * @return the accepted variables in the order of the event
+     */
+    public static Map<String, String> getAVTransportFromXML(String xml, BiPredicate<String, String> changeFilter) {
+        AVTransportEventHandler handler = new AVTransportEventHandler(changeFilter);
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse AV Transport from string '{}'", xml);
@@ -215,9 +267,7 @@ public class SonosXMLParser {
     public static SonosMetaData getMetaDataFromXML(String xml) {
         MetaDataHandler handler = new MetaDataHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse MetaData from string '{}'", xml);
@@ -231,9 +281,7 @@ public class SonosXMLParser {
     public static List<SonosMusicService> getMusicServicesFromXML(String xml) {
         MusicServiceHandler handler = new MusicServiceHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse music services from string '{}'", xml);
@@ -679,7 +727,12 @@ public class SonosXMLParser {
          * </Event>
          */
 
-        private final Map<String, String> changes = new HashMap<String, String>();
+        private final Map<String, String> changes = new LinkedHashMap<String, String>();
+        private final BiPredicate<String, String> changeFilter;
+
+        AVTransportEventHandler(BiPredicate<String, String> changeFilter) {
+            this.changeFilter = changeFilter;
+        }
 
         @Override
         public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
@@ -688,8 +741,9 @@ public class SonosXMLParser {
              * the info we need from here.
              */
             try {
-                if (atts.getValue("val") != null) {
-                    changes.put(localName, atts.getValue("val"));
+                String value = atts.getValue("val");
+                if (value != null) {
+                    putChange(changes, changeFilter, localName, value);
                 }
             } catch (IllegalArgumentException e) {
                 // this means that localName isn't defined in EventType, which is expected for some elements
@@ -791,25 +845,30 @@ public class SonosXMLParser {
 
     private static class RenderingControlEventHandler extends DefaultHandler {
 
-        private final Map<String, String> changes = new HashMap<String, String>();
+        private final Map<String, String> changes = new LinkedHashMap<String, String>();
+        private final BiPredicate<String, String> changeFilter;
 
         private boolean getPresetName = false;
         private String presetName;
 
+        RenderingControlEventHandler(BiPredicate<String, String> changeFilter) {
+            this.changeFilter = changeFilter;
+        }
+
         @Override
         public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
             if ("Volume".equals(qName)) {
-                changes.put(qName + atts.getValue("channel"), atts.getValue("val"));
+                putChange(changes, changeFilter, qName + atts.getValue("channel"), atts.getValue("val"));
             } else if ("Mute".equals(qName)) {
-                changes.put(qName + atts.getValue("channel"), atts.getValue("val"));
+                putChange(changes, changeFilter, qName + atts.getValue("channel"), atts.getValue("val"));
             } else if ("Bass".equals(qName)) {
-                changes.put(qName, atts.getValue("val"));
+                putChange(changes, changeFilter, qName, atts.getValue("val"));
             } else if ("Treble".equals(qName)) {
-                changes.put(qName, atts.getValue("val"));
+                putChange(changes, changeFilter, qName, atts.getValue("val"));
             } else if ("Loudness".equals(qName)) {
-                changes.put(qName + atts.getValue("channel"), atts.getValue("val"));
+                putChange(changes, changeFilter, qName + atts.getValue("channel"), atts.getValue("val"));
             } else if ("OutputFixed".equals(qName)) {
-                changes.put(qName, atts.getValue("val"));
+                putChange(changes, changeFilter, qName, atts.getValue("val"));
             } else if ("PresetNameList".equals(qName)) {
                 getPresetName = true;
             }
@@ -826,7 +885,7 @@ public class SonosXMLParser {
         public void endElement(String uri, String localName, String qName) throws SAXException {
             if (getPresetName) {
                 getPresetName = false;
-                changes.put(qName, presetName);
+                putChange(changes, changeFilter, qName, presetName);
             }
         }
 
@@ -836,6 +895,19 @@ public class SonosXMLParser {
 
     }
 
+    /**
+     * Adds a variable of an event to the changes if the filter accepts its value. A variable can occur several times
+     * in an event, the last occurrence wins.
+     */
+    private static void putChange(Map<String, String> changes, BiPredicate<String, String> changeFilter,
+            String variable, String value) {
+        if (changeFilter.test(variable, value)) {
+            changes.put(variable, value);
+        } else {
+            changes.remove(variable);
+        }
+    }
+
     private static class MusicServiceHandler extends DefaultHandler {
 
         private final List<SonosMusicService> services = new ArrayList<SonosMusicService>();
@@ -857,10 +929,8 @@ public class SonosXMLParser {
     public static String getRoomName(String descriptorXML) {
         RoomNameHandler roomNameHandler = new RoomNameHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(roomNameHandler);
             URL url = new URL(descriptorXML);
-            reader.parse(new InputSource(url.openStream()));
+            parse(new InputSource(url.openStream()), roomNameHandler);
         } catch (IOException | SAXException e) {
             LOGGER.error("Could not parse Sonos room name from string '{}'", descriptorXML);
         }
@@ -895,10 +965,8 @@ public class SonosXMLParser {
     public static String parseModelDescription(URL descriptorURL) {
         ModelNameHandler modelNameHandler = new ModelNameHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(modelNameHandler);
             URL url = new URL(descriptorURL.toString());
-            reader.parse(new InputSource(url.openStream()));
+            parse(new InputSource(url.openStream()), modelNameHandler);
         } catch (IOException | SAXException e) {
             LOGGER.error("Could not parse Sonos model name from string '{}'", descriptorURL.toString());
         }
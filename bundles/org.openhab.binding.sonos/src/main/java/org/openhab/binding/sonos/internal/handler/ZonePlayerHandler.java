@@ -387,7 +387,10 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
 
             // pre-process some variables, eg XML processing
             if (service.equals("AVTransport") && variable.equals("LastChange")) {
-                Map<String, String> parsedValues = SonosXMLParser.getAVTransportFromXML(value);
+                // only the variables that changed since the last event are dispatched
+                Map<String, String> parsedValues = SonosXMLParser.getAVTransportFromXML(value,
+                        (parsedVariable, parsedValue) -> isChangedAVTransportVariable(stateMap, parsedVariable,
+                                parsedValue));
                 for (String parsedValue : parsedValues.keySet()) {
                     // Update the transport state after the update of the media information
                     // to not break the notification mechanism
@@ -409,7 +412,8 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
             }
 
             if (service.equals("RenderingControl") && variable.equals("LastChange")) {
-                Map<String, String> parsedValues = SonosXMLParser.getRenderingControlFromXML(value);
+                Map<String, String> parsedValues = SonosXMLParser.getRenderingControlFromXML(value,
+                        (parsedVariable, parsedValue) -> isChangedVariable(stateMap, parsedVariable, parsedValue));
                 for (String parsedValue : parsedValues.keySet()) {
                     onValueReceived(parsedValue, parsedValues.get(parsedValue), "RenderingControl");
                 }
@@ -787,11 +791,30 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
      * CurrentURI will not change, but will trigger change of CurrentURIFormated
      * CurrentTrackMetaData will not change, but will trigger change of Title, Artist, Album
      */
-    private boolean shouldIgnoreVariableUpdate(String variable, String value, String oldValue) {
+    private static boolean shouldIgnoreVariableUpdate(String variable, String value, String oldValue) {
         return !hasValueChanged(value, oldValue) && !isQueueEvent(variable);
     }
 
-    private boolean hasValueChanged(String value, String oldValue) {
+    static boolean isChangedVariable(Map<String, String> stateMap, String variable, String value) {
+        return !shouldIgnoreVariableUpdate(variable, value, stateMap.get(variable));
+    }
+
+    /**
+     * AVTransportURI and AVTransportURIMetaData are also dispatched as CurrentURI and CurrentURIMetaData, so they
+     * are changed if either of the variables changes.
+     */
+    static boolean isChangedAVTransportVariable(Map<String, String> stateMap, String variable, String value) {
+        if (isChangedVariable(stateMap, variable, value)) {
+            return true;
+        } else if (variable.equals("AVTransportURI")) {
+            return isChangedVariable(stateMap, "CurrentURI", value);
+        } else if (variable.equals("AVTransportURIMetaData")) {
+            return isChangedVariable(stateMap, "CurrentURIMetaData", value);
+        }
+        return false;
+    }
+
+    private static boolean hasValueChanged(String value, String oldValue) {
         return oldValue != null ? !oldValue.equals(value) : value != null;
     }
 
@@ -799,7 +822,7 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
      * Similar to the AVTransport eventing, the Queue events its state variables
      * as sub values within a synthesized LastChange state variable.
      */
-    private boolean isQueueEvent(String variable) {
+    private static boolean isQueueEvent(String variable) {
         return "LastChange".equals(variable);
     }
 
@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.sonos.internal.handler;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.sonos.internal.SonosXMLParser;
+
+/**
+ * Tests the AVTransport variables of a LastChange event, which are dispatched by the {@link ZonePlayerHandler}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ZonePlayerHandlerTest {
+
+    private static final String QUEUE_URI = "x-rincon-queue:RINCON_000E5812BC1801400#0";
+    private static final String RADIO_URI = "x-sonosapi-stream:s17493?sid=254&flags=8224&sn=0";
+
+    private final Map<String, String> stateMap = new HashMap<>();
+
+    private String queueEvent;
+    private String nextTrackEvent;
+    private String radioEvent;
+
+    @Before
+    public void setUp() throws IOException {
+        queueEvent = loadEvent("lastchange-queue.xml");
+        nextTrackEvent = loadEvent("lastchange-queue-next-track.xml");
+        radioEvent = loadEvent("lastchange-radio.xml");
+    }
+
+    @Test
+    public void firstEventDispatchesAllVariables() {
+        Map<String, String> changes = dispatch(queueEvent);
+
+        assertThat(new ArrayList<>(changes.keySet()).subList(0, 6), is(Arrays.asList("InstanceID", "TransportState",
+                "CurrentPlayMode", "CurrentCrossfadeMode", "NumberOfTracks", "CurrentTrack")));
+        assertThat(changes.get("TransportState"), is("PLAYING"));
+        assertThat(changes.get("CurrentTrack"), is("12"));
+        assertThat(changes.get("AVTransportURI"), is(QUEUE_URI));
+        assertThat(changes.get("AVTransportURIMetaData"), is(""));
+        assertThat(changes.get("CurrentTrackMetaData"), containsString("Broken Box"));
+        assertThat(changes.get("PossiblePlaybackStorageMedia"), is("NONE, NETWORK"));
+    }
+
+    @Test
+    public void unchangedEventDispatchesNothing() {
+        dispatch(queueEvent);
+
+        assertTrue(dispatch(queueEvent).isEmpty());
+    }
+
+    @Test
+    public void nextTrackDispatchesTheTrackVariablesOnly() {
+        dispatch(queueEvent);
+        Map<String, String> changes = dispatch(nextTrackEvent);
+
+        assertThat(new ArrayList<>(changes.keySet()), is(Arrays.asList("CurrentTrack", "CurrentTrackURI",
+                "CurrentTrackDuration", "CurrentTrackMetaData", "NextTrackURI")));
+        assertThat(changes.get("CurrentTrack"), is("13"));
+        assertThat(changes.get("NextTrackURI"), is(""));
+        assertThat(changes.get("CurrentTrackMetaData"), containsString("Long Slow Goodbye"));
+    }
+
+    @Test
+    public void transportUriIsMirroredToCurrentUri() {
+        dispatch(queueEvent);
+        assertThat(stateMap.get("CurrentURI"), is(QUEUE_URI));
+        assertThat(stateMap.get("CurrentURIMetaData"), is(""));
+
+        Map<String, String> changes = dispatch(radioEvent);
+        assertThat(changes.get("AVTransportURI"), is(RADIO_URI));
+        assertThat(changes.get("AVTransportURIMetaData"), containsString("FIP"));
+        assertThat(changes.get("TransportState"), is("TRANSITIONING"));
+        assertThat(stateMap.get("CurrentURI"), is(RADIO_URI));
+        assertThat(stateMap.get("CurrentURIMetaData"), is(changes.get("AVTransportURIMetaData")));
+    }
+
+    @Test
+    public void transportUriIsDispatchedIfOnlyCurrentUriDiffers() {
+        dispatch(radioEvent);
+        // GetMediaInfo reports the media of another source, which the next event has to correct
+        stateMap.put("CurrentURI", QUEUE_URI);
+
+        Map<String, String> changes = dispatch(radioEvent);
+        assertThat(new ArrayList<>(changes.keySet()), is(Arrays.asList("AVTransportURI")));
+        assertThat(stateMap.get("CurrentURI"), is(RADIO_URI));
+
+        stateMap.put("CurrentURIMetaData", "");
+        changes = dispatch(radioEvent);
+        assertThat(new ArrayList<>(changes.keySet()), is(Arrays.asList("AVTransportURIMetaData")));
+    }
+
+    @Test
+    public void repeatedVariableIsDecidedByItsLastValue() {
+        String event = "<Event xmlns=\"urn:schemas-upnp-org:metadata-1-0/AVT/\"><InstanceID val=\"0\">"
+                + "<CurrentPlayMode val=\"NORMAL\"/><CurrentPlayMode val=\"SHUFFLE\"/></InstanceID></Event>";
+
+        assertThat(SonosXMLParser.getAVTransportFromXML(event).get("CurrentPlayMode"), is("SHUFFLE"));
+
+        stateMap.put("InstanceID", "0");
+        stateMap.put("CurrentPlayMode", "SHUFFLE");
+        assertTrue(dispatch(event).isEmpty());
+    }
+
+    @Test
+    public void queueEventIsAlwaysChanged() {
+        stateMap.put("LastChange", queueEvent);
+
+        assertTrue(ZonePlayerHandler.isChangedVariable(stateMap, "LastChange", queueEvent));
+        stateMap.put("TransportState", "PLAYING");
+        assertFalse(ZonePlayerHandler.isChangedVariable(stateMap, "TransportState", "PLAYING"));
+    }
+
+    /**
+     * Parses the event like {@link ZonePlayerHandler#onValueReceived(String, String, String)} and stores the
+     * dispatched variables.
+     */
+    private Map<String, String> dispatch(String event) {
+        Map<String, String> changes = SonosXMLParser.getAVTransportFromXML(event,
+                (variable, value) -> ZonePlayerHandler.isChangedAVTransportVariable(stateMap, variable, value));
+        for (Map.Entry<String, String> change : changes.entrySet()) {
+            stateMap.put(change.getKey(), change.getValue());
+            if (change.getKey().equals("AVTransportURI")) {
+                stateMap.put("CurrentURI", change.getValue());
+            } else if (change.getKey().equals("AVTransportURIMetaData")) {
+                stateMap.put("CurrentURIMetaData", change.getValue());
+            }
+        }
+        return changes;
+    }
+
+    private String loadEvent(String name) throws IOException {
+        InputStream stream = getClass().getResourceAsStream(name);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.joining());
+        }
+    }
+}
@@ -14,13 +14,21 @@ package org.openhab.binding.unifi.internal.api.cache;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
 /**
  * The {@link UniFiCache} is a specialised lookup table that stores objects using multiple keys in the form
  * <code>prefix:suffix</code>. Each implementation is responsible for providing a list of supported prefixes and must
@@ -29,12 +37,18 @@ import org.slf4j.LoggerFactory;
  * Objects are then retrieved simply by using the <code>suffix</code> key component and all combinations of
  * <code>prefix:suffix</code> are searched in the order of their priority.
  *
+ * A cache can be refreshed incrementally with {@link #update(JsonArray, Function)}: the JSON of every object is kept
+ * as a snapshot and only the objects whose JSON differs from the previous snapshot are deserialized and re-indexed.
+ * Unchanged objects keep their instance, so consumers can detect changes by identity.
+ *
  * @author Matthew Bowman - Initial contribution
  */
 public abstract class UniFiCache<T> {
 
     private static final String SEPARATOR = ":";
 
+    private static final String PROPERTY_ID = "_id";
+
     public static final String PREFIX_ALIAS = "alias";
 
     public static final String PREFIX_DESC = "desc";
@@ -55,6 +69,21 @@ public abstract class UniFiCache<T> {
 
     private String[] prefixes;
 
+    private Map<String, Snapshot<T>> snapshots = new HashMap<>();
+
+    private static class Snapshot<T> {
+
+        private final JsonObject json;
+
+        private final T value;
+
+        private Snapshot(JsonObject json, T value) {
+            this.json = json;
+            this.value = value;
+        }
+
+    }
+
     protected UniFiCache(String... prefixes) {
         this.prefixes = prefixes;
     }
@@ -84,8 +113,79 @@ public abstract class UniFiCache<T> {
         }
     }
 
-    public final void putAll(UniFiCache<T> cache) {
-        map.putAll(cache.map);
+    public final void remove(T value) {
+        for (String prefix : prefixes) {
+            String suffix = getSuffix(value, prefix);
+            if (StringUtils.isNotBlank(suffix)) {
+                // only remove keys that still map to this value, another value may share the same suffix
+                map.remove(prefix + SEPARATOR + suffix, value);
+            }
+        }
+    }
+
+    /**
+     * Updates this cache with the objects of a controller response. Objects are identified by their
+     * <code>_id</code> property. Only new and changed objects are deserialized, objects missing in the response are
+     * removed.
+     *
+     * @param jsonArray the objects returned by the controller
+     * @param deserializer deserializes a single changed object
+     * @return the number of new, changed and removed objects
+     */
+    public final int update(JsonArray jsonArray, Function<JsonElement, T> deserializer) {
+        int changes = 0;
+        boolean removed = false;
+        Set<String> ids = new HashSet<>();
+        for (JsonElement jsonElement : jsonArray) {
+            if (!jsonElement.isJsonObject() || !jsonElement.getAsJsonObject().has(PROPERTY_ID)) {
+                continue;
+            }
+            JsonObject json = jsonElement.getAsJsonObject();
+            String id = json.get(PROPERTY_ID).getAsString();
+            ids.add(id);
+            Snapshot<T> snapshot = snapshots.get(id);
+            if (snapshot != null && snapshot.json.equals(json)) {
+                continue;
+            }
+            T value = deserializer.apply(json);
+            if (value == null) {
+                continue;
+            }
+            if (snapshot != null) {
+                remove(snapshot.value);
+                removed = true;
+            }
+            snapshots.put(id, new Snapshot<>(json, value));
+            put(value);
+            changes++;
+        }
+        Iterator<Map.Entry<String, Snapshot<T>>> iterator = snapshots.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Snapshot<T>> entry = iterator.next();
+            if (!ids.contains(entry.getKey())) {
+                logger.trace("Cache REMOVE : '{}' -> {}", entry.getKey(), entry.getValue().value);
+                remove(entry.getValue().value);
+                iterator.remove();
+                removed = true;
+                changes++;
+            }
+        }
+        if (removed) {
+            // a removed object may have shared a key with another object, which takes the key over
+            for (Snapshot<T> snapshot : snapshots.values()) {
+                putIfAbsent(snapshot.value);
+            }
+        }
+        return changes;
+    }
+
+    private void putIfAbsent(T value) {
+        for (String prefix : prefixes) {
+            String suffix = getSuffix(value, prefix);
+            if (StringUtils.isNotBlank(suffix)) {
+                map.putIfAbsent(prefix + SEPARATOR + suffix, value);
+            }
+        }
     }
 
     public final Collection<T> values() {
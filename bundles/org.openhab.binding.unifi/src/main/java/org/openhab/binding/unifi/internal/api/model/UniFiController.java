@@ -34,6 +34,7 @@ import org.slf4j.LoggerFactory;
 import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
 
 /**
  * The {@link UniFiController} is the main communication point with an external instance of the Ubiquiti Networks
@@ -47,13 +48,13 @@ public class UniFiController {
 
     private final Logger logger = LoggerFactory.getLogger(UniFiController.class);
 
-    private UniFiSiteCache sitesCache = new UniFiSiteCache();
+    private final UniFiSiteCache sitesCache = new UniFiSiteCache();
 
-    private UniFiDeviceCache devicesCache = new UniFiDeviceCache();
+    private final UniFiDeviceCache devicesCache = new UniFiDeviceCache();
 
-    private UniFiClientCache clientsCache = new UniFiClientCache();
+    private final UniFiClientCache clientsCache = new UniFiClientCache();
 
-    private UniFiClientCache insightsCache = new UniFiClientCache();
+    private final UniFiClientCache insightsCache = new UniFiClientCache();
 
     private final HttpClient httpClient;
 
@@ -114,10 +115,11 @@ public class UniFiController {
 
     public void refresh() throws UniFiException {
         synchronized (this) {
-            sitesCache = getSites();
-            devicesCache = getDevices();
-            clientsCache = getClients();
-            insightsCache = getInsights();
+            // only new and changed entities are deserialized, unchanged entities keep their instances
+            refreshSites();
+            refreshDevices();
+            refreshClients();
+            refreshInsights();
         }
     }
 
@@ -206,88 +208,53 @@ public class UniFiController {
         return result;
     }
 
-    private UniFiSiteCache getSites() throws UniFiException {
-        UniFiControllerRequest<UniFiSite[]> req = newRequest(UniFiSite[].class);
+    private void refreshSites() throws UniFiException {
+        UniFiControllerRequest<JsonArray> req = newRequest(JsonArray.class);
         req.setPath("/api/self/sites");
-        UniFiSite[] sites = executeRequest(req);
-        UniFiSiteCache cache = new UniFiSiteCache();
+        JsonArray sites = executeRequest(req);
         if (sites != null) {
-            logger.debug("Found {} UniFi Site(s): {}", sites.length, lazyFormatAsList(sites));
-            for (UniFiSite site : sites) {
-                cache.put(site);
-            }
+            int changes = sitesCache.update(sites, json -> gson.fromJson(json, UniFiSite.class));
+            logger.debug("Found {} UniFi Site(s), {} changed: {}", sites.size(), changes,
+                    lazyFormatAsList(sitesCache.values().toArray()));
         }
-        return cache;
     }
 
-    private UniFiDeviceCache getDevices() throws UniFiException {
-        UniFiDeviceCache cache = new UniFiDeviceCache();
-        Collection<UniFiSite> sites = sitesCache.values();
-        for (UniFiSite site : sites) {
-            cache.putAll(getDevices(site));
-        }
-        return cache;
+    private void refreshDevices() throws UniFiException {
+        JsonArray devices = getSiteData("/stat/device", null);
+        int changes = devicesCache.update(devices, json -> gson.fromJson(json, UniFiDevice.class));
+        logger.debug("Found {} UniFi Device(s), {} changed", devices.size(), changes);
     }
 
-    private UniFiDeviceCache getDevices(UniFiSite site) throws UniFiException {
-        UniFiControllerRequest<UniFiDevice[]> req = newRequest(UniFiDevice[].class);
-        req.setPath("/api/s/" + site.getName() + "/stat/device");
-        UniFiDevice[] devices = executeRequest(req);
-        UniFiDeviceCache cache = new UniFiDeviceCache();
-        if (devices != null) {
-            logger.debug("Found {} UniFi Device(s): {}", devices.length, lazyFormatAsList(devices));
-            for (UniFiDevice device : devices) {
-                cache.put(device);
-            }
-        }
-        return cache;
+    private void refreshClients() throws UniFiException {
+        JsonArray clients = getSiteData("/stat/sta", null);
+        int changes = clientsCache.update(clients, json -> gson.fromJson(json, UniFiClient.class));
+        logger.debug("Found {} UniFi Client(s), {} changed", clients.size(), changes);
     }
 
-    private UniFiClientCache getClients() throws UniFiException {
-        UniFiClientCache cache = new UniFiClientCache();
-        Collection<UniFiSite> sites = sitesCache.values();
-        for (UniFiSite site : sites) {
-            cache.putAll(getClients(site));
-        }
-        return cache;
+    private void refreshInsights() throws UniFiException {
+        JsonArray clients = getSiteData("/stat/alluser", 168); // scurb: Changed to 7 days.
+        int changes = insightsCache.update(clients, json -> gson.fromJson(json, UniFiClient.class));
+        logger.debug("Found {} UniFi Insights(s), {} changed", clients.size(), changes);
     }
 
-    private UniFiClientCache getClients(UniFiSite site) throws UniFiException {
-        UniFiControllerRequest<UniFiClient[]> req = newRequest(UniFiClient[].class);
-        req.setPath("/api/s/" + site.getName() + "/stat/sta");
-        UniFiClient[] clients = executeRequest(req);
-        UniFiClientCache cache = new UniFiClientCache();
-        if (clients != null) {
-            logger.debug("Found {} UniFi Client(s): {}", clients.length, lazyFormatAsList(clients));
-            for (UniFiClient client : clients) {
-                cache.put(client);
-            }
-        }
-        return cache;
-    }
-
-    private UniFiClientCache getInsights() throws UniFiException {
-        UniFiClientCache cache = new UniFiClientCache();
+    /**
+     * Collects the raw data of all sites for the given site path, e.g. <code>/stat/sta</code>.
+     */
+    private JsonArray getSiteData(String path, @Nullable Integer within) throws UniFiException {
+        JsonArray data = new JsonArray();
         Collection<UniFiSite> sites = sitesCache.values();
         for (UniFiSite site : sites) {
-            cache.putAll(getInsights(site));
-        }
-        return cache;
-    }
-
-    private UniFiClientCache getInsights(UniFiSite site) throws UniFiException {
-        UniFiControllerRequest<UniFiClient[]> req = newRequest(UniFiClient[].class);
-        req.setPath("/api/s/" + site.getName() + "/stat/alluser");
-        req.setQueryParameter("within", 168); // scurb: Changed to 7 days.
-        UniFiClient[] clients = executeRequest(req);
-        UniFiClientCache cache = new UniFiClientCache();
-        if (clients != null) {
-            logger.debug("Found {} UniFi Insights(s): {}", clients.length, lazyFormatAsList(clients));
-            for (UniFiClient client : clients) {
-                cache.put(client);
+            UniFiControllerRequest<JsonArray> req = newRequest(JsonArray.class);
+            req.setPath("/api/s/" + site.getName() + path);
+            if (within != null) {
+                req.setQueryParameter("within", within);
+            }
+            JsonArray siteData = executeRequest(req);
+            if (siteData != null) {
+                data.addAll(siteData);
             }
         }
-        return cache;
+        return data;
     }
 
     private static Object lazyFormatAsList(Object[] arr) {
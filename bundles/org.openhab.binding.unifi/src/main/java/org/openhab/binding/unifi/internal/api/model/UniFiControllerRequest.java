@@ -49,6 +49,7 @@ import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
@@ -118,7 +119,9 @@ public class UniFiControllerRequest<T> {
         if (!Void.class.equals(resultType)) {
             JsonObject jsonObject = new JsonParser().parse(json).getAsJsonObject();
             if (jsonObject.has(PROPERTY_DATA) && jsonObject.get(PROPERTY_DATA).isJsonArray()) {
-                result = gson.fromJson(jsonObject.getAsJsonArray(PROPERTY_DATA), resultType);
+                JsonArray data = jsonObject.getAsJsonArray(PROPERTY_DATA);
+                // the raw data is returned as is, e.g. for incremental cache updates
+                result = resultType.isInstance(data) ? resultType.cast(data) : gson.fromJson(data, resultType);
             }
         }
         return result;
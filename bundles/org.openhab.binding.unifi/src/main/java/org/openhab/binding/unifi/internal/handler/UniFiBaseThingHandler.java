@@ -112,7 +112,7 @@ public abstract class UniFiBaseThingHandler<E, C> extends BaseThingHandler {
             UniFiController controller = getController();
             if (controller != null) {
                 E entity = getEntity(controller);
-                if (entity != null) {
+                if (entity != null && isRefreshRequired(entity)) {
                     for (Channel channel : getThing().getChannels()) {
                         ChannelUID channelUID = channel.getUID();
                         refreshChannel(entity, channelUID);
@@ -124,6 +124,17 @@ public abstract class UniFiBaseThingHandler<E, C> extends BaseThingHandler {
 
     protected abstract void initialize(@NonNull C config);
 
+    /**
+     * Determines if the channels have to be refreshed for the current state of the entity. The controller keeps the
+     * instances of unchanged entities between refreshes, so implementations may skip unchanged entities.
+     *
+     * @param entity the current entity
+     * @return true if the channels have to be refreshed
+     */
+    protected boolean isRefreshRequired(E entity) {
+        return true;
+    }
+
     protected abstract @Nullable E getEntity(UniFiController controller);
 
     protected abstract void refreshChannel(E entity, ChannelUID channelUID);
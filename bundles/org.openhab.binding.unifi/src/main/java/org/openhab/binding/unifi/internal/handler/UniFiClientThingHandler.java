@@ -61,6 +61,14 @@ public class UniFiClientThingHandler extends UniFiBaseThingHandler<UniFiClient,
 
     private UniFiClientThingConfig config = new UniFiClientThingConfig();
 
+    private @Nullable UniFiClient lastClient;
+
+    private @Nullable UniFiDevice lastDevice;
+
+    private @Nullable UniFiSite lastSite;
+
+    private boolean lastClientHome;
+
     public UniFiClientThingHandler(Thing thing) {
         super(thing);
     }
@@ -76,6 +84,7 @@ public class UniFiClientThingHandler extends UniFiBaseThingHandler<UniFiClient,
                 return;
             }
             this.config = config;
+            this.lastClient = null;
             updateStatus(ONLINE);
         }
     }
@@ -98,11 +107,27 @@ public class UniFiClientThingHandler extends UniFiBaseThingHandler<UniFiClient,
         UniFiClient client = controller.getClient(config.getClientID());
         // mgb: short circuit
         if (client == null || !belongsToSite(client, config.getSite())) {
+            lastClient = null;
             return null;
         }
         return client;
     }
 
+    @Override
+    protected synchronized boolean isRefreshRequired(UniFiClient client) {
+        // the controller only replaces the instances of changed entities, so they are compared by identity
+        boolean clientHome = isClientHome(client);
+        UniFiDevice device = client.getDevice();
+        UniFiSite site = (device == null ? null : device.getSite());
+        boolean required = client != lastClient || device != lastDevice || site != lastSite
+                || clientHome != lastClientHome;
+        lastClient = client;
+        lastDevice = device;
+        lastSite = site;
+        lastClientHome = clientHome;
+        return required;
+    }
+
     private State getDefaultState(String channelID, boolean clientHome) {
         State state = UnDefType.NULL;
         switch (channelID) {
@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.unifi.internal.api.cache;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Tests cases for {@link UniFiCache#update(JsonArray, Function)}
+ *
+ * @author agent - Initial contribution
+ */
+public class UniFiCacheTest {
+
+    private static final Gson GSON = new Gson();
+
+    private final TestCache cache = new TestCache();
+
+    private final AtomicInteger deserialized = new AtomicInteger();
+
+    private final Function<JsonElement, TestObject> deserializer = json -> {
+        deserialized.incrementAndGet();
+        return GSON.fromJson(json, TestObject.class);
+    };
+
+    private static class TestObject {
+
+        @SerializedName("_id")
+        private String id;
+
+        private String mac;
+
+        private String ip;
+
+        private String hostname;
+
+    }
+
+    private static class TestCache extends UniFiCache<TestObject> {
+
+        private TestCache() {
+            super(PREFIX_MAC, PREFIX_IP, PREFIX_HOSTNAME);
+        }
+
+        @Override
+        protected String getSuffix(TestObject value, String prefix) {
+            switch (prefix) {
+                case PREFIX_MAC:
+                    return value.mac;
+                case PREFIX_IP:
+                    return value.ip;
+                case PREFIX_HOSTNAME:
+                    return value.hostname;
+            }
+            return null;
+        }
+
+    }
+
+    @Test
+    public void newObjectsAreAdded() {
+        int changes = cache.update(array(object("1", "aa", "10.0.0.1", "laptop"), object("2", "bb", "10.0.0.2", "")),
+                deserializer);
+
+        assertThat(changes, is(2));
+        assertThat(cache.get("aa").id, is("1"));
+        assertThat(cache.get("10.0.0.1").id, is("1"));
+        assertThat(cache.get("laptop").id, is("1"));
+        assertThat(cache.get("bb").id, is("2"));
+        assertNull(cache.get(""));
+        assertThat(cache.values().size(), is(2));
+    }
+
+    @Test
+    public void unchangedObjectsAreKept() {
+        cache.update(array(object("1", "aa", "10.0.0.1", "laptop")), deserializer);
+        TestObject object = cache.get("aa");
+
+        int changes = cache.update(array(object("1", "aa", "10.0.0.1", "laptop")), deserializer);
+
+        assertThat(changes, is(0));
+        assertThat(deserialized.get(), is(1));
+        assertThat(cache.get("aa"), is(sameInstance(object)));
+    }
+
+    @Test
+    public void changedObjectsAreReindexed() {
+        cache.update(array(object("1", "aa", "10.0.0.1", "laptop")), deserializer);
+        TestObject object = cache.get("aa");
+
+        int changes = cache.update(array(object("1", "aa", "10.0.0.9", "laptop")), deserializer);
+
+        assertThat(changes, is(1));
+        assertThat(cache.get("aa"), is(not(sameInstance(object))));
+        assertThat(cache.get("10.0.0.9").ip, is("10.0.0.9"));
+        assertNull(cache.get("10.0.0.1"));
+        assertThat(cache.values().size(), is(1));
+    }
+
+    @Test
+    public void missingObjectsAreRemoved() {
+        cache.update(array(object("1", "aa", "10.0.0.1", "laptop"), object("2", "bb", "10.0.0.2", "phone")),
+                deserializer);
+
+        int changes = cache.update(array(object("2", "bb", "10.0.0.2", "phone")), deserializer);
+
+        assertThat(changes, is(1));
+        assertNull(cache.get("aa"));
+        assertNull(cache.get("10.0.0.1"));
+        assertNull(cache.get("laptop"));
+        assertThat(cache.get("bb").id, is("2"));
+        assertThat(cache.values().size(), is(1));
+    }
+
+    @Test
+    public void sharedKeyIsTakenOverWhenAnObjectIsRemoved() {
+        // the same hostname and a reused IP address, e.g. a device that is connected by cable and by WiFi
+        cache.update(array(object("1", "aa", "10.0.0.1", "laptop"), object("2", "bb", "10.0.0.1", "laptop")),
+                deserializer);
+        assertThat(cache.get("laptop").id, is("2"));
+
+        cache.update(array(object("1", "aa", "10.0.0.1", "laptop")), deserializer);
+
+        assertThat(cache.get("laptop").id, is("1"));
+        assertThat(cache.get("10.0.0.1").id, is("1"));
+        assertNull(cache.get("bb"));
+        assertThat(cache.values().size(), is(1));
+    }
+
+    @Test
+    public void sharedKeyIsTakenOverWhenAnObjectChanges() {
+        cache.update(array(object("1", "aa", "10.0.0.1", "laptop"), object("2", "bb", "10.0.0.2", "laptop")),
+                deserializer);
+        assertThat(cache.get("laptop").id, is("2"));
+
+        int changes = cache.update(
+                array(object("1", "aa", "10.0.0.1", "laptop"), object("2", "bb", "10.0.0.2", "tablet")),
+                deserializer);
+
+        assertThat(changes, is(1));
+        assertThat(cache.get("laptop").id, is("1"));
+        assertThat(cache.get("tablet").id, is("2"));
+    }
+
+    @Test
+    public void objectsWithoutIdAreIgnored() {
+        JsonArray array = array(object("1", "aa", "10.0.0.1", "laptop"));
+        array.add(new JsonParser().parse("{\"mac\":\"cc\"}"));
+        array.add(new JsonParser().parse("\"text\""));
+
+        assertThat(cache.update(array, deserializer), is(1));
+        assertNull(cache.get("cc"));
+    }
+
+    private static JsonArray array(String... objects) {
+        return new JsonParser().parse("[" + String.join(",", objects) + "]").getAsJsonArray();
+    }
+
+    private static String object(String id, String mac, String ip, String hostname) {
+        return String.format("{\"_id\":\"%s\",\"mac\":\"%s\",\"ip\":\"%s\",\"hostname\":\"%s\"}", id, mac, ip,
+                hostname);
+    }
+}